@@ -1,14 +1,21 @@
 package com.offlix.distributed_graph_engine;
 
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsReport;
 import com.offlix.distributed_graph_engine.domain.GraphType;
 import com.offlix.distributed_graph_engine.domain.graph.Graph;
 import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.codec.GraphCodec;
+import com.offlix.distributed_graph_engine.graph.core.GraphLock;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
 import com.offlix.distributed_graph_engine.service.GraphService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 
@@ -17,6 +24,12 @@ public class GraphController {
 
     private static final Logger log = LoggerFactory.getLogger(GraphController.class);
 
+    private final GraphManager<String> applicationGraph;
+
+    public GraphController(GraphManager<String> applicationGraph){
+        this.applicationGraph = applicationGraph;
+    }
+
     @GetMapping
     public ResponseEntity<?> graph(){
         GraphService<String> graphService = new GraphService<>();
@@ -49,6 +62,29 @@ public class GraphController {
         return ResponseEntity.ok(graph.getProperties());
     }
 
+    /**
+     * Lock-free stats of the application's graph, safe to poll from monitoring.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<GraphStatsReport> stats(){
+        return ResponseEntity.ok(applicationGraph.stats());
+    }
+
+    @GetMapping("/stats/locks")
+    public ResponseEntity<GraphLock.LockMetrics> lockMetrics(){
+        return ResponseEntity.ok(applicationGraph.lockMetrics());
+    }
+
+    /**
+     * The application's graph in the compact {@link GraphCodec} format, streamed as it is encoded.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> export(){
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"graph.bin\"")
+                .body(out -> new GraphCodec<>(VertexKeyCodec.STRING).encode(applicationGraph, out));
+    }
+
     private static GraphManager<String> getStringGraphManager() {
         GraphManager<String> graphManager = new GraphManager<>(GraphType.UNDIRECTED);
         // 1. Long Distance Hub
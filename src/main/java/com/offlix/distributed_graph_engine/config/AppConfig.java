@@ -4,6 +4,9 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.json.JsonMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -17,4 +20,12 @@ public class AppConfig {
                 .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
                 .build();
     }
+
+    /**
+     * The graph the application serves for its whole lifetime; closed with the context.
+     */
+    @Bean(destroyMethod = "close")
+    GraphManager<String> graphManager(@Value("${graph.type:UNDIRECTED}") GraphType type){
+        return new GraphManager<>(type);
+    }
 }
@@ -0,0 +1,107 @@
+package com.offlix.distributed_graph_engine.domain.GraphStats;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h3>Incrementally maintained out-degree histogram</h3>
+ * <ul>
+ * <li><b>Low degrees</b> (below {@value #DENSE_DEGREES}) are counted in one {@link LongAdder} per degree.
+ * Nearly every edge write lands here, and adders spread concurrent increments over cells instead of
+ * retrying a CAS on one hot word.</li>
+ * <li><b>High degrees</b> go to a {@link ConcurrentSkipListMap} keyed by degree. Only hubs reach it, an entry
+ * is dropped when its count returns to zero, and its last key is the maximum degree, with no scan.</li>
+ * </ul>
+ * Every update is a pair of counter operations and never blocks. Reads are lock-free too, so under
+ * concurrent writers a read can catch a vertex between its old and new degree.
+ */
+public class DegreeDistribution implements Serializable {
+    private static final long serialVersionUID = 1L;
+    static final int DENSE_DEGREES = 64;
+
+    private final LongAdder[] dense = new LongAdder[DENSE_DEGREES];
+    private final ConcurrentSkipListMap<Integer, Long> sparse = new ConcurrentSkipListMap<>();
+
+    public DegreeDistribution() {
+        for (int degree = 0; degree < DENSE_DEGREES; degree++) {
+            dense[degree] = new LongAdder();
+        }
+    }
+
+    public void vertexAdded(int degree) {
+        add(degree, 1);
+    }
+
+    public void vertexRemoved(int degree) {
+        add(degree, -1);
+    }
+
+    public void degreeChanged(int from, int to) {
+        if (from == to) return;
+        add(from, -1);
+        add(to, 1);
+    }
+
+    public int maxDegree() {
+        Map.Entry<Integer, Long> highest = sparse.lastEntry();
+        if (highest != null) return highest.getKey();
+        for (int degree = DENSE_DEGREES - 1; degree > 0; degree--) {
+            if (dense[degree].sum() > 0) return degree;
+        }
+        return 0;
+    }
+
+    /**
+     * Vertices per power-of-two degree range: <code>[0,0], [1,1], [2,3], [4,7], ...</code>. Empty ranges are left out.
+     */
+    public List<DegreeBucket> buckets() {
+        long[] counts = new long[Integer.SIZE + 1];
+        for (int degree = 0; degree < DENSE_DEGREES; degree++) {
+            counts[bucketOf(degree)] += dense[degree].sum();
+        }
+        sparse.forEach((degree, count) -> counts[bucketOf(degree)] += count);
+
+        List<DegreeBucket> buckets = new ArrayList<>();
+        for (int bucket = 0; bucket < counts.length; bucket++) {
+            if (counts[bucket] <= 0) continue;
+            int min = bucket == 0 ? 0 : 1 << (bucket - 1);
+            int max = bucket == 0 ? 0 : (int) Math.min(Integer.MAX_VALUE, (1L << bucket) - 1);
+            buckets.add(new DegreeBucket(min, max, counts[bucket]));
+        }
+        return buckets;
+    }
+
+    /**
+     * @return a frozen copy, for {@link GraphStats#copy()}
+     */
+    public DegreeDistribution copy() {
+        DegreeDistribution copy = new DegreeDistribution();
+        for (int degree = 0; degree < DENSE_DEGREES; degree++) {
+            copy.dense[degree].add(dense[degree].sum());
+        }
+        copy.sparse.putAll(sparse);
+        return copy;
+    }
+
+    private void add(int degree, long delta) {
+        if (degree < DENSE_DEGREES) {
+            dense[degree].add(delta);
+        } else {
+            sparse.compute(degree, (key, count) -> {
+                long updated = (count == null ? 0 : count) + delta;
+                return updated == 0 ? null : updated;
+            });
+        }
+    }
+
+    private static int bucketOf(int degree) {
+        return Integer.SIZE - Integer.numberOfLeadingZeros(degree);
+    }
+
+    public record DegreeBucket(int minDegree, int maxDegree, long vertices) implements Serializable {
+    }
+}
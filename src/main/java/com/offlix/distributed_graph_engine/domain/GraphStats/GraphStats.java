@@ -1,16 +1,36 @@
 package com.offlix.distributed_graph_engine.domain.GraphStats;
 
+import java.util.List;
+
 public interface GraphStats {
     public void incrementVertexCount();
+    public void incrementVertexCount(int count);
 
     public void decrementVertexCount();
 
     public void incrementEdgeCount();
+    public void incrementEdgeCount(int count);
 
     public void decrementEdgeCount();
     public void decrementEdgeCount(int count);
 
-    public void updateDensity();
+    /**
+     * Out-degree bookkeeping: a vertex's degree moved from <code>from</code> to <code>to</code>.
+     */
+    public void recordDegreeChange(int from, int to);
+    public void recordVertexAdded(int degree);
+    public void recordVertexRemoved(int degree);
+
+    public int getVertexCount();
+    public int getEdgeCount();
+
+    /**
+     * Computed from the current counts on every call; nothing is recomputed on writes.
+     */
+    public double getDensity();
+
+    public int getMaxDegree();
+    public List<DegreeDistribution.DegreeBucket> getDegreeHistogram();
 
     public GraphStats copy();
 
@@ -1,41 +1,60 @@
 package com.offlix.distributed_graph_engine.domain.GraphStats;
 
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
-
 import java.io.Serializable;
-
-@Data
-@AllArgsConstructor
-@NoArgsConstructor
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention-free counters: every mutator is a {@link LongAdder} or {@link DegreeDistribution} update,
+ * so concurrent writers on different stripes never meet on a monitor here. Readers sum the adders
+ * without locking; a read racing a write sees that write either completely or not at all per counter.
+ */
 public class GraphStatsImpl implements GraphStats, Serializable {
     private static final long serialVersionUID=1L;
-    private volatile int vertexCount=0;
-    private volatile int edgeCount=0;
+    private final LongAdder vertexCount = new LongAdder();
+    private final LongAdder edgeCount = new LongAdder();
+    private final DegreeDistribution degrees;
 
-    private volatile double density=0.0;
+    public GraphStatsImpl(){
+        this(0, 0);
+    }
+
+    public GraphStatsImpl(int vertexCount, int edgeCount){
+        this(vertexCount, edgeCount, new DegreeDistribution());
+    }
 
+    private GraphStatsImpl(long vertexCount, long edgeCount, DegreeDistribution degrees){
+        this.vertexCount.add(vertexCount);
+        this.edgeCount.add(edgeCount);
+        this.degrees = degrees;
+    }
+
+    @Override
+    public void incrementVertexCount() {
+        vertexCount.increment();
+    }
 
     @Override
-    public synchronized void incrementVertexCount() {
-        this.vertexCount++;
-        updateDensity();
+    public void incrementVertexCount(int count) {
+        if(count<=0) return;
+        vertexCount.add(count);
     }
 
     @Override
     public void decrementVertexCount() {
-        this.vertexCount = Math.max(0, vertexCount-1);
-        updateDensity();
+        vertexCount.decrement();
     }
 
     @Override
     public void incrementEdgeCount() {
-        this.edgeCount++;
-        updateDensity();
+        edgeCount.increment();
     }
 
-
+    @Override
+    public void incrementEdgeCount(int count) {
+        if(count<=0) return;
+        edgeCount.add(count);
+    }
 
     @Override
     public void decrementEdgeCount() {
@@ -44,30 +63,61 @@ public class GraphStatsImpl implements GraphStats, Serializable {
 
     @Override
     public void decrementEdgeCount(int count) {
-        if(count<0) return;
-        this.edgeCount = Math.max(0, vertexCount-count);
-        updateDensity();
+        if(count<=0) return;
+        edgeCount.add(-count);
     }
 
+    @Override
+    public void recordDegreeChange(int from, int to) {
+        degrees.degreeChanged(from, to);
+    }
 
     @Override
-    public void updateDensity() {
-        if(vertexCount<=1){
-            density=0;
-        }else {
-            long maxEdges = (long)vertexCount * (vertexCount-1);
-            density = (double) edgeCount/maxEdges;
-        }
+    public void recordVertexAdded(int degree) {
+        degrees.vertexAdded(degree);
+    }
 
+    @Override
+    public void recordVertexRemoved(int degree) {
+        degrees.vertexRemoved(degree);
+    }
+
+    @Override
+    public int getVertexCount() {
+        return (int) Math.max(0, vertexCount.sum());
+    }
+
+    @Override
+    public int getEdgeCount() {
+        return (int) Math.max(0, edgeCount.sum());
+    }
+
+    @Override
+    public double getDensity() {
+        long vertices = getVertexCount();
+        if(vertices<=1) return 0.0;
+        long maxEdges = vertices * (vertices-1);
+        return (double) getEdgeCount()/maxEdges;
+    }
+
+    @Override
+    public int getMaxDegree() {
+        return degrees.maxDegree();
+    }
+
+    @Override
+    public List<DegreeDistribution.DegreeBucket> getDegreeHistogram() {
+        return degrees.buckets();
     }
 
     @Override
     public GraphStats copy() {
-        GraphStatsImpl copy = new GraphStatsImpl();
-        copy.edgeCount = this.edgeCount;
-        copy.vertexCount = this.vertexCount;
-        copy.density = this.density;
-        return copy;
+        return new GraphStatsImpl(vertexCount.sum(), edgeCount.sum(), degrees.copy());
     }
 
+    @Override
+    public String toString() {
+        return "GraphStatsImpl(vertexCount=" + getVertexCount() + ", edgeCount=" + getEdgeCount()
+                + ", density=" + getDensity() + ", maxDegree=" + getMaxDegree() + ")";
+    }
 }
@@ -0,0 +1,24 @@
+package com.offlix.distributed_graph_engine.domain.GraphStats;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Point-in-time view of a graph's statistics for monitoring. Assembled from counters without taking the
+ * graph lock, so fields read while writers run may be a few updates apart from each other.
+ * @param adjacencyBytes self-reported size of the out-edge store
+ * @param inAdjacencyBytes self-reported size of the in-edge index; <code>0</code> for undirected graphs, which share the out-edge rows
+ */
+public record GraphStatsReport(GraphType type,
+                               int version,
+                               Instant updatedAt,
+                               int vertexCount,
+                               int edgeCount,
+                               double density,
+                               int maxDegree,
+                               List<DegreeDistribution.DegreeBucket> degreeHistogram,
+                               long adjacencyBytes,
+                               long inAdjacencyBytes) {
+}
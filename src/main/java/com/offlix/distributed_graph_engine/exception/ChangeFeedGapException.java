@@ -0,0 +1,21 @@
+package com.offlix.distributed_graph_engine.exception;
+
+/**
+ * A change feed subscriber cannot be given a gap-free sequence of changes: it fell too far behind, or asked to
+ * resume from a version the feed no longer holds. It should rebuild from a snapshot and subscribe again.
+ */
+public class ChangeFeedGapException extends RuntimeException{
+    private final int lastDeliveredVersion;
+
+    public ChangeFeedGapException(String message, int lastDeliveredVersion){
+        super(message);
+        this.lastDeliveredVersion = lastDeliveredVersion;
+    }
+
+    /**
+     * Every change up to and including this version reached the subscriber.
+     */
+    public int getLastDeliveredVersion(){
+        return lastDeliveredVersion;
+    }
+}
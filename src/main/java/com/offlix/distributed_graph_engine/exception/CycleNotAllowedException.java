@@ -0,0 +1,10 @@
+package com.offlix.distributed_graph_engine.exception;
+
+/**
+ * The graph is in DAG mode and the edge would close a cycle. Nothing was inserted.
+ */
+public class CycleNotAllowedException extends RuntimeException{
+    public CycleNotAllowedException(Object source, Object destination){
+        super(String.format("Edge %s to %s would close a cycle", source, destination));
+    }
+}
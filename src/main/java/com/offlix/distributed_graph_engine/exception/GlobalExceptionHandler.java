@@ -20,6 +20,12 @@ public class GlobalExceptionHandler {
         return ResponseEntity.badRequest().body(response);
     }
 
+    @ExceptionHandler(CycleNotAllowedException.class)
+    public ResponseEntity<ErrorResponse> handleCycleNotAllowedException(CycleNotAllowedException ex){
+        ErrorResponse response = ErrorResponse.of("CYCLE_NOT_ALLOWED", ex.getMessage());
+        return ResponseEntity.badRequest().body(response);
+    }
+
     @ExceptionHandler(NoSuchMethodExistForGraphException.class)
     public ResponseEntity<ErrorResponse> handleNoSuchMethodExistForGraphException(NoSuchMethodExistForGraphException ex){
         ErrorResponse response = ErrorResponse.of("METHOD_NOT_SUPPORTED", ex.getMessage());
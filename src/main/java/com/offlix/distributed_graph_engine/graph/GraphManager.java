@@ -1,22 +1,50 @@
 package com.offlix.distributed_graph_engine.graph;
 
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsReport;
 import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadata;
+import com.offlix.distributed_graph_engine.exception.CycleNotAllowedException;
+import com.offlix.distributed_graph_engine.exception.NoSuchMethodExistForGraphException;
+import com.offlix.distributed_graph_engine.graph.core.Connectivity;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 import com.offlix.distributed_graph_engine.graph.core.GraphContext;
 import com.offlix.distributed_graph_engine.graph.core.GraphLock;
+import com.offlix.distributed_graph_engine.graph.core.GraphMutationListener;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.TopologicalOrder;
+import com.offlix.distributed_graph_engine.graph.core.storage.MappedGraphStorage;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import com.offlix.distributed_graph_engine.graph.operations.BatchResult;
 import com.offlix.distributed_graph_engine.graph.operations.CycleDetection;
+import com.offlix.distributed_graph_engine.graph.operations.DistanceOracle;
 import com.offlix.distributed_graph_engine.graph.operations.EdgeOperations;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import com.offlix.distributed_graph_engine.graph.operations.PathEnumerations;
+import com.offlix.distributed_graph_engine.graph.operations.PathOptions;
+import com.offlix.distributed_graph_engine.graph.operations.RouteIndex;
 import com.offlix.distributed_graph_engine.graph.operations.SccFinder;
+import com.offlix.distributed_graph_engine.graph.operations.ShortestPath;
 import com.offlix.distributed_graph_engine.graph.operations.VertexOperations;
+import com.offlix.distributed_graph_engine.graph.operations.cycle.CycleOptions;
+import com.offlix.distributed_graph_engine.graph.operations.scc.Components;
+import com.offlix.distributed_graph_engine.graph.operations.scc.SccOptions;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.ContractionOptions;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceOracleOptions;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.Heuristic;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.ShortestPathTree;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.WeightedPath;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
 
-public class GraphManager<T> {
+public class GraphManager<T> implements AutoCloseable {
     private static final Logger log = LoggerFactory.getLogger(GraphManager.class);
+    static final int BULK_BATCH_SIZE = 65_536;
     private final GraphContext<T> context;
     private final GraphLock lock = new GraphLock();
     private final VertexOperations<T> vertexOps;
@@ -24,71 +52,545 @@ public class GraphManager<T> {
     private final EdgeOperations<T> edgeOps;
     private final CycleDetection<T> cycleOps;
     private final SccFinder<T> sccFinder;
+    private final PathEnumerations<T> pathOps;
+    private final ShortestPath<T> shortestPathOps;
+    private volatile RouteIndex<T> routeIndex;
+    private volatile DistanceOracle<T> distanceOracle;
 
 
     public GraphManager(GraphType type){
-        this.context = (GraphContext<T>) GraphContext.builder()
+        this((GraphContext<T>) GraphContext.builder()
                 .type(type)
-                .build();
+                .build());
+    }
+
+    private GraphManager(GraphContext<T> context){
+        this.context = context;
         this.vertexOps = new VertexOperations<>(context);
         this.edgeOps = new EdgeOperations<>(context, vertexOps);
         this.cycleOps = new CycleDetection<>(context);
-        this.sccFinder = new SccFinder<>(context);
+        this.sccFinder = new SccFinder<>();
+        this.pathOps = new PathEnumerations<>();
+        this.shortestPathOps = new ShortestPath<>();
     }
     public GraphManager(){
         this(GraphType.DIRECTED);
     }
 
+    /**
+     * Opens (or creates) a graph whose adjacency lives in memory-mapped files under <code>directory</code>.
+     * Re-opening the same directory after a restart maps the existing files instead of rebuilding the graph.
+     */
+    public static <T> GraphManager<T> openMapped(Path directory, GraphType type, VertexKeyCodec<T> codec) throws IOException {
+        return new GraphManager<>(MappedGraphStorage.open(directory, type, codec));
+    }
+
+    /**
+     * A directed graph in DAG mode: an edge that would close a cycle is refused with a
+     * {@link CycleNotAllowedException}. The check searches only the part of the topological order the edge
+     * disturbs; see {@link TopologicalOrder}.
+     */
+    public static <T> GraphManager<T> acyclic(){
+        return new GraphManager<>(GraphContext.<T>builder()
+                .type(GraphType.DIRECTED)
+                .topologicalOrder(new TopologicalOrder())
+                .build());
+    }
+
 
     public void addVertex(T vertex){
-        lock.writeLock(()-> vertexOps.addVertexIfAbsent(vertex));
+        committed(()-> lock.writeLock(vertex, ()-> vertexOps.addVertexIfAbsent(vertex)));
     }
 
+    /**
+     * Takes every stripe: the vertex's in-edges can sit in any row.
+     */
     public void removeVertex(T vertex){
-        lock.writeLock(()-> vertexOps.removeVertexAndEdges(vertex));
+        committed(()-> lock.writeLock(()-> vertexOps.removeVertexAndEdges(vertex)));
     }
     public void addEdgeBetween(T source, T destination){
-        lock.writeLock(()-> addEdgeBetween(source, destination, 1.0));
+        // GraphLock is not reentrant, so this must not go through the weighted overload's lock
+        committed(()-> edgeInsertLock(source, destination, ()-> edgeOps.addWeightEdge(source, destination, 1.0)));
     }
 
+    /**
+     * Locks only the stripes owning the two endpoints, so edges between unrelated vertices are added in parallel.
+     */
     public void addEdgeBetween(T source, T destination, double weight){
-        lock.writeLock(()->edgeOps.addWeightEdge(source, destination, weight));;
+        committed(()-> edgeInsertLock(source, destination, ()-> edgeOps.addWeightEdge(source, destination, weight)));
+    }
+
+    /**
+     * In DAG mode an insert may search and reorder vertices anywhere between its endpoints, so it takes every stripe.
+     */
+    private void edgeInsertLock(T source, T destination, Runnable action){
+        if(context.getTopologicalOrder()!=null){
+            lock.writeLock(action);
+        }else{
+            lock.writeLock(source, destination, action);
+        }
+    }
+
+    /**
+     * Adds every edge under one acquisition of the stripes the batch touches, with one stats update
+     * and one version bump. Rejected edges (self-loops, duplicates) are reported, not thrown.
+     */
+    public BatchResult<T> addEdges(Collection<EdgeSpec<T>> edges){
+        if(edges.isEmpty()) return BatchResult.empty();
+        List<EdgeSpec<T>> batch = edges instanceof List<EdgeSpec<T>> list ? list : new ArrayList<>(edges);
+        return addBatch(batch, 0);
+    }
+
+    /**
+     * Drains the stream in batches of {@value #BULK_BATCH_SIZE} edges, each applied like
+     * {@link #addEdges(Collection)}, so a long stream does not hold the lock for its whole length.
+     * Rejections are numbered by stream position.
+     */
+    public BatchResult<T> addEdges(Stream<EdgeSpec<T>> edges){
+        BatchResult<T> result = BatchResult.empty();
+        List<EdgeSpec<T>> batch = new ArrayList<>(BULK_BATCH_SIZE);
+        long position = 0;
+        Iterator<EdgeSpec<T>> iterator = edges.iterator();
+        while(iterator.hasNext()){
+            batch.add(iterator.next());
+            if(batch.size()==BULK_BATCH_SIZE || !iterator.hasNext()){
+                result = result.merge(addBatch(batch, position));
+                position += batch.size();
+                batch.clear();
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return the number of vertices that were new
+     */
+    public int addVertices(Collection<T> vertices){
+        if(vertices.isEmpty()) return 0;
+        BitSet stripeSet = new BitSet(lock.stripeCount());
+        vertices.forEach(vertex-> stripeSet.set(lock.stripeOf(vertex)));
+        return committed(()-> lock.writeLock(stripeSet, ()-> vertexOps.addVerticesIfAbsent(vertices)));
+    }
+
+    /**
+     * Bulk-loads a consistent adjacency into this empty graph under one whole-graph acquisition;
+     * see {@link EdgeOperations#restore(List, int[], int[], double[])}.
+     */
+    public void restore(List<T> vertices, int[] offsets, int[] targets, double[] weights){
+        committed(()-> lock.writeLock(()-> edgeOps.restore(vertices, offsets, targets, weights)));
+    }
+
+    /**
+     * Streamed variant of {@link #restore(List, int[], int[], double[])} for input too large to hold as one CSR:
+     * creates the vertices now, then takes the rows in chunks. Each chunk and {@link RestoreSession#finish()}
+     * is one whole-graph acquisition.
+     */
+    public RestoreSession beginRestore(List<T> vertices){
+        return new RestoreSession(lock.writeLock(()-> edgeOps.restoreVertices(vertices)));
+    }
+
+    public final class RestoreSession {
+        private final int[] ids;
+
+        private RestoreSession(int[] ids){
+            this.ids = ids;
+        }
+
+        /**
+         * @see EdgeOperations#restoreRows(int[], int, int, int[], int[], double[])
+         */
+        public void rows(int firstRow, int rowCount, int[] offsets, int[] targets, double[] weights){
+            lock.writeLock(()-> edgeOps.restoreRows(ids, firstRow, rowCount, offsets, targets, weights));
+        }
+
+        public void finish(){
+            committed(()-> lock.writeLock(()-> edgeOps.finishRestore(ids)));
+        }
+    }
+
+    private BatchResult<T> addBatch(List<EdgeSpec<T>> batch, long position){
+        if(context.getTopologicalOrder()!=null){
+            return committed(()-> lock.writeLock(()-> edgeOps.addWeightEdges(batch, position)));
+        }
+        BitSet stripeSet = new BitSet(lock.stripeCount());
+        for(EdgeSpec<T> edge : batch){
+            stripeSet.set(lock.stripeOf(edge.source()));
+            stripeSet.set(lock.stripeOf(edge.destination()));
+        }
+        return committed(()-> lock.writeLock(stripeSet, ()-> edgeOps.addWeightEdges(batch, position)));
     }
 
     public boolean removeEdgeBetween(T source, T destination){
-        final boolean[] result = new boolean[1];
-        lock.writeLock(()-> result[0]=edgeOps.removeEdgeBetween(source, destination));
-        return result[0];
+        return committed(()-> lock.writeLock(source, destination, ()-> edgeOps.removeEdgeBetween(source, destination)));
+    }
+
+    /**
+     * Changes the weight of an existing edge under the two endpoint stripes.
+     * @return <code>false</code> when there is no such edge
+     */
+    public boolean updateEdgeWeight(T source, T destination, double weight){
+        return committed(()-> lock.writeLock(source, destination, ()-> edgeOps.updateEdgeWeight(source, destination, weight)));
+    }
+
+    /**
+     * Runs a locked write, then gives mutation listeners their {@link GraphMutationListener#afterWrite()} turn
+     * with the lock released, even when the write threw after mutating part of the graph.
+     */
+    private <R> R committed(Supplier<R> write){
+        try{
+            return write.get();
+        }finally {
+            context.afterWrite();
+        }
+    }
+
+    private void committed(Runnable write){
+        committed(()->{
+            write.run();
+            return null;
+        });
+    }
+
+    /**
+     * Registers the listener under the whole-graph write lock, so no write straddles the registration.
+     * @return the version the listener starts after: it hears about every later mutation and no earlier one
+     */
+    public int addMutationListener(GraphMutationListener<T> listener){
+        return lock.writeLock(()->{
+            context.addMutationListener(listener);
+            return context.getVersion();
+        });
+    }
+
+    public void removeMutationListener(GraphMutationListener<T> listener){
+        context.removeMutationListener(listener);
+    }
+
+    /**
+     * Sets the version of a graph rebuilt from durable state; see {@link GraphContext#restoreVersion(int)}.
+     */
+    public void restoreVersion(int version){
+        lock.writeLock(()-> context.restoreVersion(version));
+    }
+
+    /**
+     * Graph-level metadata. A concurrent map, live: not versioned and not part of snapshots' consistency.
+     */
+    public Map<String, Object> getMetadata(){
+        return context.getMetadata();
+    }
+
+    /**
+     * @return the vertex's metadata, or <code>null</code> when the vertex does not exist
+     */
+    public VertexMetadata getVertexMetadata(T vertex){
+        return context.getVertexMetadata(vertex);
+    }
+
+    public int getVersion(){
+        return context.getVersion();
+    }
+
+    public GraphType getType(){
+        return context.getType();
+    }
+
+    public boolean containsVertex(T vertex){
+        return lock.optimisticRead(vertex, ()-> context.containsVertex(context.getVertexIds().idOf(vertex)));
+    }
+
+    public boolean containsEdge(T source, T destination){
+        return lock.optimisticRead(source, ()-> edgeOps.containsEdge(source, destination));
+    }
+
+    /**
+     * @return the out-degree of the vertex, <code>0</code> when it does not exist
+     */
+    public int degree(T vertex){
+        return lock.optimisticRead(vertex, ()-> context.getEdgeCount(vertex));
+    }
+
+    public Map<T, Double> getNeighbors(T vertex){
+        return lock.optimisticRead(vertex, ()-> context.getNeighborsWithEdgeWeight(vertex).orElse(Map.of()));
+    }
+
+    /**
+     * Sources of the edges into the vertex, with their weights, read off the in-edge index in O(in-degree).
+     * For undirected graphs this equals {@link #getNeighbors(Object)}.
+     */
+    public Map<T, Double> getPredecessors(T vertex){
+        return lock.optimisticRead(vertex, ()-> context.getPredecessorsWithEdgeWeight(vertex));
     }
+
+    public int inDegree(T vertex){
+        return lock.optimisticRead(vertex, ()-> context.inDegree(context.getVertexIds().idOf(vertex)));
+    }
+    /**
+     * Whether an undirected path joins the two vertices; for directed graphs, whether they are weakly connected.
+     * Answered by the union-find every edge insert keeps current, without locking, unless an edge or vertex
+     * removal has invalidated it since: the first query after one rebuilds it under the read lock.
+     */
+    public boolean connected(T first, T second){
+        int firstId = context.getVertexIds().idOf(first);
+        int secondId = context.getVertexIds().idOf(second);
+        if(firstId<0 || secondId<0) return false;
+        return currentConnectivity().connected(firstId, secondId);
+    }
+
+    /**
+     * @return the vertex representing the (weakly) connected component of <code>vertex</code>, the same for every
+     * member until the component merges with another; <code>null</code> when the vertex does not exist
+     */
+    public T componentOf(T vertex){
+        int id = context.getVertexIds().idOf(vertex);
+        if(id<0) return null;
+        T representative = context.getVertexIds().vertexOf(currentConnectivity().componentOf(id));
+        return representative==null ? vertex : representative;
+    }
+
+    public long componentCount(){
+        return currentConnectivity().componentCount();
+    }
+
+    private Connectivity currentConnectivity(){
+        Connectivity connectivity = context.getConnectivity();
+        if(connectivity.isDirty()){
+            lock.readLock(()-> connectivity.rebuild(context.getAdjacency(), context.getVertexIds().capacity()));
+        }
+        return connectivity;
+    }
+
+    public boolean isAcyclic(){
+        return context.getTopologicalOrder()!=null;
+    }
+
+    /**
+     * Position of the vertex in the topological order of a DAG-mode graph, in O(1). Every edge runs from a lower
+     * position to a higher one. Positions are only comparable: removals leave gaps.
+     * @return -1 when the vertex does not exist
+     */
+    public int topologicalPosition(T vertex){
+        TopologicalOrder order = requireTopologicalOrder();
+        int id = context.getVertexIds().idOf(vertex);
+        return id<0 ? -1 : order.positionOf(id);
+    }
+
+    /**
+     * Every vertex of a DAG-mode graph, sources first.
+     */
+    public List<T> topologicalOrder(){
+        TopologicalOrder order = requireTopologicalOrder();
+        return lock.readLock(()->{
+            int capacity = context.getVertexIds().capacity();
+            long[] packed = new long[capacity];
+            int count = 0;
+            for(int id = 0; id < capacity; id++){
+                int position = order.positionOf(id);
+                if(position>=0) packed[count++] = (long) position << 32 | id;
+            }
+            Arrays.sort(packed, 0, count);
+            List<T> vertices = new ArrayList<>(count);
+            for(int i = 0; i < count; i++){
+                vertices.add(context.getVertexIds().vertexOf((int) packed[i]));
+            }
+            return vertices;
+        });
+    }
+
+    private TopologicalOrder requireTopologicalOrder(){
+        TopologicalOrder order = context.getTopologicalOrder();
+        if(order==null){
+            throw new NoSuchMethodExistForGraphException("Topological order is only kept for graphs in DAG mode");
+        }
+        return order;
+    }
+
     public boolean containCycle(){
-        final boolean[] formedCycle = new boolean[1];
-        lock.writeLock(()-> formedCycle[0] = cycleOps.containCycle());
-        return formedCycle[0];
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return cycleOps.containCycle(snapshot.csr());
+        }
      }
 
      public List<List<T>> findCycles(){
-         final List<List<T>>[] cycles = new List[]{new ArrayList<>()};
-        lock.writeLock(()-> cycles[0] = cycleOps.findCycles());
-        return cycles[0];
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return cycleOps.findCycles(snapshot.csr());
+        }
      }
 
+    /**
+     * Lazily enumerates the cycles of the current version. The compacted snapshot outlives the pin,
+     * so the stream can be consumed at any pace without holding writers back.
+     */
+    public Stream<List<T>> cycles(CycleOptions options){
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return cycleOps.cycles(snapshot.csr(), options);
+        }
+    }
+
+    /**
+     * Lazily enumerates the simple paths from <code>source</code> to <code>destination</code> in the current
+     * version, within the caps of <code>options</code>; see {@link PathEnumerations}.
+     */
+    public Stream<List<T>> paths(T source, T destination, PathOptions options){
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return pathOps.paths(snapshot.csr(), source, destination, options);
+        }
+    }
+
+    /**
+     * Lightest path by edge weight, found by bidirectional Dijkstra on the current version.
+     * @return empty when either vertex is missing or the destination is unreachable
+     */
+    public Optional<WeightedPath<T>> shortestPath(T source, T destination){
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return shortestPathOps.bidirectional(snapshot.csr(), source, destination);
+        }
+    }
+
+    /**
+     * A* guided by <code>heuristic</code>, which must never overestimate and must be consistent.
+     */
+    public Optional<WeightedPath<T>> shortestPath(T source, T destination, Heuristic<T> heuristic){
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return shortestPathOps.aStar(snapshot.csr(), source, destination, heuristic);
+        }
+    }
+
+    /**
+     * Shortest distances and paths from <code>source</code> to every vertex of the current version.
+     * @return <code>null</code> when the source does not exist
+     */
+    public ShortestPathTree<T> shortestPathTree(T source){
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return shortestPathOps.tree(snapshot.csr(), source);
+        }
+    }
+
+    /**
+     * Shortest path through the route index when it is current, bidirectional Dijkstra otherwise or when no
+     * index was built; see {@link #enableRouteIndex(ContractionOptions)}.
+     */
+    public Optional<WeightedPath<T>> route(T source, T destination){
+        RouteIndex<T> index = routeIndex;
+        return index==null ? shortestPath(source, destination) : index.route(source, destination);
+    }
+
+    /**
+     * Builds a contraction-hierarchy index of the current version for {@link #route(Object, Object)}, and keeps
+     * rebuilding it in the background as the graph changes. Replaces any index built before.
+     * @return the index, to check which version it answers for or force a rebuild
+     */
+    public synchronized RouteIndex<T> enableRouteIndex(ContractionOptions options){
+        RouteIndex<T> previous = routeIndex;
+        routeIndex = new RouteIndex<>(this::compactedSnapshot, context::getVersion, shortestPathOps, options);
+        if(previous!=null) previous.close();
+        return routeIndex;
+    }
+
+    /**
+     * Shortest distance in the current version, through the distance oracle when one is enabled; see
+     * {@link #enableDistanceOracle(DistanceOracleOptions)}.
+     * @return infinity when the destination is unreachable or either vertex is missing
+     */
+    public double distance(T source, T destination){
+        DistanceOracle<T> oracle = distanceOracle;
+        if(oracle!=null) return oracle.distance(source, destination);
+        return shortestPath(source, destination).map(WeightedPath::weight).orElse(Double.POSITIVE_INFINITY);
+    }
+
+    public boolean withinDistance(T source, T destination, double limit){
+        DistanceOracle<T> oracle = distanceOracle;
+        return oracle!=null ? oracle.withinDistance(source, destination, limit) : distance(source, destination)<=limit;
+    }
+
+    /**
+     * Selects landmarks of the current version and starts caching exact distances for {@link #distance(Object, Object)}
+     * and {@link #withinDistance(Object, Object, double)}. Landmarks are reselected in the background as the graph
+     * changes. Replaces any oracle enabled before, and its cache.
+     * @return the oracle, for approximate answers and cache hit rates
+     */
+    public synchronized DistanceOracle<T> enableDistanceOracle(DistanceOracleOptions options){
+        DistanceOracle<T> previous = distanceOracle;
+        distanceOracle = new DistanceOracle<>(this::compactedSnapshot, context::getVersion, shortestPathOps, options);
+        if(previous!=null) previous.close();
+        return distanceOracle;
+    }
+
+    private CsrSnapshot<T> compactedSnapshot(){
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            return snapshot.csr();
+        }
+    }
+
+    /**
+     * Pins the current version. The read lock is held only while row pointers are copied; everything
+     * done with the snapshot afterwards runs concurrently with writers. Close it when done.
+     */
+    public GraphSnapshot<T> snapshot(){
+        return lock.readLock(context::snapshot);
+    }
+
     public void printGraph(){
-        context.getAdjacencyList().forEach((v, edges)->{
+        lock.readLock(()-> context.getAdjacencyList().forEach((v, edges)->{
             log.info("{} -> {}", v, edges);
-        });
+        }));
     }
 
     public Map<T, Set<T>> reverseGraph(){
-        return context.reverseGraph();
+        return lock.readLock(context::reverseGraph);
     }
 
     public Map<T, Map<T, Double>> reverseGraphWithCost(){
-        return context.reverseGraphWithWeight();
+        return lock.readLock(context::reverseGraphWithWeight);
+    }
+
+    /**
+     * Counts, density, degree distribution and storage footprint. Takes no lock, so monitoring can poll it
+     * as often as it likes without slowing writers down.
+     */
+    public GraphStatsReport stats(){
+        return context.statsReport();
+    }
+
+    /**
+     * Cumulative wait/hold times and optimistic-read fallbacks of this graph's lock stripes.
+     */
+    public GraphLock.LockMetrics lockMetrics(){
+        return lock.metrics();
+    }
+
+    public void flush(){
+        lock.readLock(context::flush);
+    }
+
+    @Override
+    public void close(){
+        RouteIndex<T> index = routeIndex;
+        if(index!=null) index.close();
+        DistanceOracle<T> oracle = distanceOracle;
+        if(oracle!=null) oracle.close();
+        lock.writeLock(context::close);
     }
 
     public void sccFind(){
-        Map<Integer, Set<T>> integerSetMap = sccFinder.find();
-        log.info("Components: {}", integerSetMap);
+        try(GraphSnapshot<T> snapshot = snapshot()){
+            log.info("Components: {}", sccFinder.find(snapshot.csr()));
+        }
+    }
+
+    /**
+     * Strongly connected (for undirected graphs: connected) components of a snapshot, as vertex index arrays
+     * of that snapshot; {@link CsrSnapshot#vertexAt(int)} maps them back.
+     */
+    public Components sccComponents(CsrSnapshot<T> snapshot){
+        return sccFinder.components(snapshot);
+    }
+
+    /**
+     * Sets when component searches switch to the parallel strategies, and how many threads those use.
+     */
+    public void setSccOptions(SccOptions options){
+        sccFinder.setOptions(options);
     }
 
 
@@ -0,0 +1,105 @@
+package com.offlix.distributed_graph_engine.graph.codec;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Counterpart of {@link BinaryWriter}: unsynchronized buffered input with LEB128 varints.
+ * Extends {@link InputStream} so a {@link java.io.DataInputStream} can read vertex keys through it.
+ */
+final class BinaryReader extends InputStream {
+    private final InputStream in;
+    private final byte[] buffer;
+    private int position;
+    private int limit;
+
+    BinaryReader(InputStream in, int bufferSize) {
+        this.in = in;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public int read() throws IOException {
+        if (position == limit && !fill()) return -1;
+        return buffer[position++] & 0xFF;
+    }
+
+    @Override
+    public int read(byte[] bytes, int offset, int length) throws IOException {
+        if (length == 0) return 0;
+        if (position == limit && !fill()) return -1;
+        int n = Math.min(length, limit - position);
+        System.arraycopy(buffer, position, bytes, offset, n);
+        position += n;
+        return n;
+    }
+
+    byte readByte() throws IOException {
+        if (position == limit && !fill()) throw new EOFException();
+        return buffer[position++];
+    }
+
+    long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = readByte();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) return value;
+        }
+        throw new IOException("Malformed varint");
+    }
+
+    int readVarInt() throws IOException {
+        long value = readVarLong();
+        if (value >>> 32 != 0) throw new IOException("Varint out of int range: " + value);
+        return (int) value;
+    }
+
+    long readSignedVarLong() throws IOException {
+        long value = readVarLong();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    int readInt() throws IOException {
+        return (readByte() & 0xFF) << 24 | (readByte() & 0xFF) << 16 | (readByte() & 0xFF) << 8 | (readByte() & 0xFF);
+    }
+
+    long readLong() throws IOException {
+        return (long) readInt() << 32 | (readInt() & 0xFFFF_FFFFL);
+    }
+
+    float readFloat() throws IOException {
+        return Float.intBitsToFloat(readInt());
+    }
+
+    double readDouble() throws IOException {
+        return Double.longBitsToDouble(readLong());
+    }
+
+    void readFully(byte[] bytes) throws IOException {
+        int done = 0;
+        while (done < bytes.length) {
+            int n = read(bytes, done, bytes.length - done);
+            if (n < 0) throw new EOFException();
+            done += n;
+        }
+    }
+
+    void skipFully(long bytes) throws IOException {
+        while (bytes > 0) {
+            if (position == limit && !fill()) throw new EOFException();
+            int n = (int) Math.min(bytes, limit - position);
+            position += n;
+            bytes -= n;
+        }
+    }
+
+    private boolean fill() throws IOException {
+        int n = in.read(buffer, 0, buffer.length);
+        if (n <= 0) return false;
+        position = 0;
+        limit = n;
+        return true;
+    }
+}
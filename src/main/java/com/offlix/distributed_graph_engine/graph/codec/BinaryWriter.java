@@ -0,0 +1,108 @@
+package com.offlix.distributed_graph_engine.graph.codec;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Unsynchronized buffered output with LEB128 varints, so encoding costs a few array stores per field instead of
+ * a locked call per byte. Extends {@link OutputStream} so a {@link java.io.DataOutputStream} can sit on top of it
+ * for vertex keys.
+ */
+final class BinaryWriter extends OutputStream {
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long written;
+
+    BinaryWriter(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[bufferSize];
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        if (position == buffer.length) drain();
+        buffer[position++] = (byte) b;
+    }
+
+    @Override
+    public void write(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            drain();
+            if (length > buffer.length) {
+                out.write(bytes, offset, length);
+                written += length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+
+    void writeVarLong(long value) throws IOException {
+        if (buffer.length - position < 10) drain();
+        while ((value & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[position++] = (byte) value;
+    }
+
+    void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFF_FFFFL);
+    }
+
+    void writeSignedVarLong(long value) throws IOException {
+        writeVarLong((value << 1) ^ (value >> 63));
+    }
+
+    void writeInt(int value) throws IOException {
+        if (buffer.length - position < 4) drain();
+        buffer[position++] = (byte) (value >>> 24);
+        buffer[position++] = (byte) (value >>> 16);
+        buffer[position++] = (byte) (value >>> 8);
+        buffer[position++] = (byte) value;
+    }
+
+    void writeLong(long value) throws IOException {
+        writeInt((int) (value >>> 32));
+        writeInt((int) value);
+    }
+
+    void writeFloat(float value) throws IOException {
+        writeInt(Float.floatToRawIntBits(value));
+    }
+
+    void writeDouble(double value) throws IOException {
+        writeLong(Double.doubleToRawLongBits(value));
+    }
+
+    /**
+     * Bytes handed on so far, buffered ones included.
+     */
+    long size() {
+        return written + position;
+    }
+
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+
+    /**
+     * Flushes without closing the underlying stream, which belongs to the caller.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+    }
+
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            written += position;
+            position = 0;
+        }
+    }
+}
@@ -0,0 +1,436 @@
+package com.offlix.distributed_graph_engine.graph.codec;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadata;
+import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadataImpl;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+
+import java.io.*;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * <h3>Compact binary encoding of a whole graph, for snapshots, node-to-node transfer and export</h3>
+ * <ul>
+ * <li><b>Header:</b> magic, format, graph type, version, vertex count, edge count, weight mode and key mode.</li>
+ * <li><b>Vertices:</b> every key once, in CSR index order. <code>Long</code> and <code>Integer</code> keys are
+ * written as zigzag varint deltas; other keys go through the {@link VertexKeyCodec}. Edges then refer to
+ * vertices by that index.</li>
+ * <li><b>Edges:</b> per vertex, a varint count, the sorted target indexes as varint gaps, then the weights.
+ * An undirected edge is written once, from its lower-index end, with gaps counted from the vertex itself.</li>
+ * <li><b>Weights</b> take the narrowest mode that is exact for the whole graph: none when every weight is
+ * <code>1.0</code>, one value in the header when they are all equal, a one-byte index into a header table
+ * when there are at most {@value #MAX_TABLE_WEIGHTS} distinct values, 4-byte floats when every weight
+ * survives the round trip, 8-byte doubles otherwise.</li>
+ * <li><b>Metadata:</b> a length-prefixed section after the edges with the graph metadata and the vertex
+ * metadata that differs from a fresh vertex's. A reader that does not want it skips it in one step.</li>
+ * <li><b>Trailer:</b> the magic again. A stream without it was cut short.</li>
+ * </ul>
+ * Encoding and decoding both stream: the encoder holds one row at a time beyond the CSR it reads,
+ * the decoder hands rows to {@link GraphManager#beginRestore(List)} in chunks of about
+ * {@value #CHUNK_EDGES} edges.
+ */
+public final class GraphCodec<T> {
+    private static final long MAGIC = 0x4447_452D_4752_4150L;
+    private static final int FORMAT = 1;
+    private static final int BUFFER_BYTES = 1 << 16;
+    private static final int CHUNK_EDGES = 1 << 16;
+    private static final int CHUNK_ROWS = 1 << 14;
+
+    private static final byte WEIGHTS_UNIT = 0;
+    private static final byte WEIGHTS_CONSTANT = 1;
+    private static final byte WEIGHTS_FLOAT = 2;
+    private static final byte WEIGHTS_DOUBLE = 3;
+    private static final byte WEIGHTS_TABLE = 4;
+    private static final int MAX_TABLE_WEIGHTS = 256;
+
+    private static final byte KEYS_CODEC = 0;
+    private static final byte KEYS_INTEGRAL_DELTA = 1;
+
+    private final VertexKeyCodec<T> keys;
+    private final boolean integralKeys;
+
+    public GraphCodec(VertexKeyCodec<T> keys) {
+        this.keys = keys;
+        this.integralKeys = keys == VertexKeyCodec.LONG || keys == VertexKeyCodec.INTEGER;
+    }
+
+    /**
+     * Encodes the graph at its current version. Only the snapshot is taken under the read lock.
+     * @return the number of bytes written
+     */
+    public long encode(GraphManager<T> graph, OutputStream out) throws IOException {
+        try (GraphSnapshot<T> snapshot = graph.snapshot()) {
+            return encode(snapshot.csr(), graph, out);
+        }
+    }
+
+    /**
+     * Encodes a pinned CSR. Metadata is read from <code>metadataSource</code> as it is now, not as of the
+     * snapshot's version; pass <code>null</code> to leave it out.
+     * Flushes <code>out</code> but does not close it.
+     * @return the number of bytes written
+     */
+    public long encode(CsrSnapshot<T> csr, GraphManager<T> metadataSource, OutputStream out) throws IOException {
+        boolean undirected = csr.getType() == GraphType.UNDIRECTED;
+        int n = csr.vertexCount();
+        int[] offsets = csr.offsets();
+        int[] targets = csr.targets();
+        double[] weights = csr.weights();
+        WeightTable table = WeightTable.of(weights, csr.adjacencyCount());
+        byte weightMode = table != null && table.size() > 1 ? WEIGHTS_TABLE : weightMode(weights, csr.adjacencyCount());
+
+        BinaryWriter writer = new BinaryWriter(out, BUFFER_BYTES);
+        writer.writeLong(MAGIC);
+        writer.writeVarInt(FORMAT);
+        writer.write(csr.getType().ordinal());
+        writer.writeVarInt(csr.getVersion());
+        writer.writeVarInt(n);
+        writer.writeVarLong(undirected ? csr.adjacencyCount() / 2 : csr.adjacencyCount());
+        writer.write(weightMode);
+        if (weightMode == WEIGHTS_CONSTANT) writer.writeDouble(weights[0]);
+        if (weightMode == WEIGHTS_TABLE) table.write(writer);
+        writer.write(integralKeys ? KEYS_INTEGRAL_DELTA : KEYS_CODEC);
+
+        writeVertices(csr, writer);
+
+        long[] row = new long[16];
+        for (int vertex = 0; vertex < n; vertex++) {
+            int count = 0;
+            for (int e = offsets[vertex]; e < offsets[vertex + 1]; e++) {
+                if (undirected && targets[e] <= vertex) continue;
+                if (count == row.length) row = Arrays.copyOf(row, count * 2);
+                row[count++] = (long) targets[e] << 32 | (e - offsets[vertex]);
+            }
+            Arrays.sort(row, 0, count);
+            writer.writeVarInt(count);
+            int previous = undirected ? vertex : -1;
+            for (int i = 0; i < count; i++) {
+                int target = (int) (row[i] >>> 32);
+                writer.writeVarInt(target - previous - 1);
+                previous = target;
+            }
+            if (weightMode >= WEIGHTS_FLOAT) {
+                for (int i = 0; i < count; i++) {
+                    double weight = weights[offsets[vertex] + (int) row[i]];
+                    switch (weightMode) {
+                        case WEIGHTS_TABLE -> writer.write(table.indexOf(weight));
+                        case WEIGHTS_FLOAT -> writer.writeFloat((float) weight);
+                        default -> writer.writeDouble(weight);
+                    }
+                }
+            }
+        }
+
+        ByteArrayOutputStream metadata = new ByteArrayOutputStream();
+        if (metadataSource != null) {
+            try (BinaryWriter section = new BinaryWriter(metadata, BUFFER_BYTES)) {
+                writeMetadata(csr, metadataSource, section);
+            }
+        }
+        writer.writeVarInt(metadata.size());
+        metadata.writeTo(writer);
+        writer.writeLong(MAGIC);
+        writer.flush();
+        return writer.size();
+    }
+
+    /**
+     * Decodes into a new heap graph of the stored type, left at the stored version.
+     */
+    public GraphManager<T> decode(InputStream in) throws IOException {
+        BinaryReader reader = new BinaryReader(in, BUFFER_BYTES);
+        Header header = readHeader(reader);
+        GraphManager<T> graph = new GraphManager<>(header.type());
+        decodeBody(reader, header, graph);
+        graph.restoreVersion(header.version());
+        return graph;
+    }
+
+    /**
+     * Decodes into <code>graph</code>, which must be empty and of the stored type, without touching its version.
+     * A stream that fails part-way leaves the graph partly loaded; discard it.
+     * @return the version the graph was encoded at
+     */
+    public int decodeInto(InputStream in, GraphManager<T> graph) throws IOException {
+        BinaryReader reader = new BinaryReader(in, BUFFER_BYTES);
+        Header header = readHeader(reader);
+        if (header.type() != graph.getType()) {
+            throw new IllegalStateException("Stream holds a " + header.type() + " graph, not " + graph.getType());
+        }
+        decodeBody(reader, header, graph);
+        return header.version();
+    }
+
+    private void writeVertices(CsrSnapshot<T> csr, BinaryWriter writer) throws IOException {
+        int n = csr.vertexCount();
+        if (integralKeys) {
+            long previous = 0;
+            for (int vertex = 0; vertex < n; vertex++) {
+                long key = ((Number) csr.vertexAt(vertex)).longValue();
+                writer.writeSignedVarLong(key - previous);
+                previous = key;
+            }
+            return;
+        }
+        DataOutputStream out = new DataOutputStream(writer);
+        for (int vertex = 0; vertex < n; vertex++) {
+            keys.write(csr.vertexAt(vertex), out);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> readVertices(BinaryReader reader, Header header) throws IOException {
+        List<T> vertices = new ArrayList<>(header.vertexCount());
+        if (header.keyMode() == KEYS_INTEGRAL_DELTA) {
+            if (!integralKeys) throw new IOException("Stream holds integral keys but the codec is not LONG or INTEGER");
+            long key = 0;
+            for (int vertex = 0; vertex < header.vertexCount(); vertex++) {
+                key += reader.readSignedVarLong();
+                Object boxed = keys == VertexKeyCodec.LONG ? (Object) key : (Object) Math.toIntExact(key);
+                vertices.add((T) boxed);
+            }
+            return vertices;
+        }
+        DataInputStream in = new DataInputStream(reader);
+        for (int vertex = 0; vertex < header.vertexCount(); vertex++) {
+            vertices.add(keys.read(in));
+        }
+        return vertices;
+    }
+
+    private void decodeBody(BinaryReader reader, Header header, GraphManager<T> graph) throws IOException {
+        try {
+            List<T> vertices = readVertices(reader, header);
+            readEdges(reader, header, graph, vertices);
+            int metadataBytes = reader.readVarInt();
+            if (metadataBytes > 0) readMetadata(reader, graph, vertices);
+            if (reader.readLong() != MAGIC) {
+                throw new IOException("Graph stream is truncated");
+            }
+        } catch (EOFException e) {
+            throw new IOException("Graph stream is truncated", e);
+        }
+    }
+
+    private void readEdges(BinaryReader reader, Header header, GraphManager<T> graph, List<T> vertices) throws IOException {
+        boolean undirected = header.type() == GraphType.UNDIRECTED;
+        int n = header.vertexCount();
+        int[] offsets = new int[CHUNK_ROWS + 1];
+        int[] targets = new int[CHUNK_EDGES];
+        double[] weights = new double[CHUNK_EDGES];
+        long remaining = header.edgeCount();
+
+        GraphManager<T>.RestoreSession session = graph.beginRestore(vertices);
+        int firstRow = 0;
+        int rows = 0;
+        for (int vertex = 0; vertex < n; vertex++) {
+            int count = reader.readVarInt();
+            if (count > remaining) throw new IOException("Graph stream is corrupt at vertex " + vertex);
+            remaining -= count;
+            int e = offsets[rows];
+            if (rows == CHUNK_ROWS || (rows > 0 && e + count > targets.length)) {
+                session.rows(firstRow, rows, offsets, targets, weights);
+                firstRow = vertex;
+                rows = 0;
+                e = 0;
+            }
+            if (count > targets.length) {
+                targets = new int[count];
+                weights = new double[count];
+            }
+            int previous = undirected ? vertex : -1;
+            for (int i = 0; i < count; i++) {
+                long target = (long) previous + reader.readVarInt() + 1;
+                if (target >= n) throw new IOException("Graph stream is corrupt at vertex " + vertex);
+                targets[e + i] = previous = (int) target;
+            }
+            switch (header.weightMode()) {
+                case WEIGHTS_UNIT -> Arrays.fill(weights, e, e + count, 1.0);
+                case WEIGHTS_CONSTANT -> Arrays.fill(weights, e, e + count, header.constantWeight());
+                case WEIGHTS_TABLE -> {
+                    double[] values = header.weightTable();
+                    for (int i = 0; i < count; i++) {
+                        int index = reader.readByte() & 0xFF;
+                        if (index >= values.length) throw new IOException("Graph stream is corrupt at vertex " + vertex);
+                        weights[e + i] = values[index];
+                    }
+                }
+                case WEIGHTS_FLOAT -> {
+                    for (int i = 0; i < count; i++) weights[e + i] = reader.readFloat();
+                }
+                default -> {
+                    for (int i = 0; i < count; i++) weights[e + i] = reader.readDouble();
+                }
+            }
+            offsets[++rows] = e + count;
+        }
+        if (remaining != 0) throw new IOException("Graph stream is missing " + remaining + " edges");
+        if (rows > 0) session.rows(firstRow, rows, offsets, targets, weights);
+        session.finish();
+    }
+
+    private static <T> void writeMetadata(CsrSnapshot<T> csr, GraphManager<T> graph, BinaryWriter out) throws IOException {
+        MetadataValues.writeMap(out, graph.getMetadata());
+        List<Integer> indexes = new ArrayList<>();
+        List<VertexMetadataImpl> entries = new ArrayList<>();
+        for (int vertex = 0; vertex < csr.vertexCount(); vertex++) {
+            VertexMetadata metadata = graph.getVertexMetadata(csr.vertexAt(vertex));
+            if (metadata instanceof VertexMetadataImpl impl
+                    && (impl.getAccessCount() != 0 || !impl.getProperties().isEmpty())) {
+                indexes.add(vertex);
+                entries.add(impl);
+            }
+        }
+        out.writeVarInt(entries.size());
+        int previous = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            VertexMetadataImpl metadata = entries.get(i);
+            out.writeVarInt(indexes.get(i) - previous);
+            previous = indexes.get(i);
+            Instant lastAccessed = metadata.getLastAccessed();
+            MetadataValues.write(out, lastAccessed);
+            out.writeVarLong(metadata.getAccessCount());
+            MetadataValues.writeMap(out, metadata.getProperties());
+        }
+    }
+
+    private static <T> void readMetadata(BinaryReader in, GraphManager<T> graph, List<T> vertices) throws IOException {
+        putNonNull(graph.getMetadata(), MetadataValues.readMap(in));
+        int entries = in.readVarInt();
+        int vertex = 0;
+        for (int i = 0; i < entries; i++) {
+            vertex += in.readVarInt();
+            if (vertex >= vertices.size()) throw new IOException("Graph stream metadata is corrupt");
+            Object lastAccessed = MetadataValues.read(in);
+            long accessCount = in.readVarLong();
+            Map<String, Object> properties = MetadataValues.readMap(in);
+            if (graph.getVertexMetadata(vertices.get(vertex)) instanceof VertexMetadataImpl metadata) {
+                if (lastAccessed instanceof Instant instant) metadata.setLastAccessed(instant);
+                metadata.setAccessCount(accessCount);
+                putNonNull(metadata.getProperties(), properties);
+            }
+        }
+    }
+
+    /**
+     * Metadata maps are concurrent and take no <code>null</code> values; such entries are dropped.
+     */
+    private static void putNonNull(Map<String, Object> target, Map<String, Object> values) {
+        values.forEach((key, value) -> {
+            if (value != null) target.put(key, value);
+        });
+    }
+
+    private static byte weightMode(double[] weights, int count) {
+        boolean unit = true;
+        boolean constant = true;
+        boolean fitsFloat = true;
+        for (int e = 0; e < count; e++) {
+            double weight = weights[e];
+            unit &= weight == 1.0;
+            constant &= Double.doubleToRawLongBits(weight) == Double.doubleToRawLongBits(weights[0]);
+            fitsFloat &= (double) (float) weight == weight || Double.isNaN(weight);
+            if (!constant && !fitsFloat) return WEIGHTS_DOUBLE;
+        }
+        if (unit) return WEIGHTS_UNIT;
+        if (constant) return WEIGHTS_CONSTANT;
+        return fitsFloat ? WEIGHTS_FLOAT : WEIGHTS_DOUBLE;
+    }
+
+    private static Header readHeader(BinaryReader reader) throws IOException {
+        try {
+            if (reader.readLong() != MAGIC) throw new IOException("Not a graph stream");
+            int format = reader.readVarInt();
+            if (format != FORMAT) throw new IOException("Unsupported graph stream format " + format);
+            int type = reader.readByte();
+            if (type < 0 || type >= GraphType.values().length) throw new IOException("Unknown graph type " + type);
+            int version = reader.readVarInt();
+            int vertexCount = reader.readVarInt();
+            long edgeCount = reader.readVarLong();
+            byte weightMode = reader.readByte();
+            double constantWeight = weightMode == WEIGHTS_CONSTANT ? reader.readDouble() : 1.0;
+            double[] weightTable = weightMode == WEIGHTS_TABLE ? WeightTable.read(reader) : null;
+            if (weightMode < WEIGHTS_UNIT || weightMode > WEIGHTS_TABLE) throw new IOException("Unknown weight mode " + weightMode);
+            byte keyMode = reader.readByte();
+            return new Header(GraphType.values()[type], version, vertexCount, edgeCount, weightMode, constantWeight, weightTable, keyMode);
+        } catch (EOFException e) {
+            throw new IOException("Graph stream is truncated", e);
+        }
+    }
+
+    private record Header(GraphType type, int version, int vertexCount, long edgeCount,
+                          byte weightMode, double constantWeight, double[] weightTable, byte keyMode) {
+    }
+
+    /**
+     * The distinct weights of a graph that has few of them, in an open-addressing table keyed by raw bits
+     * so the scan neither boxes nor allocates per edge.
+     */
+    private static final class WeightTable {
+        private static final int SLOTS = MAX_TABLE_WEIGHTS * 2;
+
+        private final long[] bits = new long[SLOTS];
+        private final int[] indexes = new int[SLOTS];
+        private final double[] values = new double[MAX_TABLE_WEIGHTS];
+        private int size;
+
+        /**
+         * @return the table, or <code>null</code> when there are more than {@value #MAX_TABLE_WEIGHTS} distinct weights
+         */
+        static WeightTable of(double[] weights, int count) {
+            WeightTable table = new WeightTable();
+            Arrays.fill(table.indexes, -1);
+            for (int e = 0; e < count; e++) {
+                if (table.slotOf(weights[e], true) < 0) return null;
+            }
+            return table;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int indexOf(double weight) {
+            return indexes[slotOf(weight, false)];
+        }
+
+        void write(BinaryWriter out) throws IOException {
+            out.writeVarInt(size);
+            for (int i = 0; i < size; i++) {
+                out.writeDouble(values[i]);
+            }
+        }
+
+        static double[] read(BinaryReader in) throws IOException {
+            int size = in.readVarInt();
+            if (size > MAX_TABLE_WEIGHTS) throw new IOException("Weight table of " + size + " entries");
+            double[] values = new double[size];
+            for (int i = 0; i < size; i++) {
+                values[i] = in.readDouble();
+            }
+            return values;
+        }
+
+        private int slotOf(double weight, boolean insert) {
+            long key = Double.doubleToRawLongBits(weight);
+            int slot = (int) (key ^ key >>> 29 ^ key >>> 47) & (SLOTS - 1);
+            while (indexes[slot] >= 0 && bits[slot] != key) {
+                slot = (slot + 1) & (SLOTS - 1);
+            }
+            if (indexes[slot] < 0) {
+                if (!insert || size == MAX_TABLE_WEIGHTS) return -1;
+                bits[slot] = key;
+                values[size] = weight;
+                indexes[slot] = size++;
+            }
+            return slot;
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.offlix.distributed_graph_engine.graph.codec;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Tagged binary encoding of metadata values: the JSON data model plus {@link Instant}.
+ * Integral numbers are widened to <code>Long</code> and decimal ones to <code>Double</code>.
+ */
+final class MetadataValues {
+    private static final byte NULL = 0;
+    private static final byte FALSE = 1;
+    private static final byte TRUE = 2;
+    private static final byte INTEGRAL = 3;
+    private static final byte DECIMAL = 4;
+    private static final byte STRING = 5;
+    private static final byte LIST = 6;
+    private static final byte MAP = 7;
+    private static final byte INSTANT = 8;
+
+    private MetadataValues() {
+    }
+
+    static void write(BinaryWriter out, Object value) throws IOException {
+        switch (value) {
+            case null -> out.write(NULL);
+            case Boolean b -> out.write(b ? TRUE : FALSE);
+            case Long l -> integral(out, l);
+            case Integer i -> integral(out, i);
+            case Short s -> integral(out, s);
+            case Byte b -> integral(out, b);
+            case Number n when value instanceof Double || value instanceof Float -> {
+                out.write(DECIMAL);
+                out.writeDouble(n.doubleValue());
+            }
+            case CharSequence text -> {
+                out.write(STRING);
+                writeString(out, text.toString());
+            }
+            case Instant instant -> {
+                out.write(INSTANT);
+                out.writeSignedVarLong(instant.getEpochSecond());
+                out.writeVarInt(instant.getNano());
+            }
+            case List<?> list -> {
+                out.write(LIST);
+                out.writeVarInt(list.size());
+                for (Object element : list) {
+                    write(out, element);
+                }
+            }
+            case Map<?, ?> map -> {
+                out.write(MAP);
+                writeMap(out, map);
+            }
+            default -> throw new IllegalArgumentException("Cannot encode metadata value of type " + value.getClass().getName());
+        }
+    }
+
+    static void writeMap(BinaryWriter out, Map<?, ?> map) throws IOException {
+        out.writeVarInt(map.size());
+        for (Map.Entry<?, ?> entry : map.entrySet()) {
+            writeString(out, String.valueOf(entry.getKey()));
+            write(out, entry.getValue());
+        }
+    }
+
+    static Object read(BinaryReader in) throws IOException {
+        byte tag = in.readByte();
+        return switch (tag) {
+            case NULL -> null;
+            case FALSE -> false;
+            case TRUE -> true;
+            case INTEGRAL -> in.readSignedVarLong();
+            case DECIMAL -> in.readDouble();
+            case STRING -> readString(in);
+            case INSTANT -> Instant.ofEpochSecond(in.readSignedVarLong(), in.readVarInt());
+            case LIST -> {
+                int size = in.readVarInt();
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(read(in));
+                }
+                yield list;
+            }
+            case MAP -> readMap(in);
+            default -> throw new IOException("Unknown metadata value tag " + tag);
+        };
+    }
+
+    static Map<String, Object> readMap(BinaryReader in) throws IOException {
+        int size = in.readVarInt();
+        Map<String, Object> map = new LinkedHashMap<>();
+        for (int i = 0; i < size; i++) {
+            map.put(readString(in), read(in));
+        }
+        return map;
+    }
+
+    static void writeString(BinaryWriter out, String value) throws IOException {
+        byte[] utf8 = value.getBytes(StandardCharsets.UTF_8);
+        out.writeVarInt(utf8.length);
+        out.write(utf8, 0, utf8.length);
+    }
+
+    static String readString(BinaryReader in) throws IOException {
+        byte[] utf8 = new byte[in.readVarInt()];
+        in.readFully(utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    private static void integral(BinaryWriter out, long value) throws IOException {
+        out.write(INTEGRAL);
+        out.writeSignedVarLong(value);
+    }
+}
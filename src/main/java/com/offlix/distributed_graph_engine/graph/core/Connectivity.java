@@ -0,0 +1,202 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyView;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h3>Connected components kept current as edges go in: a concurrent union-find over vertex ids</h3>
+ * <ul>
+ * <li>One <code>long</code> per id holds the rank (high half) and the parent id plus one (low half), so linking
+ * a root is a single CAS that also checks the rank it was chosen by, and a slot that was allocated but never
+ * written reads as <code>0</code>: untracked, not a child of vertex 0. Roots link under the root with the larger
+ * <code>(rank, id)</code>; ranks only grow while a vertex is a root, which rules out cycles between
+ * concurrent links.</li>
+ * <li>Finds halve the path they walk with a CAS per step. Queries take no lock and cost near O(1).</li>
+ * <li>Storage is segmented, so it grows with the id space without copying under concurrent writers.</li>
+ * <li>Edge and vertex removals cannot be undone in a union-find: they mark the structure dirty. While dirty
+ * it ignores updates, and the next query rebuilds it from the adjacency with every writer held off.</li>
+ * </ul>
+ * For directed graphs this is weak connectivity: edge direction is ignored.
+ * Updates come from the edge and vertex operations under their stripe locks.
+ */
+public class Connectivity {
+    private static final VarHandle ENTRY = MethodHandles.arrayElementVarHandle(long[].class);
+    private static final int SEGMENT_BITS = 14;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_BITS) - 1;
+
+    private volatile long[][] segments = new long[0][];
+    private final LongAdder components = new LongAdder();
+    // a fresh context may sit on rows loaded from storage, so the first query builds from the adjacency
+    private volatile boolean dirty = true;
+
+    public boolean isDirty() {
+        return dirty;
+    }
+
+    public void markDirty() {
+        dirty = true;
+    }
+
+    public void vertexAdded(int id) {
+        if (dirty) return;
+        ensureCapacity(id);
+        ENTRY.setVolatile(segment(id), id & SEGMENT_MASK, pack(0, id));
+        components.increment();
+    }
+
+    /**
+     * An isolated vertex just leaves the count; one that had edges may have held its component together.
+     */
+    public void vertexRemoved(boolean hadEdges) {
+        if (hadEdges) {
+            dirty = true;
+        } else if (!dirty) {
+            components.decrement();
+        }
+    }
+
+    public void edgeAdded(int source, int destination) {
+        if (!dirty) union(source, destination);
+    }
+
+    public void edgeRemoved() {
+        dirty = true;
+    }
+
+    /**
+     * Callers must have ruled out staleness: see {@link #isDirty()} and {@link #rebuild(AdjacencyView, int)}.
+     */
+    public boolean connected(int first, int second) {
+        // a vertex still being added on another stripe may not have its slot, or not have it written yet
+        if (!tracked(first) || !tracked(second)) return first == second;
+        while (true) {
+            int firstRoot = find(first);
+            int secondRoot = find(second);
+            if (firstRoot == secondRoot) return true;
+            // a root that is still a root after both finds means the two really were apart at that moment
+            if (parent(entry(firstRoot)) == firstRoot) return false;
+        }
+    }
+
+    /**
+     * @return the id of the vertex representing the component; stable until the component merges
+     */
+    public int componentOf(int id) {
+        return tracked(id) ? find(id) : id;
+    }
+
+    public long componentCount() {
+        return components.sum();
+    }
+
+    /**
+     * Rebuilds from the rows of <code>adjacency</code>, if dirty. The caller must keep writers out.
+     * @param capacity upper bound (exclusive) of the live vertex ids
+     */
+    public synchronized void rebuild(AdjacencyView adjacency, int capacity) {
+        if (!dirty) return;
+        segments = new long[0][];
+        components.reset();
+        if (capacity > 0) ensureCapacity(capacity - 1);
+        long[] count = new long[1];
+        adjacency.forEachVertex(id -> {
+            segment(id)[id & SEGMENT_MASK] = pack(0, id);
+            count[0]++;
+        });
+        components.add(count[0]);
+        adjacency.forEachVertex(id -> adjacency.forEachNeighbor(id, (neighbor, weight) -> {
+            // undirected rows list each edge twice; the second union finds one root and stops
+            union(id, neighbor);
+        }));
+        dirty = false;
+    }
+
+    private void union(int first, int second) {
+        while (true) {
+            int firstRoot = find(first);
+            int secondRoot = find(second);
+            if (firstRoot == secondRoot) return;
+            long firstEntry = entry(firstRoot);
+            long secondEntry = entry(secondRoot);
+            if (parent(firstEntry) != firstRoot || parent(secondEntry) != secondRoot) continue;
+            int firstRank = rank(firstEntry);
+            int secondRank = rank(secondEntry);
+            boolean firstIsLower = firstRank < secondRank || firstRank == secondRank && firstRoot < secondRoot;
+            int child = firstIsLower ? firstRoot : secondRoot;
+            int parent = firstIsLower ? secondRoot : firstRoot;
+            long childEntry = firstIsLower ? firstEntry : secondEntry;
+            long parentEntry = firstIsLower ? secondEntry : firstEntry;
+            if (!ENTRY.compareAndSet(segment(child), child & SEGMENT_MASK, childEntry, pack(rank(childEntry), parent))) {
+                continue;
+            }
+            components.decrement();
+            if (rank(childEntry) == rank(parentEntry)) {
+                // best effort: if the parent got linked meanwhile, its rank no longer matters
+                ENTRY.compareAndSet(segment(parent), parent & SEGMENT_MASK, parentEntry, pack(rank(parentEntry) + 1, parent));
+            }
+            return;
+        }
+    }
+
+    private int find(int id) {
+        int current = id;
+        while (true) {
+            long entry = entry(current);
+            int parent = parent(entry);
+            if (parent == current) return current;
+            int grandparent = parent(entry(parent));
+            if (grandparent != parent) {
+                // path halving; a lost race only means a longer path for the next find
+                ENTRY.weakCompareAndSet(segment(current), current & SEGMENT_MASK, entry, pack(rank(entry), grandparent));
+            }
+            current = grandparent;
+        }
+    }
+
+    private long entry(int id) {
+        return (long) ENTRY.getVolatile(segment(id), id & SEGMENT_MASK);
+    }
+
+    private long[] segment(int id) {
+        return segments[id >>> SEGMENT_BITS];
+    }
+
+    private boolean tracked(int id) {
+        return allocated(id) && entry(id) != 0;
+    }
+
+    private boolean allocated(int id) {
+        return id >= 0 && id >>> SEGMENT_BITS < segments.length;
+    }
+
+    private void ensureCapacity(int id) {
+        if (!allocated(id)) grow(id);
+    }
+
+    private synchronized void grow(int id) {
+        int needed = (id >>> SEGMENT_BITS) + 1;
+        long[][] current = segments;
+        if (current.length >= needed) return;
+        long[][] grown = Arrays.copyOf(current, Math.max(needed, current.length * 2));
+        for (int i = current.length; i < grown.length; i++) {
+            grown[i] = new long[1 << SEGMENT_BITS];
+        }
+        segments = grown;
+    }
+
+    private static long pack(int rank, int parent) {
+        return (long) rank << 32 | (parent + 1) & 0xFFFF_FFFFL;
+    }
+
+    private static int parent(long entry) {
+        return (int) entry - 1;
+    }
+
+    private static int rank(long entry) {
+        return (int) (entry >>> 32);
+    }
+}
@@ -0,0 +1,205 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyView;
+
+import java.util.*;
+
+/**
+ * <h3>Compressed Sparse Row (CSR) snapshot of a {@link GraphContext}</h3>
+ * <p>
+ * An immutable, int-indexed copy of one version of the adjacency list. Vertices are numbered
+ * <code>0..n-1</code>; the out-edges of vertex <code>v</code> occupy the slice
+ * <code>[offsets[v], offsets[v + 1])</code> of the parallel <code>targets</code> / <code>weights</code> arrays.
+ * </p>
+ * <ul>
+ * <li>Traversals become sequential array scans instead of hash lookups and pointer chasing.</li>
+ * <li>Each edge costs 12 bytes (an <code>int</code> target and a <code>double</code> weight) plus 4 bytes per vertex.</li>
+ * <li>For undirected graphs every edge is stored in both directions, exactly like the adjacency list.</li>
+ * </ul>
+ * The arrays returned by {@link #offsets()}, {@link #targets()} and {@link #weights()} are shared, not copied;
+ * callers must treat them as read-only.
+ */
+public final class CsrSnapshot<T> {
+    private final GraphType type;
+    private final int version;
+    private final Object[] vertices;
+    private final VertexIdMapper<T> vertexIds;
+    private final int[] indexById;
+    private final int[] offsets;
+    private final int[] targets;
+    private final double[] weights;
+    private volatile Map<T, Integer> indexByVertex;
+    private volatile CsrSnapshot<T> transposed;
+
+    private CsrSnapshot(GraphType type, int version, Object[] vertices, VertexIdMapper<T> vertexIds, int[] indexById,
+                        int[] offsets, int[] targets, double[] weights) {
+        this.type = type;
+        this.version = version;
+        this.vertices = vertices;
+        this.vertexIds = vertexIds;
+        this.indexById = indexById;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+    }
+
+    /**
+     * Compacts the adjacency list of the given context. The caller must keep writers out
+     * (hold the graph lock) for the duration of the copy.
+     */
+    static <T> CsrSnapshot<T> of(GraphContext<T> context) {
+        VertexIdMapper<T> vertexIds = context.getVertexIds();
+        return of(context.getType(), context.getVersion(), vertexIds, vertexIds.snapshotVertices(), context.getAdjacency());
+    }
+
+    /**
+     * Compacts an adjacency view that no writer can change underneath, such as a pinned one,
+     * so this can run without the graph lock.
+     * @param vertexById the dictionary as of the same version: <code>vertexById[id]</code> is the vertex owning <code>id</code>
+     */
+    static <T> CsrSnapshot<T> of(GraphType type, int version, VertexIdMapper<T> vertexIds, Object[] vertexById,
+                                 AdjacencyView adjacency) {
+        int capacity = adjacency.capacity();
+        int[] indexById = new int[capacity];
+        Arrays.fill(indexById, -1);
+
+        // ids can have holes left by removed vertices; compact the live ones to 0..n-1
+        int n = 0;
+        int edges = 0;
+        for (int id = 0; id < capacity; id++) {
+            if (adjacency.contains(id)) {
+                indexById[id] = n++;
+                edges += adjacency.degree(id);
+            }
+        }
+
+        Object[] vertices = new Object[n];
+        int[] offsets = new int[n + 1];
+        int[] targets = new int[edges];
+        double[] weights = new double[edges];
+        for (int id = 0; id < capacity; id++) {
+            int index = indexById[id];
+            if (index < 0) continue;
+            vertices[index] = vertexById[id];
+            int written = adjacency.copyNeighbors(id, targets, weights, offsets[index]);
+            offsets[index + 1] = offsets[index] + written;
+        }
+        for (int edge = 0; edge < edges; edge++) {
+            targets[edge] = indexById[targets[edge]];
+        }
+        return new CsrSnapshot<>(type, version, vertices, vertexIds, indexById, offsets, targets, weights);
+    }
+
+    /**
+     * Builds the transposed graph (every edge <code>u -> v</code> becomes <code>v -> u</code>)
+     * over the same vertex numbering, using a counting pass instead of per-vertex maps.
+     * Built once: later calls, including <code>transpose()</code> of the result, return the same instance.
+     */
+    public CsrSnapshot<T> transpose() {
+        CsrSnapshot<T> result = transposed;
+        if (result == null) {
+            // a race builds it twice, which is harmless: both are equal and immutable
+            result = buildTranspose();
+            result.transposed = this;
+            transposed = result;
+        }
+        return result;
+    }
+
+    private CsrSnapshot<T> buildTranspose() {
+        int n = vertexCount();
+        int[] reversedOffsets = new int[n + 1];
+        for (int edge = 0; edge < targets.length; edge++) {
+            reversedOffsets[targets[edge] + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            reversedOffsets[v + 1] += reversedOffsets[v];
+        }
+
+        int[] cursor = Arrays.copyOf(reversedOffsets, n);
+        int[] reversedTargets = new int[targets.length];
+        double[] reversedWeights = new double[weights.length];
+        for (int from = 0; from < n; from++) {
+            for (int edge = offsets[from]; edge < offsets[from + 1]; edge++) {
+                int slot = cursor[targets[edge]]++;
+                reversedTargets[slot] = from;
+                reversedWeights[slot] = weights[edge];
+            }
+        }
+        return new CsrSnapshot<>(type, version, vertices, vertexIds, indexById, reversedOffsets, reversedTargets, reversedWeights);
+    }
+
+    public GraphType getType() {
+        return type;
+    }
+
+    public int getVersion() {
+        return version;
+    }
+
+    public int vertexCount() {
+        return vertices.length;
+    }
+
+    /**
+     * Number of stored adjacency entries. Undirected edges are counted once per direction.
+     */
+    public int adjacencyCount() {
+        return targets.length;
+    }
+
+    /**
+     * Resolves the vertex through the live {@link VertexIdMapper} when its id is unchanged since the
+     * snapshot was taken, and otherwise through an index of this snapshot's own vertices, built once.
+     * @return the dense index of the vertex, or <code>-1</code> when it is not part of this snapshot.
+     */
+    public int indexOf(T vertex) {
+        int id = vertexIds.idOf(vertex);
+        if (id >= 0 && id < indexById.length) {
+            int index = indexById[id];
+            if (index >= 0 && vertex.equals(vertices[index])) return index;
+        }
+        Map<T, Integer> byVertex = indexByVertex;
+        if (byVertex == null) {
+            byVertex = new HashMap<>(vertices.length * 2);
+            for (int index = 0; index < vertices.length; index++) {
+                byVertex.put(vertexAt(index), index);
+            }
+            indexByVertex = byVertex;
+        }
+        return byVertex.getOrDefault(vertex, -1);
+    }
+
+    @SuppressWarnings("unchecked")
+    public T vertexAt(int index) {
+        return (T) vertices[index];
+    }
+
+    public int degree(int vertex) {
+        return offsets[vertex + 1] - offsets[vertex];
+    }
+
+    public int[] offsets() {
+        return offsets;
+    }
+
+    public int[] targets() {
+        return targets;
+    }
+
+    public double[] weights() {
+        return weights;
+    }
+
+    /**
+     * Maps a list of dense indexes back to the vertices they stand for.
+     */
+    public List<T> toVertices(int[] indexes, int from, int to) {
+        List<T> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            result.add(vertexAt(indexes[i]));
+        }
+        return result;
+    }
+}
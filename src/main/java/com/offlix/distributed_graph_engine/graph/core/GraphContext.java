@@ -1,19 +1,25 @@
 package com.offlix.distributed_graph_engine.graph.core;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStats;
 import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsImpl;
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsReport;
 import com.offlix.distributed_graph_engine.domain.GraphType;
 import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadata;
-import lombok.AllArgsConstructor;
-import lombok.Builder;
-import lombok.Data;
-import lombok.RequiredArgsConstructor;
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyStore;
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyTable;
+import com.offlix.distributed_graph_engine.graph.core.storage.NeighborConsumer;
+import com.offlix.distributed_graph_engine.graph.core.storage.PinnedAdjacency;
+import lombok.*;
 import lombok.extern.slf4j.Slf4j;
 
 import java.time.Instant;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
 
 @Slf4j
 @Data
@@ -24,50 +30,216 @@ public class GraphContext<T> {
     @JsonProperty("type")
     private final GraphType type;
 
-    @JsonProperty("adjacencyList")
+    /**
+     * Interns vertex keys to the dense ids that key every other structure in this context.
+     */
+    @JsonIgnore
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final VertexIdMapper<T> vertexIds = new VertexIdMapper<>();
+
+    /**
+     * Out-edges of every vertex, indexed by vertex id. Heap-backed unless built with another
+     * {@link AdjacencyStore}. {@link #getAdjacencyList()} exposes it keyed by vertex.
+     */
+    @JsonIgnore
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final AdjacencyStore adjacency = new AdjacencyTable();
+
+    /**
+     * In-edges of every vertex of a directed graph: row <code>v</code> holds the sources of the edges into
+     * <code>v</code>. Kept in step with {@link #adjacency} by every edge operation, so predecessors and the
+     * transpose are never rebuilt. Undirected rows are symmetric already, so {@link #getInAdjacency()}
+     * returns {@link #adjacency} for them and this store stays empty.
+     */
+    @JsonIgnore
     @Builder.Default
-    private final Map<T, Map<T, Double>> adjacencyList=new ConcurrentHashMap<>();
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final AdjacencyStore inAdjacency = new AdjacencyTable();
+
+    /**
+     * Notified of every committed mutation; see {@link GraphMutationListener}. Copy-on-write, since listeners
+     * are registered rarely and iterated on every write.
+     */
+    @JsonIgnore
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final List<GraphMutationListener<T>> mutationListeners = new CopyOnWriteArrayList<>();
+
+    @JsonIgnore
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Object publishOrder = new Object();
+
+    /**
+     * Union-find over vertex ids, updated by every edge insert; see {@link Connectivity}.
+     */
+    @JsonIgnore
+    @Builder.Default
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final Connectivity connectivity = new Connectivity();
+
+    /**
+     * Set only in DAG mode: the order every edge insert is checked against; see {@link TopologicalOrder}.
+     */
+    @JsonIgnore
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private final TopologicalOrder topologicalOrder;
 
     @JsonProperty("metadata")
     @Builder.Default
     private final Map<String, Object> metadata = new ConcurrentHashMap<>();
 
-    @JsonProperty("vertexMetadata")
+    /**
+     * Metadata of every vertex, keyed by vertex id. {@link #getVertexMetadataByVertex()} exposes it keyed by vertex.
+     */
+    @JsonIgnore
     @Builder.Default
-    private final Map<T, VertexMetadata> vertexMetadata = new ConcurrentHashMap<>();
+    private final Map<Integer, VertexMetadata> vertexMetadata = new ConcurrentHashMap<>();
 
     @Builder.Default
-    private Instant updatedAt=Instant.now();
+    private volatile Instant updatedAt=Instant.now();
+
+    /**
+     * Bumped by every mutation. Atomic because writers on different lock stripes mutate concurrently.
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
     @Builder.Default
-    private int version=1;
+    private final AtomicInteger version=new AtomicInteger(1);
 
 
     @Builder.Default
     private GraphStats stats=new GraphStatsImpl();
 
+    @JsonIgnore
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private volatile CsrSnapshot<T> frozen;
+
+
+    @JsonProperty("version")
+    public int getVersion(){
+        return version.get();
+    }
 
     public Set<T> getVertices(){
-        return adjacencyList.keySet();
+        return vertexIds.vertices();
     }
 
     public Set<T> getNeighbors(T vertex){
-        return adjacencyList.getOrDefault(vertex, Map.of()).keySet();
+        return getNeighborsWithEdgeWeight(vertex).map(Map::keySet).orElse(Set.of());
     }
 
+    /**
+     * Read-only view of the vertex's out-edges keyed by vertex. Internal code should use
+     * {@link #forEachNeighbor(int, NeighborConsumer)} and stay on ids.
+     */
     public Optional<Map<T, Double>> getNeighborsWithEdgeWeight(T vertex){
-        return Optional.ofNullable(adjacencyList.getOrDefault(vertex, Map.of()));
+        int id = vertexIds.idOf(vertex);
+        if(id<0) return Optional.of(Map.of());
+        return Optional.of(Collections.unmodifiableMap(neighborsOf(id)));
+    }
+
+    /**
+     * Snapshot of the whole adjacency list keyed by vertex, for printing and JSON.
+     */
+    @JsonProperty("adjacencyList")
+    public Map<T, Map<T, Double>> getAdjacencyList(){
+        Map<T, Map<T, Double>> adjacencyList = new LinkedHashMap<>();
+        adjacency.forEachVertex(id-> adjacencyList.put(vertexIds.vertexOf(id), neighborsOf(id)));
+        return adjacencyList;
+    }
+
+    /**
+     * Read-only snapshot of the vertex metadata keyed by vertex, for printing and JSON.
+     */
+    @JsonProperty("vertexMetadata")
+    public Map<T, VertexMetadata> getVertexMetadataByVertex(){
+        Map<T, VertexMetadata> byVertex = new LinkedHashMap<>();
+        vertexMetadata.forEach((id, metadata)->{
+            // a vertex removed since the map was read has no key any more
+            T vertex = vertexIds.vertexOf(id);
+            if(vertex!=null) byVertex.put(vertex, metadata);
+        });
+        return Collections.unmodifiableMap(byVertex);
+    }
+
+    private Map<T, Double> neighborsOf(int id){
+        Map<T, Double> neighbors = new LinkedHashMap<>();
+        forEachNeighbor(id, (neighbor, weight)-> neighbors.put(vertexIds.vertexOf(neighbor), weight));
+        return neighbors;
+    }
+
+    public void forEachNeighbor(int id, NeighborConsumer action){
+        adjacency.forEachNeighbor(id, action);
+    }
+
+    public AdjacencyStore getInAdjacency(){
+        return type==GraphType.UNDIRECTED ? adjacency : inAdjacency;
+    }
+
+    /**
+     * Visits the sources of the edges into <code>id</code>, with their weights. O(in-degree).
+     */
+    public void forEachPredecessor(int id, NeighborConsumer action){
+        getInAdjacency().forEachNeighbor(id, action);
+    }
+
+    public int inDegree(int id){
+        return getInAdjacency().degree(id);
+    }
+
+    /**
+     * Read-only view of the vertex's in-edges keyed by source vertex.
+     */
+    public Map<T, Double> getPredecessorsWithEdgeWeight(T vertex){
+        int id = vertexIds.idOf(vertex);
+        if(id<0) return Map.of();
+        Map<T, Double> predecessors = new LinkedHashMap<>();
+        forEachPredecessor(id, (source, weight)-> predecessors.put(vertexIds.vertexOf(source), weight));
+        return Collections.unmodifiableMap(predecessors);
+    }
+
+    public int degree(int id){
+        return adjacency.degree(id);
+    }
+
+    public boolean containsVertex(int id){
+        return adjacency.contains(id);
+    }
+
+    public VertexMetadata getVertexMetadata(T vertex){
+        int id = vertexIds.idOf(vertex);
+        return id<0 ? null : vertexMetadata.get(id);
     }
 
     public int getEdgeCount(T vertex){
-        return adjacencyList.get(vertex).size();
+        return degree(vertexIds.idOf(vertex));
     }
 
-    public void removeVertexFromAdjacencyList(T vertex){
-        adjacencyList.remove(vertex);
+    public void removeVertexFromAdjacencyList(int id){
+        adjacency.removeVertex(id);
+        if(type!=GraphType.UNDIRECTED){
+            inAdjacency.removeVertex(id);
+        }
     }
 
-    public void removeVertexFromVertexMetadata(T vertex){
-        vertexMetadata.remove(vertex);
+    public void removeVertexFromVertexMetadata(int id){
+        vertexMetadata.remove(id);
     }
 
     public void incrementEdgeCount(){
@@ -90,35 +262,180 @@ public class GraphContext<T> {
         stats.decrementEdgeCount(1);
     }
 
-    public void incrementVersionAndTouch(){
+    /**
+     * Lock-free: every value comes from a counter the writers keep current.
+     */
+    public GraphStatsReport statsReport(){
+        return new GraphStatsReport(type, getVersion(), updatedAt,
+                stats.getVertexCount(), stats.getEdgeCount(), stats.getDensity(),
+                stats.getMaxDegree(), stats.getDegreeHistogram(),
+                adjacency.footprintBytes(), type==GraphType.UNDIRECTED ? 0 : inAdjacency.footprintBytes());
+    }
+
+    /**
+     * Bumps the version and hands it to <code>publish</code>, which reports the mutation to the listeners.
+     * With listeners registered, bump and report happen under {@link #publishOrder}: writers on disjoint stripes
+     * otherwise bump in one order and report in another. Listeners thus see versions in increasing order and
+     * the changes of one version back to back, which is what lets a consumer resume from a version.
+     * Without listeners it is a plain bump.
+     */
+    public void commitVersion(IntConsumer publish){
+        if(mutationListeners.isEmpty()){
+            incrementVersionAndTouch();
+            return;
+        }
+        synchronized (publishOrder){
+            publish.accept(incrementVersionAndTouch());
+        }
+    }
+
+    /**
+     * @return the new version
+     */
+    public int incrementVersionAndTouch(){
         this.updatedAt = Instant.now();
-        this.version++;
-        log.info("Graph updated at {} (version {})", updatedAt, version);
+        int current = version.incrementAndGet();
+        log.debug("Graph updated at {} (version {})", updatedAt, current);
+        return current;
+    }
+
+    /**
+     * Sets the version of a graph rebuilt from durable state, so it continues where the original left off.
+     * Callers must hold the write lock.
+     */
+    public void restoreVersion(int restored){
+        version.set(restored);
+        frozen = null;
     }
 
-    public Collection<Map<T, Double>> getAllNeighborsWithWeights(){
-        return adjacencyList.values();
+    public void addMutationListener(GraphMutationListener<T> listener){
+        mutationListeners.add(listener);
     }
 
+    public void removeMutationListener(GraphMutationListener<T> listener){
+        mutationListeners.remove(listener);
+    }
+
+    public boolean hasMutationListeners(){
+        return !mutationListeners.isEmpty();
+    }
+
+    public void publishVertexAdded(int version, T vertex){
+        for(GraphMutationListener<T> listener : mutationListeners){
+            listener.vertexAdded(version, vertex);
+        }
+    }
+
+    public void publishVertexRemoved(int version, T vertex){
+        for(GraphMutationListener<T> listener : mutationListeners){
+            listener.vertexRemoved(version, vertex);
+        }
+    }
+
+    public void publishEdgeAdded(int version, T source, T destination, double weight){
+        for(GraphMutationListener<T> listener : mutationListeners){
+            listener.edgeAdded(version, source, destination, weight);
+        }
+    }
+
+    public void publishEdgeReweighted(int version, T source, T destination, double weight){
+        for(GraphMutationListener<T> listener : mutationListeners){
+            listener.edgeReweighted(version, source, destination, weight);
+        }
+    }
+
+    public void publishEdgeRemoved(int version, T source, T destination){
+        for(GraphMutationListener<T> listener : mutationListeners){
+            listener.edgeRemoved(version, source, destination);
+        }
+    }
+
+    public void afterWrite(){
+        for(GraphMutationListener<T> listener : mutationListeners){
+            listener.afterWrite();
+        }
+    }
+
+    /**
+     * Forces the adjacency store and the vertex dictionary to durable storage, when they have one.
+     */
+    public void flush(){
+        adjacency.flush();
+        inAdjacency.flush();
+        vertexIds.flush();
+    }
+
+    public void close(){
+        adjacency.close();
+        inAdjacency.close();
+        vertexIds.close();
+    }
+
+    /**
+     * Compacts the current version into a read-only {@link CsrSnapshot}. The result is cached
+     * until the next mutation bumps {@link #version}, so repeated analytics on an unchanged
+     * graph share a single compaction. Callers must hold at least the read lock.
+     */
+    public CsrSnapshot<T> freeze(){
+        CsrSnapshot<T> snapshot = frozen;
+        if(snapshot==null || snapshot.getVersion()!=getVersion()){
+            snapshot = CsrSnapshot.of(this);
+            frozen = snapshot;
+        }
+        return snapshot;
+    }
+
+    /**
+     * Pins the current version for lock-free reading; see {@link GraphSnapshot}. Callers must hold at least
+     * the read lock for this call only. A store that cannot share structure is compacted right here instead.
+     */
+    public GraphSnapshot<T> snapshot(){
+        CsrSnapshot<T> cached = frozen;
+        if(cached!=null && cached.getVersion()==getVersion()){
+            return new GraphSnapshot<>(this, cached);
+        }
+        Optional<PinnedAdjacency> pinned = adjacency.pin();
+        if(pinned.isEmpty()){
+            return new GraphSnapshot<>(this, freeze());
+        }
+        return new GraphSnapshot<>(this, pinned.get(), vertexIds.snapshotVertices());
+    }
+
+    /**
+     * Caches a compaction produced outside the lock, unless a newer one is cached already.
+     */
+    void offerFrozen(CsrSnapshot<T> snapshot){
+        CsrSnapshot<T> cached = frozen;
+        if(cached==null || cached.getVersion()<snapshot.getVersion()){
+            frozen = snapshot;
+        }
+    }
+
+    /**
+     * Transposed adjacency keyed by vertex, read straight off the in-edge index.
+     * Vertices without in-edges are left out.
+     */
     public Map<T, Set<T>> reverseGraph(){
         Map<T, Set<T>> reversed = new HashMap<>();
-        Map<T, Map<T, Double>> reverseGraph = reverseGraphWithWeight();
-        reverseGraph.forEach((from, neighbors)->{
-                neighbors.keySet().forEach(to ->
-                          reversed.computeIfAbsent(from, k-> new HashSet<>()).add(to));
+        AdjacencyStore incoming = getInAdjacency();
+        incoming.forEachVertex(to->{
+            if(incoming.degree(to)==0) return;
+            Set<T> sources = new HashSet<>();
+            incoming.forEachNeighbor(to, (from, weight)-> sources.add(vertexIds.vertexOf(from)));
+            reversed.put(vertexIds.vertexOf(to), sources);
         });
         return reversed;
     }
 
     public Map<T, Map<T, Double>> reverseGraphWithWeight(){
         Map<T, Map<T, Double>> reversed = new HashMap<>();
-        adjacencyList.forEach((from, neighbors)->{
-            neighbors.entrySet().forEach(tDoubleEntry ->
-                    reversed.computeIfAbsent(tDoubleEntry.getKey(), k-> new HashMap<>())
-                            .put(from, tDoubleEntry.getValue())
-                    );
+        AdjacencyStore incoming = getInAdjacency();
+        incoming.forEachVertex(to->{
+            if(incoming.degree(to)==0) return;
+            Map<T, Double> sources = new HashMap<>();
+            incoming.forEachNeighbor(to, (from, weight)-> sources.put(vertexIds.vertexOf(from), weight));
+            reversed.put(vertexIds.vertexOf(to), sources);
         });
-
         return reversed;
     }
 }
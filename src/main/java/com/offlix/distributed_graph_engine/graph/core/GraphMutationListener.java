@@ -0,0 +1,44 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+/**
+ * Observer of committed mutations, registered with {@link GraphContext#addMutationListener(GraphMutationListener)}.
+ * <ul>
+ * <li>Called on the writer's thread right after the version bump, while the writer still holds the stripes it
+ * mutated. Every mutation a snapshot of version <code>v</code> contains is reported with a version of at most
+ * <code>v</code>.</li>
+ * <li>Versions arrive in increasing order across all writers, and the callbacks of one version arrive back to
+ * back; see {@link GraphContext#commitVersion(java.util.function.IntConsumer)}.</li>
+ * <li>Bulk writes report every vertex and edge they added, all with the batch's single version.</li>
+ * <li>{@link #vertexRemoved(int, Object)} implies the removal of every edge touching the vertex; those edges
+ * are not reported separately.</li>
+ * </ul>
+ * Callbacks run inside the graph lock: they must be quick and must never call back into the graph.
+ * Work that may block belongs in {@link #afterWrite()}.
+ */
+public interface GraphMutationListener<T> {
+
+    default void vertexAdded(int version, T vertex) {
+    }
+
+    default void vertexRemoved(int version, T vertex) {
+    }
+
+    default void edgeAdded(int version, T source, T destination, double weight) {
+    }
+
+    default void edgeRemoved(int version, T source, T destination) {
+    }
+
+    /**
+     * The edge existed and now has <code>weight</code>. Undirected edges are reported once, in the direction written.
+     */
+    default void edgeReweighted(int version, T source, T destination, double weight) {
+    }
+
+    /**
+     * Called on the writer's thread once a mutating <code>GraphManager</code> call has released the lock.
+     * Blocking here (for example until the mutation is durable) holds up only that writer.
+     */
+    default void afterWrite() {
+    }
+}
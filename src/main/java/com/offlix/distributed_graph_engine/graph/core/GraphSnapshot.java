@@ -0,0 +1,73 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.storage.PinnedAdjacency;
+
+/**
+ * <h3>A pinned, immutable version of a {@link GraphContext}</h3>
+ * <ul>
+ * <li>Taken under the graph lock by {@link GraphContext#snapshot()}, in time proportional to the vertex
+ * count: it copies row pointers and the dictionary, never edges.</li>
+ * <li>Read without any lock afterwards. Writers keep going and copy a row only the first time they
+ * touch it while the snapshot is open.</li>
+ * <li>{@link #csr()} compacts the pinned version on the calling thread. The result is handed back to the
+ * context, so analytics that start later on the same version can reuse it.</li>
+ * <li>Must be closed. Once closed, writers go back to mutating rows in place.</li>
+ * </ul>
+ */
+public final class GraphSnapshot<T> implements AutoCloseable {
+    private final GraphContext<T> source;
+    private final GraphType type;
+    private final int version;
+    private final Object[] vertexById;
+    private PinnedAdjacency pinned;
+    private CsrSnapshot<T> csr;
+
+    GraphSnapshot(GraphContext<T> source, PinnedAdjacency pinned, Object[] vertexById){
+        this.source = source;
+        this.type = source.getType();
+        this.version = source.getVersion();
+        this.vertexById = vertexById;
+        this.pinned = pinned;
+    }
+
+    GraphSnapshot(GraphContext<T> source, CsrSnapshot<T> csr){
+        this.source = source;
+        this.type = csr.getType();
+        this.version = csr.getVersion();
+        this.vertexById = null;
+        this.csr = csr;
+    }
+
+    public GraphType getType(){
+        return type;
+    }
+
+    public int getVersion(){
+        return version;
+    }
+
+    /**
+     * Compacts the pinned version on first use and releases the pin, since the result no longer shares anything with the store.
+     */
+    public synchronized CsrSnapshot<T> csr(){
+        if(csr==null){
+            if(pinned==null){
+                throw new IllegalStateException("Snapshot of version " + version + " is closed");
+            }
+            csr = CsrSnapshot.of(type, version, source.getVertexIds(), vertexById, pinned);
+            pinned.close();
+            pinned = null;
+            source.offerFrozen(csr);
+        }
+        return csr;
+    }
+
+    @Override
+    public synchronized void close(){
+        if(pinned!=null){
+            pinned.close();
+            pinned = null;
+        }
+    }
+}
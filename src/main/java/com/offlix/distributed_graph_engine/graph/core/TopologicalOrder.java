@@ -0,0 +1,176 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyView;
+
+import java.util.Arrays;
+
+/**
+ * <h3>Dynamic topological order of a DAG-mode graph (Pearce–Kelly)</h3>
+ * <ul>
+ * <li>Every live vertex id holds a distinct <b>position</b>, and every edge points from a lower position to a
+ * higher one. A new vertex has no edges and takes the next free position at the end.</li>
+ * <li>An edge <code>x → y</code> with <code>pos(x) &lt; pos(y)</code> already fits and costs O(1).</li>
+ * <li>Otherwise only the <b>affected region</b> <code>[pos(y), pos(x)]</code> is searched: forward from
+ * <code>y</code> through vertices positioned before <code>x</code>, backward from <code>x</code> through
+ * vertices positioned after <code>y</code>. Reaching <code>x</code> forward means the edge would
+ * close a cycle, and it is refused with the order untouched.</li>
+ * <li>Otherwise the two visited sets swap places: the positions they held are handed out again, first to
+ * the backward set, then to the forward set, each in its old relative order.</li>
+ * </ul>
+ * Positions are comparable, not dense: removals leave gaps. Edge inserts must hold every stripe, since the
+ * search reads rows anywhere in the region; vertex adds and queries synchronize on the order itself.
+ */
+public class TopologicalOrder {
+    private int[] position = new int[0];
+    private int nextPosition;
+
+    // search scratch, reused between inserts: a vertex is visited when its mark equals the stamp
+    private int[] mark = new int[0];
+    private int stamp;
+    private int[] forward = new int[16];
+    private int[] backward = new int[16];
+    private int[] pending = new int[16];
+    private int pendingCount;
+    private boolean reachedTarget;
+
+    public synchronized void vertexAdded(int id) {
+        ensureCapacity(id);
+        position[id] = nextPosition++;
+    }
+
+    public synchronized void vertexRemoved(int id) {
+        if (id < position.length) position[id] = -1;
+    }
+
+    /**
+     * @return the position of the vertex, or -1 when the id is not live
+     */
+    public synchronized int positionOf(int id) {
+        return id >= 0 && id < position.length ? position[id] : -1;
+    }
+
+    /**
+     * Makes room in the order for the edge <code>source → destination</code>, before it is inserted.
+     * @param outgoing out-rows of the graph
+     * @param incoming in-rows of the graph
+     * @return <code>false</code> when the edge would close a cycle; the order is then unchanged
+     */
+    public synchronized boolean edgeAdding(AdjacencyView outgoing, AdjacencyView incoming, int source, int destination) {
+        int lowerBound = position[destination];
+        int upperBound = position[source];
+        if (lowerBound > upperBound) return true;
+        nextStamp();
+        int forwardCount = search(outgoing, destination, source, lowerBound, upperBound, true);
+        if (forwardCount < 0) return false;
+        int backwardCount = search(incoming, source, -1, lowerBound, upperBound, false);
+        reorder(forwardCount, backwardCount);
+        return true;
+    }
+
+    /**
+     * Rebuilds the order from the rows with Kahn's algorithm, for rows that went in without
+     * {@link #edgeAdding(AdjacencyView, AdjacencyView, int, int)}. The caller must keep writers out.
+     * @throws IllegalStateException when the rows contain a cycle
+     */
+    public synchronized void rebuild(AdjacencyView outgoing, int capacity) {
+        position = new int[capacity];
+        mark = new int[capacity];
+        stamp = 0;
+        Arrays.fill(position, -1);
+        int[] inDegree = new int[capacity];
+        outgoing.forEachVertex(id -> outgoing.forEachNeighbor(id, (neighbor, weight) -> inDegree[neighbor]++));
+        int[] queue = new int[capacity];
+        int[] tail = new int[1];
+        outgoing.forEachVertex(id -> {
+            if (inDegree[id] == 0) queue[tail[0]++] = id;
+        });
+        int head = 0;
+        while (head < tail[0]) {
+            int id = queue[head];
+            position[id] = head++;
+            outgoing.forEachNeighbor(id, (neighbor, weight) -> {
+                if (--inDegree[neighbor] == 0) queue[tail[0]++] = neighbor;
+            });
+        }
+        nextPosition = head;
+        if (head < outgoing.vertexCount()) {
+            throw new IllegalStateException("Rows contain a cycle through " + (outgoing.vertexCount() - head)
+                    + " vertices");
+        }
+    }
+
+    /**
+     * Collects the vertices reachable from <code>start</code> inside the affected region, into
+     * <code>forward</code> or <code>backward</code>.
+     * @param target the vertex whose discovery means a cycle, or -1
+     * @return how many were collected, or -1 when <code>target</code> was reached
+     */
+    private int search(AdjacencyView rows, int start, int target, int lowerBound, int upperBound, boolean isForward) {
+        int count = 0;
+        pendingCount = 0;
+        reachedTarget = false;
+        visit(start);
+        while (pendingCount > 0) {
+            int id = pending[--pendingCount];
+            if (isForward) forward = append(forward, count++, id);
+            else backward = append(backward, count++, id);
+            rows.forEachNeighbor(id, (neighbor, weight) -> {
+                if (neighbor == target) reachedTarget = true;
+                int neighborPosition = position[neighbor];
+                boolean inRegion = isForward ? neighborPosition < upperBound : neighborPosition > lowerBound;
+                if (inRegion && mark[neighbor] != stamp) visit(neighbor);
+            });
+            if (reachedTarget) return -1;
+        }
+        return count;
+    }
+
+    private void visit(int id) {
+        mark[id] = stamp;
+        pending = append(pending, pendingCount++, id);
+    }
+
+    private static int[] append(int[] ids, int index, int id) {
+        if (index == ids.length) ids = Arrays.copyOf(ids, index * 2);
+        ids[index] = id;
+        return ids;
+    }
+
+    private void reorder(int forwardCount, int backwardCount) {
+        sortByPosition(backward, backwardCount);
+        sortByPosition(forward, forwardCount);
+        int total = backwardCount + forwardCount;
+        int[] positions = new int[total];
+        for (int i = 0; i < backwardCount; i++) positions[i] = position[backward[i]];
+        for (int i = 0; i < forwardCount; i++) positions[backwardCount + i] = position[forward[i]];
+        Arrays.sort(positions);
+        for (int i = 0; i < backwardCount; i++) position[backward[i]] = positions[i];
+        for (int i = 0; i < forwardCount; i++) position[forward[i]] = positions[backwardCount + i];
+    }
+
+    /**
+     * Sorts the ids by their current position: packs (position, id) into one long, so a primitive sort does it.
+     */
+    private void sortByPosition(int[] ids, int count) {
+        long[] packed = new long[count];
+        for (int i = 0; i < count; i++) packed[i] = (long) position[ids[i]] << 32 | ids[i];
+        Arrays.sort(packed);
+        for (int i = 0; i < count; i++) ids[i] = (int) packed[i];
+    }
+
+    private void nextStamp() {
+        if (mark.length < position.length) mark = Arrays.copyOf(mark, position.length);
+        if (++stamp == 0) {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+    }
+
+    private void ensureCapacity(int id) {
+        if (id < position.length) return;
+        int size = Math.max(id + 1, Math.max(16, position.length * 2));
+        int old = position.length;
+        position = Arrays.copyOf(position, size);
+        Arrays.fill(position, old, size, -1);
+    }
+}
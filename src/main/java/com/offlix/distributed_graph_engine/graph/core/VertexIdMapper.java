@@ -0,0 +1,164 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * <h3>Vertex dictionary: interns every vertex key to a dense <code>int</code> id</h3>
+ * <ul>
+ * <li>{@link #intern(Object)} hashes the key once, when the vertex is added; everything
+ * downstream (adjacency, metadata, algorithms) works on the id.</li>
+ * <li>Ids are dense: a removed vertex hands its id back and the next new vertex reuses it,
+ * so id-indexed arrays stay as small as the live vertex count allows.</li>
+ * <li>{@link #idOf(Object)} and {@link #vertexOf(int)} are lock-free; interning and releasing are serialized.</li>
+ * <li>An optional {@link Journal} sees every assignment in order, which is how a persistent backend
+ * keeps the dictionary alive across restarts.</li>
+ * </ul>
+ */
+public class VertexIdMapper<T> {
+
+    /**
+     * Receives dictionary changes in the order they happen, while the mapper is locked.
+     */
+    public interface Journal<T> extends AutoCloseable {
+        void interned(int id, T vertex);
+
+        void released(int id);
+
+        default void flush() {
+        }
+
+        @Override
+        default void close() {
+        }
+    }
+
+    private final Map<T, Integer> ids = new ConcurrentHashMap<>();
+    private final Journal<T> journal;
+    private volatile Object[] vertices = new Object[16];
+    private int[] freeIds = new int[8];
+    private int freeCount;
+    private int nextId;
+
+    public VertexIdMapper(){
+        this(null);
+    }
+
+    public VertexIdMapper(Journal<T> journal){
+        this.journal = journal;
+    }
+
+    /**
+     * @return the id of the vertex, assigning the next free one if the vertex is new.
+     */
+    public int intern(T vertex){
+        Integer id = ids.get(vertex);
+        if(id!=null) return id;
+        synchronized (this){
+            id = ids.get(vertex);
+            if(id!=null) return id;
+            int assigned = freeCount>0 ? freeIds[--freeCount] : nextId++;
+            if(assigned>=vertices.length){
+                vertices = Arrays.copyOf(vertices, Math.max(assigned+1, vertices.length*2));
+            }
+            vertices[assigned] = vertex;
+            ids.put(vertex, assigned);
+            if(journal!=null) journal.interned(assigned, vertex);
+            return assigned;
+        }
+    }
+
+    /**
+     * @return the id of the vertex, or <code>-1</code> when it has never been interned or was released.
+     */
+    public int idOf(T vertex){
+        Integer id = ids.get(vertex);
+        return id==null ? -1 : id;
+    }
+
+    /**
+     * Reverse lookup used to turn algorithm results back into vertex keys.
+     * @return the vertex owning the id, or <code>null</code> when the id is unused.
+     */
+    @SuppressWarnings("unchecked")
+    public T vertexOf(int id){
+        Object[] current = vertices;
+        return id>=0 && id<current.length ? (T) current[id] : null;
+    }
+
+    /**
+     * Forgets the vertex and makes its id available for reuse.
+     * @return the released id, or <code>-1</code> when the vertex was unknown.
+     */
+    public synchronized int release(T vertex){
+        Integer id = ids.remove(vertex);
+        if(id==null) return -1;
+        vertices[id] = null;
+        if(freeCount==freeIds.length){
+            freeIds = Arrays.copyOf(freeIds, freeIds.length*2);
+        }
+        freeIds[freeCount++] = id;
+        if(journal!=null) journal.released(id);
+        return id;
+    }
+
+    /**
+     * Reloads a persisted dictionary into an empty mapper. Ids missing from <code>entries</code>
+     * below the highest restored id become free ids. The journal is not told about restored entries.
+     */
+    public synchronized void restore(Map<Integer, T> entries){
+        if(!ids.isEmpty() || nextId>0){
+            throw new IllegalStateException("Cannot restore into a non-empty vertex dictionary");
+        }
+        int highest = entries.keySet().stream().mapToInt(Integer::intValue).max().orElse(-1);
+        Object[] restored = new Object[Math.max(16, highest+1)];
+        entries.forEach((id, vertex)->{
+            restored[id] = vertex;
+            ids.put(vertex, id);
+        });
+        nextId = highest+1;
+        for(int id = highest; id>=0; id--){
+            if(restored[id]==null){
+                if(freeCount==freeIds.length){
+                    freeIds = Arrays.copyOf(freeIds, freeIds.length*2);
+                }
+                freeIds[freeCount++] = id;
+            }
+        }
+        vertices = restored;
+    }
+
+    public void flush(){
+        if(journal!=null) journal.flush();
+    }
+
+    public void close(){
+        if(journal!=null) journal.close();
+    }
+
+    public int size(){
+        return ids.size();
+    }
+
+    /**
+     * Upper bound (exclusive) of every id handed out so far; id-indexed arrays must be at least this long.
+     */
+    public synchronized int capacity(){
+        return nextId;
+    }
+
+    /**
+     * Copy of the reverse dictionary (<code>id -> vertex</code>, <code>null</code> for unused ids),
+     * taken so a snapshot can resolve its ids after they have been released or reused.
+     */
+    public synchronized Object[] snapshotVertices(){
+        return Arrays.copyOf(vertices, nextId);
+    }
+
+    public Set<T> vertices(){
+        return Collections.unmodifiableSet(ids.keySet());
+    }
+}
@@ -0,0 +1,63 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import java.util.Optional;
+
+/**
+ * Storage backend for the out-adjacency of a graph, addressed purely by dense vertex ids.
+ * <p>
+ * {@link AdjacencyTable} keeps rows on the heap; {@link MappedAdjacencyStore} keeps them in
+ * memory-mapped files. Structural changes (adding or removing a vertex row) are safe to call
+ * concurrently; edge reads and writes are guarded by the graph lock.
+ * </p>
+ */
+public interface AdjacencyStore extends AdjacencyView, AutoCloseable {
+
+    /**
+     * @return <code>true</code> when the row was created
+     */
+    boolean addVertex(int id);
+
+    /**
+     * Drops the row and every out-edge in it.
+     * @return <code>true</code> when the id was live
+     */
+    boolean removeVertex(int id);
+
+    boolean containsEdge(int from, int to);
+
+    /**
+     * Inserts the edge or overwrites its weight. The <code>from</code> row must exist.
+     * @return <code>true</code> when the edge is new
+     */
+    boolean putEdge(int from, int to, double weight);
+
+    /**
+     * @return <code>true</code> when the edge existed and has been removed
+     */
+    boolean removeEdge(int from, int to);
+
+    /**
+     * Self-reported size of the store in bytes, read in O(1) without locking: estimated heap bytes of the
+     * live rows for heap storage, mapped file bytes for off-heap storage.
+     */
+    long footprintBytes();
+
+    /**
+     * Pins the current version as an immutable view that shares structure with the store.
+     * Must be called with writers excluded; the returned view can then be read with no lock held.
+     * @return empty when the store cannot share structure, in which case callers copy it instead
+     */
+    default Optional<PinnedAdjacency> pin() {
+        return Optional.empty();
+    }
+
+    /**
+     * Pushes buffered state to durable storage. A no-op for heap storage.
+     */
+    default void flush() {
+    }
+
+    @Override
+    default void close() {
+    }
+}
@@ -0,0 +1,232 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntConsumer;
+
+/**
+ * Heap {@link AdjacencyStore}: the out-adjacency of every vertex, indexed directly by the dense vertex id.
+ * Slot <code>id</code> holds the vertex's {@link NeighborMap}, or <code>null</code> when no live vertex owns the id.
+ * <p>
+ * The row array grows by doubling under this object's monitor and is published through a volatile
+ * field, so lookups never lock. Row contents are guarded by the graph lock, like the rest of the context.
+ * </p>
+ * <h3>Copy-on-write snapshots</h3>
+ * <ul>
+ * <li>{@link #pin()} copies only the row pointers (O(V) references, no edges) and starts a new epoch.</li>
+ * <li>While any pin is open, the first write to a row from an older epoch replaces it with a private copy;
+ * the pinned view keeps the original. Untouched rows stay shared between every version.</li>
+ * <li>With no pin open, writes go to the rows in place, so a graph nobody snapshots pays nothing.</li>
+ * <li>Old rows become garbage as soon as the last view referencing them is closed and dropped.</li>
+ * </ul>
+ * {@link #footprintBytes()} is kept up to date as rows are created, grown and dropped, so reading it costs nothing.
+ * It counts the live rows only; copies still held by open pins are not included.
+ */
+public class AdjacencyTable implements AdjacencyStore {
+    private volatile NeighborMap[] rows = new NeighborMap[16];
+    private int vertexCount;
+    private final AtomicInteger pins = new AtomicInteger();
+    private volatile int epoch;
+    private final LongAdder rowBytes = new LongAdder();
+
+    /**
+     * @return the row of the vertex, or <code>null</code> when the id is not live
+     */
+    public NeighborMap get(int id) {
+        NeighborMap[] current = rows;
+        return id >= 0 && id < current.length ? current[id] : null;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        return get(id) != null;
+    }
+
+    @Override
+    public synchronized boolean addVertex(int id) {
+        NeighborMap[] current = rows;
+        if (id >= current.length) {
+            current = Arrays.copyOf(current, Math.max(id + 1, current.length * 2));
+        } else if (current[id] != null) {
+            return false;
+        }
+        current[id] = new NeighborMap(epoch);
+        rows = current;
+        rowBytes.add(NeighborMap.SHALLOW_BYTES);
+        vertexCount++;
+        return true;
+    }
+
+    @Override
+    public synchronized boolean removeVertex(int id) {
+        NeighborMap[] current = rows;
+        if (id < 0 || id >= current.length || current[id] == null) return false;
+        rowBytes.add(-current[id].footprintBytes());
+        current[id] = null;
+        vertexCount--;
+        return true;
+    }
+
+    @Override
+    public int degree(int id) {
+        NeighborMap row = get(id);
+        return row == null ? 0 : row.size();
+    }
+
+    @Override
+    public boolean containsEdge(int from, int to) {
+        NeighborMap row = get(from);
+        return row != null && row.containsKey(to);
+    }
+
+    @Override
+    public boolean putEdge(int from, int to, double weight) {
+        NeighborMap row = writable(from);
+        long before = row.footprintBytes();
+        boolean added = row.put(to, weight);
+        // rows only grow, and only when put spills or rehashes
+        long grown = row.footprintBytes() - before;
+        if (grown != 0) rowBytes.add(grown);
+        return added;
+    }
+
+    @Override
+    public boolean removeEdge(int from, int to) {
+        NeighborMap row = get(from);
+        return row != null && row.containsKey(to) && writable(from).remove(to);
+    }
+
+    @Override
+    public void forEachNeighbor(int id, NeighborConsumer action) {
+        NeighborMap row = get(id);
+        if (row != null) {
+            row.forEach(action);
+        }
+    }
+
+    @Override
+    public int copyNeighbors(int id, int[] targets, double[] weights, int offset) {
+        NeighborMap row = get(id);
+        return row == null ? 0 : row.copyTo(targets, weights, offset);
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int capacity() {
+        return rows.length;
+    }
+
+    @Override
+    public long footprintBytes() {
+        return rowBytes.sum() + 16 + 4L * rows.length;
+    }
+
+    @Override
+    public void forEachVertex(IntConsumer action) {
+        NeighborMap[] current = rows;
+        for (int id = 0; id < current.length; id++) {
+            if (current[id] != null) {
+                action.accept(id);
+            }
+        }
+    }
+
+    /**
+     * Pins the current rows. Callers keep writers out for the duration of the call,
+     * so the view is a consistent cut of the table.
+     */
+    @Override
+    public synchronized Optional<PinnedAdjacency> pin() {
+        pins.incrementAndGet();
+        epoch++;
+        return Optional.of(new PinnedRows(rows.clone(), vertexCount));
+    }
+
+    /**
+     * @return the row to mutate: the live row itself, or a private copy of it when an open pin may share it
+     */
+    private NeighborMap writable(int id) {
+        NeighborMap row = get(id);
+        int current = epoch;
+        if (row == null || pins.get() == 0 || row.epoch() == current) return row;
+        NeighborMap copy = row.copy(current);
+        synchronized (this) {
+            // the row array may have been regrown since it was read
+            rows[id] = copy;
+        }
+        return copy;
+    }
+
+    private final class PinnedRows implements PinnedAdjacency {
+        private final NeighborMap[] pinned;
+        private final int pinnedVertexCount;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private PinnedRows(NeighborMap[] pinned, int pinnedVertexCount) {
+            this.pinned = pinned;
+            this.pinnedVertexCount = pinnedVertexCount;
+        }
+
+        private NeighborMap row(int id) {
+            return id >= 0 && id < pinned.length ? pinned[id] : null;
+        }
+
+        @Override
+        public boolean contains(int id) {
+            return row(id) != null;
+        }
+
+        @Override
+        public int degree(int id) {
+            NeighborMap row = row(id);
+            return row == null ? 0 : row.size();
+        }
+
+        @Override
+        public void forEachNeighbor(int id, NeighborConsumer action) {
+            NeighborMap row = row(id);
+            if (row != null) {
+                row.forEach(action);
+            }
+        }
+
+        @Override
+        public int copyNeighbors(int id, int[] targets, double[] weights, int offset) {
+            NeighborMap row = row(id);
+            return row == null ? 0 : row.copyTo(targets, weights, offset);
+        }
+
+        @Override
+        public void forEachVertex(IntConsumer action) {
+            for (int id = 0; id < pinned.length; id++) {
+                if (pinned[id] != null) {
+                    action.accept(id);
+                }
+            }
+        }
+
+        @Override
+        public int vertexCount() {
+            return pinnedVertexCount;
+        }
+
+        @Override
+        public int capacity() {
+            return pinned.length;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                pins.decrementAndGet();
+            }
+        }
+    }
+}
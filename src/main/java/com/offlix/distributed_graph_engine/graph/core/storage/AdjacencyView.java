@@ -0,0 +1,34 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Read side of an adjacency, addressed by dense vertex id. Implemented by every
+ * {@link AdjacencyStore} and by the immutable views returned from {@link AdjacencyStore#pin()}.
+ */
+public interface AdjacencyView {
+
+    boolean contains(int id);
+
+    /**
+     * @return the out-degree of the vertex, <code>0</code> when the id is not live
+     */
+    int degree(int id);
+
+    void forEachNeighbor(int id, NeighborConsumer action);
+
+    /**
+     * Bulk-copies the row into the given arrays starting at <code>offset</code>.
+     * @return the number of entries written
+     */
+    int copyNeighbors(int id, int[] targets, double[] weights, int offset);
+
+    void forEachVertex(IntConsumer action);
+
+    int vertexCount();
+
+    /**
+     * Upper bound (exclusive) of the ids that can currently hold a row.
+     */
+    int capacity();
+}
@@ -0,0 +1,366 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.IntConsumer;
+
+/**
+ * <h3>Off-heap {@link AdjacencyStore} backed by memory-mapped files</h3>
+ * <p>
+ * Rows live in two files mapped through the FFM {@link MemorySegment} API, so the adjacency can be
+ * larger than the heap. The OS page cache does the caching, and the GC never scans the edges.
+ * </p>
+ * <ul>
+ * <li><b>{@value #INDEX_FILE}:</b> a 64-byte header (magic, format, graph type, vertex count, data tail,
+ * dead bytes), then one 16-byte record per vertex id: <code>long blockOffset, int size, int capacity</code>.
+ * A zero offset marks an unused id; {@value #NO_BLOCK} marks a live vertex without edges.</li>
+ * <li><b>{@value #DATA_FILE}:</b> a 16-byte header, then edge blocks of 12-byte entries
+ * (<code>int target, double weight</code>). Blocks are bump-allocated at the tail and double in capacity
+ * when full. The old block is abandoned and counted in {@link #deadBytes()}.</li>
+ * </ul>
+ * Edge lookups scan the row, so they cost O(out-degree). Files grow by re-mapping at twice the size.
+ * Segments come from {@link Arena#ofAuto()}, so a reader still holding the previous mapping stays valid.
+ * Re-opening an existing directory maps the files in place; nothing is rebuilt.
+ */
+@Slf4j
+public class MappedAdjacencyStore implements AdjacencyStore {
+    static final String INDEX_FILE = "adjacency.idx";
+    static final String DATA_FILE = "adjacency.dat";
+
+    private static final long MAGIC = 0x4447_452D_4144_4A31L;
+    private static final int FORMAT = 1;
+
+    private static final long HEADER_MAGIC = 0;
+    private static final long HEADER_FORMAT = 8;
+    private static final long HEADER_TYPE = 12;
+    private static final long HEADER_VERTEX_COUNT = 16;
+    private static final long HEADER_DATA_TAIL = 24;
+    private static final long HEADER_DEAD_BYTES = 32;
+    private static final long INDEX_HEADER_SIZE = 64;
+    private static final long DATA_HEADER_SIZE = 16;
+
+    private static final long RECORD_SIZE = 16;
+    private static final long RECORD_SIZE_FIELD = 8;
+    private static final long RECORD_CAPACITY_FIELD = 12;
+    private static final long ENTRY_SIZE = 12;
+    private static final long ENTRY_WEIGHT_FIELD = 4;
+
+    private static final long NO_BLOCK = -1;
+    private static final int FIRST_BLOCK_CAPACITY = 4;
+    private static final int INITIAL_VERTEX_CAPACITY = 1024;
+    private static final long INITIAL_DATA_SIZE = 1 << 20;
+
+    private static final ValueLayout.OfLong LONG = ValueLayout.JAVA_LONG_UNALIGNED;
+    private static final ValueLayout.OfInt INT = ValueLayout.JAVA_INT_UNALIGNED;
+    private static final ValueLayout.OfDouble DOUBLE = ValueLayout.JAVA_DOUBLE_UNALIGNED;
+
+    private final FileChannel indexChannel;
+    private final FileChannel dataChannel;
+    private volatile MemorySegment index;
+    private volatile MemorySegment data;
+    private int vertexCount;
+    private long dataTail;
+    private long deadBytes;
+
+    private MappedAdjacencyStore(FileChannel indexChannel, FileChannel dataChannel) {
+        this.indexChannel = indexChannel;
+        this.dataChannel = dataChannel;
+    }
+
+    /**
+     * Maps the store in <code>directory</code>, creating empty files on first use.
+     * @throws IllegalStateException when the files belong to another format or graph type
+     */
+    public static MappedAdjacencyStore open(Path directory, GraphType type) throws IOException {
+        Files.createDirectories(directory);
+        FileChannel indexChannel = FileChannel.open(directory.resolve(INDEX_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        FileChannel dataChannel = FileChannel.open(directory.resolve(DATA_FILE),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        MappedAdjacencyStore store = new MappedAdjacencyStore(indexChannel, dataChannel);
+        boolean fresh = indexChannel.size() == 0;
+        store.index = map(indexChannel, Math.max(indexChannel.size(), INDEX_HEADER_SIZE + INITIAL_VERTEX_CAPACITY * RECORD_SIZE));
+        store.data = map(dataChannel, Math.max(dataChannel.size(), INITIAL_DATA_SIZE));
+        if (fresh) {
+            store.index.set(LONG, HEADER_MAGIC, MAGIC);
+            store.index.set(INT, HEADER_FORMAT, FORMAT);
+            store.index.set(INT, HEADER_TYPE, type.ordinal());
+            store.data.set(LONG, HEADER_MAGIC, MAGIC);
+            store.dataTail = DATA_HEADER_SIZE;
+            store.writeHeader();
+        } else {
+            store.readHeader(directory, type);
+        }
+        log.info("Mapped adjacency store at {}: {} vertices, {} data bytes", directory, store.vertexCount, store.dataTail);
+        return store;
+    }
+
+    @Override
+    public synchronized boolean addVertex(int id) {
+        ensureVertexCapacity(id);
+        MemorySegment idx = index;
+        long record = recordAt(id);
+        if (idx.get(LONG, record) != 0) return false;
+        idx.set(LONG, record, NO_BLOCK);
+        idx.set(INT, record + RECORD_SIZE_FIELD, 0);
+        idx.set(INT, record + RECORD_CAPACITY_FIELD, 0);
+        vertexCount++;
+        writeHeader();
+        return true;
+    }
+
+    @Override
+    public synchronized boolean removeVertex(int id) {
+        if (!contains(id)) return false;
+        MemorySegment idx = index;
+        long record = recordAt(id);
+        deadBytes += idx.get(INT, record + RECORD_CAPACITY_FIELD) * ENTRY_SIZE;
+        idx.set(LONG, record, 0);
+        idx.set(INT, record + RECORD_SIZE_FIELD, 0);
+        idx.set(INT, record + RECORD_CAPACITY_FIELD, 0);
+        vertexCount--;
+        writeHeader();
+        return true;
+    }
+
+    @Override
+    public boolean contains(int id) {
+        MemorySegment idx = index;
+        return id >= 0 && id < capacityOf(idx) && idx.get(LONG, recordAt(id)) != 0;
+    }
+
+    @Override
+    public int degree(int id) {
+        return contains(id) ? index.get(INT, recordAt(id) + RECORD_SIZE_FIELD) : 0;
+    }
+
+    @Override
+    public boolean containsEdge(int from, int to) {
+        return contains(from) && find(from, to) >= 0;
+    }
+
+    @Override
+    public boolean putEdge(int from, int to, double weight) {
+        long record = recordAt(from);
+        long existing = find(from, to);
+        if (existing >= 0) {
+            data.set(DOUBLE, existing + ENTRY_WEIGHT_FIELD, weight);
+            return false;
+        }
+        MemorySegment idx = index;
+        int size = idx.get(INT, record + RECORD_SIZE_FIELD);
+        int capacity = idx.get(INT, record + RECORD_CAPACITY_FIELD);
+        long block = idx.get(LONG, record);
+        if (size == capacity) {
+            block = grow(from, block, size, capacity);
+            idx = index;
+        }
+        long entry = block + size * ENTRY_SIZE;
+        MemorySegment segment = data;
+        segment.set(INT, entry, to);
+        segment.set(DOUBLE, entry + ENTRY_WEIGHT_FIELD, weight);
+        idx.set(INT, record + RECORD_SIZE_FIELD, size + 1);
+        return true;
+    }
+
+    @Override
+    public boolean removeEdge(int from, int to) {
+        if (!contains(from)) return false;
+        long entry = find(from, to);
+        if (entry < 0) return false;
+        MemorySegment idx = index;
+        MemorySegment segment = data;
+        long record = recordAt(from);
+        int size = idx.get(INT, record + RECORD_SIZE_FIELD);
+        long last = idx.get(LONG, record) + (size - 1) * ENTRY_SIZE;
+        if (last != entry) {
+            MemorySegment.copy(segment, last, segment, entry, ENTRY_SIZE);
+        }
+        idx.set(INT, record + RECORD_SIZE_FIELD, size - 1);
+        return true;
+    }
+
+    @Override
+    public void forEachNeighbor(int id, NeighborConsumer action) {
+        if (!contains(id)) return;
+        MemorySegment idx = index;
+        MemorySegment segment = data;
+        long record = recordAt(id);
+        int size = idx.get(INT, record + RECORD_SIZE_FIELD);
+        long entry = idx.get(LONG, record);
+        for (int i = 0; i < size; i++, entry += ENTRY_SIZE) {
+            action.accept(segment.get(INT, entry), segment.get(DOUBLE, entry + ENTRY_WEIGHT_FIELD));
+        }
+    }
+
+    @Override
+    public int copyNeighbors(int id, int[] targets, double[] weights, int offset) {
+        if (!contains(id)) return 0;
+        MemorySegment idx = index;
+        MemorySegment segment = data;
+        long record = recordAt(id);
+        int size = idx.get(INT, record + RECORD_SIZE_FIELD);
+        long entry = idx.get(LONG, record);
+        for (int i = 0; i < size; i++, entry += ENTRY_SIZE) {
+            targets[offset + i] = segment.get(INT, entry);
+            weights[offset + i] = segment.get(DOUBLE, entry + ENTRY_WEIGHT_FIELD);
+        }
+        return size;
+    }
+
+    @Override
+    public void forEachVertex(IntConsumer action) {
+        MemorySegment idx = index;
+        int capacity = capacityOf(idx);
+        for (int id = 0; id < capacity; id++) {
+            if (idx.get(LONG, recordAt(id)) != 0) {
+                action.accept(id);
+            }
+        }
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertexCount;
+    }
+
+    @Override
+    public int capacity() {
+        return capacityOf(index);
+    }
+
+    /**
+     * Mapped bytes of both files. This is address space, not resident memory: the OS pages it in on demand.
+     */
+    @Override
+    public long footprintBytes() {
+        return index.byteSize() + data.byteSize();
+    }
+
+    /**
+     * Bytes of abandoned edge blocks left behind by row growth and vertex removal.
+     */
+    public synchronized long deadBytes() {
+        return deadBytes;
+    }
+
+    @Override
+    public synchronized void flush() {
+        index.force();
+        data.force();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush();
+        try {
+            indexChannel.close();
+            dataChannel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long find(int from, int to) {
+        MemorySegment idx = index;
+        MemorySegment segment = data;
+        long record = recordAt(from);
+        int size = idx.get(INT, record + RECORD_SIZE_FIELD);
+        long entry = idx.get(LONG, record);
+        for (int i = 0; i < size; i++, entry += ENTRY_SIZE) {
+            if (segment.get(INT, entry) == to) return entry;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves a full row into a block of twice the capacity at the data tail.
+     * @return the offset of the new block
+     */
+    private synchronized long grow(int id, long block, int size, int capacity) {
+        int newCapacity = capacity == 0 ? FIRST_BLOCK_CAPACITY : capacity * 2;
+        long newBlock = allocate(newCapacity * ENTRY_SIZE);
+        MemorySegment segment = data;
+        if (size > 0) {
+            MemorySegment.copy(segment, block, segment, newBlock, size * ENTRY_SIZE);
+        }
+        deadBytes += capacity * ENTRY_SIZE;
+        MemorySegment idx = index;
+        long record = recordAt(id);
+        idx.set(LONG, record, newBlock);
+        idx.set(INT, record + RECORD_CAPACITY_FIELD, newCapacity);
+        writeHeader();
+        return newBlock;
+    }
+
+    private long allocate(long bytes) {
+        long block = dataTail;
+        long required = block + bytes;
+        if (required > data.byteSize()) {
+            data = remap(dataChannel, Math.max(required, data.byteSize() * 2));
+        }
+        dataTail = required;
+        return block;
+    }
+
+    private void ensureVertexCapacity(int id) {
+        long required = INDEX_HEADER_SIZE + (id + 1L) * RECORD_SIZE;
+        if (required > index.byteSize()) {
+            index = remap(indexChannel, Math.max(required, index.byteSize() * 2));
+        }
+    }
+
+    private void writeHeader() {
+        MemorySegment idx = index;
+        idx.set(INT, HEADER_VERTEX_COUNT, vertexCount);
+        idx.set(LONG, HEADER_DATA_TAIL, dataTail);
+        idx.set(LONG, HEADER_DEAD_BYTES, deadBytes);
+    }
+
+    private void readHeader(Path directory, GraphType type) {
+        MemorySegment idx = index;
+        if (idx.get(LONG, HEADER_MAGIC) != MAGIC || data.get(LONG, HEADER_MAGIC) != MAGIC) {
+            throw new IllegalStateException("Not a mapped adjacency store: " + directory);
+        }
+        if (idx.get(INT, HEADER_FORMAT) != FORMAT) {
+            throw new IllegalStateException("Unsupported adjacency store format " + idx.get(INT, HEADER_FORMAT) + " in " + directory);
+        }
+        GraphType stored = GraphType.values()[idx.get(INT, HEADER_TYPE)];
+        if (stored != type) {
+            throw new IllegalStateException("Adjacency store at " + directory + " holds a " + stored + " graph, not " + type);
+        }
+        vertexCount = idx.get(INT, HEADER_VERTEX_COUNT);
+        dataTail = idx.get(LONG, HEADER_DATA_TAIL);
+        deadBytes = idx.get(LONG, HEADER_DEAD_BYTES);
+    }
+
+    private static long recordAt(int id) {
+        return INDEX_HEADER_SIZE + id * RECORD_SIZE;
+    }
+
+    private static int capacityOf(MemorySegment index) {
+        return (int) ((index.byteSize() - INDEX_HEADER_SIZE) / RECORD_SIZE);
+    }
+
+    private static MemorySegment remap(FileChannel channel, long size) {
+        try {
+            return map(channel, size);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static MemorySegment map(FileChannel channel, long size) throws IOException {
+        return channel.map(FileChannel.MapMode.READ_WRITE, 0, size, Arena.ofAuto());
+    }
+}
@@ -0,0 +1,116 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsImpl;
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadataImpl;
+import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.VertexIdMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Opens a {@link GraphContext} whose adjacency lives in a {@link MappedAdjacencyStore} and whose
+ * vertex dictionary is journaled to a {@link VertexDictionaryFile} in the same directory.
+ * <p>
+ * On restart the files are re-mapped as they are. The only work is replaying the dictionary and
+ * reconciling it with the index: a crash can leave a row without its dictionary record or the other way round.
+ * Vertex metadata is not persisted and starts fresh.
+ * </p>
+ * <p>
+ * A directed graph also keeps its in-edge index as a second mapped store in the {@value #IN_EDGES_DIRECTORY}
+ * subdirectory. The two stores are written one after the other, so a crash can leave them out of step.
+ * On open, an in-edge store whose vertex set or edge total differs from the out-edge store, or that is
+ * missing, is rebuilt from the out-edge store.
+ * </p>
+ */
+@Slf4j
+public final class MappedGraphStorage {
+    static final String IN_EDGES_DIRECTORY = "in";
+
+    private MappedGraphStorage() {
+    }
+
+    public static <T> GraphContext<T> open(Path directory, GraphType type, VertexKeyCodec<T> codec) throws IOException {
+        VertexDictionaryFile<T> dictionary = VertexDictionaryFile.open(directory, codec);
+        MappedAdjacencyStore store = MappedAdjacencyStore.open(directory, type);
+        Map<Integer, T> entries = dictionary.entries();
+
+        int[] orphanRows = new int[1];
+        store.forEachVertex(id -> {
+            if (!entries.containsKey(id)) {
+                store.removeVertex(id);
+                orphanRows[0]++;
+            }
+        });
+        entries.keySet().forEach(store::addVertex);
+        if (orphanRows[0] > 0) {
+            log.warn("Dropped {} adjacency rows without a dictionary entry in {}", orphanRows[0], directory);
+            store.forEachVertex(from -> {
+                int[] targets = new int[store.degree(from)];
+                store.copyNeighbors(from, targets, new double[targets.length], 0);
+                for (int to : targets) {
+                    if (!store.contains(to)) store.removeEdge(from, to);
+                }
+            });
+        }
+
+        AdjacencyStore incoming = type == GraphType.UNDIRECTED
+                ? new AdjacencyTable()
+                : openInEdges(directory.resolve(IN_EDGES_DIRECTORY), store, type);
+
+        VertexIdMapper<T> vertexIds = new VertexIdMapper<>(dictionary);
+        vertexIds.restore(entries);
+
+        long adjacencyEntries = 0;
+        for (int id : entries.keySet()) {
+            adjacencyEntries += store.degree(id);
+        }
+        int edgeCount = (int) (type == GraphType.UNDIRECTED ? adjacencyEntries / 2 : adjacencyEntries);
+        GraphStatsImpl stats = new GraphStatsImpl(entries.size(), edgeCount);
+        entries.keySet().forEach(id -> stats.recordVertexAdded(store.degree(id)));
+
+        GraphContext<T> context = GraphContext.<T>builder()
+                .type(type)
+                .vertexIds(vertexIds)
+                .adjacency(store)
+                .inAdjacency(incoming)
+                .stats(stats)
+                .build();
+        entries.keySet().forEach(id -> context.getVertexMetadata().put(id, new VertexMetadataImpl()));
+        return context;
+    }
+
+    private static MappedAdjacencyStore openInEdges(Path directory, MappedAdjacencyStore outgoing, GraphType type) throws IOException {
+        boolean existed = Files.exists(directory.resolve(MappedAdjacencyStore.INDEX_FILE));
+        MappedAdjacencyStore incoming = MappedAdjacencyStore.open(directory, type);
+        if (existed && matches(outgoing, incoming)) return incoming;
+
+        if (existed) {
+            log.warn("In-edge store in {} does not match the out-edge store; rebuilding it", directory);
+            incoming.close();
+            Files.delete(directory.resolve(MappedAdjacencyStore.INDEX_FILE));
+            Files.delete(directory.resolve(MappedAdjacencyStore.DATA_FILE));
+            incoming = MappedAdjacencyStore.open(directory, type);
+        }
+        MappedAdjacencyStore rebuilt = incoming;
+        outgoing.forEachVertex(rebuilt::addVertex);
+        outgoing.forEachVertex(from -> outgoing.forEachNeighbor(from, (to, weight) -> rebuilt.putEdge(to, from, weight)));
+        return rebuilt;
+    }
+
+    private static boolean matches(AdjacencyStore outgoing, AdjacencyStore incoming) {
+        if (outgoing.vertexCount() != incoming.vertexCount()) return false;
+        long[] totals = new long[2];
+        boolean[] sameVertices = {true};
+        outgoing.forEachVertex(id -> {
+            sameVertices[0] &= incoming.contains(id);
+            totals[0] += outgoing.degree(id);
+            totals[1] += incoming.degree(id);
+        });
+        return sameVertices[0] && totals[0] == totals[1];
+    }
+}
@@ -0,0 +1,9 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+/**
+ * Receives one adjacency entry without boxing the id or the weight.
+ */
+@FunctionalInterface
+public interface NeighborConsumer {
+    void accept(int neighbor, double weight);
+}
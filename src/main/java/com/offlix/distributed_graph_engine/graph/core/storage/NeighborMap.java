@@ -0,0 +1,276 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import java.util.Arrays;
+
+/**
+ * <h3>Primitive <code>int -> double</code> map holding one vertex's out-edges</h3>
+ * <p>
+ * Most vertices have a handful of neighbors, so a full hash table per vertex wastes most of its heap.
+ * This container keeps neighbor ids and weights unboxed and grows in two stages:
+ * </p>
+ * <ul>
+ * <li><b>Inline:</b> up to {@value #INLINE_CAPACITY} entries live in fields of the object itself, with no arrays at all.</li>
+ * <li><b>Open addressing:</b> beyond that, parallel <code>int[]</code> keys / <code>double[]</code> values with
+ * linear probing, a power-of-two capacity and a load factor of at most 3/4. Removal uses backward-shift
+ * deletion, so there are no tombstones and probe sequences never degrade.</li>
+ * </ul>
+ * Keys are vertex ids and must be non-negative. Not thread-safe: callers hold the graph lock, or read
+ * optimistically and discard the result (or exception) when validation fails.
+ * <p>
+ * {@link #epoch()} records the {@link AdjacencyTable} pin generation the row was written in, so the table
+ * knows whether a pinned snapshot may still be reading it and the row has to be copied before a write.
+ * </p>
+ */
+public final class NeighborMap {
+    static final int INLINE_CAPACITY = 2;
+    /**
+     * Object header plus fields, assuming compressed oops.
+     */
+    static final long SHALLOW_BYTES = 56;
+    private static final long ARRAY_HEADER_BYTES = 16;
+    private static final int EMPTY = -1;
+    private static final int INITIAL_TABLE_CAPACITY = 8;
+
+    private final int epoch;
+    private int size;
+    private int key0 = EMPTY;
+    private int key1 = EMPTY;
+    private double value0;
+    private double value1;
+    private int[] keys;
+    private double[] values;
+
+    public NeighborMap() {
+        this(0);
+    }
+
+    NeighborMap(int epoch) {
+        this.epoch = epoch;
+    }
+
+    int epoch() {
+        return epoch;
+    }
+
+    /**
+     * @return an independent copy of this row, stamped with the given epoch
+     */
+    NeighborMap copy(int epoch) {
+        NeighborMap copy = new NeighborMap(epoch);
+        copy.size = size;
+        copy.key0 = key0;
+        copy.key1 = key1;
+        copy.value0 = value0;
+        copy.value1 = value1;
+        if (keys != null) {
+            copy.keys = keys.clone();
+            copy.values = values.clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Estimated heap bytes of this row, arrays included.
+     */
+    long footprintBytes() {
+        if (keys == null) return SHALLOW_BYTES;
+        return SHALLOW_BYTES + align(ARRAY_HEADER_BYTES + 4L * keys.length) + ARRAY_HEADER_BYTES + 8L * values.length;
+    }
+
+    private static long align(long bytes) {
+        return (bytes + 7) & ~7L;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(int key) {
+        if (key < 0) return false;
+        if (keys == null) {
+            return key == key0 || key == key1;
+        }
+        return slotOf(key) >= 0;
+    }
+
+    public double get(int key, double defaultValue) {
+        if (key < 0) return defaultValue;
+        if (keys == null) {
+            if (key == key0) return value0;
+            if (key == key1) return value1;
+            return defaultValue;
+        }
+        int slot = slotOf(key);
+        return slot >= 0 ? values[slot] : defaultValue;
+    }
+
+    /**
+     * Inserts or overwrites the weight of an edge.
+     * @return <code>true</code> when the key was not present before
+     */
+    public boolean put(int key, double value) {
+        if (key < 0) {
+            throw new IllegalArgumentException("Vertex id must be non-negative: " + key);
+        }
+        if (keys == null) {
+            if (key == key0) { value0 = value; return false; }
+            if (key == key1) { value1 = value; return false; }
+            if (key0 == EMPTY) { key0 = key; value0 = value; size++; return true; }
+            if (key1 == EMPTY) { key1 = key; value1 = value; size++; return true; }
+            spillToTable();
+        }
+        int mask = keys.length - 1;
+        for (int slot = mix(key) & mask; ; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return false;
+            }
+            if (keys[slot] == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                if (++size > (keys.length >>> 2) * 3) {
+                    rehash(keys.length << 1);
+                }
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return <code>true</code> when the key was present and has been removed
+     */
+    public boolean remove(int key) {
+        if (key < 0) return false;
+        if (keys == null) {
+            if (key == key0) {
+                key0 = key1;
+                value0 = value1;
+                key1 = EMPTY;
+                size--;
+                return true;
+            }
+            if (key == key1) {
+                key1 = EMPTY;
+                size--;
+                return true;
+            }
+            return false;
+        }
+        int slot = slotOf(key);
+        if (slot < 0) return false;
+        shiftBack(slot);
+        size--;
+        return true;
+    }
+
+    public void forEach(NeighborConsumer action) {
+        if (keys == null) {
+            if (key0 != EMPTY) action.accept(key0, value0);
+            if (key1 != EMPTY) action.accept(key1, value1);
+            return;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                action.accept(keys[slot], values[slot]);
+            }
+        }
+    }
+
+    /**
+     * Writes every entry into the given arrays starting at <code>offset</code>, in iteration order.
+     * @return the number of entries written
+     */
+    public int copyTo(int[] targetKeys, double[] targetValues, int offset) {
+        int written = offset;
+        if (keys == null) {
+            if (key0 != EMPTY) { targetKeys[written] = key0; targetValues[written++] = value0; }
+            if (key1 != EMPTY) { targetKeys[written] = key1; targetValues[written++] = value1; }
+            return written - offset;
+        }
+        for (int slot = 0; slot < keys.length; slot++) {
+            if (keys[slot] != EMPTY) {
+                targetKeys[written] = keys[slot];
+                targetValues[written++] = values[slot];
+            }
+        }
+        return written - offset;
+    }
+
+    private int slotOf(int key) {
+        // bounded, so an optimistic reader racing a rehash (a fresh table is all zeros before the fill) cannot spin forever
+        int[] table = keys;
+        int mask = table.length - 1;
+        int slot = mix(key) & mask;
+        for (int probes = 0; probes < table.length; probes++, slot = (slot + 1) & mask) {
+            int current = table[slot];
+            if (current == key) return slot;
+            if (current == EMPTY) return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Backward-shift deletion: pull later members of the probe run into the hole so that every
+     * remaining key stays reachable from its home slot.
+     */
+    private void shiftBack(int hole) {
+        int mask = keys.length - 1;
+        int slot = hole;
+        while (true) {
+            slot = (slot + 1) & mask;
+            int current = keys[slot];
+            if (current == EMPTY) break;
+            int home = mix(current) & mask;
+            // move the entry only if its home slot does not lie cyclically in (hole, slot]
+            boolean movable = hole <= slot ? (home <= hole || home > slot) : (home <= hole && home > slot);
+            if (movable) {
+                keys[hole] = current;
+                values[hole] = values[slot];
+                hole = slot;
+            }
+        }
+        keys[hole] = EMPTY;
+    }
+
+    private void spillToTable() {
+        int[] oldKeys = {key0, key1};
+        double[] oldValues = {value0, value1};
+        keys = new int[INITIAL_TABLE_CAPACITY];
+        values = new double[INITIAL_TABLE_CAPACITY];
+        Arrays.fill(keys, EMPTY);
+        key0 = key1 = EMPTY;
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            put(oldKeys[i], oldValues[i]);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        double[] oldValues = values;
+        keys = new int[capacity];
+        values = new double[capacity];
+        Arrays.fill(keys, EMPTY);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            int key = oldKeys[i];
+            if (key == EMPTY) continue;
+            int slot = mix(key) & mask;
+            while (keys[slot] != EMPTY) {
+                slot = (slot + 1) & mask;
+            }
+            keys[slot] = key;
+            values[slot] = oldValues[i];
+        }
+    }
+
+    // dense ids are sequential; scramble them so neighbors of a hub do not form long probe runs
+    static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
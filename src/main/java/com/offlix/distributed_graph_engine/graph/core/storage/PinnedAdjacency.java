@@ -0,0 +1,11 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+/**
+ * An immutable {@link AdjacencyView} of one version of a store. Writers keep mutating the store
+ * without disturbing it. Closing the view releases the pin so writers can go back to mutating in place.
+ */
+public interface PinnedAdjacency extends AdjacencyView, AutoCloseable {
+
+    @Override
+    void close();
+}
@@ -0,0 +1,119 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import com.offlix.distributed_graph_engine.graph.core.VertexIdMapper;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Append-only journal of the vertex dictionary (<code>id -> key</code>) that lives next to a
+ * {@link MappedAdjacencyStore}. Records are <code>INTERNED id key</code> or <code>RELEASED id</code>.
+ * <p>
+ * {@link #open(Path, VertexKeyCodec)} replays the journal, stops at a torn trailing record,
+ * and rewrites the file with only the live entries before appending to it again.
+ * </p>
+ */
+public class VertexDictionaryFile<T> implements VertexIdMapper.Journal<T> {
+    static final String FILE = "vertices.dict";
+    private static final byte INTERNED = 1;
+    private static final byte RELEASED = 2;
+
+    private final VertexKeyCodec<T> codec;
+    private final Map<Integer, T> entries;
+    private final DataOutputStream out;
+
+    private VertexDictionaryFile(VertexKeyCodec<T> codec, Map<Integer, T> entries, DataOutputStream out) {
+        this.codec = codec;
+        this.entries = entries;
+        this.out = out;
+    }
+
+    public static <T> VertexDictionaryFile<T> open(Path directory, VertexKeyCodec<T> codec) throws IOException {
+        Path file = directory.resolve(FILE);
+        Map<Integer, T> entries = Files.exists(file) ? replay(file, codec) : new HashMap<>();
+
+        Path compacted = directory.resolve(FILE + ".tmp");
+        try (DataOutputStream compactOut = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(compacted)))) {
+            for (Map.Entry<Integer, T> entry : entries.entrySet()) {
+                compactOut.writeByte(INTERNED);
+                compactOut.writeInt(entry.getKey());
+                codec.write(entry.getValue(), compactOut);
+            }
+        }
+        Files.move(compacted, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file.toFile(), true)));
+        return new VertexDictionaryFile<>(codec, entries, out);
+    }
+
+    /**
+     * The dictionary as it stood when the file was opened.
+     */
+    public Map<Integer, T> entries() {
+        return entries;
+    }
+
+    @Override
+    public void interned(int id, T vertex) {
+        try {
+            out.writeByte(INTERNED);
+            out.writeInt(id);
+            codec.write(vertex, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void released(int id) {
+        try {
+            out.writeByte(RELEASED);
+            out.writeInt(id);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void flush() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            out.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static <T> Map<Integer, T> replay(Path file, VertexKeyCodec<T> codec) throws IOException {
+        Map<Integer, T> entries = new HashMap<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                int op = in.read();
+                if (op < 0) break;
+                int id = in.readInt();
+                if (op == INTERNED) {
+                    entries.put(id, codec.read(in));
+                } else if (op == RELEASED) {
+                    entries.remove(id);
+                } else {
+                    throw new IOException("Corrupt vertex dictionary " + file + ": unknown record type " + op);
+                }
+            }
+        } catch (EOFException tornTail) {
+            // the process died mid-record; everything before it is intact
+        }
+        return entries;
+    }
+}
@@ -0,0 +1,51 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Binary encoding of vertex keys, used wherever the vertex dictionary leaves the heap.
+ */
+public interface VertexKeyCodec<T> {
+
+    void write(T vertex, DataOutput out) throws IOException;
+
+    T read(DataInput in) throws IOException;
+
+    VertexKeyCodec<String> STRING = new VertexKeyCodec<>() {
+        @Override
+        public void write(String vertex, DataOutput out) throws IOException {
+            out.writeUTF(vertex);
+        }
+
+        @Override
+        public String read(DataInput in) throws IOException {
+            return in.readUTF();
+        }
+    };
+
+    VertexKeyCodec<Long> LONG = new VertexKeyCodec<>() {
+        @Override
+        public void write(Long vertex, DataOutput out) throws IOException {
+            out.writeLong(vertex);
+        }
+
+        @Override
+        public Long read(DataInput in) throws IOException {
+            return in.readLong();
+        }
+    };
+
+    VertexKeyCodec<Integer> INTEGER = new VertexKeyCodec<>() {
+        @Override
+        public void write(Integer vertex, DataOutput out) throws IOException {
+            out.writeInt(vertex);
+        }
+
+        @Override
+        public Integer read(DataInput in) throws IOException {
+            return in.readInt();
+        }
+    };
+}
@@ -0,0 +1,44 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class DurabilityOptions {
+
+    @Builder.Default
+    FsyncPolicy fsyncPolicy = FsyncPolicy.PERIODIC;
+
+    /**
+     * How often {@link FsyncPolicy#PERIODIC} and {@link FsyncPolicy#NEVER} push the log buffer out.
+     */
+    @Builder.Default
+    Duration fsyncInterval = Duration.ofMillis(50);
+
+    /**
+     * A checkpoint is written once this much time has passed since the last one and the graph has changed.
+     * {@link Duration#ZERO} turns time-based checkpoints off.
+     */
+    @Builder.Default
+    Duration checkpointInterval = Duration.ofMinutes(10);
+
+    /**
+     * A checkpoint is written once the version has advanced this far since the last one, which bounds the
+     * log tail a restart has to replay. <code>0</code> turns count-based checkpoints off.
+     */
+    @Builder.Default
+    int checkpointAfterVersions = 1_000_000;
+
+    /**
+     * Write a final checkpoint on close, so the next start replays nothing.
+     */
+    @Builder.Default
+    boolean checkpointOnClose = true;
+
+    public static DurabilityOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,160 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * <h3>A heap graph made durable by a {@link WriteAheadLog} and periodic {@link SnapshotFile} checkpoints</h3>
+ * <ul>
+ * <li><b>Open:</b> restores the latest snapshot straight into the rows, replays only the log records newer than
+ * its version, then restores the version, so the graph continues exactly where it stopped.</li>
+ * <li><b>Run:</b> every mutation made through {@link #graph()} is appended to the log. The
+ * {@link FsyncPolicy} decides when it is forced.</li>
+ * <li><b>Checkpoint:</b> rotate the log, pin a snapshot and write it without holding the graph lock, then drop
+ * the older snapshot and the log segments before the rotation. Writers keep going the whole time.
+ * Records that reach the new segment before the pin are also in the snapshot; replay skips them by version.</li>
+ * </ul>
+ * Restart cost is therefore one sequential read of the snapshot plus at most
+ * {@link DurabilityOptions#getCheckpointAfterVersions()} versions of log.
+ */
+@Slf4j
+public final class DurableGraph<T> implements AutoCloseable {
+    private static final int LOAD_BATCH_SIZE = 65_536;
+
+    private final Path directory;
+    private final VertexKeyCodec<T> codec;
+    private final DurabilityOptions options;
+    private final GraphManager<T> graph;
+    private final WriteAheadLog<T> wal;
+    private final ScheduledExecutorService checkpointer;
+    private volatile int checkpointVersion;
+    private volatile long checkpointNanos = System.nanoTime();
+    private boolean closed;
+
+    private DurableGraph(Path directory, VertexKeyCodec<T> codec, DurabilityOptions options,
+                         GraphManager<T> graph, WriteAheadLog<T> wal, int checkpointVersion) {
+        this.directory = directory;
+        this.codec = codec;
+        this.options = options;
+        this.graph = graph;
+        this.wal = wal;
+        this.checkpointVersion = checkpointVersion;
+        this.checkpointer = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "graph-checkpointer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long poll = Math.max(100, Math.min(1_000, options.getCheckpointInterval().toMillis()));
+        checkpointer.scheduleWithFixedDelay(this::checkpointIfDue, poll, poll, TimeUnit.MILLISECONDS);
+    }
+
+    public static <T> DurableGraph<T> open(Path directory, GraphType type, VertexKeyCodec<T> codec) throws IOException {
+        return open(directory, type, codec, DurabilityOptions.defaults());
+    }
+
+    public static <T> DurableGraph<T> open(Path directory, GraphType type, VertexKeyCodec<T> codec,
+                                           DurabilityOptions options) throws IOException {
+        Files.createDirectories(directory);
+        long started = System.nanoTime();
+        GraphManager<T> graph = new GraphManager<>(type);
+
+        int snapshotVersion = 0;
+        Optional<Path> snapshot = SnapshotFile.latest(directory);
+        if (snapshot.isPresent()) {
+            snapshotVersion = SnapshotFile.read(snapshot.get(), type, codec, graph);
+        }
+        long loaded = System.nanoTime();
+
+        LogReplayer<T> replayer = new LogReplayer<>(graph, LOAD_BATCH_SIZE);
+        WriteAheadLog.ReplayResult replay = WriteAheadLog.replay(directory, codec, snapshotVersion, replayer);
+        replayer.drain();
+        if (snapshot.isPresent() || replay.applied() > 0) {
+            graph.restoreVersion(replay.lastVersion());
+        }
+        long replayed = System.nanoTime();
+
+        log.info("Recovered {} in {} ms: snapshot v{} loaded in {} ms, {} log records replayed in {} ms ({} skipped, {} rejected)",
+                directory, (replayed - started) / 1_000_000, snapshotVersion, (loaded - started) / 1_000_000,
+                replay.applied(), (replayed - loaded) / 1_000_000, replay.skipped(), replayer.rejected());
+
+        WriteAheadLog<T> wal = WriteAheadLog.open(directory, codec, options);
+        graph.addMutationListener(wal);
+        return new DurableGraph<>(directory, codec, options, graph, wal, snapshotVersion);
+    }
+
+    public GraphManager<T> graph() {
+        return graph;
+    }
+
+    /**
+     * Writes a snapshot of the current version and drops the log it makes redundant.
+     * @return the version the snapshot was taken at
+     */
+    public synchronized int checkpoint() throws IOException {
+        long started = System.nanoTime();
+        long firstLiveSegment = wal.rotate();
+        int version;
+        Path file;
+        try (GraphSnapshot<T> snapshot = graph.snapshot()) {
+            CsrSnapshot<T> csr = snapshot.csr();
+            version = csr.getVersion();
+            file = SnapshotFile.write(directory, csr, graph, codec);
+        }
+        SnapshotFile.deleteOlderThan(directory, version);
+        wal.deleteSegmentsBefore(firstLiveSegment);
+        checkpointVersion = version;
+        checkpointNanos = System.nanoTime();
+        log.info("Checkpointed {} at version {} in {} ms ({} bytes)", directory, version,
+                (checkpointNanos - started) / 1_000_000, Files.size(file));
+        return version;
+    }
+
+    private synchronized void checkpointIfDue() {
+        if (closed) return;
+        int behind = graph.getVersion() - checkpointVersion;
+        if (behind <= 0) return;
+        Duration interval = options.getCheckpointInterval();
+        boolean countDue = options.getCheckpointAfterVersions() > 0 && behind >= options.getCheckpointAfterVersions();
+        boolean timeDue = !interval.isZero() && System.nanoTime() - checkpointNanos >= interval.toNanos();
+        if (!countDue && !timeDue) return;
+        try {
+            checkpoint();
+        } catch (IOException | UncheckedIOException e) {
+            log.error("Checkpoint of {} failed; the log keeps growing until one succeeds", directory, e);
+        }
+    }
+
+    /**
+     * Stops checkpointing, writes a final checkpoint when configured to, and closes the log.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) return;
+        closed = true;
+        // no interrupt: an interrupted FileChannel write closes the channel
+        checkpointer.shutdown();
+        try {
+            if (options.isCheckpointOnClose() && graph.getVersion() != checkpointVersion) {
+                checkpoint();
+            }
+        } finally {
+            graph.removeMutationListener(wal);
+            wal.close();
+            graph.close();
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+/**
+ * When the {@link WriteAheadLog} forces appended records to disk.
+ */
+public enum FsyncPolicy {
+    /**
+     * A write returns only once its record is on disk. Writers finishing at the same time share one fsync
+     * (group commit), so throughput grows with concurrency while no acknowledged write is ever lost.
+     */
+    ALWAYS,
+    /**
+     * A background thread writes and fsyncs every {@link DurabilityOptions#getFsyncInterval()}.
+     * A crash loses at most that window of acknowledged writes.
+     */
+    PERIODIC,
+    /**
+     * Records are handed to the OS every interval and never forced. Survives a process crash but not a
+     * power loss; the fastest option for rebuildable graphs.
+     */
+    NEVER
+}
@@ -0,0 +1,89 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.GraphMutationListener;
+import com.offlix.distributed_graph_engine.graph.operations.BatchResult;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applies replayed log records to a graph through its bulk APIs. Additions commute with each other, so runs
+ * of them are buffered and applied as batches; a removal or reweight first drains the buffers, then applies on its own.
+ */
+@Slf4j
+final class LogReplayer<T> implements GraphMutationListener<T> {
+    private final GraphManager<T> graph;
+    private final int batchSize;
+    private final List<T> vertices = new ArrayList<>();
+    private final List<EdgeSpec<T>> edges = new ArrayList<>();
+    private long rejected;
+
+    LogReplayer(GraphManager<T> graph, int batchSize) {
+        this.graph = graph;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void vertexAdded(int version, T vertex) {
+        vertices.add(vertex);
+        if (vertices.size() == batchSize) drainVertices();
+    }
+
+    @Override
+    public void vertexRemoved(int version, T vertex) {
+        drain();
+        graph.removeVertex(vertex);
+    }
+
+    @Override
+    public void edgeAdded(int version, T source, T destination, double weight) {
+        edges.add(new EdgeSpec<>(source, destination, weight));
+        if (edges.size() == batchSize) drainEdges();
+    }
+
+    @Override
+    public void edgeRemoved(int version, T source, T destination) {
+        drain();
+        graph.removeEdgeBetween(source, destination);
+    }
+
+    @Override
+    public void edgeReweighted(int version, T source, T destination, double weight) {
+        drain();
+        graph.updateEdgeWeight(source, destination, weight);
+    }
+
+    /**
+     * Applies whatever is still buffered. Must be called once the replay is over.
+     */
+    void drain() {
+        drainVertices();
+        drainEdges();
+    }
+
+    /**
+     * Edges the graph refused while replaying. Non-zero only when the log and the snapshot disagree.
+     */
+    long rejected() {
+        return rejected;
+    }
+
+    private void drainVertices() {
+        if (vertices.isEmpty()) return;
+        graph.addVertices(vertices);
+        vertices.clear();
+    }
+
+    private void drainEdges() {
+        if (edges.isEmpty()) return;
+        BatchResult<T> result = graph.addEdges(edges);
+        if (result.hasRejections()) {
+            rejected += result.rejections().size();
+            log.warn("Replay rejected {} edges, first: {}", result.rejections().size(), result.rejections().getFirst());
+        }
+        edges.clear();
+    }
+}
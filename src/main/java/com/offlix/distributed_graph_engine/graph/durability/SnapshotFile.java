@@ -0,0 +1,111 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.codec.GraphCodec;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * <h3>Binary checkpoint of one graph version: <code>snapshot-&lt;version&gt;.bin</code></h3>
+ * <ul>
+ * <li><b>Content:</b> the graph in the {@link GraphCodec} format: varint-coded keys and sorted neighbor gaps,
+ * weights packed to the narrowest exact width, and the graph and vertex metadata in a section of its own.</li>
+ * <li><b>Write:</b> to a temporary file, forced, then renamed into place, so a visible snapshot is always complete.</li>
+ * <li><b>Read:</b> streamed into an empty graph through {@link GraphManager#beginRestore(List)}, row chunk by
+ * row chunk, so no second full copy of the adjacency is built on the way.</li>
+ * </ul>
+ */
+final class SnapshotFile {
+    private static final Pattern NAME = Pattern.compile("snapshot-(\\d+)\\.bin");
+    private static final int BUFFER_BYTES = 1 << 20;
+
+    private SnapshotFile() {
+    }
+
+    /**
+     * @param metadataSource graph whose metadata goes into the snapshot, read as it is at write time
+     */
+    static <T> Path write(Path directory, CsrSnapshot<T> csr, GraphManager<T> metadataSource, VertexKeyCodec<T> codec) throws IOException {
+        Path file = directory.resolve(String.format("snapshot-%010d.bin", csr.getVersion()));
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE);
+             OutputStream out = new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_BYTES)) {
+            new GraphCodec<>(codec).encode(csr, metadataSource, out);
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return file;
+    }
+
+    /**
+     * Loads the snapshot into an empty graph of the given type.
+     * @return the version the snapshot was taken at
+     */
+    static <T> int read(Path file, GraphType type, VertexKeyCodec<T> codec, GraphManager<T> graph) throws IOException {
+        if (graph.getType() != type) {
+            throw new IllegalArgumentException("Graph is " + graph.getType() + ", expected " + type);
+        }
+        try (InputStream in = Files.newInputStream(file)) {
+            return new GraphCodec<>(codec).decodeInto(in, graph);
+        } catch (IOException e) {
+            throw new IOException(file + ": " + e.getMessage(), e);
+        } catch (IllegalStateException e) {
+            throw new IllegalStateException(file + ": " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * @return the snapshot with the highest version, if any
+     */
+    static Optional<Path> latest(Path directory) throws IOException {
+        List<Path> snapshots = list(directory);
+        return snapshots.isEmpty() ? Optional.empty() : Optional.of(snapshots.getLast());
+    }
+
+    /**
+     * Deletes every snapshot older than <code>version</code> and leftovers of interrupted writes.
+     */
+    static void deleteOlderThan(Path directory, int version) throws IOException {
+        for (Path snapshot : list(directory)) {
+            if (versionOf(snapshot) < version) Files.deleteIfExists(snapshot);
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                String name = file.getFileName().toString();
+                if (name.startsWith("snapshot-") && name.endsWith(".tmp")) Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private static List<Path> list(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            Path[] snapshots = files.filter(file -> NAME.matcher(file.getFileName().toString()).matches()).toArray(Path[]::new);
+            Arrays.sort(snapshots, (a, b) -> Long.compare(versionOf(a), versionOf(b)));
+            return Arrays.asList(snapshots);
+        }
+    }
+
+    private static long versionOf(Path snapshot) {
+        Matcher name = NAME.matcher(snapshot.getFileName().toString());
+        if (!name.matches()) throw new IllegalArgumentException(snapshot.toString());
+        return Long.parseLong(name.group(1));
+    }
+}
@@ -0,0 +1,401 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import com.offlix.distributed_graph_engine.graph.core.GraphMutationListener;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * <h3>Write-ahead log of graph mutations with group commit</h3>
+ * <ul>
+ * <li><b>Records:</b> <code>int length, int crc32c, byte kind, int version, payload</code>. The CRC covers
+ * everything after it, so a torn or corrupt tail is detected on replay and cut off.</li>
+ * <li><b>Append:</b> as a {@link GraphMutationListener}, inside the graph lock, into an in-memory buffer only.
+ * No I/O happens on the writer's critical path, and appends under one stripe keep their order.</li>
+ * <li><b>Group commit:</b> the buffer is swapped out and written by a single thread for everyone. Under
+ * {@link FsyncPolicy#ALWAYS} each writer waits in {@link #afterWrite()} until its record is forced, and
+ * whoever gets the flush lock first forces the records of all writers queued behind it with one fsync.
+ * The other policies flush from a background thread.</li>
+ * <li><b>Segments:</b> <code>wal-&lt;n&gt;.log</code>. {@link #rotate()} starts the next segment, so a checkpoint
+ * can delete every segment before it once its snapshot is durable.</li>
+ * </ul>
+ */
+@Slf4j
+public class WriteAheadLog<T> implements GraphMutationListener<T>, AutoCloseable {
+    private static final Pattern SEGMENT = Pattern.compile("wal-(\\d+)\\.log");
+    static final byte VERTEX_ADDED = 1;
+    static final byte VERTEX_REMOVED = 2;
+    static final byte EDGE_ADDED = 3;
+    static final byte EDGE_REMOVED = 4;
+    static final byte EDGE_REWEIGHTED = 5;
+    private static final int RECORD_HEADER_BYTES = 8;
+    private static final int MAX_RECORD_BYTES = 64 << 20;
+    /**
+     * Past this, an append writes the buffer out itself instead of waiting for the background flush.
+     */
+    private static final int MAX_PENDING_BYTES = 8 << 20;
+
+    private final Path directory;
+    private final VertexKeyCodec<T> codec;
+    private final FsyncPolicy policy;
+
+    private final Object appendLock = new Object();
+    private RecordBuffer pending = new RecordBuffer();
+    private final RecordBuffer body = new RecordBuffer();
+    private final DataOutputStream bodyOut = new DataOutputStream(body);
+    private final CRC32C checksum = new CRC32C();
+    private long appendedPosition;
+    private final ThreadLocal<long[]> lastAppended = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private RecordBuffer spare = new RecordBuffer();
+    private FileChannel segment;
+    private long segmentId;
+    private volatile long durablePosition;
+    private volatile IOException failure;
+    private final ScheduledExecutorService flusher;
+
+    private WriteAheadLog(Path directory, VertexKeyCodec<T> codec, DurabilityOptions options, long segmentId) throws IOException {
+        this.directory = directory;
+        this.codec = codec;
+        this.policy = options.getFsyncPolicy();
+        this.segmentId = segmentId;
+        this.segment = openSegment(segmentId);
+        if (policy == FsyncPolicy.ALWAYS) {
+            this.flusher = null;
+        } else {
+            this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "wal-flusher");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long interval = Math.max(1, options.getFsyncInterval().toMillis());
+            flusher.scheduleWithFixedDelay(this::backgroundFlush, interval, interval, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Starts appending to a new segment after every existing one.
+     */
+    public static <T> WriteAheadLog<T> open(Path directory, VertexKeyCodec<T> codec, DurabilityOptions options) throws IOException {
+        List<Segment> existing = segments(directory);
+        long next = existing.isEmpty() ? 1 : existing.getLast().id() + 1;
+        return new WriteAheadLog<>(directory, codec, options, next);
+    }
+
+    @Override
+    public void vertexAdded(int version, T vertex) {
+        append(VERTEX_ADDED, version, vertex, null, 0);
+    }
+
+    @Override
+    public void vertexRemoved(int version, T vertex) {
+        append(VERTEX_REMOVED, version, vertex, null, 0);
+    }
+
+    @Override
+    public void edgeAdded(int version, T source, T destination, double weight) {
+        append(EDGE_ADDED, version, source, destination, weight);
+    }
+
+    @Override
+    public void edgeRemoved(int version, T source, T destination) {
+        append(EDGE_REMOVED, version, source, destination, 0);
+    }
+
+    @Override
+    public void edgeReweighted(int version, T source, T destination, double weight) {
+        append(EDGE_REWEIGHTED, version, source, destination, weight);
+    }
+
+    /**
+     * Under {@link FsyncPolicy#ALWAYS}, blocks until every record this thread appended is on disk.
+     * @throws UncheckedIOException once the log has failed to write; the graph has moved past what is durable
+     */
+    @Override
+    public void afterWrite() {
+        checkHealthy();
+        if (policy != FsyncPolicy.ALWAYS) return;
+        long target = lastAppended.get()[0];
+        if (durablePosition >= target) return;
+        flushLock.lock();
+        try {
+            // the previous holder may have forced our record along with its own
+            if (durablePosition < target) flushLocked(true);
+        } finally {
+            flushLock.unlock();
+        }
+        checkHealthy();
+    }
+
+    /**
+     * Forces everything appended so far and starts a new segment. Every record appended before this call
+     * is in an older segment.
+     * @return the id of the new segment
+     */
+    public long rotate() throws IOException {
+        flushLock.lock();
+        try {
+            flushLocked(true);
+            checkHealthy();
+            segment.close();
+            segmentId++;
+            segment = openSegment(segmentId);
+            return segmentId;
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Deletes the segments numbered below <code>segmentId</code>, once a checkpoint has made them redundant.
+     */
+    public void deleteSegmentsBefore(long segmentId) throws IOException {
+        for (Segment old : segments(directory)) {
+            if (old.id() < segmentId) Files.deleteIfExists(old.path());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        // no interrupt: an interrupted FileChannel write closes the channel. A running flush finishes first.
+        if (flusher != null) flusher.shutdown();
+        flushLock.lock();
+        try {
+            flushLocked(true);
+            segment.close();
+        } finally {
+            flushLock.unlock();
+        }
+        checkHealthy();
+    }
+
+    private void append(byte kind, int version, T first, T second, double weight) {
+        boolean overflowing;
+        synchronized (appendLock) {
+            body.reset();
+            try {
+                bodyOut.writeByte(kind);
+                bodyOut.writeInt(version);
+                codec.write(first, bodyOut);
+                if (second != null) codec.write(second, bodyOut);
+                if (kind == EDGE_ADDED || kind == EDGE_REWEIGHTED) bodyOut.writeDouble(weight);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            checksum.reset();
+            checksum.update(body.array(), 0, body.size());
+            pending.writeInt(body.size());
+            pending.writeInt((int) checksum.getValue());
+            pending.write(body.array(), 0, body.size());
+            appendedPosition += RECORD_HEADER_BYTES + body.size();
+            lastAppended.get()[0] = appendedPosition;
+            overflowing = policy != FsyncPolicy.ALWAYS && pending.size() >= MAX_PENDING_BYTES;
+        }
+        if (overflowing && flushLock.tryLock()) {
+            try {
+                flushLocked(false);
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    private void backgroundFlush() {
+        flushLock.lock();
+        try {
+            flushLocked(policy == FsyncPolicy.PERIODIC);
+        } catch (RuntimeException e) {
+            log.error("Write-ahead log flush failed", e);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Swaps the pending buffer out and writes it. Caller holds {@link #flushLock}.
+     */
+    private void flushLocked(boolean force) {
+        if (failure != null) return;
+        RecordBuffer batch;
+        long upTo;
+        synchronized (appendLock) {
+            batch = pending;
+            pending = spare;
+            upTo = appendedPosition;
+        }
+        try {
+            if (batch.size() > 0) {
+                ByteBuffer bytes = ByteBuffer.wrap(batch.array(), 0, batch.size());
+                while (bytes.hasRemaining()) {
+                    segment.write(bytes);
+                }
+            }
+            if (upTo > durablePosition) {
+                if (force) segment.force(false);
+                if (force || policy == FsyncPolicy.NEVER) durablePosition = upTo;
+            }
+        } catch (IOException e) {
+            failure = e;
+            log.error("Write-ahead log segment {} failed; later writes are not durable", segmentId, e);
+        } finally {
+            batch.reset();
+            spare = batch;
+        }
+    }
+
+    private void checkHealthy() {
+        IOException failed = failure;
+        if (failed != null) {
+            throw new UncheckedIOException("Write-ahead log in " + directory + " has failed", failed);
+        }
+    }
+
+    private FileChannel openSegment(long id) throws IOException {
+        return FileChannel.open(directory.resolve(segmentName(id)), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+    }
+
+    private static String segmentName(long id) {
+        return String.format("wal-%08d.log", id);
+    }
+
+    /**
+     * <h3>Replays the segments in <code>directory</code> into <code>sink</code></h3>
+     * <ul>
+     * <li>Segments are read in order. Records with a version at or below <code>afterVersion</code> are already
+     * in the snapshot being restored and are skipped.</li>
+     * <li>A short or corrupt record at the end of the last segment is what a crash mid-write leaves behind;
+     * the segment is truncated there. Anywhere else it is an error.</li>
+     * </ul>
+     */
+    public static <T> ReplayResult replay(Path directory, VertexKeyCodec<T> codec, int afterVersion,
+                                          GraphMutationListener<T> sink) throws IOException {
+        List<Segment> segments = segments(directory);
+        long applied = 0;
+        long skipped = 0;
+        int lastVersion = afterVersion;
+        long truncatedBytes = 0;
+        CRC32C checksum = new CRC32C();
+        for (int i = 0; i < segments.size(); i++) {
+            Segment segment = segments.get(i);
+            long size = Files.size(segment.path());
+            long position = 0;
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(segment.path()), 1 << 16))) {
+                while (position < size) {
+                    byte[] record = readRecord(in, size - position, checksum);
+                    if (record == null) break;
+                    position += RECORD_HEADER_BYTES + record.length;
+                    DataInputStream fields = new DataInputStream(new ByteArrayInputStream(record));
+                    byte kind = fields.readByte();
+                    int version = fields.readInt();
+                    if (version <= afterVersion) {
+                        skipped++;
+                        continue;
+                    }
+                    apply(kind, version, fields, codec, sink);
+                    lastVersion = Math.max(lastVersion, version);
+                    applied++;
+                }
+            }
+            if (position < size) {
+                if (i < segments.size() - 1) {
+                    throw new IOException("Corrupt record at byte " + position + " of " + segment.path()
+                            + ", which is not the last segment");
+                }
+                truncatedBytes = size - position;
+                log.warn("Truncating {} bytes of torn records at the end of {}", truncatedBytes, segment.path());
+                try (FileChannel channel = FileChannel.open(segment.path(), StandardOpenOption.WRITE)) {
+                    channel.truncate(position);
+                    channel.force(true);
+                }
+            }
+        }
+        return new ReplayResult(segments.size(), applied, skipped, lastVersion, truncatedBytes);
+    }
+
+    /**
+     * @return the record's body, or <code>null</code> when what is left of the segment is not a whole, intact record
+     */
+    private static byte[] readRecord(DataInputStream in, long remaining, CRC32C checksum) throws IOException {
+        if (remaining < RECORD_HEADER_BYTES) return null;
+        int length = in.readInt();
+        int expected = in.readInt();
+        if (length <= 0 || length > MAX_RECORD_BYTES || length > remaining - RECORD_HEADER_BYTES) return null;
+        byte[] record = new byte[length];
+        in.readFully(record);
+        checksum.reset();
+        checksum.update(record, 0, length);
+        return (int) checksum.getValue() == expected ? record : null;
+    }
+
+    private static <T> void apply(byte kind, int version, DataInput fields, VertexKeyCodec<T> codec,
+                                  GraphMutationListener<T> sink) throws IOException {
+        switch (kind) {
+            case VERTEX_ADDED -> sink.vertexAdded(version, codec.read(fields));
+            case VERTEX_REMOVED -> sink.vertexRemoved(version, codec.read(fields));
+            case EDGE_ADDED -> sink.edgeAdded(version, codec.read(fields), codec.read(fields), fields.readDouble());
+            case EDGE_REMOVED -> sink.edgeRemoved(version, codec.read(fields), codec.read(fields));
+            case EDGE_REWEIGHTED -> sink.edgeReweighted(version, codec.read(fields), codec.read(fields), fields.readDouble());
+            default -> throw new IOException("Unknown write-ahead log record kind " + kind);
+        }
+    }
+
+    static List<Segment> segments(Path directory) throws IOException {
+        List<Segment> segments = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return segments;
+        try (Stream<Path> files = Files.list(directory)) {
+            files.forEach(file -> {
+                Matcher name = SEGMENT.matcher(file.getFileName().toString());
+                if (name.matches()) segments.add(new Segment(Long.parseLong(name.group(1)), file));
+            });
+        }
+        segments.sort((a, b) -> Long.compare(a.id(), b.id()));
+        return segments;
+    }
+
+    record Segment(long id, Path path) {
+    }
+
+    /**
+     * @param lastVersion highest version replayed, or the snapshot's version when nothing was newer
+     * @param truncatedBytes bytes of torn records cut off the last segment
+     */
+    public record ReplayResult(int segments, long applied, long skipped, int lastVersion, long truncatedBytes) {
+    }
+
+    /**
+     * {@link ByteArrayOutputStream} that exposes its array, so flushes write it without copying.
+     */
+    private static final class RecordBuffer extends ByteArrayOutputStream {
+        private RecordBuffer() {
+            super(1 << 16);
+        }
+
+        private byte[] array() {
+            return buf;
+        }
+
+        private void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+}
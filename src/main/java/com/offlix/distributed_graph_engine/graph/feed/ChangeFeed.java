@@ -0,0 +1,330 @@
+package com.offlix.distributed_graph_engine.graph.feed;
+
+import com.offlix.distributed_graph_engine.exception.ChangeFeedGapException;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.GraphMutationListener;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * <h3>Typed change feed of one graph, for consumers that maintain incremental views</h3>
+ * <ul>
+ * <li><b>Publish:</b> as a {@link GraphMutationListener}, every mutation becomes a {@link GraphChange} in a ring of
+ * {@link ChangeFeedOptions#getCapacity()} slots. A writer claims its slot with one atomic increment and
+ * publishes it with a release store of the slot; nothing on the write path locks or waits.</li>
+ * <li><b>Order:</b> changes reach the ring in version order, the changes of one version back to back
+ * (see {@link com.offlix.distributed_graph_engine.graph.core.GraphContext#commitVersion}), so "every change
+ * after version <code>v</code>" is a suffix of the ring.</li>
+ * <li><b>Consume:</b> each subscriber is a {@link Flow.Subscriber} with its own delivery thread that reads the
+ * ring without locks and delivers only as much as it has requested. Subscribers never touch the graph lock.</li>
+ * <li><b>Backpressure:</b> a subscriber lagging past {@link ChangeFeedOptions#getHighWaterMark()} of the ring
+ * makes writers wait for it after each write, outside the graph lock, for up to
+ * {@link ChangeFeedOptions#getMaxWriterStall()}. If it still lags, or a single write outran it, it receives
+ * {@link ChangeFeedGapException} instead of a change stream with holes.</li>
+ * <li><b>Resume:</b> {@link #subscribe(Flow.Subscriber, int)} starts after a given version, as long as the ring
+ * still holds every change since.</li>
+ * </ul>
+ */
+@Slf4j
+public class ChangeFeed<T> implements GraphMutationListener<T>, Flow.Publisher<GraphChange<T>>, AutoCloseable {
+    private static final long IDLE_PARK_NANOS = 1_000_000;
+    private static final long STALL_PARK_NANOS = 100_000;
+
+    private final GraphManager<T> graph;
+    private final ChangeFeedOptions options;
+    private final int mask;
+    private final long highWater;
+    private final AtomicReferenceArray<Entry<T>> ring;
+    private final AtomicLong next = new AtomicLong();
+    private final List<FeedSubscription> subscriptions = new CopyOnWriteArrayList<>();
+    private final AtomicInteger subscriberIds = new AtomicInteger();
+    private final Object subscribeLock = new Object();
+    private volatile int startVersion;
+    private volatile boolean closed;
+
+    private ChangeFeed(GraphManager<T> graph, ChangeFeedOptions options) {
+        this.graph = graph;
+        this.options = options;
+        int capacity = Integer.highestOneBit(Math.max(2, options.getCapacity()) * 2 - 1);
+        this.mask = capacity - 1;
+        this.highWater = Math.max(1, (long) (capacity * options.getHighWaterMark()));
+        this.ring = new AtomicReferenceArray<>(capacity);
+    }
+
+    public static <T> ChangeFeed<T> attach(GraphManager<T> graph) {
+        return attach(graph, ChangeFeedOptions.defaults());
+    }
+
+    /**
+     * Starts recording the graph's mutations. The feed holds every change after the graph's current version.
+     */
+    public static <T> ChangeFeed<T> attach(GraphManager<T> graph, ChangeFeedOptions options) {
+        ChangeFeed<T> feed = new ChangeFeed<>(graph, options);
+        feed.startVersion = graph.addMutationListener(feed);
+        return feed;
+    }
+
+    @Override
+    public void vertexAdded(int version, T vertex) {
+        publish(new GraphChange.VertexAdded<>(version, vertex));
+    }
+
+    @Override
+    public void vertexRemoved(int version, T vertex) {
+        publish(new GraphChange.VertexRemoved<>(version, vertex));
+    }
+
+    @Override
+    public void edgeAdded(int version, T source, T destination, double weight) {
+        publish(new GraphChange.EdgeAdded<>(version, source, destination, weight));
+    }
+
+    @Override
+    public void edgeRemoved(int version, T source, T destination) {
+        publish(new GraphChange.EdgeRemoved<>(version, source, destination));
+    }
+
+    @Override
+    public void edgeReweighted(int version, T source, T destination, double weight) {
+        publish(new GraphChange.EdgeReweighted<>(version, source, destination, weight));
+    }
+
+    /**
+     * Wakes idle subscribers, then holds this writer back while any subscriber is past the high-water mark.
+     */
+    @Override
+    public void afterWrite() {
+        long produced = next.get();
+        for (FeedSubscription subscription : subscriptions) {
+            subscription.wake();
+        }
+        for (FeedSubscription subscription : subscriptions) {
+            if (produced - subscription.delivered > highWater) subscription.throttle(produced);
+        }
+    }
+
+    /**
+     * Delivers every change from now on.
+     */
+    @Override
+    public void subscribe(Flow.Subscriber<? super GraphChange<T>> subscriber) {
+        synchronized (subscribeLock) {
+            long end = next.get();
+            Entry<T> last = end == 0 ? null : ring.getAcquire(slot(end - 1));
+            int from = last != null && last.sequence() == end - 1 ? last.change().version() : startVersion;
+            start(new FeedSubscription(subscriber, end, from, null));
+        }
+    }
+
+    /**
+     * Delivers every change with a version above <code>afterVersion</code>, starting with those already in the
+     * ring. The subscriber gets {@link ChangeFeedGapException} when the ring no longer holds all of them.
+     */
+    public void subscribe(Flow.Subscriber<? super GraphChange<T>> subscriber, int afterVersion) {
+        synchronized (subscribeLock) {
+            long end = next.get();
+            long oldest = Math.max(0, end - ring.length());
+            int retainedFrom = startVersion;
+            long cursor = end;
+            for (long sequence = oldest; sequence < end; sequence++) {
+                Entry<T> entry = ring.getAcquire(slot(sequence));
+                // claimed by a writer but not written yet: it and everything after it is newer than the rest
+                if (entry == null || entry.sequence() < sequence) {
+                    cursor = sequence;
+                    break;
+                }
+                if (entry.sequence() > sequence) {
+                    retainedFrom = Integer.MAX_VALUE;
+                    break;
+                }
+                // the ring has wrapped: versions before the oldest one held may be partly gone
+                if (sequence == oldest && oldest > 0) retainedFrom = entry.change().version();
+                if (entry.change().version() > afterVersion) {
+                    cursor = sequence;
+                    break;
+                }
+            }
+            if (afterVersion < retainedFrom) {
+                start(new FeedSubscription(subscriber, end, afterVersion, new ChangeFeedGapException(
+                        "Changes after version " + afterVersion + " are no longer held; the feed starts after "
+                                + (retainedFrom == Integer.MAX_VALUE ? "a later version" : "version " + retainedFrom),
+                        afterVersion)));
+                return;
+            }
+            FeedSubscription subscription = new FeedSubscription(subscriber, cursor, afterVersion, null);
+            subscription.skipThrough = afterVersion;
+            start(subscription);
+        }
+    }
+
+    /**
+     * @return the version the feed started after; resuming from anything older fails
+     */
+    public int getStartVersion() {
+        return startVersion;
+    }
+
+    public int subscriberCount() {
+        return subscriptions.size();
+    }
+
+    /**
+     * Stops recording. Subscribers receive what is already in the ring, then complete.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        graph.removeMutationListener(this);
+        closed = true;
+        subscriptions.forEach(FeedSubscription::wake);
+    }
+
+    private void publish(GraphChange<T> change) {
+        long sequence = next.getAndIncrement();
+        ring.setRelease(slot(sequence), new Entry<>(sequence, change));
+    }
+
+    private int slot(long sequence) {
+        return (int) sequence & mask;
+    }
+
+    private void start(FeedSubscription subscription) {
+        subscriptions.add(subscription);
+        Thread thread = new Thread(subscription::run, "change-feed-" + subscriberIds.incrementAndGet());
+        thread.setDaemon(true);
+        subscription.thread = thread;
+        thread.start();
+    }
+
+    private record Entry<T>(long sequence, GraphChange<T> change) {
+    }
+
+    private final class FeedSubscription implements Flow.Subscription {
+        private final Flow.Subscriber<? super GraphChange<T>> subscriber;
+        private final AtomicLong demand = new AtomicLong();
+        private final ChangeFeedGapException refused;
+        private volatile Thread thread;
+        private volatile boolean waiting;
+        private volatile boolean cancelled;
+        private volatile Throwable failure;
+        /**
+         * Sequence of the next change to deliver; everything before it has been delivered.
+         */
+        private volatile long delivered;
+        private int skipThrough = Integer.MIN_VALUE;
+        private int lastVersion;
+
+        private FeedSubscription(Flow.Subscriber<? super GraphChange<T>> subscriber, long cursor, int lastVersion,
+                                 ChangeFeedGapException refused) {
+            this.subscriber = subscriber;
+            this.delivered = cursor;
+            this.lastVersion = lastVersion;
+            this.refused = refused;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                failure = new IllegalArgumentException("Flow rule 3.9: request must be positive, was " + n);
+                wake();
+                return;
+            }
+            demand.getAndAccumulate(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            wake();
+        }
+
+        @Override
+        public void cancel() {
+            cancelled = true;
+            wake();
+        }
+
+        private void run() {
+            try {
+                subscriber.onSubscribe(this);
+                if (refused != null) {
+                    subscriber.onError(refused);
+                    return;
+                }
+                deliver();
+            } catch (RuntimeException | Error e) {
+                log.warn("Change feed subscriber {} failed and was dropped", subscriber, e);
+            } finally {
+                // also releases a writer throttled on this subscription, which is over however it ended
+                cancelled = true;
+                subscriptions.remove(this);
+            }
+        }
+
+        private void deliver() {
+            long cursor = delivered;
+            while (!cancelled) {
+                if (failure != null) {
+                    subscriber.onError(failure);
+                    return;
+                }
+                Entry<T> entry = ring.getAcquire(slot(cursor));
+                if (entry == null || entry.sequence() < cursor) {
+                    if (closed && cursor >= next.get()) {
+                        subscriber.onComplete();
+                        return;
+                    }
+                    idle();
+                    continue;
+                }
+                if (entry.sequence() > cursor) {
+                    subscriber.onError(new ChangeFeedGapException(
+                            "Subscriber fell more than " + ring.length() + " changes behind", lastVersion));
+                    return;
+                }
+                GraphChange<T> change = entry.change();
+                if (change.version() > skipThrough) {
+                    if (demand.get() == 0) {
+                        idle();
+                        continue;
+                    }
+                    demand.decrementAndGet();
+                    subscriber.onNext(change);
+                    lastVersion = change.version();
+                }
+                delivered = ++cursor;
+            }
+        }
+
+        private void idle() {
+            waiting = true;
+            if (!cancelled && failure == null) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            waiting = false;
+        }
+
+        private void wake() {
+            Thread delivering = thread;
+            if (waiting && delivering != null) LockSupport.unpark(delivering);
+        }
+
+        /**
+         * Called by a writer after its write: waits until this subscriber is back under the high-water mark
+         * or the stall budget is spent, in which case the subscriber is cut off.
+         */
+        private void throttle(long produced) {
+            long deadline = System.nanoTime() + options.getMaxWriterStall().toNanos();
+            while (!cancelled && failure == null && produced - delivered > highWater) {
+                if (System.nanoTime() - deadline >= 0) {
+                    failure = new ChangeFeedGapException("Subscriber stalled writers for longer than "
+                            + options.getMaxWriterStall(), lastVersion);
+                    wake();
+                    return;
+                }
+                wake();
+                LockSupport.parkNanos(this, STALL_PARK_NANOS);
+            }
+        }
+    }
+}
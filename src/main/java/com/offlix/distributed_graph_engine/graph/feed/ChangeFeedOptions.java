@@ -0,0 +1,36 @@
+package com.offlix.distributed_graph_engine.graph.feed;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class ChangeFeedOptions {
+
+    /**
+     * Changes held in the ring, rounded up to a power of two. Bounds both how far a subscriber can lag and how
+     * far back one can resume.
+     */
+    @Builder.Default
+    int capacity = 1 << 16;
+
+    /**
+     * Once a subscriber lags by more than this share of the capacity, writers wait for it after each write.
+     */
+    @Builder.Default
+    double highWaterMark = 0.75;
+
+    /**
+     * Longest a writer waits for one slow subscriber. A subscriber still past the high-water mark then is
+     * cut off with a {@link com.offlix.distributed_graph_engine.exception.ChangeFeedGapException}, so a stuck
+     * consumer cannot stall the graph forever.
+     */
+    @Builder.Default
+    Duration maxWriterStall = Duration.ofSeconds(1);
+
+    public static ChangeFeedOptions defaults() {
+        return builder().build();
+    }
+}
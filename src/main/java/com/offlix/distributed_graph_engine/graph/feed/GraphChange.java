@@ -0,0 +1,28 @@
+package com.offlix.distributed_graph_engine.graph.feed;
+
+/**
+ * One committed mutation, as delivered by a {@link ChangeFeed}. Every change carries the graph version that
+ * made it; a bulk write produces several changes with the same version.
+ */
+public sealed interface GraphChange<T> {
+
+    int version();
+
+    record VertexAdded<T>(int version, T vertex) implements GraphChange<T> {
+    }
+
+    /**
+     * Implies the removal of every edge touching the vertex; those are not reported separately.
+     */
+    record VertexRemoved<T>(int version, T vertex) implements GraphChange<T> {
+    }
+
+    record EdgeAdded<T>(int version, T source, T destination, double weight) implements GraphChange<T> {
+    }
+
+    record EdgeRemoved<T>(int version, T source, T destination) implements GraphChange<T> {
+    }
+
+    record EdgeReweighted<T>(int version, T source, T destination, double weight) implements GraphChange<T> {
+    }
+}
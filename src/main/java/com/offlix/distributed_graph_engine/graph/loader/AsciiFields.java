@@ -0,0 +1,106 @@
+package com.offlix.distributed_graph_engine.graph.loader;
+
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Number parsing straight from the bytes of a mapped file, without materializing a <code>String</code>.
+ * Every method takes the half-open byte range <code>[from, to)</code> and throws
+ * {@link NumberFormatException} when it does not hold a well-formed value.
+ */
+final class AsciiFields {
+    // every power of ten up to 1e22 is exact in a double, so mantissa / POWERS[k] is correctly rounded
+    private static final double[] POWERS_OF_TEN = new double[23];
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private AsciiFields() {
+    }
+
+    static long parseLong(MemorySegment text, long from, long to) {
+        if (from >= to) throw malformed(text, from, to);
+        boolean negative = false;
+        long position = from;
+        byte first = text.get(ValueLayout.JAVA_BYTE, position);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            if (++position == to) throw malformed(text, from, to);
+        }
+        long value = 0;
+        for (; position < to; position++) {
+            int digit = text.get(ValueLayout.JAVA_BYTE, position) - '0';
+            if (digit < 0 || digit > 9) throw malformed(text, from, to);
+            // accumulate negatively so Long.MIN_VALUE parses too
+            if (value < (Long.MIN_VALUE + digit) / 10) throw malformed(text, from, to);
+            value = value * 10 - digit;
+        }
+        if (!negative) {
+            if (value == Long.MIN_VALUE) throw malformed(text, from, to);
+            return -value;
+        }
+        return value;
+    }
+
+    static int parseInt(MemorySegment text, long from, long to) {
+        long value = parseLong(text, from, to);
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) throw malformed(text, from, to);
+        return (int) value;
+    }
+
+    /**
+     * Plain decimals (<code>-12.5</code>, <code>3</code>, <code>.25</code>) are parsed inline; anything
+     * else (exponents, <code>NaN</code>, very long mantissas) falls back to {@link Double#parseDouble(String)}.
+     */
+    static double parseDouble(MemorySegment text, long from, long to) {
+        if (from >= to) throw malformed(text, from, to);
+        long position = from;
+        boolean negative = false;
+        byte first = text.get(ValueLayout.JAVA_BYTE, position);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            position++;
+        }
+        long mantissa = 0;
+        int fractionDigits = 0;
+        int digits = 0;
+        boolean point = false;
+        for (; position < to; position++) {
+            byte b = text.get(ValueLayout.JAVA_BYTE, position);
+            if (b == '.' && !point) {
+                point = true;
+                continue;
+            }
+            int digit = b - '0';
+            if (digit < 0 || digit > 9 || mantissa >= MAX_EXACT_MANTISSA / 10) {
+                return Double.parseDouble(ascii(text, from, to));
+            }
+            mantissa = mantissa * 10 + digit;
+            digits++;
+            if (point) fractionDigits++;
+        }
+        if (digits == 0 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(ascii(text, from, to));
+        }
+        double value = mantissa / POWERS_OF_TEN[fractionDigits];
+        return negative ? -value : value;
+    }
+
+    static String utf8(MemorySegment text, long from, long to) {
+        return new String(text.asSlice(from, to - from).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.UTF_8);
+    }
+
+    private static String ascii(MemorySegment text, long from, long to) {
+        return new String(text.asSlice(from, to - from).toArray(ValueLayout.JAVA_BYTE), StandardCharsets.US_ASCII);
+    }
+
+    private static NumberFormatException malformed(MemorySegment text, long from, long to) {
+        return new NumberFormatException("Not a number: \"" + ascii(text, from, Math.min(to, from + 64)) + "\"");
+    }
+}
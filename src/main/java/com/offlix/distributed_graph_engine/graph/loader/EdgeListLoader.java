@@ -0,0 +1,258 @@
+package com.offlix.distributed_graph_engine.graph.loader;
+
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.operations.BatchResult;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import lombok.Builder;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * <h3>Parallel loader for <code>source,destination[,weight]</code> edge lists</h3>
+ * <ul>
+ * <li><b>Step 1:</b> Map the whole file read-only as one {@link MemorySegment}. Nothing is copied onto the
+ * heap and files past 2 GB need no special handling.</li>
+ * <li><b>Step 2:</b> Cut it into about four chunks per worker, moving each cut forward to the next
+ * line break so no line is split.</li>
+ * <li><b>Step 3:</b> Each worker scans its chunk byte by byte and parses the fields in place
+ * with the configured {@link VertexKeyParser}. Numeric keys and weights never become a <code>String</code>.</li>
+ * <li><b>Step 4:</b> Parsed edges are handed to {@link GraphManager#addEdges(java.util.Collection)} in batches
+ * of {@link #batchSize}, so each batch costs one lock acquisition and one version bump.</li>
+ * </ul>
+ * Blank lines and lines starting with <code>#</code> are skipped, a trailing <code>\r</code> is ignored,
+ * and blanks around fields are trimmed. Columns after the weight are ignored. Quoted CSV fields are not supported.
+ * A line that does not parse is counted in {@link LoadReport#malformedLines()} and skipped.
+ */
+@Slf4j
+@Builder
+public class EdgeListLoader<T> {
+    private static final long MIN_CHUNK_BYTES = 1 << 20;
+
+    private final VertexKeyParser<T> keyParser;
+
+    @Builder.Default
+    private final byte delimiter = ',';
+
+    /**
+     * Weight used when a line has only two columns.
+     */
+    @Builder.Default
+    private final double defaultWeight = 1.0;
+
+    /**
+     * Skip the first line of the file.
+     */
+    @Builder.Default
+    private final boolean header = false;
+
+    @Builder.Default
+    private final int parallelism = Runtime.getRuntime().availableProcessors();
+
+    @Builder.Default
+    private final int batchSize = 16_384;
+
+    public LoadReport load(Path file, GraphManager<T> graph) throws IOException {
+        long started = System.nanoTime();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             Arena arena = Arena.ofShared()) {
+            long size = channel.size();
+            MemorySegment text = channel.map(FileChannel.MapMode.READ_ONLY, 0, size, arena);
+            long[] bounds = chunkBounds(text, size);
+
+            ExecutorService workers = Executors.newFixedThreadPool(Math.max(1, parallelism), daemonThreads());
+            try {
+                List<Future<ChunkResult>> futures = new ArrayList<>();
+                for (int chunk = 0; chunk + 1 < bounds.length; chunk++) {
+                    long from = bounds[chunk];
+                    long to = bounds[chunk + 1];
+                    boolean skipFirstLine = header && chunk == 0;
+                    futures.add(workers.submit(() -> parseChunk(text, from, to, skipFirstLine, graph)));
+                }
+                ChunkResult total = new ChunkResult();
+                for (Future<ChunkResult> future : futures) {
+                    total.add(await(future));
+                }
+                LoadReport report = new LoadReport(file, size, total.rows, total.addedEdges, total.addedVertices,
+                        total.rejectedEdges, total.malformedLines, Duration.ofNanos(System.nanoTime() - started));
+                log.info("Loaded {}: {} rows, {} edges added, {} rejected, {} malformed lines in {} ms ({} rows/s, {} MB/s)",
+                        file, report.rows(), report.addedEdges(), report.rejectedEdges(), report.malformedLines(),
+                        report.elapsed().toMillis(), Math.round(report.rowsPerSecond()), Math.round(report.megabytesPerSecond()));
+                return report;
+            } finally {
+                workers.shutdownNow();
+            }
+        }
+    }
+
+    /**
+     * @return chunk start offsets followed by the file size; every start except the first sits just after a line break
+     */
+    long[] chunkBounds(MemorySegment text, long size) {
+        int chunks = (int) Math.max(1, Math.min((long) Math.max(1, parallelism) * 4, size / MIN_CHUNK_BYTES));
+        long target = size / chunks;
+        long[] bounds = new long[chunks + 1];
+        int count = 1;
+        for (int chunk = 1; chunk < chunks; chunk++) {
+            long cut = Math.max(bounds[count - 1], chunk * target);
+            while (cut < size && text.get(ValueLayout.JAVA_BYTE, cut - 1) != '\n') {
+                cut++;
+            }
+            if (cut > bounds[count - 1] && cut < size) {
+                bounds[count++] = cut;
+            }
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    private ChunkResult parseChunk(MemorySegment text, long from, long to, boolean skipFirstLine, GraphManager<T> graph) {
+        ChunkResult result = new ChunkResult();
+        List<EdgeSpec<T>> batch = new ArrayList<>(batchSize);
+        long lineStart = from;
+        boolean skip = skipFirstLine;
+        while (lineStart < to) {
+            long lineEnd = lineStart;
+            while (lineEnd < to && text.get(ValueLayout.JAVA_BYTE, lineEnd) != '\n') {
+                lineEnd++;
+            }
+            if (skip) {
+                skip = false;
+            } else {
+                parseLine(text, lineStart, lineEnd, batch, result);
+                if (batch.size() == batchSize) {
+                    flush(graph, batch, result);
+                }
+            }
+            lineStart = lineEnd + 1;
+        }
+        flush(graph, batch, result);
+        return result;
+    }
+
+    private void parseLine(MemorySegment text, long lineStart, long lineEnd, List<EdgeSpec<T>> batch, ChunkResult result) {
+        long start = skipBlanks(text, lineStart, lineEnd);
+        long end = trimBlanks(text, start, lineEnd);
+        if (start == end || text.get(ValueLayout.JAVA_BYTE, start) == '#') return;
+
+        long firstDelimiter = indexOf(text, delimiter, start, end);
+        if (firstDelimiter < 0) {
+            result.malformed(text, lineStart, lineEnd);
+            return;
+        }
+        try {
+            T source = keyParser.parse(text, start, trimBlanks(text, start, firstDelimiter));
+            // each field is searched from its own trimmed start, so runs of blank delimiters act as one
+            long destinationStart = skipBlanks(text, firstDelimiter + 1, end);
+            long destinationEnd = indexOf(text, delimiter, destinationStart, end);
+            T destination = keyParser.parse(text, destinationStart,
+                    trimBlanks(text, destinationStart, destinationEnd < 0 ? end : destinationEnd));
+            double weight = defaultWeight;
+            if (destinationEnd >= 0) {
+                long weightStart = skipBlanks(text, destinationEnd + 1, end);
+                long weightEnd = indexOf(text, delimiter, weightStart, end);
+                weight = AsciiFields.parseDouble(text, weightStart, trimBlanks(text, weightStart, weightEnd < 0 ? end : weightEnd));
+            }
+            batch.add(new EdgeSpec<>(source, destination, weight));
+            result.rows++;
+        } catch (IllegalArgumentException malformedField) {
+            result.malformed(text, lineStart, lineEnd);
+        }
+    }
+
+    private void flush(GraphManager<T> graph, List<EdgeSpec<T>> batch, ChunkResult result) {
+        if (batch.isEmpty()) return;
+        BatchResult<T> applied = graph.addEdges(batch);
+        result.addedEdges += applied.addedEdges();
+        result.addedVertices += applied.addedVertices();
+        result.rejectedEdges += applied.rejections().size();
+        batch.clear();
+    }
+
+    private static long indexOf(MemorySegment text, byte value, long from, long to) {
+        for (long position = from; position < to; position++) {
+            if (text.get(ValueLayout.JAVA_BYTE, position) == value) return position;
+        }
+        return -1;
+    }
+
+    private static long skipBlanks(MemorySegment text, long from, long to) {
+        while (from < to && isBlank(text.get(ValueLayout.JAVA_BYTE, from))) from++;
+        return from;
+    }
+
+    /**
+     * @return the end of <code>[from, to)</code> without trailing blanks; scans forward since fields are short
+     */
+    private static long trimBlanks(MemorySegment text, long from, long to) {
+        long end = from;
+        for (long position = from; position < to; position++) {
+            if (!isBlank(text.get(ValueLayout.JAVA_BYTE, position))) end = position + 1;
+        }
+        return end;
+    }
+
+    private static boolean isBlank(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+    private static <R> R await(Future<R> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading edge list", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException io) throw io.getCause();
+            if (cause instanceof RuntimeException runtime) throw runtime;
+            if (cause instanceof Error error) throw error;
+            throw new IOException(cause);
+        }
+    }
+
+    private static ThreadFactory daemonThreads() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "edge-loader-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static final class ChunkResult {
+        private long rows;
+        private long addedEdges;
+        private long addedVertices;
+        private long rejectedEdges;
+        private long malformedLines;
+
+        private void malformed(MemorySegment text, long lineStart, long lineEnd) {
+            if (malformedLines++ == 0) {
+                log.warn("Skipping malformed edge line at byte {}: \"{}\"", lineStart,
+                        AsciiFields.utf8(text, lineStart, Math.min(lineEnd, lineStart + 120)));
+            }
+        }
+
+        private void add(ChunkResult other) {
+            rows += other.rows;
+            addedEdges += other.addedEdges;
+            addedVertices += other.addedVertices;
+            rejectedEdges += other.rejectedEdges;
+            malformedLines += other.malformedLines;
+        }
+    }
+}
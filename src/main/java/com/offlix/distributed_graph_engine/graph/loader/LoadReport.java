@@ -0,0 +1,28 @@
+package com.offlix.distributed_graph_engine.graph.loader;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * What an {@link EdgeListLoader} run read and what it changed.
+ *
+ * @param rows           data lines parsed into edges (blank, comment and header lines excluded)
+ * @param rejectedEdges  parsed edges the graph refused (self-loops, duplicates)
+ * @param malformedLines lines that could not be parsed and were skipped
+ */
+public record LoadReport(Path file, long bytes, long rows, long addedEdges, long addedVertices,
+                         long rejectedEdges, long malformedLines, Duration elapsed) {
+
+    public double rowsPerSecond(){
+        return rate(rows);
+    }
+
+    public double megabytesPerSecond(){
+        return rate(bytes) / (1024 * 1024);
+    }
+
+    private double rate(long count){
+        long nanos = Math.max(1, elapsed.toNanos());
+        return count * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,25 @@
+package com.offlix.distributed_graph_engine.graph.loader;
+
+import java.lang.foreign.MemorySegment;
+
+/**
+ * Turns one field of a mapped edge list into a vertex key. Numeric keys are parsed straight from the
+ * bytes; {@link #STRING} has to build the <code>String</code> key itself, but nothing else.
+ */
+@FunctionalInterface
+public interface VertexKeyParser<T> {
+
+    /**
+     * @param text the mapped file
+     * @param from first byte of the field, surrounding blanks already trimmed
+     * @param to   end (exclusive) of the field
+     * @throws IllegalArgumentException when the field is not a valid key; the line is counted as malformed
+     */
+    T parse(MemorySegment text, long from, long to);
+
+    VertexKeyParser<Long> LONG = AsciiFields::parseLong;
+
+    VertexKeyParser<Integer> INTEGER = AsciiFields::parseInt;
+
+    VertexKeyParser<String> STRING = AsciiFields::utf8;
+}
@@ -0,0 +1,40 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk insert: how many edges (and implicitly created vertices) went in, and which edges
+ * were rejected and why. A rejected edge never aborts the rest of its batch.
+ */
+public record BatchResult<T>(long submitted, long addedEdges, long addedVertices, List<Rejection<T>> rejections) {
+
+    /**
+     * @param index position of the edge in the submitted collection or stream
+     * @param error the validation failure, e.g. {@link com.offlix.distributed_graph_engine.exception.EdgeAlreadyExist}
+     */
+    public record Rejection<T>(long index, EdgeSpec<T> edge, RuntimeException error) {
+    }
+
+    public static <T> BatchResult<T> empty(){
+        return new BatchResult<>(0, 0, 0, List.of());
+    }
+
+    public boolean hasRejections(){
+        return !rejections.isEmpty();
+    }
+
+    /**
+     * Combines the results of consecutive batches of one stream.
+     */
+    public BatchResult<T> merge(BatchResult<T> next){
+        List<Rejection<T>> combined = rejections;
+        if(!next.rejections.isEmpty()){
+            combined = new ArrayList<>(rejections.size() + next.rejections.size());
+            combined.addAll(rejections);
+            combined.addAll(next.rejections);
+        }
+        return new BatchResult<>(submitted + next.submitted, addedEdges + next.addedEdges,
+                addedVertices + next.addedVertices, combined);
+    }
+}
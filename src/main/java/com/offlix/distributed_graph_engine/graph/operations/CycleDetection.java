@@ -1,12 +1,15 @@
 package com.offlix.distributed_graph_engine.graph.operations;
 
 import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.operations.cycle.CycleOptions;
 import com.offlix.distributed_graph_engine.graph.operations.cycle.CycleStrategy;
 import com.offlix.distributed_graph_engine.graph.operations.cycle.DirectedCycleStrategy;
 import com.offlix.distributed_graph_engine.graph.operations.cycle.UndirectedCycleStrategy;
 
 import java.util.*;
+import java.util.stream.Stream;
 
 public class CycleDetection<T> {
     private final GraphContext<T> context;
@@ -14,19 +17,31 @@ public class CycleDetection<T> {
 
     public CycleDetection(GraphContext<T> context){
         this.context = context;
-        strategies.put(GraphType.DIRECTED, new DirectedCycleStrategy<>(context));
-        strategies.put(GraphType.UNDIRECTED, new UndirectedCycleStrategy<>(context));
+        strategies.put(GraphType.DIRECTED, new DirectedCycleStrategy<>());
+        strategies.put(GraphType.UNDIRECTED, new UndirectedCycleStrategy<>());
 
     }
 
-    public boolean containCycle(){
-        CycleStrategy<T> strategy = getCycleStrategy();
-        return !strategy.findCycles().isEmpty();
+    /**
+     * Stops at the first cycle instead of enumerating them.
+     */
+    public boolean containCycle(CsrSnapshot<T> snapshot){
+        return getCycleStrategy().containsCycle(snapshot);
     }
 
-    public List<List<T>> findCycles(){
-        CycleStrategy<T> strategy = getCycleStrategy();
-        return strategy.findCycles();
+    /**
+     * Runs on a snapshot the caller already holds, so no graph lock is needed.
+     */
+    public List<List<T>> findCycles(CsrSnapshot<T> snapshot){
+        return getCycleStrategy().findCycles(snapshot);
+    }
+
+    /**
+     * Elementary circuits of a directed graph, a cycle basis of an undirected one; produced as the stream is
+     * consumed, within the caps of <code>options</code>.
+     */
+    public Stream<List<T>> cycles(CsrSnapshot<T> snapshot, CycleOptions options){
+        return getCycleStrategy().cycles(snapshot, options);
     }
 
     private CycleStrategy<T> getCycleStrategy() {
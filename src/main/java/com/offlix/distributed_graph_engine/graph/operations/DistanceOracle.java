@@ -0,0 +1,157 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceBounds;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceCache;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceOracleOptions;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.Landmarks;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.WeightedPath;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <h3>Distance queries backed by ALT {@link Landmarks} and a versioned {@link DistanceCache}</h3>
+ * <ul>
+ * <li><b>Exact:</b> a cached result of the current version answers at once. Otherwise the landmarks, when
+ * built at the current version, settle it if their bounds meet or prove it unreachable, and guide an A*
+ * search if not. Landmarks of an older version would overestimate, so then it is bidirectional Dijkstra. The
+ * result is cached under the version it was computed at.</li>
+ * <li><b>Within a limit:</b> a lower bound above the limit or an upper bound below it answers without a search.</li>
+ * <li><b>Approximate:</b> the landmark bounds alone, stamped with the version they hold for.</li>
+ * <li>Like {@link RouteIndex}, a background thread rebuilds the landmarks once the graph has moved on.</li>
+ * </ul>
+ */
+@Slf4j
+public class DistanceOracle<T> implements AutoCloseable {
+    private final Supplier<CsrSnapshot<T>> snapshots;
+    private final IntSupplier currentVersion;
+    private final ShortestPath<T> paths;
+    private final DistanceOracleOptions options;
+    private final DistanceCache<T> cache;
+    private final ScheduledExecutorService rebuilder;
+    private volatile Landmarks<T> landmarks;
+
+    /**
+     * Selects the first landmarks on the calling thread.
+     * @param snapshots compacted snapshot of the current version
+     */
+    public DistanceOracle(Supplier<CsrSnapshot<T>> snapshots, IntSupplier currentVersion, ShortestPath<T> paths,
+                          DistanceOracleOptions options){
+        this.snapshots = snapshots;
+        this.currentVersion = currentVersion;
+        this.paths = paths;
+        this.options = options;
+        this.cache = new DistanceCache<>(options.getCacheSize());
+        rebuild();
+        Duration interval = options.getRebuildInterval();
+        if(interval.isZero()){
+            this.rebuilder = null;
+            return;
+        }
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(task->{
+            Thread thread = new Thread(task, "distance-oracle-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuilder.scheduleWithFixedDelay(this::rebuildIfStale, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public Landmarks<T> landmarks(){
+        return landmarks;
+    }
+
+    public boolean isCurrent(){
+        return landmarks.getVersion()==currentVersion.getAsInt();
+    }
+
+    /**
+     * Exact shortest distance in the current version.
+     * @return infinity when the destination is unreachable or either vertex is missing
+     */
+    public double distance(T source, T destination){
+        Double cached = cache.get(source, destination, currentVersion.getAsInt());
+        if(cached!=null) return cached;
+        CsrSnapshot<T> snapshot = snapshots.get();
+        double distance = compute(snapshot, source, destination);
+        cache.put(source, destination, snapshot.getVersion(), distance);
+        return distance;
+    }
+
+    /**
+     * Whether <code>destination</code> is reachable from <code>source</code> within <code>limit</code>.
+     */
+    public boolean withinDistance(T source, T destination, double limit){
+        int version = currentVersion.getAsInt();
+        Double cached = cache.get(source, destination, version);
+        if(cached!=null) return cached<=limit;
+        Landmarks<T> current = landmarks;
+        if(current.getVersion()==version){
+            DistanceBounds bounds = current.bounds(source, destination);
+            if(bounds==null || bounds.lower()>limit) return false;
+            if(bounds.upper()<=limit) return true;
+        }
+        return distance(source, destination)<=limit;
+    }
+
+    /**
+     * Landmark bounds without any search, at the version the landmarks were built for; see
+     * {@link DistanceBounds#version()}.
+     * @return <code>null</code> when either vertex was missing at that version
+     */
+    public DistanceBounds estimate(T source, T destination){
+        return landmarks.bounds(source, destination);
+    }
+
+    public DistanceCache.CacheMetrics cacheMetrics(){
+        return cache.metrics();
+    }
+
+    /**
+     * Selects landmarks of the current version on the calling thread and swaps them in.
+     * @return the version they were built at
+     */
+    public synchronized int rebuild(){
+        long started = System.nanoTime();
+        Landmarks<T> built = Landmarks.select(snapshots.get(), options.getLandmarkCount());
+        landmarks = built;
+        log.info("Selected {} landmarks at version {} in {} ms", built.count(), built.getVersion(),
+                (System.nanoTime() - started) / 1_000_000);
+        return built.getVersion();
+    }
+
+    private double compute(CsrSnapshot<T> snapshot, T source, T destination){
+        Landmarks<T> current = landmarks;
+        Optional<WeightedPath<T>> path;
+        if(current.getVersion()==snapshot.getVersion()){
+            DistanceBounds bounds = current.bounds(source, destination);
+            if(bounds==null) return Double.POSITIVE_INFINITY;
+            if(bounds.isExact()) return bounds.lower();
+            // the same version, but the landmarks index vertices by their own compaction of it
+            path = paths.aStar(current.getSnapshot(), source, destination, current.heuristic());
+        }else{
+            path = paths.bidirectional(snapshot, source, destination);
+        }
+        return path.map(WeightedPath::weight).orElse(Double.POSITIVE_INFINITY);
+    }
+
+    private void rebuildIfStale(){
+        try{
+            if(!isCurrent()) rebuild();
+        }catch (RuntimeException e){
+            // exact queries fall back to Dijkstra until the next attempt succeeds
+            log.error("Landmark rebuild failed", e);
+        }
+    }
+
+    @Override
+    public void close(){
+        if(rebuilder!=null) rebuilder.shutdownNow();
+    }
+}
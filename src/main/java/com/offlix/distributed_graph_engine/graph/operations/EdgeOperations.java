@@ -1,12 +1,16 @@
 package com.offlix.distributed_graph_engine.graph.operations;
 
 import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.exception.CycleNotAllowedException;
 import com.offlix.distributed_graph_engine.exception.EdgeAlreadyExist;
 import com.offlix.distributed_graph_engine.exception.SelfLoopExistException;
 import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.TopologicalOrder;
+import com.offlix.distributed_graph_engine.graph.core.VertexIdMapper;
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyStore;
 
-import java.util.Map;
-import java.util.Optional;
+import java.util.ArrayList;
+import java.util.List;
 
 public class EdgeOperations<T> {
     private final GraphContext<T> context;
@@ -18,46 +22,221 @@ public class EdgeOperations<T> {
     }
 
     public void addWeightEdge(T source, T destination, double weight){
-        vertexOps.addVertexIfAbsent(source);
-        vertexOps.addVertexIfAbsent(destination);
-        validateNoSelfLoop(source, destination);
-        checkDuplicationEdge(source, destination);
-        context.getAdjacencyList().get(source).put(destination, weight);
-        if(context.getType()== GraphType.UNDIRECTED){
-            context.getAdjacencyList().get(destination).put(source, weight);
-        }
+        int sourceId = vertexOps.addVertexIfAbsent(source);
+        int destinationId = vertexOps.addVertexIfAbsent(destination);
+        insertEdge(source, destination, sourceId, destinationId, weight);
         context.incrementEdgeCount();
+        context.commitVersion(version-> context.publishEdgeAdded(version, source, destination, weight));
+    }
+
+    /**
+     * <h3>Bulk insert under a single lock acquisition</h3>
+     * <ul>
+     * <li>Each edge is validated and inserted exactly like {@link #addWeightEdge(Object, Object, double)},
+     * including creating missing endpoints.</li>
+     * <li>A {@link SelfLoopExistException}, {@link EdgeAlreadyExist} or, in DAG mode, {@link CycleNotAllowedException}
+     * rejects only that edge; it is reported in the result and the rest of the batch goes in.</li>
+     * <li>Stats are updated and the version is bumped once at the end, not per edge. Mutation listeners then
+     * hear about every added vertex and edge under that version.</li>
+     * </ul>
+     * The caller must hold the write lock for every endpoint in the batch, or every stripe in DAG mode.
+     * @param firstIndex stream position of <code>edges.get(0)</code>, used to number rejections
+     */
+    public BatchResult<T> addWeightEdges(List<EdgeSpec<T>> edges, long firstIndex){
+        VertexIdMapper<T> vertexIds = context.getVertexIds();
+        int addedVertices = 0;
+        int addedEdges = 0;
+        List<BatchResult.Rejection<T>> rejections = new ArrayList<>();
+        // only kept when someone listens, so unobserved bulk loads allocate nothing per edge
+        boolean published = context.hasMutationListeners();
+        List<T> newVertices = published ? new ArrayList<>() : null;
+        List<EdgeSpec<T>> newEdges = published ? new ArrayList<>() : null;
+        for(int i = 0; i < edges.size(); i++){
+            EdgeSpec<T> edge = edges.get(i);
+            int sourceId = vertexIds.intern(edge.source());
+            if(vertexOps.createVertex(sourceId)){
+                addedVertices++;
+                if(published) newVertices.add(edge.source());
+            }
+            int destinationId = vertexIds.intern(edge.destination());
+            if(vertexOps.createVertex(destinationId)){
+                addedVertices++;
+                if(published) newVertices.add(edge.destination());
+            }
+            try{
+                insertEdge(edge.source(), edge.destination(), sourceId, destinationId, edge.weight());
+                addedEdges++;
+                if(published) newEdges.add(edge);
+            }catch (SelfLoopExistException | EdgeAlreadyExist | CycleNotAllowedException rejected){
+                rejections.add(new BatchResult.Rejection<>(firstIndex + i, edge, rejected));
+            }
+        }
+        if(addedVertices>0) context.getStats().incrementVertexCount(addedVertices);
+        if(addedEdges>0) context.getStats().incrementEdgeCount(addedEdges);
+        if(addedVertices>0 || addedEdges>0){
+            context.commitVersion(version->{
+                if(!published) return;
+                newVertices.forEach(vertex-> context.publishVertexAdded(version, vertex));
+                newEdges.forEach(edge-> context.publishEdgeAdded(version, edge.source(), edge.destination(), edge.weight()));
+            });
+        }
+        return new BatchResult<>(edges.size(), addedEdges, addedVertices, rejections);
+    }
+
+    /**
+     * <h3>Bulk load of an adjacency known to be consistent into an empty graph</h3>
+     * <ul>
+     * <li>The input is CSR over the indexes of <code>vertices</code>, such as a checkpoint written by this engine.
+     * Each undirected edge appears once.</li>
+     * <li>Keys are interned once, then every edge goes straight into the rows by id: no key lookups,
+     * duplicate or self-loop checks per edge.</li>
+     * <li>Stats are set and the version is bumped once at the end. Mutation listeners are not told about the
+     * load; it restores state they have already seen.</li>
+     * </ul>
+     * The caller must hold the whole-graph write lock.
+     */
+    public void restore(List<T> vertices, int[] offsets, int[] targets, double[] weights){
+        int[] ids = restoreVertices(vertices);
+        restoreRows(ids, 0, ids.length, offsets, targets, weights);
+        finishRestore(ids);
+    }
+
+    /**
+     * First step of a streamed {@link #restore(List, int[], int[], double[])}: creates every vertex.
+     * @return the id of each vertex, by index
+     */
+    public int[] restoreVertices(List<T> vertices){
+        if(context.getStats().getVertexCount()>0){
+            throw new IllegalStateException("Restore needs an empty graph, this one has "
+                    + context.getStats().getVertexCount() + " vertices");
+        }
+        VertexIdMapper<T> vertexIds = context.getVertexIds();
+        // rows arrive without going through insertEdge; the next connectivity query rebuilds from them
+        context.getConnectivity().markDirty();
+        int[] ids = new int[vertices.size()];
+        for(int i = 0; i < ids.length; i++){
+            ids[i] = vertexIds.intern(vertices.get(i));
+            vertexOps.createVertex(ids[i]);
+        }
+        context.getStats().incrementVertexCount(ids.length);
+        return ids;
+    }
+
+    /**
+     * Loads the rows of vertices <code>[firstRow, firstRow + rowCount)</code>. Their edges occupy
+     * <code>[offsets[r], offsets[r + 1])</code> of <code>targets</code> / <code>weights</code> for row <code>r</code>
+     * counted from <code>firstRow</code>; targets are vertex indexes.
+     */
+    public void restoreRows(int[] ids, int firstRow, int rowCount, int[] offsets, int[] targets, double[] weights){
+        AdjacencyStore outgoing = context.getAdjacency();
+        AdjacencyStore incoming = context.getInAdjacency();
+        for(int row = 0; row < rowCount; row++){
+            int from = ids[firstRow + row];
+            for(int e = offsets[row]; e < offsets[row + 1]; e++){
+                int to = ids[targets[e]];
+                outgoing.putEdge(from, to, weights[e]);
+                incoming.putEdge(to, from, weights[e]);
+            }
+        }
+        context.getStats().incrementEdgeCount(offsets[rowCount] - offsets[0]);
+    }
+
+    public void finishRestore(int[] ids){
+        for(int id : ids){
+            context.getStats().recordDegreeChange(0, context.degree(id));
+        }
+        // the rows went in unchecked; a DAG-mode graph orders them from scratch
+        TopologicalOrder order = context.getTopologicalOrder();
+        if(order!=null){
+            order.rebuild(context.getAdjacency(), context.getVertexIds().capacity());
+        }
         context.incrementVersionAndTouch();
     }
 
-    public boolean removeEdgeBetween(T source, T destination){
-        boolean isRemoved = removeOneWayEdge(source, destination);
-        if(isRemoved && context.getType()==GraphType.UNDIRECTED){
-            removeOneWayEdge(destination, source);
+    private void insertEdge(T source, T destination, int sourceId, int destinationId, double weight){
+        validateNoSelfLoop(source, sourceId, destinationId);
+        checkDuplicationEdge(source, destination, sourceId, destinationId);
+        checkNoCycle(source, destination, sourceId, destinationId);
+        context.getAdjacency().putEdge(sourceId, destinationId, weight);
+        // undirected: the mirrored entry; directed: the in-edge index entry
+        context.getInAdjacency().putEdge(destinationId, sourceId, weight);
+        context.getConnectivity().edgeAdded(sourceId, destinationId);
+        recordDegreeChange(sourceId, 1);
+        if(context.getType()==GraphType.UNDIRECTED){
+            recordDegreeChange(destinationId, 1);
         }
+    }
 
+    public boolean removeEdgeBetween(T source, T destination){
+        int sourceId = context.getVertexIds().idOf(source);
+        int destinationId = context.getVertexIds().idOf(destination);
+        if(sourceId<0 || destinationId<0) return false;
+        boolean isRemoved = removeOneWayEdge(sourceId, destinationId);
         if(isRemoved){
+            context.getInAdjacency().removeEdge(destinationId, sourceId);
+            context.getConnectivity().edgeRemoved();
+            recordDegreeChange(sourceId, -1);
+            if(context.getType()==GraphType.UNDIRECTED){
+                recordDegreeChange(destinationId, -1);
+            }
             context.decrementEdgeCount();
-            context.incrementVersionAndTouch();
+            context.commitVersion(version-> context.publishEdgeRemoved(version, source, destination));
         }
         return isRemoved;
     }
 
-    private boolean removeOneWayEdge(T from, T to){
-        Optional<Map<T, Double>> neighbors = context.getNeighborsWithEdgeWeight(from);
-        return neighbors.isPresent() && neighbors.get().remove(to)!=null;
+    /**
+     * Overwrites the weight of an existing edge, in both directions of an undirected one. Degrees and counts
+     * do not change.
+     * @return <code>false</code> when there is no such edge
+     */
+    public boolean updateEdgeWeight(T source, T destination, double weight){
+        int sourceId = context.getVertexIds().idOf(source);
+        int destinationId = context.getVertexIds().idOf(destination);
+        if(sourceId<0 || destinationId<0 || !context.getAdjacency().containsEdge(sourceId, destinationId)) return false;
+        context.getAdjacency().putEdge(sourceId, destinationId, weight);
+        context.getInAdjacency().putEdge(destinationId, sourceId, weight);
+        context.commitVersion(version-> context.publishEdgeReweighted(version, source, destination, weight));
+        return true;
+    }
+
+    public boolean containsEdge(T source, T destination){
+        int sourceId = context.getVertexIds().idOf(source);
+        int destinationId = context.getVertexIds().idOf(destination);
+        return sourceId>=0 && destinationId>=0 && context.getAdjacency().containsEdge(sourceId, destinationId);
     }
 
-    //source == destination
-    private void validateNoSelfLoop(T source, T destination){
-        if(source.equals(destination)){
+    /**
+     * Moves the vertex in the degree distribution after its out-row changed by <code>delta</code>.
+     */
+    private void recordDegreeChange(int id, int delta){
+        int degree = context.degree(id);
+        context.getStats().recordDegreeChange(degree - delta, degree);
+    }
+
+    private boolean removeOneWayEdge(int from, int to){
+        return context.getAdjacency().removeEdge(from, to);
+    }
+
+    //source == destination; ids are interned, so equal vertices share an id
+    private void validateNoSelfLoop(T source, int sourceId, int destinationId){
+        if(sourceId==destinationId){
             throw new SelfLoopExistException("Self-loop is not allowed: " + source);
         }
     }
 
-    private void checkDuplicationEdge(T source, T destination){
-        Optional<Map<T, Double>> neighborsWithEdgeWeight = context.getNeighborsWithEdgeWeight(source);
-        if(neighborsWithEdgeWeight.isPresent() && neighborsWithEdgeWeight.get().containsKey(destination)){
+    /**
+     * DAG mode only. Runs last among the checks: when the edge fits, the order is already updated for it.
+     */
+    private void checkNoCycle(T source, T destination, int sourceId, int destinationId){
+        TopologicalOrder order = context.getTopologicalOrder();
+        if(order!=null && !order.edgeAdding(context.getAdjacency(), context.getInAdjacency(), sourceId, destinationId)){
+            throw new CycleNotAllowedException(source, destination);
+        }
+    }
+
+    private void checkDuplicationEdge(T source, T destination, int sourceId, int destinationId){
+        if(context.getAdjacency().containsEdge(sourceId, destinationId)){
             throw new EdgeAlreadyExist(source, destination);
         }
 
@@ -0,0 +1,15 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+/**
+ * One edge of a bulk insert; see {@link EdgeOperations#addWeightEdges(java.util.List, long)}.
+ */
+public record EdgeSpec<T>(T source, T destination, double weight) {
+
+    public static <T> EdgeSpec<T> of(T source, T destination){
+        return new EdgeSpec<>(source, destination, 1.0);
+    }
+
+    public static <T> EdgeSpec<T> of(T source, T destination, double weight){
+        return new EdgeSpec<>(source, destination, weight);
+    }
+}
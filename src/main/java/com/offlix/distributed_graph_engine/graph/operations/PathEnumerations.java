@@ -1,22 +1,196 @@
 package com.offlix.distributed_graph_engine.graph.operations;
 
-import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 public class PathEnumerations<T> {
-    private final GraphContext<T>context;
+    /**
+     * <h3>Algorithm: pruned DFS over simple paths, one path per pull</h3>
+     * <ul>
+     * <li><b>Distance to target:</b> a BFS over the reversed edges gives every vertex's hop distance to
+     * <code>destination</code>, or -1 when it cannot reach it. A vertex that cannot reach the target, or only in
+     * more hops than the length cap leaves, is never entered.</li>
+     * <li><b>Simple paths:</b> an iterative DFS keeps the current path, an edge cursor per level and an
+     * on-path mark per vertex. Reaching <code>destination</code> reports the path and backtracks.</li>
+     * <li><b>Caps:</b> the length and weight bounds prune while extending; the count cap is one counter shared by
+     * every split of the stream.</li>
+     * <li><b>Parallel:</b> a split hands over half of the unexplored edges of the shallowest level that still has
+     * two or more, with a copy of the path down to it. The first splits therefore divide the subtrees of the
+     * source.</li>
+     * </ul>
+     * Runs on a snapshot the caller already holds, so no graph lock is needed; an unknown endpoint gives an empty
+     * stream. Every path is a fresh mutable list, the caller's to keep or change.
+     */
+    public Stream<List<T>> paths(CsrSnapshot<T> snapshot, T source, T destination, PathOptions options){
+        int sourceIndex = snapshot.indexOf(source);
+        int destinationIndex = snapshot.indexOf(destination);
+        if(sourceIndex<0 || destinationIndex<0 || options.getMaxPaths()<=0) return Stream.empty();
+        if(sourceIndex==destinationIndex) return Stream.of(new ArrayList<>(List.of(source)));
+        int[] distance = distancesTo(snapshot, destinationIndex);
+        if(distance[sourceIndex]<0 || distance[sourceIndex]>options.getMaxLength()) return Stream.empty();
+        SimplePaths<T> paths = new SimplePaths<>(snapshot, distance, destinationIndex, options,
+                new AtomicLong(options.getMaxPaths()));
+        paths.enter(sourceIndex, 0.0);
+        return StreamSupport.stream(paths, options.isParallel());
+    }
 
-    public PathEnumerations(GraphContext<T> context) {
-        this.context = context;
+    /**
+     * Hop distance from every vertex to <code>target</code>; -1 when unreachable.
+     */
+    private static int[] distancesTo(CsrSnapshot<?> snapshot, int target){
+        CsrSnapshot<?> reversed = snapshot.getType()==GraphType.UNDIRECTED ? snapshot : snapshot.transpose();
+        int[] offsets = reversed.offsets();
+        int[] targets = reversed.targets();
+        int[] distance = new int[snapshot.vertexCount()];
+        Arrays.fill(distance, -1);
+        int[] queue = new int[distance.length];
+        int head = 0;
+        int tail = 0;
+        distance[target] = 0;
+        queue[tail++] = target;
+        while(head<tail){
+            int vertex = queue[head++];
+            for(int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++){
+                int predecessor = targets[edge];
+                if(distance[predecessor]<0){
+                    distance[predecessor] = distance[vertex] + 1;
+                    queue[tail++] = predecessor;
+                }
+            }
+        }
+        return distance;
     }
 
-    public List<List<T>> getPossiblePaths(T source, T destination){
+    private static final class SimplePaths<T> implements Spliterator<List<T>> {
+        private final CsrSnapshot<T> snapshot;
+        private final int[] offsets;
+        private final int[] targets;
+        private final double[] weights;
+        private final int[] distance;
+        private final int destination;
+        private final int maxLength;
+        private final double maxWeight;
+        private final AtomicLong remaining;
 
-        return null;
-    }
+        // level d holds path[d], the weight up to it and the edges [cursor[d], end[d]) still to try from it
+        private final int[] path;
+        private final double[] weightTo;
+        private final int[] cursor;
+        private final int[] end;
+        private final boolean[] onPath;
+        private int depth;
+
+        SimplePaths(CsrSnapshot<T> snapshot, int[] distance, int destination, PathOptions options, AtomicLong remaining) {
+            this.snapshot = snapshot;
+            this.offsets = snapshot.offsets();
+            this.targets = snapshot.targets();
+            this.weights = snapshot.weights();
+            this.distance = distance;
+            this.destination = destination;
+            this.maxLength = options.getMaxLength();
+            this.maxWeight = options.getMaxWeight();
+            this.remaining = remaining;
+            // the destination is never entered, so a path holds at most maxLength vertices, and never more than n
+            int levels = (int) Math.min(snapshot.vertexCount(), (long) maxLength + 1);
+            this.path = new int[levels];
+            this.weightTo = new double[levels];
+            this.cursor = new int[levels];
+            this.end = new int[levels];
+            this.onPath = new boolean[snapshot.vertexCount()];
+        }
+
+        private void enter(int vertex, double weight) {
+            path[depth] = vertex;
+            weightTo[depth] = weight;
+            cursor[depth] = offsets[vertex];
+            end[depth] = offsets[vertex + 1];
+            onPath[vertex] = true;
+            depth++;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            while(depth>0 && remaining.get()>0){
+                int top = depth - 1;
+                if(cursor[top]==end[top]){
+                    onPath[path[top]] = false;
+                    depth--;
+                    continue;
+                }
+                int edge = cursor[top]++;
+                int next = targets[edge];
+                double weight = weightTo[top] + weights[edge];
+                // depth edges once next is appended
+                if(onPath[next] || distance[next]<0 || depth + distance[next]>maxLength || weight>maxWeight) continue;
+                if(next==destination){
+                    if(remaining.getAndDecrement()<=0) return false;
+                    List<T> found = snapshot.toVertices(path, 0, depth);
+                    found.add(snapshot.vertexAt(destination));
+                    action.accept(found);
+                    return true;
+                }
+                enter(next, weight);
+            }
+            return false;
+        }
+
+        @Override
+        public Spliterator<List<T>> trySplit() {
+            for(int level = 0; level < depth; level++){
+                int untried = end[level] - cursor[level];
+                if(untried<2) continue;
+                int middle = cursor[level] + untried / 2;
+                SimplePaths<T> split = new SimplePaths<>(this, level, middle);
+                end[level] = middle;
+                return split;
+            }
+            return null;
+        }
+
+        /**
+         * Takes over the path down to <code>level</code> and the edges of that level from <code>from</code> on.
+         * The levels above stay with the parent: their untried edges are its, so here they start exhausted.
+         */
+        private SimplePaths(SimplePaths<T> parent, int level, int from) {
+            this.snapshot = parent.snapshot;
+            this.offsets = parent.offsets;
+            this.targets = parent.targets;
+            this.weights = parent.weights;
+            this.distance = parent.distance;
+            this.destination = parent.destination;
+            this.maxLength = parent.maxLength;
+            this.maxWeight = parent.maxWeight;
+            this.remaining = parent.remaining;
+            this.path = new int[parent.path.length];
+            this.weightTo = new double[parent.path.length];
+            this.cursor = new int[parent.path.length];
+            this.end = new int[parent.path.length];
+            this.onPath = new boolean[parent.onPath.length];
+            for(int i = 0; i <= level; i++){
+                enter(parent.path[i], parent.weightTo[i]);
+                cursor[i] = end[i];
+            }
+            cursor[level] = from;
+            end[level] = parent.end[level];
+        }
 
-    private void dfs(T source, T destination, List<T> path, List<List<T>> results){
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
 
+        @Override
+        public int characteristics() {
+            return NONNULL;
+        }
     }
 }
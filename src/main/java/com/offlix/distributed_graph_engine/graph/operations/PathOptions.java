@@ -0,0 +1,39 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class PathOptions {
+
+    /**
+     * Paths with more edges than this are not reported, nor extended.
+     */
+    @Builder.Default
+    int maxLength = Integer.MAX_VALUE;
+
+    /**
+     * Enumeration stops after this many paths, across all workers of a parallel stream.
+     */
+    @Builder.Default
+    long maxPaths = 10_000;
+
+    /**
+     * Paths heavier than this are not reported. The bound is checked on every prefix, which is exact for
+     * non-negative weights.
+     */
+    @Builder.Default
+    double maxWeight = Double.POSITIVE_INFINITY;
+
+    /**
+     * Whether the stream is parallel. Workers split the search tree near the source and take subtrees from the
+     * common fork-join pool; paths then arrive in no particular order.
+     */
+    @Builder.Default
+    boolean parallel = false;
+
+    public static PathOptions defaults() {
+        return builder().build();
+    }
+}
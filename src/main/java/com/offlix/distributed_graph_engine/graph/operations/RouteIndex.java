@@ -0,0 +1,108 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.ContractionHierarchy;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.ContractionOptions;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.WeightedPath;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+import java.util.function.Supplier;
+
+/**
+ * <h3>Route queries through a {@link ContractionHierarchy} that follows the graph</h3>
+ * <ul>
+ * <li>The hierarchy answers for the version it was built at. While the graph is at that version, queries run
+ * over the hierarchy; once it has moved on they fall back to bidirectional Dijkstra on the current version,
+ * so a stale index never gives a stale answer.</li>
+ * <li>A background thread checks the version every {@link ContractionOptions#getRebuildInterval()} and, when it
+ * has moved, builds a new hierarchy from a fresh snapshot and swaps it in. Writers are never held up by a
+ * build: it works on the compacted snapshot. Writes arriving during a build are picked up by the next one.</li>
+ * </ul>
+ */
+@Slf4j
+public class RouteIndex<T> implements AutoCloseable {
+    private final Supplier<CsrSnapshot<T>> snapshots;
+    private final IntSupplier currentVersion;
+    private final ShortestPath<T> fallback;
+    private final ContractionOptions options;
+    private final ScheduledExecutorService rebuilder;
+    private volatile ContractionHierarchy<T> hierarchy;
+
+    /**
+     * Builds the first hierarchy on the calling thread.
+     * @param snapshots compacted snapshot of the current version
+     */
+    public RouteIndex(Supplier<CsrSnapshot<T>> snapshots, IntSupplier currentVersion, ShortestPath<T> fallback,
+                      ContractionOptions options){
+        this.snapshots = snapshots;
+        this.currentVersion = currentVersion;
+        this.fallback = fallback;
+        this.options = options;
+        rebuild();
+        Duration interval = options.getRebuildInterval();
+        if(interval.isZero()){
+            this.rebuilder = null;
+            return;
+        }
+        this.rebuilder = Executors.newSingleThreadScheduledExecutor(task->{
+            Thread thread = new Thread(task, "route-index-rebuilder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        rebuilder.scheduleWithFixedDelay(this::rebuildIfStale, interval.toMillis(), interval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    public ContractionHierarchy<T> hierarchy(){
+        return hierarchy;
+    }
+
+    public boolean isCurrent(){
+        return hierarchy.getVersion()==currentVersion.getAsInt();
+    }
+
+    public Optional<WeightedPath<T>> route(T source, T destination){
+        ContractionHierarchy<T> current = hierarchy;
+        // the common case needs no snapshot at all
+        if(current.getVersion()==currentVersion.getAsInt()){
+            return current.route(source, destination);
+        }
+        CsrSnapshot<T> snapshot = snapshots.get();
+        if(current.getVersion()==snapshot.getVersion()){
+            return current.route(source, destination);
+        }
+        return fallback.bidirectional(snapshot, source, destination);
+    }
+
+    /**
+     * Builds a hierarchy of the current version on the calling thread and swaps it in.
+     * @return the version it was built at
+     */
+    public synchronized int rebuild(){
+        long started = System.nanoTime();
+        ContractionHierarchy<T> built = ContractionHierarchy.build(snapshots.get(), options);
+        hierarchy = built;
+        log.info("Built route index at version {} in {} ms ({} shortcuts)", built.getVersion(),
+                (System.nanoTime() - started) / 1_000_000, built.shortcutCount());
+        return built.getVersion();
+    }
+
+    private void rebuildIfStale(){
+        try{
+            if(!isCurrent()) rebuild();
+        }catch (RuntimeException e){
+            // a failed build leaves the old index, and queries on the fallback, until the next attempt
+            log.error("Route index rebuild failed", e);
+        }
+    }
+
+    @Override
+    public void close(){
+        if(rebuilder!=null) rebuilder.shutdownNow();
+    }
+}
@@ -1,9 +1,13 @@
 package com.offlix.distributed_graph_engine.graph.operations;
 
 import com.offlix.distributed_graph_engine.domain.GraphType;
-import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.scc.AfforestComponentsStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.Components;
 import com.offlix.distributed_graph_engine.graph.operations.scc.DirectedSccFinderStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.ParallelSccFinderStrategy;
 import com.offlix.distributed_graph_engine.graph.operations.scc.SccFinderStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.SccOptions;
 import com.offlix.distributed_graph_engine.graph.operations.scc.UndirectedSccFinderStrategy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -12,21 +16,66 @@ import java.util.*;
 
 public class SccFinder<T>{
     private static final Logger log = LoggerFactory.getLogger(SccFinder.class);
-    private final GraphContext<T> context;
-    private final Map<GraphType, SccFinderStrategy> strategyMap = new HashMap<>();
+    private final Map<GraphType, SccFinderStrategy<T>> strategyMap = new HashMap<>();
+    private volatile Map<GraphType, SccFinderStrategy<T>> parallelStrategyMap;
+    private volatile SccOptions options;
 
-    public SccFinder(GraphContext<T> context) {
-        this.context = context;
-        this.strategyMap.put(GraphType.UNDIRECTED, new UndirectedSccFinderStrategy(context));
-        this.strategyMap.put(GraphType.DIRECTED, new DirectedSccFinderStrategy(context));
+    public SccFinder() {
+        this(SccOptions.defaults());
     }
 
-    public Map<Integer, Set<T>> find(){
-        SccFinderStrategy<T> strategy = strategyMap.get(context.getType());
+    public SccFinder(SccOptions options) {
+        this.strategyMap.put(GraphType.UNDIRECTED, new UndirectedSccFinderStrategy<>());
+        this.strategyMap.put(GraphType.DIRECTED, new DirectedSccFinderStrategy<>());
+        setOptions(options);
+    }
+
+    /**
+     * Replaces the parallel strategies, so a run already going keeps the options it started with.
+     */
+    public void setOptions(SccOptions options){
+        Map<GraphType, SccFinderStrategy<T>> parallel = new EnumMap<>(GraphType.class);
+        parallel.put(GraphType.DIRECTED, new ParallelSccFinderStrategy<>(options));
+        parallel.put(GraphType.UNDIRECTED, new AfforestComponentsStrategy<>(options));
+        this.parallelStrategyMap = parallel;
+        this.options = options;
+    }
+
+    public SccOptions getOptions(){
+        return options;
+    }
+
+    /**
+     * Runs on a snapshot the caller already holds, so no graph lock is needed.
+     */
+    public Map<Integer, Set<T>> find(CsrSnapshot<T> snapshot){
+        return getStrategy(snapshot).find(snapshot);
+    }
+
+    /**
+     * The components of a snapshot the caller holds, as vertex index arrays instead of boxed sets.
+     */
+    public Components components(CsrSnapshot<T> snapshot){
+        return getStrategy(snapshot).components(snapshot);
+    }
+
+    /**
+     * The parallel strategy of the graph type once the snapshot reaches {@link SccOptions#getParallelThreshold()}
+     * vertices, the sequential one otherwise.
+     */
+    SccFinderStrategy<T> getStrategy(CsrSnapshot<T> snapshot){
+        if(snapshot.vertexCount() >= options.getParallelThreshold()){
+            SccFinderStrategy<T> parallel = parallelStrategyMap.get(snapshot.getType());
+            if(parallel != null){
+                log.debug("Using {} for {} vertices", parallel.getClass().getSimpleName(), snapshot.vertexCount());
+                return parallel;
+            }
+        }
+        SccFinderStrategy<T> strategy = strategyMap.get(snapshot.getType());
         if(strategy==null){
-            throw new UnsupportedOperationException("No strategy for type: " + context.getType());
+            throw new UnsupportedOperationException("No strategy for type: " + snapshot.getType());
         }
-        return strategy.find();
+        return strategy;
     }
 
 
@@ -0,0 +1,152 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.Heuristic;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.SearchScratch;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.SearchSide;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.ShortestPathTree;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.WeightedPath;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * <h3>Weighted shortest paths on a snapshot</h3>
+ * <ul>
+ * <li><b>Dijkstra:</b> settles vertices in order of distance from an {@link com.offlix.distributed_graph_engine.graph.operations.shortestpath.IndexedDaryHeap}
+ * of vertex indexes keyed by primitive doubles. Point-to-point queries stop once the target is settled.</li>
+ * <li><b>Bidirectional:</b> one search forward from the source, one backward from the target over the
+ * transposed snapshot, always advancing the smaller frontier. Every edge relaxed into a vertex the other side
+ * has reached offers a candidate path. The search stops once the two lowest queued keys add up to at least the
+ * best candidate, since no later meeting can be shorter. On road-like graphs each side covers about half the radius.</li>
+ * <li><b>A*:</b> Dijkstra ordered by distance plus a {@link Heuristic} estimate of what is left.</li>
+ * </ul>
+ * Weights must be non-negative; a negative one is reported when the search reaches it. Distances, parents and
+ * heaps live in a per-thread {@link SearchScratch}: a query allocates only its result.
+ */
+public class ShortestPath<T> {
+    /**
+     * Distances and paths from <code>source</code> to every vertex: a full Dijkstra run.
+     * @return <code>null</code> when the source is not in the snapshot
+     */
+    public ShortestPathTree<T> tree(CsrSnapshot<T> snapshot, T source){
+        int sourceIndex = snapshot.indexOf(source);
+        if(sourceIndex<0) return null;
+        int n = snapshot.vertexCount();
+        SearchSide side = SearchScratch.forThread(n).forward();
+        search(snapshot, side, sourceIndex, -1, null);
+        double[] distance = new double[n];
+        int[] parent = new int[n];
+        for(int vertex = 0; vertex < n; vertex++){
+            distance[vertex] = side.distance(vertex);
+            parent[vertex] = side.parent(vertex);
+        }
+        return new ShortestPathTree<>(snapshot, sourceIndex, distance, parent);
+    }
+
+    public Optional<WeightedPath<T>> dijkstra(CsrSnapshot<T> snapshot, T source, T destination){
+        return aStar(snapshot, source, destination, null);
+    }
+
+    /**
+     * @param heuristic consistent lower bound on the remaining distance; <code>null</code> runs plain Dijkstra
+     */
+    public Optional<WeightedPath<T>> aStar(CsrSnapshot<T> snapshot, T source, T destination, Heuristic<T> heuristic){
+        int sourceIndex = snapshot.indexOf(source);
+        int destinationIndex = snapshot.indexOf(destination);
+        if(sourceIndex<0 || destinationIndex<0) return Optional.empty();
+        SearchSide side = SearchScratch.forThread(snapshot.vertexCount()).forward();
+        if(search(snapshot, side, sourceIndex, destinationIndex, heuristic)<0) return Optional.empty();
+        List<T> vertices = new ArrayList<>();
+        for(int current = destinationIndex; current >= 0; current = side.parent(current)){
+            vertices.add(snapshot.vertexAt(current));
+        }
+        Collections.reverse(vertices);
+        return Optional.of(new WeightedPath<>(vertices, side.distance(destinationIndex)));
+    }
+
+    public Optional<WeightedPath<T>> bidirectional(CsrSnapshot<T> snapshot, T source, T destination){
+        int sourceIndex = snapshot.indexOf(source);
+        int destinationIndex = snapshot.indexOf(destination);
+        if(sourceIndex<0 || destinationIndex<0) return Optional.empty();
+        if(sourceIndex==destinationIndex) return Optional.of(new WeightedPath<>(List.of(source), 0.0));
+        CsrSnapshot<T> reversed = snapshot.getType()==GraphType.UNDIRECTED ? snapshot : snapshot.transpose();
+        SearchScratch scratch = SearchScratch.forThread(snapshot.vertexCount());
+        SearchSide forward = scratch.forward();
+        SearchSide backward = scratch.backward();
+        forward.update(sourceIndex, 0.0, -1, 0.0);
+        backward.update(destinationIndex, 0.0, -1, 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while(forward.hasQueued() && backward.hasQueued()){
+            if(forward.lowestKey() + backward.lowestKey() >= best) break;
+            boolean isForward = forward.queued() <= backward.queued();
+            SearchSide side = isForward ? forward : backward;
+            SearchSide other = isForward ? backward : forward;
+            CsrSnapshot<T> graph = isForward ? snapshot : reversed;
+            int[] offsets = graph.offsets();
+            int[] targets = graph.targets();
+            double[] weights = graph.weights();
+            int vertex = side.settleNext();
+            double reached = side.distance(vertex);
+            for(int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++){
+                int next = targets[edge];
+                double candidate = reached + checkedWeight(graph, vertex, edge);
+                if(side.improves(next, candidate)) side.update(next, candidate, vertex, candidate);
+                if(other.isReached(next)){
+                    double total = side.distance(next) + other.distance(next);
+                    if(total < best){
+                        best = total;
+                        meeting = next;
+                    }
+                }
+            }
+        }
+        if(meeting<0) return Optional.empty();
+        List<T> vertices = new ArrayList<>();
+        for(int current = meeting; current >= 0; current = forward.parent(current)){
+            vertices.add(snapshot.vertexAt(current));
+        }
+        Collections.reverse(vertices);
+        for(int current = backward.parent(meeting); current >= 0; current = backward.parent(current)){
+            vertices.add(snapshot.vertexAt(current));
+        }
+        return Optional.of(new WeightedPath<>(vertices, best));
+    }
+
+    /**
+     * Dijkstra, or A* with a heuristic, from <code>source</code> until <code>target</code> is settled or, with
+     * target -1, until everything reachable is.
+     * @return the target once settled, -1 when it is unreachable
+     */
+    private int search(CsrSnapshot<T> snapshot, SearchSide side, int source, int target, Heuristic<T> heuristic){
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        side.update(source, 0.0, -1, heuristic==null ? 0.0 : heuristic.estimate(snapshot, source, target));
+        while(side.hasQueued()){
+            int vertex = side.settleNext();
+            if(vertex==target) return vertex;
+            double reached = side.distance(vertex);
+            for(int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++){
+                int next = targets[edge];
+                double candidate = reached + checkedWeight(snapshot, vertex, edge);
+                if(!side.improves(next, candidate)) continue;
+                double key = heuristic==null ? candidate : candidate + heuristic.estimate(snapshot, next, target);
+                side.update(next, candidate, vertex, key);
+            }
+        }
+        return -1;
+    }
+
+    private static double checkedWeight(CsrSnapshot<?> snapshot, int vertex, int edge){
+        double weight = snapshot.weights()[edge];
+        if(weight<0){
+            throw new IllegalArgumentException("Shortest paths need non-negative weights, edge " + snapshot.vertexAt(vertex)
+                    + " -> " + snapshot.vertexAt(snapshot.targets()[edge]) + " has " + weight);
+        }
+        return weight;
+    }
+}
@@ -1,11 +1,13 @@
 package com.offlix.distributed_graph_engine.graph.operations;
 
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStats;
 import com.offlix.distributed_graph_engine.domain.GraphType;
 import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadataImpl;
 import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyStore;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.ArrayList;
+import java.util.List;
 
 public class VertexOperations<T> {
     private final GraphContext<T> context;
@@ -14,32 +16,99 @@ public class VertexOperations<T> {
         this.context = context;
     }
 
-    public void addVertexIfAbsent(T vertex){
-        if(context.getAdjacencyList().putIfAbsent(vertex, new ConcurrentHashMap<>())==null){
-            context.getVertexMetadata().put(vertex, new VertexMetadataImpl());
+    /**
+     * Interns the vertex and creates its adjacency entry on first sight.
+     * @return the dense id of the vertex
+     */
+    public int addVertexIfAbsent(T vertex){
+        int id = context.getVertexIds().intern(vertex);
+        if(createVertex(id)){
             context.getStats().incrementVertexCount();
-            context.incrementVersionAndTouch();
+            context.commitVersion(version-> context.publishVertexAdded(version, vertex));
         }
+        return id;
     }
 
-    public boolean removeVertexAndEdges(T vertex){
-        for(Map<T, Double> neighbors: context.getAllNeighborsWithWeights()){
-            neighbors.remove(vertex);
+    /**
+     * Bulk variant of {@link #addVertexIfAbsent(Object)}: one stats update and one version bump for the whole batch.
+     * @return the number of vertices that were new
+     */
+    public int addVerticesIfAbsent(Iterable<T> vertices){
+        int created = 0;
+        List<T> newVertices = context.hasMutationListeners() ? new ArrayList<>() : null;
+        for(T vertex : vertices){
+            if(createVertex(context.getVertexIds().intern(vertex))){
+                created++;
+                if(newVertices!=null) newVertices.add(vertex);
+            }
+        }
+        if(created>0){
+            context.getStats().incrementVertexCount(created);
+            context.commitVersion(version->{
+                if(newVertices!=null) newVertices.forEach(vertex-> context.publishVertexAdded(version, vertex));
+            });
         }
+        return created;
+    }
 
-        int edgesRemoved = context.getEdgeCount(vertex);
+    /**
+     * Creates the adjacency row and metadata of an interned id and enters it in the degree distribution.
+     * Counts and version are left to the caller.
+     * @return <code>true</code> when the vertex was new
+     */
+    boolean createVertex(int id){
+        if(!context.getAdjacency().addVertex(id)) return false;
+        if(context.getType()!=GraphType.UNDIRECTED){
+            context.getInAdjacency().addVertex(id);
+        }
+        context.getVertexMetadata().put(id, new VertexMetadataImpl());
+        context.getStats().recordVertexAdded(0);
+        context.getConnectivity().vertexAdded(id);
+        if(context.getTopologicalOrder()!=null) context.getTopologicalOrder().vertexAdded(id);
+        return true;
+    }
 
-        if(context.getType()== GraphType.UNDIRECTED){
-            edgesRemoved /=2;
+    /**
+     * Drops the vertex and every edge touching it. Only the rows of its actual neighbors are visited:
+     * successors through its out-row, predecessors through the in-edge index.
+     */
+    public boolean removeVertexAndEdges(T vertex){
+        int id = context.getVertexIds().idOf(vertex);
+        if(id<0) return false;
+        AdjacencyStore outgoing = context.getAdjacency();
+        AdjacencyStore incoming = context.getInAdjacency();
+
+        GraphStats stats = context.getStats();
+        boolean undirected = context.getType()==GraphType.UNDIRECTED;
+
+        // for undirected graphs incoming == outgoing, so this also clears the mirrored entries
+        int edgesRemoved = context.degree(id);
+        context.forEachNeighbor(id, (successor, weight)->{
+            incoming.removeEdge(successor, id);
+            if(undirected) recordDegreeDrop(stats, outgoing, successor);
+        });
+        if(!undirected){
+            edgesRemoved += context.inDegree(id);
+            context.forEachPredecessor(id, (predecessor, weight)->{
+                outgoing.removeEdge(predecessor, id);
+                recordDegreeDrop(stats, outgoing, predecessor);
+            });
         }
-        context.removeVertexFromAdjacencyList(vertex);
-        context.removeVertexFromVertexMetadata(vertex);
+        stats.recordVertexRemoved(context.degree(id));
+        context.getConnectivity().vertexRemoved(edgesRemoved>0);
+        if(context.getTopologicalOrder()!=null) context.getTopologicalOrder().vertexRemoved(id);
+
+        context.removeVertexFromAdjacencyList(id);
+        context.removeVertexFromVertexMetadata(id);
+        context.getVertexIds().release(vertex);
         context.decrementVertexCount();
         context.decrementEdgeCount(edgesRemoved);
-        context.incrementVersionAndTouch();
+        context.commitVersion(version-> context.publishVertexRemoved(version, vertex));
         return true;
     }
 
-
-
+    private static void recordDegreeDrop(GraphStats stats, AdjacencyStore outgoing, int id){
+        int degree = outgoing.degree(id);
+        stats.recordDegreeChange(degree + 1, degree);
+    }
 }
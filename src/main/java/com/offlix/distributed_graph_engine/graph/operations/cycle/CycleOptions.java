@@ -0,0 +1,26 @@
+package com.offlix.distributed_graph_engine.graph.operations.cycle;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class CycleOptions {
+
+    /**
+     * Enumeration stops after this many cycles. Dense graphs have exponentially many, so there is always a cap.
+     */
+    @Builder.Default
+    int maxCycles = 10_000;
+
+    /**
+     * Cycles with more vertices than this are not reported. Directed search also stops extending paths at
+     * this depth, which is what keeps it tractable on large components.
+     */
+    @Builder.Default
+    int maxLength = Integer.MAX_VALUE;
+
+    public static CycleOptions defaults() {
+        return builder().build();
+    }
+}
@@ -1,7 +1,26 @@
 package com.offlix.distributed_graph_engine.graph.operations.cycle;
 
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface CycleStrategy<T> {
-    public List<List<T>> findCycles();
+    /**
+     * Collects {@link #cycles(CsrSnapshot, CycleOptions)} under the default caps.
+     */
+    public default List<List<T>> findCycles(CsrSnapshot<T> snapshot) {
+        return cycles(snapshot, CycleOptions.defaults()).toList();
+    }
+
+    /**
+     * Answers without enumerating: stops at the first cycle found.
+     */
+    public boolean containsCycle(CsrSnapshot<T> snapshot);
+
+    /**
+     * Lazily enumerates cycles, each as its vertices in path order. Work is done as the stream is consumed,
+     * so a short-circuiting consumer pays only for the cycles it takes.
+     */
+    public Stream<List<T>> cycles(CsrSnapshot<T> snapshot, CycleOptions options);
 }
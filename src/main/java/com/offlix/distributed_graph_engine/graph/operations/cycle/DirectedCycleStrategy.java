@@ -1,80 +1,323 @@
 package com.offlix.distributed_graph_engine.graph.operations.cycle;
 
-import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 
 import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
-public class DirectedCycleStrategy<T> implements CycleStrategy{
-    private final GraphContext<T> context;
-    private List<List<T>> cycles;
-    public DirectedCycleStrategy(GraphContext<T> context) {
-        this.context = context;
-        this.cycles = new ArrayList<>();
-    }
+public class DirectedCycleStrategy<T> implements CycleStrategy<T>{
+    private static final byte UNVISITED = 0;
+    private static final byte ON_PATH = 1;
+    private static final byte FINISHED = 2;
 
     /**
-     * <h3>Algorithm: DFS-Based Directed Cycle Detection</h3>
-     * <p>
-     * This algorithm uses a Depth First Search (DFS) approach to identify "Back-Edges."
-     * A back-edge is an edge that points from a node to one of its ancestors in the DFS tree.
-     * </p>
-     * * <ul>
-     * <li><b>Step 1:</b> Initialize a <b>visited</b> set to keep track of all nodes explored so far.</li>
-     * <li><b>Step 2:</b> Initialize a <b>stack</b> (Recursion Stack) to keep track of nodes in the current path.</li>
-     * <li><b>Step 3:</b> Iterate through every vertex in the graph. This ensures that disconnected components are also checked.</li>
-     * <li><b>Step 4:</b> For each unvisited vertex, invoke the recursive DFS.</li>
-     * <li><b>Step 5:</b> Inside DFS:
-     * <ul>
-     * <li>Mark the current node as <b>visited</b> and add it to the <b>stack</b>.</li>
-     * <li>For every neighbor:
+     * <h3>Algorithm: colored iterative DFS with early exit</h3>
      * <ul>
-     * <li>If the neighbor is already in the <b>stack</b>, a cycle exists (Back-edge found).</li>
-     * <li>If the neighbor is not visited, recurse into it.</li>
-     * </ul>
-     * </li>
-     * <li><b>Backtrack:</b> Once all neighbors are explored, remove the node from the <b>stack</b>.</li>
-     * </ul>
-     * </li>
+     * <li>Every vertex is <b>unvisited</b>, <b>on the path</b> or <b>finished</b>. The path is an explicit stack
+     * of vertices with an edge cursor each, so depth is bounded by memory rather than the thread stack.</li>
+     * <li>An edge into a vertex on the path is a back-edge: there is a cycle, and the search stops there.</li>
+     * <li>Finished vertices are never entered again, so a graph without cycles costs one O(V + E) pass.</li>
      * </ul>
      */
     @Override
-    public List<List<T>> findCycles() {
-        cycles.clear();
-        Set<T> visited = new HashSet<>();
-        LinkedHashSet<T> stack = new LinkedHashSet<>();
-        for(T vertex: context.getVertices()){
-            if(!visited.contains(vertex)){
-                dfs(visited, stack, vertex);
+    public boolean containsCycle(CsrSnapshot<T> snapshot) {
+        int n = snapshot.vertexCount();
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        byte[] color = new byte[n];
+        int[] path = new int[n];
+        int[] cursor = new int[n];
+        for(int root = 0; root < n; root++){
+            if(color[root] != UNVISITED) continue;
+            color[root] = ON_PATH;
+            path[0] = root;
+            cursor[0] = offsets[root];
+            int depth = 1;
+            while(depth > 0){
+                int top = depth - 1;
+                int vertex = path[top];
+                if(cursor[top] == offsets[vertex + 1]){
+                    color[vertex] = FINISHED;
+                    depth--;
+                    continue;
+                }
+                int neighbor = targets[cursor[top]++];
+                if(color[neighbor] == ON_PATH) return true;
+                if(color[neighbor] == UNVISITED){
+                    color[neighbor] = ON_PATH;
+                    path[depth] = neighbor;
+                    cursor[depth] = offsets[neighbor];
+                    depth++;
+                }
             }
         }
+        return false;
+    }
 
-        return cycles;
+    /**
+     * <h3>Algorithm: Johnson's elementary circuits, one circuit per pull</h3>
+     * <ul>
+     * <li><b>Components:</b> a cycle never leaves its strongly connected component, so the search runs per
+     * non-trivial component, found with an iterative Tarjan pass.</li>
+     * <li><b>Circuits through a start:</b> from a start vertex <code>s</code>, DFS inside the component and
+     * report every path that closes back on <code>s</code>. A vertex that led to no circuit stays
+     * <b>blocked</b> until one of its successors is unblocked, so dead ends are not walked again; the
+     * <code>blockedBy</code> lists record who to unblock.</li>
+     * <li><b>Shrink:</b> once every circuit through <code>s</code> is out, <code>s</code> is removed and the rest
+     * of its component is split into components again, until none are left.</li>
+     * <li><b>Length cap:</b> a path at {@link CycleOptions#getMaxLength()} vertices is not extended. The cut is
+     * treated as if it had found a circuit, so it never blocks a vertex that a shorter path could still use.</li>
+     * </ul>
+     * Runs in O((V + E)(C + 1)) for C circuits. Each circuit is listed once, starting at the vertex it was
+     * found from.
+     */
+    @Override
+    public Stream<List<T>> cycles(CsrSnapshot<T> snapshot, CycleOptions options) {
+        return StreamSupport.stream(new Circuits<>(snapshot, options), false);
     }
 
-    private boolean dfs(Set<T> visited, LinkedHashSet<T> stack, T current){
-        visited.add(current);
-        stack.add(current);
-        for(T neighbor: context.getNeighbors(current)){
-            if(backEdgeExist(stack, neighbor)) {
-                List<T> cycle = new ArrayList<>();
-                boolean startExtracting = false;
-                for(T node: stack){
-                    if(node.equals(neighbor)) startExtracting=true;
-                    if(startExtracting) cycle.add(node);
+    private static final class Circuits<T> extends Spliterators.AbstractSpliterator<List<T>> {
+        private final CsrSnapshot<T> snapshot;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int maxCycles;
+        private final int maxLength;
+        private final Deque<int[]> pending = new ArrayDeque<>();
+        private int emitted;
+        private boolean started;
+
+        // vertices of the component being searched carry the current stamp
+        private int[] scope;
+        private int stamp;
+        private int[] members;
+        private int start;
+
+        // path of the circuit search, reused as the call stack of the Tarjan pass between searches
+        private int[] path;
+        private int[] cursor;
+        private boolean[] found;
+        private int depth;
+        private boolean[] blocked;
+        private int[][] blockedBy;
+        private int[] blockedByCount;
+
+        // Tarjan state, kept at -1 / false between passes; the stack doubles as the unblock worklist
+        private int[] index;
+        private int[] low;
+        private boolean[] onStack;
+        private int[] stack;
+
+        Circuits(CsrSnapshot<T> snapshot, CycleOptions options) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            this.snapshot = snapshot;
+            this.offsets = snapshot.offsets();
+            this.targets = snapshot.targets();
+            this.maxCycles = options.getMaxCycles();
+            this.maxLength = options.getMaxLength();
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if(emitted >= maxCycles) return false;
+            if(!started) start();
+            while(true){
+                if(depth == 0 && !nextStart()) return false;
+                List<T> cycle = nextCircuit();
+                if(cycle != null){
+                    emitted++;
+                    action.accept(cycle);
+                    return true;
                 }
-                cycles.add(cycle);
-                return true;
-            }// back edge exist
-            else if(!visited.contains(neighbor) && dfs(visited, stack, neighbor)){
-                return true;
+                finishStart();
             }
         }
 
-        stack.remove(current);
-        return false;
-    }
+        /**
+         * Allocated on the first pull, so building the stream costs nothing.
+         */
+        private void start() {
+            started = true;
+            int n = snapshot.vertexCount();
+            scope = new int[n];
+            path = new int[n];
+            cursor = new int[n];
+            found = new boolean[n];
+            blocked = new boolean[n];
+            blockedBy = new int[n][];
+            blockedByCount = new int[n];
+            index = new int[n];
+            low = new int[n];
+            onStack = new boolean[n];
+            stack = new int[n];
+            Arrays.fill(index, -1);
+            int[] all = new int[n];
+            for(int vertex = 0; vertex < n; vertex++){
+                all[vertex] = vertex;
+            }
+            splitIntoComponents(all);
+        }
 
-    private boolean backEdgeExist(LinkedHashSet<T> stack, T neighbor){
-        return stack.contains(neighbor);
+        private boolean nextStart() {
+            if(pending.isEmpty()) return false;
+            members = pending.pop();
+            stamp++;
+            for(int vertex : members){
+                scope[vertex] = stamp;
+            }
+            start = members[0];
+            blocked[start] = true;
+            path[0] = start;
+            cursor[0] = offsets[start];
+            found[0] = false;
+            depth = 1;
+            return true;
+        }
+
+        /**
+         * Resumes the search where the last circuit was reported.
+         * @return the next circuit through <code>start</code>, or <code>null</code> when there are no more
+         */
+        private List<T> nextCircuit() {
+            while(depth > 0){
+                int top = depth - 1;
+                int vertex = path[top];
+                if(cursor[top] < offsets[vertex + 1]){
+                    int neighbor = targets[cursor[top]++];
+                    if(scope[neighbor] != stamp) continue;
+                    if(neighbor == start){
+                        found[top] = true;
+                        return snapshot.toVertices(path, 0, depth);
+                    }
+                    if(blocked[neighbor]) continue;
+                    if(depth >= maxLength){
+                        found[top] = true;
+                        continue;
+                    }
+                    blocked[neighbor] = true;
+                    path[depth] = neighbor;
+                    cursor[depth] = offsets[neighbor];
+                    found[depth] = false;
+                    depth++;
+                    continue;
+                }
+                if(found[top]){
+                    unblock(vertex);
+                }else{
+                    for(int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++){
+                        if(scope[targets[edge]] == stamp) addBlockedBy(targets[edge], vertex);
+                    }
+                }
+                depth--;
+                if(found[top] && depth > 0) found[depth - 1] = true;
+            }
+            return null;
+        }
+
+        private void finishStart() {
+            for(int vertex : members){
+                blocked[vertex] = false;
+                blockedByCount[vertex] = 0;
+            }
+            stamp++;
+            int[] rest = new int[members.length - 1];
+            int size = 0;
+            for(int vertex : members){
+                if(vertex == start) continue;
+                scope[vertex] = stamp;
+                rest[size++] = vertex;
+            }
+            splitIntoComponents(rest);
+        }
+
+        private void unblock(int vertex) {
+            blocked[vertex] = false;
+            int top = 0;
+            stack[top++] = vertex;
+            while(top > 0){
+                int current = stack[--top];
+                for(int i = 0; i < blockedByCount[current]; i++){
+                    int waiting = blockedBy[current][i];
+                    if(blocked[waiting]){
+                        blocked[waiting] = false;
+                        stack[top++] = waiting;
+                    }
+                }
+                blockedByCount[current] = 0;
+            }
+        }
+
+        /**
+         * Records that <code>vertex</code> waits for <code>successor</code> to be unblocked.
+         */
+        private void addBlockedBy(int successor, int vertex) {
+            int[] waiting = blockedBy[successor];
+            int count = blockedByCount[successor];
+            for(int i = 0; i < count; i++){
+                if(waiting[i] == vertex) return;
+            }
+            if(waiting == null){
+                waiting = blockedBy[successor] = new int[4];
+            }else if(count == waiting.length){
+                waiting = blockedBy[successor] = Arrays.copyOf(waiting, count * 2);
+            }
+            waiting[count] = vertex;
+            blockedByCount[successor] = count + 1;
+        }
+
+        /**
+         * Iterative Tarjan over the vertices carrying the current stamp; queues each component with more than one
+         * vertex. Without self-loops, a single vertex has no cycle.
+         */
+        private void splitIntoComponents(int[] vertices) {
+            if(vertices.length == 0) return;
+            int counter = 0;
+            int stackSize = 0;
+            for(int root : vertices){
+                if(scope[root] != stamp || index[root] >= 0) continue;
+                index[root] = low[root] = counter++;
+                stack[stackSize++] = root;
+                onStack[root] = true;
+                path[0] = root;
+                cursor[0] = offsets[root];
+                int callDepth = 1;
+                while(callDepth > 0){
+                    int top = callDepth - 1;
+                    int vertex = path[top];
+                    if(cursor[top] < offsets[vertex + 1]){
+                        int neighbor = targets[cursor[top]++];
+                        if(scope[neighbor] != stamp) continue;
+                        if(index[neighbor] < 0){
+                            index[neighbor] = low[neighbor] = counter++;
+                            stack[stackSize++] = neighbor;
+                            onStack[neighbor] = true;
+                            path[callDepth] = neighbor;
+                            cursor[callDepth] = offsets[neighbor];
+                            callDepth++;
+                        }else if(onStack[neighbor]){
+                            low[vertex] = Math.min(low[vertex], index[neighbor]);
+                        }
+                        continue;
+                    }
+                    callDepth--;
+                    if(callDepth > 0){
+                        int parent = path[callDepth - 1];
+                        low[parent] = Math.min(low[parent], low[vertex]);
+                    }
+                    if(low[vertex] == index[vertex]){
+                        int from = stackSize;
+                        do{
+                            onStack[stack[--from]] = false;
+                        }while(stack[from] != vertex);
+                        if(stackSize - from > 1) pending.push(Arrays.copyOfRange(stack, from, stackSize));
+                        stackSize = from;
+                    }
+                }
+            }
+            for(int vertex : vertices){
+                index[vertex] = -1;
+            }
+        }
     }
 }
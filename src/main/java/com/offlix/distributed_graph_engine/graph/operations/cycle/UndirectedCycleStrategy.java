@@ -1,100 +1,165 @@
 package com.offlix.distributed_graph_engine.graph.operations.cycle;
 
-import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Arrays;
 import java.util.List;
-import java.util.Set;
-
-public class UndirectedCycleStrategy<T> implements CycleStrategy{
-    private final GraphContext<T> context;
-    private final List<List<T>> cycles;
-
-    public UndirectedCycleStrategy(GraphContext<T> context) {
-        this.context = context;
-        this.cycles = new ArrayList<>();
-    }
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
+public class UndirectedCycleStrategy<T> implements CycleStrategy<T>{
     /**
-     * <h3>Algorithm: DFS-Based Undirected Cycle Detection</h3>
-     * <p>
-     * This algorithm detects cycles in an undirected graph by performing a Depth First Search
-     * and tracking the <b>parent</b> node of each vertex during exploration.
-     * </p>
-     * <ul>
-     * <li><b>The Concept:</b> In an undirected graph, if we visit a neighbor that has
-     * already been visited and is <i>not</i> the parent of the current node, then a cycle exists.</li>
-     * <li><b>Step 1:</b> Initialize a <b>visited</b> set to keep track of explored vertices.</li>
-     * <li><b>Step 2:</b> Iterate through all vertices in the graph to ensure all disconnected
-     * components (islands) are covered.</li>
-     * <li><b>Step 3:</b> For each unvisited vertex, start the recursive DFS with <code>parent = null</code>.</li>
-     * <li><b>Step 4:</b> Inside DFS:
+     * <h3>Algorithm: union-find over the edges, with early exit</h3>
      * <ul>
-     * <li>Mark the <b>current</b> node as visited.</li>
-     * <li>Iterate through all neighbors of the current node.</li>
-     * <li><b>Case A:</b> If the neighbor is not visited, recurse into it, setting
-     * the <code>current</code> node as its parent.</li>
-     * <li><b>Case B:</b> If the neighbor is already visited AND it is not the
-     * parent, a cycle is confirmed.</li>
-     * </ul>
-     * </li>
+     * <li>Each edge is seen once, from its lower endpoint, and joins the trees of its two endpoints.</li>
+     * <li>An edge whose endpoints are already in one tree closes a cycle; the answer is known there.</li>
+     * <li>The engine rejects self-loops and parallel edges, so no other edge can close a cycle.</li>
      * </ul>
      */
     @Override
-    public List<List<T>> findCycles() {
-       cycles.clear();
-       Set<T> visited = new HashSet<>();
-       List<T> path = new ArrayList<>();
-
-       for(T vertex: context.getVertices()){
-           if(!visited.contains(vertex)){
-               dfs(visited, vertex, null, path);
-           }
+    public boolean containsCycle(CsrSnapshot<T> snapshot) {
+        int n = snapshot.vertexCount();
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        int[] parent = new int[n];
+        for(int vertex = 0; vertex < n; vertex++){
+            parent[vertex] = vertex;
         }
-
-       return cycles;
+        for(int vertex = 0; vertex < n; vertex++){
+            for(int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++){
+                int neighbor = targets[edge];
+                if(neighbor < vertex) continue;
+                int vertexRoot = find(parent, vertex);
+                int neighborRoot = find(parent, neighbor);
+                if(vertexRoot == neighborRoot) return true;
+                parent[Math.max(vertexRoot, neighborRoot)] = Math.min(vertexRoot, neighborRoot);
+            }
+        }
+        return false;
     }
 
+    private static int find(int[] parent, int vertex) {
+        while(parent[vertex] != vertex){
+            // path halving
+            parent[vertex] = parent[parent[vertex]];
+            vertex = parent[vertex];
+        }
+        return vertex;
+    }
 
-    private boolean dfs(Set<T> visited, T current, T parent, List<T> path){
-        visited.add(current);
-        path.add(current);
-        boolean cycleFound = false;
-
-        for(T neighbor: context.getNeighbors(current)){
-            if(neighbor.equals(parent)) continue; // skip the edge back --> parent
+    /**
+     * <h3>Algorithm: fundamental cycle basis of a BFS forest</h3>
+     * <ul>
+     * <li>A BFS from every unreached vertex records each vertex's <b>parent</b> and <b>depth</b>.</li>
+     * <li>Every edge outside the forest closes exactly one cycle with the tree path between its endpoints,
+     * found by climbing from the deeper endpoint until both meet.</li>
+     * <li>These E - V + C cycles form a basis: every cycle of the graph is their symmetric difference. BFS trees
+     * are shallow, so the basis cycles are short.</li>
+     * <li>Each cycle is reported once, and non-tree edges are visited as the stream is pulled. Cycles longer than
+     * {@link CycleOptions#getMaxLength()} are skipped, so a capped result may not span every cycle.</li>
+     * </ul>
+     */
+    @Override
+    public Stream<List<T>> cycles(CsrSnapshot<T> snapshot, CycleOptions options) {
+        return StreamSupport.stream(new FundamentalCycles<>(snapshot, options), false);
+    }
 
-            // if it's visited but not the parent and exist in path,
-            if(path.contains(neighbor)){
-                extractCycle(path,neighbor);
-                cycleFound = true;
+    private static final class FundamentalCycles<T> extends Spliterators.AbstractSpliterator<List<T>> {
+        private final CsrSnapshot<T> snapshot;
+        private final int[] offsets;
+        private final int[] targets;
+        private final int maxCycles;
+        private final int maxLength;
+        private int emitted;
+        private int[] parent;
+        private int[] depth;
+        private int[] cycle;
+        private int[] otherSide;
+        // the next edge to look at
+        private int vertex;
+        private int edge;
+
+        FundamentalCycles(CsrSnapshot<T> snapshot, CycleOptions options) {
+            super(Long.MAX_VALUE, ORDERED | NONNULL);
+            this.snapshot = snapshot;
+            this.offsets = snapshot.offsets();
+            this.targets = snapshot.targets();
+            this.maxCycles = options.getMaxCycles();
+            this.maxLength = options.getMaxLength();
+        }
 
+        @Override
+        public boolean tryAdvance(Consumer<? super List<T>> action) {
+            if(emitted >= maxCycles) return false;
+            if(parent == null) buildForest();
+            int n = parent.length;
+            for(; vertex < n; vertex++, edge = offsets[vertex]){
+                while(edge < offsets[vertex + 1]){
+                    int neighbor = targets[edge++];
+                    if(neighbor < vertex || parent[neighbor] == vertex || parent[vertex] == neighbor) continue;
+                    int length = closeCycle(vertex, neighbor);
+                    if(length < 0) continue;
+                    emitted++;
+                    action.accept(snapshot.toVertices(cycle, 0, length));
+                    return true;
+                }
             }
-            else if(!visited.contains(neighbor) && dfs(visited, neighbor, parent, path)){
-                cycleFound=true;
-            }
-
-
+            return false;
         }
 
-        path.remove(path.size()-1);
-        return cycleFound;
-    }
-
-    private void extractCycle(List<T> path, T neighbor){
-        List<T> cycle = new ArrayList<>();
-        int startIndex = path.indexOf(neighbor);
-        for(int i=startIndex;i<path.size();i++){
-            cycle.add(path.get(i));
+        /**
+         * Writes the tree path from <code>from</code> to <code>to</code> into <code>cycle</code>.
+         * @return its vertex count, or -1 when it exceeds the length cap
+         */
+        private int closeCycle(int from, int to) {
+            int length = 0;
+            int otherLength = 0;
+            while(from != to){
+                if(length + otherLength + 1 >= maxLength) return -1;
+                if(depth[from] >= depth[to]){
+                    cycle[length++] = from;
+                    from = parent[from];
+                }else{
+                    otherSide[otherLength++] = to;
+                    to = parent[to];
+                }
+            }
+            cycle[length++] = from;
+            while(otherLength > 0){
+                cycle[length++] = otherSide[--otherLength];
+            }
+            return length;
         }
 
-        if(!isDuplicate(cycle)){
-            cycles.add(cycle);
+        private void buildForest() {
+            int n = snapshot.vertexCount();
+            parent = new int[n];
+            depth = new int[n];
+            cycle = new int[n];
+            otherSide = new int[n];
+            Arrays.fill(parent, -2);
+            // cycle doubles as the BFS queue until the first cycle is written
+            int[] queue = cycle;
+            for(int root = 0; root < n; root++){
+                if(parent[root] != -2) continue;
+                parent[root] = -1;
+                int head = 0;
+                int tail = 0;
+                queue[tail++] = root;
+                while(head < tail){
+                    int current = queue[head++];
+                    for(int e = offsets[current]; e < offsets[current + 1]; e++){
+                        int neighbor = targets[e];
+                        if(parent[neighbor] != -2) continue;
+                        parent[neighbor] = current;
+                        depth[neighbor] = depth[current] + 1;
+                        queue[tail++] = neighbor;
+                    }
+                }
+            }
+            edge = n == 0 ? 0 : offsets[0];
         }
     }
-
-    private boolean isDuplicate(List<T> cycle){
-        return cycles.stream().anyMatch(c-> c.containsAll(cycle) && c.size()==cycle.size());
-    }
 }
@@ -1,68 +1,98 @@
 package com.offlix.distributed_graph_engine.graph.operations.scc;
 
-import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
 
 @Slf4j
 public class DirectedSccFinderStrategy<T> implements SccFinderStrategy<T> {
-    private final GraphContext<T> context;
-
-    public DirectedSccFinderStrategy(GraphContext<T> context) {
-        this.context = context;
-    }
-
-
+    /**
+     * <h3>Algorithm: Pearce's iterative variant of Tarjan over a CSR snapshot</h3>
+     * <ul>
+     * <li><b>One pass:</b> a single DFS of the snapshot, no transposed copy. <code>rindex[v]</code> starts as the
+     * visit order of <code>v</code> and is lowered to the smallest visit order reachable from its subtree;
+     * a vertex whose <code>rindex</code> survives its subtree is the root of a component.</li>
+     * <li><b>No recursion:</b> the call stack is an explicit <code>int[]</code> of vertices, each resuming at the
+     * edge cursor <code>next[v]</code>, so a 10M-vertex chain needs no thread stack at all.</li>
+     * <li><b>Component ids in place:</b> a finished component takes the id <code>c</code>, counting down from
+     * <code>n - 1</code>, straight into <code>rindex</code>; ids stay above every live visit order, so finished
+     * vertices never lower anyone's <code>rindex</code> and need no separate on-stack flag.</li>
+     * </ul>
+     * Components come out in reverse topological order: component 0 has no edge to any other component.
+     * Memory is four <code>int[n]</code> and one <code>boolean[n]</code>.
+     */
     @Override
-    public Map<Integer, Set<T>> find() {
+    public Components components(CsrSnapshot<T> snapshot) {
+        int n = snapshot.vertexCount();
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        int[] rindex = new int[n];
+        boolean[] root = new boolean[n];
+        int[] next = new int[n];
+        int[] callStack = new int[n];
+        // vertices whose component is still open, below the root that will close it
+        int[] openStack = new int[n];
+        int index = 1;
+        int component = n - 1;
+        int open = 0;
 
-        Set<T> visited = new HashSet<>();
-        Deque<T> stack = new ArrayDeque<>();
-        Map<Integer, Set<T>> stronglyConnectedComponents = new HashMap<>();
-        for (T vertex : context.getVertices()) {
-            if (!visited.contains(vertex)) {
-                dfsPostOrder(vertex, visited, stack);
-            }
-        }
+        for (int start = 0; start < n; start++) {
+            // only the last root finished can take id 0, and that is a start vertex already passed
+            if (rindex[start] != 0) continue;
+            int depth = 0;
+            callStack[depth++] = start;
+            rindex[start] = index++;
+            root[start] = true;
+            next[start] = offsets[start];
+            while (depth > 0) {
+                int vertex = callStack[depth - 1];
+                if (next[vertex] < offsets[vertex + 1]) {
+                    int neighbor = targets[next[vertex]];
+                    if (rindex[neighbor] == 0) {
+                        // descend; the edge is revisited to fold the neighbor's rindex in once it finishes
+                        callStack[depth++] = neighbor;
+                        rindex[neighbor] = index++;
+                        root[neighbor] = true;
+                        next[neighbor] = offsets[neighbor];
+                        continue;
+                    }
+                    if (rindex[neighbor] < rindex[vertex]) {
+                        rindex[vertex] = rindex[neighbor];
+                        root[vertex] = false;
+                    }
+                    next[vertex]++;
+                    continue;
+                }
 
-        log.info("Visited: {}", visited);
-        log.info("Stack: {}", stack);
-        Map<T, Set<T>> reverseGraph = context.reverseGraph();
-        visited.clear();
-        int componentCount = 0;
-        while (!stack.isEmpty()) {
-            T v = stack.pop();
-            if (!visited.contains(v)) {
-                Set<T> components = new HashSet<>();
-                collectComponents(v, visited, components, reverseGraph);
-                stronglyConnectedComponents.put(componentCount++, components);
+                depth--;
+                if (root[vertex]) {
+                    index--;
+                    while (open > 0 && rindex[vertex] <= rindex[openStack[open - 1]]) {
+                        rindex[openStack[--open]] = component;
+                        index--;
+                    }
+                    rindex[vertex] = component--;
+                } else {
+                    openStack[open++] = vertex;
+                }
+                if (depth > 0) {
+                    int parent = callStack[depth - 1];
+                    if (rindex[vertex] < rindex[parent]) {
+                        rindex[parent] = rindex[vertex];
+                        root[parent] = false;
+                    }
+                    next[parent]++;
+                }
             }
         }
-        return stronglyConnectedComponents;
-
-    }
 
-    // left - right - root
-    public void dfsPostOrder(T vertex, Set<T> visited, Deque<T> stack) {
-        visited.add(vertex);
-        for (T neighbor : context.getNeighbors(vertex)) {
-            if (!visited.contains(neighbor)) {
-                dfsPostOrder(neighbor, visited, stack);
-            }
+        // reuse rindex as the label array: ids were handed out from n - 1 down
+        int count = n - 1 - component;
+        for (int vertex = 0; vertex < n; vertex++) {
+            rindex[vertex] = n - 1 - rindex[vertex];
         }
-
-        stack.push(vertex);
+        log.debug("Found {} strongly connected components at version {}", count, snapshot.getVersion());
+        return Components.of(rindex, count);
     }
-
-    public void collectComponents(T vertex, Set<T> visited, Set<T> components, Map<T, Set<T>> reverseGraph) {
-        visited.add(vertex);
-        components.add(vertex);
-        for (T neighbor : reverseGraph.getOrDefault(vertex, Set.of())) {
-            if (!visited.contains(neighbor)) {
-                collectComponents(neighbor, visited, components, reverseGraph);
-            }
-        }
-    }
-
 }
@@ -1,8 +1,21 @@
 package com.offlix.distributed_graph_engine.graph.operations.scc;
 
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+
 import java.util.Map;
 import java.util.Set;
 
+/**
+ * Components of a CSR snapshot the caller already holds, so no strategy takes a graph lock or freezes the graph.
+ */
 public interface SccFinderStrategy<T> {
-    public Map<Integer, Set<T>> find();
+
+    public default Map<Integer, Set<T>> find(CsrSnapshot<T> snapshot) {
+        return components(snapshot).toMap(snapshot);
+    }
+
+    /**
+     * The same components as {@link #find(CsrSnapshot)}, as vertex index arrays of the snapshot.
+     */
+    public Components components(CsrSnapshot<T> snapshot);
 }
@@ -0,0 +1,33 @@
+package com.offlix.distributed_graph_engine.graph.operations.scc;
+
+import lombok.Builder;
+import lombok.Value;
+
+@Value
+@Builder(toBuilder = true)
+public class SccOptions {
+
+    /**
+     * Snapshots with at least this many vertices go to the parallel strategy of their graph type, when there
+     * is one. Below it, forking costs more than it saves.
+     */
+    @Builder.Default
+    int parallelThreshold = 200_000;
+
+    /**
+     * Worker threads of the parallel strategies; 0 runs them in the common fork-join pool.
+     */
+    @Builder.Default
+    int parallelism = 0;
+
+    /**
+     * Subproblems of the parallel directed strategy at or below this many vertices are finished with a
+     * sequential Tarjan pass instead of splitting further.
+     */
+    @Builder.Default
+    int sequentialCutoff = 4_096;
+
+    public static SccOptions defaults() {
+        return builder().build();
+    }
+}
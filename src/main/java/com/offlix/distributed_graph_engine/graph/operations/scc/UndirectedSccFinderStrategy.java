@@ -1,17 +1,10 @@
 package com.offlix.distributed_graph_engine.graph.operations.scc;
 
-import com.offlix.distributed_graph_engine.domain.GraphType;
-import com.offlix.distributed_graph_engine.graph.core.GraphContext;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
 
 import java.util.*;
 
 public class UndirectedSccFinderStrategy<T> implements SccFinderStrategy<T> {
-    private final GraphContext<T> context;
-
-    public UndirectedSccFinderStrategy(GraphContext<T> context) {
-        this.context = context;
-    }
-
     /**
      * <p>
      * Implementation of a strategy to find Connected Components in an undirected graph.
@@ -22,13 +15,14 @@ public class UndirectedSccFinderStrategy<T> implements SccFinderStrategy<T> {
      * <div style="border: 1px solid #ccc; padding: 10px; background-color: #00000;">
      * <b>Step-by-Step Logic:</b>
      * <ol>
-     * <li>Initialize a <code>visited</code> Set and a <code>componentsMap</code>.</li>
-     * <li>Iterate through every <b>Vertex</b> in the graph context.</li>
+     * <li>Initialize a <code>componentOf</code> array indexed by vertex index, <code>-1</code> for unvisited.</li>
+     * <li>Iterate through every <b>Vertex</b> index in the CSR snapshot.</li>
      * <li>If the vertex has <b>not</b> been visited:
      * <ul>
-     * <li>Increment the <code>componentId</code>.</li>
-     * <li>Launch a <b>Depth First Search (DFS)</b> starting from this vertex.</li>
-     * <li>During DFS, mark every reachable neighbor as visited and add them to the current component set.</li>
+     * <li>Take the next <code>componentId</code>.</li>
+     * <li>Launch a <b>Depth First Search (DFS)</b> from this vertex on an explicit <code>int[]</code> stack,
+     * so long paths cannot overflow the thread stack.</li>
+     * <li>During DFS, label every reachable neighbor with the component id.</li>
      * </ul>
      * </li>
      * <li>Repeat until all vertices have been processed.</li>
@@ -37,42 +31,36 @@ public class UndirectedSccFinderStrategy<T> implements SccFinderStrategy<T> {
      * <h3>Complexity:</h3>
      * <ul>
      * <li><b>Time Complexity:</b> O(V + E), where V is the number of vertices and E is the number of edges.</li>
-     * <li><b>Space Complexity:</b> O(V) to store the visited status and the resulting sets.</li>
+     * <li><b>Space Complexity:</b> two <code>int[V]</code>: the labels and the stack.</li>
      * </ul>
      */
     @Override
-    public Map<Integer, Set<T>> find() {
-        Set<T> visited = new HashSet<>();
-        Map<Integer, Set<T>> components = new HashMap<>();
+    public Components components(CsrSnapshot<T> snapshot) {
+        int n = snapshot.vertexCount();
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        int[] componentOf = new int[n];
+        Arrays.fill(componentOf, -1);
+        // a vertex is labeled when pushed, so it is pushed at most once
+        int[] stack = new int[n];
         int componentId = 0;
-        for (T vertex : context.getVertices()) {
-            if (!visited.contains(vertex)) {
-                Set<T> component = new HashSet<>();
-                dfs(visited, vertex, component);
-                components.put(componentId++, component);
-            }
-
-
-        }
-
-        return components;
-
-    }
-
-    /**
-     * <p>Recursive Depth First Search to explore all nodes within a single connected cluster.</p>
-     * @param vertex Current node being explored.
-     * @param visited Global set of nodes already processed.
-     * @param components The set representing the current component being built.
-     */
-    private void dfs(Set<T> visited, T vertex, Set<T> components){
-        visited.add(vertex);
-        components.add(vertex);
-        for(T neighbor: context.getNeighbors(vertex)){
-            if(!visited.contains(neighbor)){
-                dfs(visited, neighbor, components);
+        for (int vertex = 0; vertex < n; vertex++) {
+            if (componentOf[vertex] != -1) continue;
+            int top = 0;
+            stack[top++] = vertex;
+            componentOf[vertex] = componentId;
+            while (top > 0) {
+                int current = stack[--top];
+                for (int edge = offsets[current]; edge < offsets[current + 1]; edge++) {
+                    int neighbor = targets[edge];
+                    if (componentOf[neighbor] == -1) {
+                        componentOf[neighbor] = componentId;
+                        stack[top++] = neighbor;
+                    }
+                }
             }
+            componentId++;
         }
-
+        return Components.of(componentOf, componentId);
     }
 }
@@ -0,0 +1,453 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * <h3>Contraction hierarchy: a preprocessed index for point-to-point shortest paths on one snapshot</h3>
+ * <ul>
+ * <li><b>Contraction:</b> vertices are removed one at a time, least important first. Removing <code>v</code>
+ * adds a shortcut <code>u -> x</code> of weight <code>w(u, v) + w(v, x)</code> for each pair of remaining
+ * neighbors, unless a bounded witness search from <code>u</code> that avoids <code>v</code> finds a path at
+ * least as short. Distances among the remaining vertices are therefore preserved.</li>
+ * <li><b>Node order:</b> importance is the edge difference (shortcuts added minus edges removed), plus the number
+ * of already contracted neighbors and the depth of the hierarchy below the vertex, which spreads contraction
+ * evenly over the graph. Priorities are kept in an {@link IndexedDaryHeap} and updated lazily: a polled vertex
+ * is re-evaluated and put back if it no longer comes first. Witness searches stop once every neighbor they
+ * test is settled.</li>
+ * <li><b>Index:</b> every original edge and shortcut is stored once, at its endpoint contracted first: in the
+ * upward graph when it leaves that endpoint, in the downward graph when it enters it. Each shortcut remembers
+ * the vertex it bypasses.</li>
+ * <li><b>Query:</b> a bidirectional Dijkstra where both sides only climb: forward from the source over the
+ * upward graph, backward from the target over the downward graph. A side stops once its lowest key reaches the
+ * best meeting found. A vertex reached more cheaply through a higher neighbor than through its own tree is not
+ * expanded (stall-on-demand). The shortcuts on the result are expanded back into original edges.</li>
+ * </ul>
+ * Immutable once built and safe to query from many threads; search state lives in the per-thread
+ * {@link SearchScratch}. Weights must be non-negative.
+ */
+public final class ContractionHierarchy<T> {
+    private final CsrSnapshot<T> snapshot;
+    private final int[] rank;
+    private final EdgeArrays upward;
+    private final EdgeArrays downward;
+    private final int shortcutCount;
+
+    private ContractionHierarchy(CsrSnapshot<T> snapshot, int[] rank, EdgeArrays upward, EdgeArrays downward,
+                                 int shortcutCount) {
+        this.snapshot = snapshot;
+        this.rank = rank;
+        this.upward = upward;
+        this.downward = downward;
+        this.shortcutCount = shortcutCount;
+    }
+
+    public static <T> ContractionHierarchy<T> build(CsrSnapshot<T> snapshot, ContractionOptions options) {
+        Contractor contractor = new Contractor(snapshot, options.getWitnessSettleLimit());
+        contractor.contractAll();
+        return new ContractionHierarchy<>(snapshot, contractor.rank, EdgeArrays.of(contractor.outgoing),
+                EdgeArrays.of(contractor.incoming), contractor.shortcutCount);
+    }
+
+    /**
+     * @return the graph version the index was built at; it answers for that version only
+     */
+    public int getVersion() {
+        return snapshot.getVersion();
+    }
+
+    public int shortcutCount() {
+        return shortcutCount;
+    }
+
+    /**
+     * @return the shortest path in the indexed version, empty when either vertex is missing from it or the
+     * destination is unreachable
+     */
+    public Optional<WeightedPath<T>> route(T source, T destination) {
+        int sourceIndex = snapshot.indexOf(source);
+        int destinationIndex = snapshot.indexOf(destination);
+        if (sourceIndex < 0 || destinationIndex < 0) return Optional.empty();
+        if (sourceIndex == destinationIndex) return Optional.of(new WeightedPath<>(List.of(source), 0.0));
+        SearchScratch scratch = SearchScratch.forThread(rank.length);
+        SearchSide forward = scratch.forward();
+        SearchSide backward = scratch.backward();
+        forward.update(sourceIndex, 0.0, -1, 0.0);
+        backward.update(destinationIndex, 0.0, -1, 0.0);
+        double best = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+        while (true) {
+            boolean forwardLive = forward.hasQueued() && forward.lowestKey() < best;
+            boolean backwardLive = backward.hasQueued() && backward.lowestKey() < best;
+            if (!forwardLive && !backwardLive) break;
+            boolean isForward = forwardLive && (!backwardLive || forward.lowestKey() <= backward.lowestKey());
+            SearchSide side = isForward ? forward : backward;
+            SearchSide other = isForward ? backward : forward;
+            EdgeArrays climb = isForward ? upward : downward;
+            int vertex = side.settleNext();
+            double reached = side.distance(vertex);
+            if (other.isReached(vertex) && reached + other.distance(vertex) < best) {
+                best = reached + other.distance(vertex);
+                meeting = vertex;
+            }
+            if (isStalled(side, isForward ? downward : upward, vertex, reached)) continue;
+            for (int edge = climb.offsets[vertex]; edge < climb.offsets[vertex + 1]; edge++) {
+                int next = climb.targets[edge];
+                double candidate = reached + climb.weights[edge];
+                if (side.improves(next, candidate)) side.update(next, candidate, vertex, candidate);
+            }
+        }
+        if (meeting < 0) return Optional.empty();
+
+        List<Integer> hops = new ArrayList<>();
+        for (int current = meeting; current >= 0; current = forward.parent(current)) {
+            hops.add(current);
+        }
+        Collections.reverse(hops);
+        for (int current = backward.parent(meeting); current >= 0; current = backward.parent(current)) {
+            hops.add(current);
+        }
+        List<T> vertices = new ArrayList<>();
+        vertices.add(source);
+        for (int i = 0; i + 1 < hops.size(); i++) {
+            unpack(hops.get(i), hops.get(i + 1), vertices);
+        }
+        return Optional.of(new WeightedPath<>(vertices, best));
+    }
+
+    /**
+     * True when a higher neighbor, through an edge pointing the other way, already reached <code>vertex</code>
+     * more cheaply: its tentative distance is then not a shortest one and expanding it cannot help.
+     */
+    private static boolean isStalled(SearchSide side, EdgeArrays against, int vertex, double reached) {
+        for (int edge = against.offsets[vertex]; edge < against.offsets[vertex + 1]; edge++) {
+            if (side.distance(against.targets[edge]) + against.weights[edge] < reached) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Appends the original vertices after <code>from</code> up to and including <code>to</code>, expanding
+     * shortcuts depth first.
+     */
+    private void unpack(int from, int to, List<T> into) {
+        int[] stack = new int[16];
+        int top = 0;
+        stack[top++] = from;
+        stack[top++] = to;
+        while (top > 0) {
+            int b = stack[--top];
+            int a = stack[--top];
+            int middle = middleOf(a, b);
+            if (middle < 0) {
+                into.add(snapshot.vertexAt(b));
+                continue;
+            }
+            if (top + 4 > stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+            stack[top++] = middle;
+            stack[top++] = b;
+            stack[top++] = a;
+            stack[top++] = middle;
+        }
+    }
+
+    /**
+     * @return the vertex the index edge <code>from -> to</code> bypasses, -1 for an original edge
+     */
+    private int middleOf(int from, int to) {
+        boolean climbing = rank[from] < rank[to];
+        EdgeArrays edges = climbing ? upward : downward;
+        int row = climbing ? from : to;
+        int other = climbing ? to : from;
+        for (int edge = edges.offsets[row]; edge < edges.offsets[row + 1]; edge++) {
+            if (edges.targets[edge] == other) return edges.middles[edge];
+        }
+        throw new IllegalStateException("No index edge " + from + " -> " + to);
+    }
+
+    /**
+     * Index edges in CSR form. In the downward arrays the targets are the higher tails of the edges.
+     */
+    private record EdgeArrays(int[] offsets, int[] targets, double[] weights, int[] middles) {
+
+        static EdgeArrays of(EdgeList[] rows) {
+            int[] offsets = new int[rows.length + 1];
+            for (int vertex = 0; vertex < rows.length; vertex++) {
+                offsets[vertex + 1] = offsets[vertex] + rows[vertex].size;
+            }
+            int[] targets = new int[offsets[rows.length]];
+            double[] weights = new double[targets.length];
+            int[] middles = new int[targets.length];
+            for (int vertex = 0; vertex < rows.length; vertex++) {
+                EdgeList row = rows[vertex];
+                System.arraycopy(row.vertices, 0, targets, offsets[vertex], row.size);
+                System.arraycopy(row.weights, 0, weights, offsets[vertex], row.size);
+                System.arraycopy(row.middles, 0, middles, offsets[vertex], row.size);
+            }
+            return new EdgeArrays(offsets, targets, weights, middles);
+        }
+    }
+
+    /**
+     * The shrinking graph during preprocessing. When a vertex is contracted it is unlinked from its neighbors'
+     * lists while its own lists are left as they are: exactly its edges to higher vertices.
+     */
+    private static final class Contractor {
+        private final int vertexCount;
+        private final int witnessSettleLimit;
+        private final EdgeList[] outgoing;
+        private final EdgeList[] incoming;
+        private final int[] rank;
+        private final int[] contractedNeighbors;
+        private final int[] depth;
+        private final int[] touchedBy;
+        private final int[] targetOf;
+        private final SearchSide witness = new SearchSide();
+        private final IndexedDaryHeap queue = new IndexedDaryHeap();
+        private final boolean symmetric;
+        private int[] pendingFrom = new int[16];
+        private int[] pendingTo = new int[16];
+        private double[] pendingWeight = new double[16];
+        private int pendingCount;
+        private int pendingVertex = -1;
+        private int shortcutCount;
+
+        Contractor(CsrSnapshot<?> snapshot, int witnessSettleLimit) {
+            this.vertexCount = snapshot.vertexCount();
+            this.symmetric = snapshot.getType() == GraphType.UNDIRECTED;
+            this.witnessSettleLimit = witnessSettleLimit;
+            this.outgoing = new EdgeList[vertexCount];
+            this.incoming = new EdgeList[vertexCount];
+            this.rank = new int[vertexCount];
+            this.contractedNeighbors = new int[vertexCount];
+            this.depth = new int[vertexCount];
+            this.touchedBy = new int[vertexCount];
+            this.targetOf = new int[vertexCount];
+            int[] offsets = snapshot.offsets();
+            int[] targets = snapshot.targets();
+            double[] weights = snapshot.weights();
+            int[] inDegree = new int[vertexCount];
+            for (int edge = 0; edge < offsets[vertexCount]; edge++) {
+                inDegree[targets[edge]]++;
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                outgoing[vertex] = new EdgeList(offsets[vertex + 1] - offsets[vertex]);
+                incoming[vertex] = new EdgeList(inDegree[vertex]);
+            }
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+                    double weight = weights[edge];
+                    if (weight < 0) {
+                        throw new IllegalArgumentException("Contraction hierarchies need non-negative weights, edge "
+                                + snapshot.vertexAt(vertex) + " -> " + snapshot.vertexAt(targets[edge]) + " has " + weight);
+                    }
+                    // rows hold no duplicates, so edges are appended unchecked
+                    outgoing[vertex].append(targets[edge], weight, -1);
+                    incoming[targets[edge]].append(vertex, weight, -1);
+                }
+            }
+            witness.reset(vertexCount);
+            queue.ensureCapacity(vertexCount);
+            Arrays.fill(touchedBy, -1);
+            Arrays.fill(targetOf, -1);
+        }
+
+        void contractAll() {
+            for (int vertex = 0; vertex < vertexCount; vertex++) {
+                queue.insertOrDecrease(vertex, priority(vertex));
+            }
+            int next = 0;
+            while (!queue.isEmpty()) {
+                int vertex = queue.poll();
+                double priority = priority(vertex);
+                if (!queue.isEmpty() && priority > queue.peekKey()) {
+                    queue.insertOrDecrease(vertex, priority);
+                    continue;
+                }
+                rank[vertex] = next++;
+                contract(vertex);
+            }
+        }
+
+        private void contract(int vertex) {
+            if (pendingVertex != vertex) findShortcuts(vertex);
+            for (int i = 0; i < pendingCount; i++) {
+                addShortcut(pendingFrom[i], pendingTo[i], pendingWeight[i], vertex);
+                if (symmetric) addShortcut(pendingTo[i], pendingFrom[i], pendingWeight[i], vertex);
+            }
+            shortcutCount += symmetric ? 2 * pendingCount : pendingCount;
+            pendingVertex = -1;
+            EdgeList out = outgoing[vertex];
+            EdgeList in = incoming[vertex];
+            for (int i = 0; i < out.size; i++) {
+                incoming[out.vertices[i]].remove(vertex);
+            }
+            for (int i = 0; i < in.size; i++) {
+                outgoing[in.vertices[i]].remove(vertex);
+            }
+            // undirected rows list each neighbor both ways; touchedBy counts it once
+            for (int i = 0; i < out.size; i++) {
+                neighborContracted(out.vertices[i], vertex);
+            }
+            for (int i = 0; i < in.size; i++) {
+                neighborContracted(in.vertices[i], vertex);
+            }
+        }
+
+        /**
+         * Only raises the neighbor's priority, so it is left to the check on poll: re-evaluating every neighbor
+         * at once costs a round of witness searches per neighbor and barely changes the order.
+         */
+        private void neighborContracted(int neighbor, int contracted) {
+            if (touchedBy[neighbor] == contracted) return;
+            touchedBy[neighbor] = contracted;
+            contractedNeighbors[neighbor]++;
+            depth[neighbor] = Math.max(depth[neighbor], depth[contracted] + 1);
+        }
+
+        private void addShortcut(int from, int to, double weight, int middle) {
+            outgoing[from].put(to, weight, middle);
+            incoming[to].put(from, weight, middle);
+        }
+
+        private double priority(int vertex) {
+            int shortcuts = findShortcuts(vertex);
+            int edgeDifference = (symmetric ? 2 * shortcuts : shortcuts) - outgoing[vertex].size - incoming[vertex].size;
+            return edgeDifference + contractedNeighbors[vertex] + depth[vertex];
+        }
+
+        /**
+         * Collects the shortcuts that contracting <code>vertex</code> needs as the pending ones. A vertex is
+         * contracted right after the evaluation that put it first, so those searches are not repeated. On
+         * undirected graphs only pairs <code>from &lt; to</code> are searched; the reverse shortcut is implied.
+         * @return the number of pairs found
+         */
+        private int findShortcuts(int vertex) {
+            pendingVertex = vertex;
+            pendingCount = 0;
+            EdgeList in = incoming[vertex];
+            EdgeList out = outgoing[vertex];
+            if (in.size == 0 || out.size == 0) return 0;
+            double longestOut = 0;
+            for (int j = 0; j < out.size; j++) {
+                longestOut = Math.max(longestOut, out.weights[j]);
+                targetOf[out.vertices[j]] = vertex;
+            }
+            for (int i = 0; i < in.size; i++) {
+                int from = in.vertices[i];
+                double toVertex = in.weights[i];
+                int lowestTarget = symmetric ? from + 1 : 0;
+                int targets = 0;
+                for (int j = 0; j < out.size; j++) {
+                    if (out.vertices[j] >= lowestTarget) targets++;
+                }
+                if (targets == 0) continue;
+                searchWitnesses(from, vertex, toVertex + longestOut, targets, lowestTarget);
+                for (int j = 0; j < out.size; j++) {
+                    int to = out.vertices[j];
+                    double through = toVertex + out.weights[j];
+                    if (to == from || to < lowestTarget || witness.distance(to) <= through) continue;
+                    if (pendingCount == pendingFrom.length) {
+                        pendingFrom = Arrays.copyOf(pendingFrom, pendingCount * 2);
+                        pendingTo = Arrays.copyOf(pendingTo, pendingCount * 2);
+                        pendingWeight = Arrays.copyOf(pendingWeight, pendingCount * 2);
+                    }
+                    pendingFrom[pendingCount] = from;
+                    pendingTo[pendingCount] = to;
+                    pendingWeight[pendingCount] = through;
+                    pendingCount++;
+                }
+            }
+            return pendingCount;
+        }
+
+        /**
+         * Bounded Dijkstra from <code>source</code> in the remaining graph without <code>skipped</code>, until the
+         * <code>targets</code> neighbors of <code>skipped</code> marked in <code>targetOf</code>, from
+         * <code>lowestTarget</code> up, are settled. Any distance it leaves is the length of a real path, so a
+         * short enough one proves a shortcut unnecessary.
+         */
+        private void searchWitnesses(int source, int skipped, double limit, int targets, int lowestTarget) {
+            witness.reset(vertexCount);
+            witness.update(source, 0.0, -1, 0.0);
+            int unsettled = targets;
+            while (unsettled > 0 && witness.hasQueued() && witness.lowestKey() <= limit
+                    && witness.settledCount() < witnessSettleLimit) {
+                int vertex = witness.settleNext();
+                if (targetOf[vertex] == skipped && vertex >= lowestTarget) unsettled--;
+                double reached = witness.distance(vertex);
+                EdgeList out = outgoing[vertex];
+                for (int j = 0; j < out.size; j++) {
+                    int next = out.vertices[j];
+                    double candidate = reached + out.weights[j];
+                    if (next != skipped && candidate <= limit && witness.improves(next, candidate)) {
+                        witness.update(next, candidate, vertex, candidate);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Growable adjacency row of the preprocessing graph: neighbor, weight and bypassed vertex (-1 for original edges).
+     */
+    private static final class EdgeList {
+        int[] vertices;
+        double[] weights;
+        int[] middles;
+        int size;
+
+        EdgeList(int capacity) {
+            vertices = new int[Math.max(2, capacity)];
+            weights = new double[vertices.length];
+            middles = new int[vertices.length];
+        }
+
+        void append(int vertex, double weight, int middle) {
+            if (size == vertices.length) {
+                vertices = Arrays.copyOf(vertices, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                middles = Arrays.copyOf(middles, size * 2);
+            }
+            vertices[size] = vertex;
+            weights[size] = weight;
+            middles[size] = middle;
+            size++;
+        }
+
+        /**
+         * Adds the edge, or lowers the weight of the one already there.
+         */
+        void put(int vertex, double weight, int middle) {
+            int index = indexOf(vertex);
+            if (index < 0) {
+                append(vertex, weight, middle);
+            } else if (weight < weights[index]) {
+                weights[index] = weight;
+                middles[index] = middle;
+            }
+        }
+
+        void remove(int vertex) {
+            int index = indexOf(vertex);
+            if (index < 0) return;
+            size--;
+            vertices[index] = vertices[size];
+            weights[index] = weights[size];
+            middles[index] = middles[size];
+        }
+
+        private int indexOf(int vertex) {
+            for (int i = 0; i < size; i++) {
+                if (vertices[i] == vertex) return i;
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class ContractionOptions {
+
+    /**
+     * A witness search settles at most this many vertices before giving up and adding the shortcut. Lower
+     * limits preprocess faster and add shortcuts that were not needed; queries stay exact either way.
+     */
+    @Builder.Default
+    int witnessSettleLimit = 128;
+
+    /**
+     * How often the route index checks whether the graph has moved past the version it was built at, and
+     * rebuilds in the background when it has. {@link Duration#ZERO} turns background rebuilds off.
+     */
+    @Builder.Default
+    Duration rebuildInterval = Duration.ofSeconds(1);
+
+    public static ContractionOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,12 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+/**
+ * Bounds on a shortest distance at graph <code>version</code>: <code>lower &lt;= d &lt;= upper</code>. An infinite
+ * lower bound means unreachable; an infinite upper bound only means no landmark lies on a route.
+ */
+public record DistanceBounds(double lower, double upper, int version) {
+
+    public boolean isExact() {
+        return lower == upper;
+    }
+}
@@ -0,0 +1,89 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * <h3>Size-bounded LRU cache of exact distances, keyed by source, target and graph version</h3>
+ * <ul>
+ * <li>An access-ordered map under one monitor: a lookup or insert is a hash probe and a relink, short enough
+ * that the lock is not worth striping.</li>
+ * <li>Entries of an older version can never hit again. The first lookup or insert at a newer version drops
+ * them all at once, so memory is not held until LRU order pushes them out.</li>
+ * <li>A result computed at a version the cache has already moved past is not stored.</li>
+ * </ul>
+ * Hits, misses, evictions and invalidations are counted without taking the monitor; see {@link #metrics()}.
+ */
+public final class DistanceCache<T> {
+    private final int capacity;
+    private final LinkedHashMap<Key<T>, Double> entries;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder invalidated = new LongAdder();
+    private int version = Integer.MIN_VALUE;
+
+    public DistanceCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key<T>, Double> eldest) {
+                if (size() <= DistanceCache.this.capacity) return false;
+                evictions.increment();
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the distance stored for this version, or <code>null</code>
+     */
+    public Double get(T source, T target, int version) {
+        Double distance;
+        synchronized (this) {
+            invalidateBefore(version);
+            distance = entries.get(new Key<>(source, target, version));
+        }
+        (distance == null ? misses : hits).increment();
+        return distance;
+    }
+
+    public void put(T source, T target, int version, double distance) {
+        if (capacity <= 0) return;
+        synchronized (this) {
+            invalidateBefore(version);
+            if (version == this.version) entries.put(new Key<>(source, target, version), distance);
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    public CacheMetrics metrics() {
+        return new CacheMetrics(size(), capacity, hits.sum(), misses.sum(), evictions.sum(), invalidated.sum());
+    }
+
+    private void invalidateBefore(int version) {
+        if (version <= this.version) return;
+        invalidated.add(entries.size());
+        entries.clear();
+        this.version = version;
+    }
+
+    private record Key<T>(T source, T target, int version) {
+    }
+
+    /**
+     * Cumulative counters since the cache was created.
+     * @param invalidated entries dropped because the graph moved to a newer version
+     */
+    public record CacheMetrics(int size, int capacity, long hits, long misses, long evictions, long invalidated) {
+
+        public double hitRate() {
+            long lookups = hits + misses;
+            return lookups == 0 ? 0.0 : (double) hits / lookups;
+        }
+    }
+}
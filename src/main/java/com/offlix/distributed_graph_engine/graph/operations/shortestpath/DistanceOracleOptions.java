@@ -0,0 +1,35 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class DistanceOracleOptions {
+
+    /**
+     * Landmarks to precompute. Each costs one <code>double</code> per vertex (two on directed graphs) and one
+     * or two Dijkstra runs per build; beyond about 16 the bounds rarely get tighter.
+     */
+    @Builder.Default
+    int landmarkCount = 8;
+
+    /**
+     * Exact results kept, least recently used evicted first.
+     */
+    @Builder.Default
+    int cacheSize = 100_000;
+
+    /**
+     * How often the landmarks are checked against the graph version and rebuilt in the background when behind.
+     * {@link Duration#ZERO} turns background rebuilds off.
+     */
+    @Builder.Default
+    Duration rebuildInterval = Duration.ofSeconds(1);
+
+    public static DistanceOracleOptions defaults() {
+        return builder().build();
+    }
+}
@@ -0,0 +1,30 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Lower bound on the remaining distance for A*, on vertex indexes of the snapshot being searched.
+ * It must be consistent: <code>h(u) &lt;= w(u, v) + h(v)</code> for every edge and <code>h(target) = 0</code>.
+ * Otherwise a settled vertex could still improve, and the path found may not be shortest.
+ */
+@FunctionalInterface
+public interface Heuristic<T> {
+
+    double estimate(CsrSnapshot<T> snapshot, int vertex, int target);
+
+    /**
+     * The heuristic that knows nothing: A* with it is plain Dijkstra.
+     */
+    static <T> Heuristic<T> none() {
+        return (snapshot, vertex, target) -> 0.0;
+    }
+
+    /**
+     * Adapts an estimate on the vertices themselves, such as the straight-line distance between two cities.
+     */
+    static <T> Heuristic<T> of(ToDoubleBiFunction<T, T> estimate) {
+        return (snapshot, vertex, target) -> estimate.applyAsDouble(snapshot.vertexAt(vertex), snapshot.vertexAt(target));
+    }
+}
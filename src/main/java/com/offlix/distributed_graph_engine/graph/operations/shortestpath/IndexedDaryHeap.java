@@ -0,0 +1,111 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import java.util.Arrays;
+
+/**
+ * <h3>Indexed 4-ary min-heap of int items keyed by primitive doubles</h3>
+ * <ul>
+ * <li>Items are vertex indexes below the capacity; <code>position[item]</code> locates an item in the heap,
+ * so a decrease-key sifts it up in place instead of pushing a duplicate.</li>
+ * <li>Four children per node halve the depth of a binary heap. Decrease-key, the common operation in
+ * Dijkstra, only sifts up and gets cheaper; a poll compares four children per level, all in one cache line.</li>
+ * <li>Items and keys sit in parallel primitive arrays: no boxing and no entry objects.</li>
+ * </ul>
+ * Not thread-safe.
+ */
+public final class IndexedDaryHeap {
+    private static final int ARITY = 4;
+
+    private int[] items = new int[0];
+    private double[] keys = new double[0];
+    // -1 when the item is not in the heap; kept that way for every item between uses, so clear() is O(size)
+    private int[] position = new int[0];
+    private int size;
+
+    public void ensureCapacity(int capacity) {
+        if (capacity <= position.length) return;
+        int old = position.length;
+        position = Arrays.copyOf(position, capacity);
+        Arrays.fill(position, old, capacity, -1);
+        items = Arrays.copyOf(items, capacity);
+        keys = Arrays.copyOf(keys, capacity);
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean contains(int item) {
+        return position[item] >= 0;
+    }
+
+    public double peekKey() {
+        return keys[0];
+    }
+
+    /**
+     * Adds the item, or lowers its key when it is already in the heap with a higher one.
+     */
+    public void insertOrDecrease(int item, double key) {
+        int slot = position[item];
+        if (slot < 0) {
+            slot = size++;
+        } else if (key >= keys[slot]) {
+            return;
+        }
+        siftUp(slot, item, key);
+    }
+
+    /**
+     * Removes the item with the lowest key; the heap must not be empty.
+     */
+    public int poll() {
+        int top = items[0];
+        position[top] = -1;
+        size--;
+        if (size > 0) siftDown(0, items[size], keys[size]);
+        return top;
+    }
+
+    public void clear() {
+        for (int slot = 0; slot < size; slot++) {
+            position[items[slot]] = -1;
+        }
+        size = 0;
+    }
+
+    private void siftUp(int slot, int item, double key) {
+        while (slot > 0) {
+            int parent = (slot - 1) / ARITY;
+            if (keys[parent] <= key) break;
+            place(slot, items[parent], keys[parent]);
+            slot = parent;
+        }
+        place(slot, item, key);
+    }
+
+    private void siftDown(int slot, int item, double key) {
+        while (true) {
+            int first = slot * ARITY + 1;
+            if (first >= size) break;
+            int smallest = first;
+            for (int child = first + 1, last = Math.min(first + ARITY, size); child < last; child++) {
+                if (keys[child] < keys[smallest]) smallest = child;
+            }
+            if (keys[smallest] >= key) break;
+            place(slot, items[smallest], keys[smallest]);
+            slot = smallest;
+        }
+        place(slot, item, key);
+    }
+
+    private void place(int slot, int item, double key) {
+        items[slot] = item;
+        keys[slot] = key;
+        position[item] = slot;
+    }
+}
@@ -0,0 +1,160 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+
+import java.util.Arrays;
+
+/**
+ * <h3>ALT landmarks: distance bounds from a few precomputed shortest-path trees</h3>
+ * <ul>
+ * <li><b>Tables:</b> for each landmark <code>L</code>, the distance from <code>L</code> to every vertex and,
+ * over the transposed snapshot, from every vertex to <code>L</code>. Undirected graphs share one table.</li>
+ * <li><b>Lower bound:</b> by the triangle inequality <code>d(s, t) &gt;= d(L, t) - d(L, s)</code> and
+ * <code>d(s, t) &gt;= d(s, L) - d(t, L)</code>; the best over all landmarks is a consistent A* heuristic. An
+ * infinite bound proves <code>t</code> unreachable from <code>s</code>.</li>
+ * <li><b>Upper bound:</b> <code>d(s, L) + d(L, t)</code>, the length of a real path through a landmark.</li>
+ * <li><b>Selection:</b> farthest first. Each next landmark is the vertex farthest from all landmarks chosen so
+ * far, a vertex none of them reaches counting as farthest, so every component gets one. Landmarks on the rim of
+ * the graph sit behind many targets, which is what makes the bounds tight.</li>
+ * </ul>
+ * Immutable once built; answers for the snapshot it was built from. Memory is two <code>double</code>s per
+ * vertex and landmark, one for undirected graphs.
+ */
+public final class Landmarks<T> {
+    private final CsrSnapshot<T> snapshot;
+    private final int[] landmarks;
+    private final double[][] fromLandmark;
+    private final double[][] toLandmark;
+
+    private Landmarks(CsrSnapshot<T> snapshot, int[] landmarks, double[][] fromLandmark, double[][] toLandmark) {
+        this.snapshot = snapshot;
+        this.landmarks = landmarks;
+        this.fromLandmark = fromLandmark;
+        this.toLandmark = toLandmark;
+    }
+
+    /**
+     * Picks up to <code>count</code> landmarks and computes their tables: two full Dijkstra runs per landmark
+     * on directed graphs, one on undirected graphs.
+     */
+    public static <T> Landmarks<T> select(CsrSnapshot<T> snapshot, int count) {
+        int n = snapshot.vertexCount();
+        int k = Math.min(count, n);
+        boolean undirected = snapshot.getType() == GraphType.UNDIRECTED;
+        CsrSnapshot<T> reversed = undirected ? snapshot : snapshot.transpose();
+        SearchSide side = new SearchSide();
+        int[] chosen = new int[k];
+        double[][] from = new double[k][];
+        double[][] to = new double[k][];
+        // distance to the nearest landmark chosen so far, infinite for vertices none of them reaches
+        double[] nearest = new double[n];
+        Arrays.fill(nearest, Double.POSITIVE_INFINITY);
+        int next = highestDegree(snapshot);
+        for (int i = 0; i < k; i++) {
+            chosen[i] = next;
+            from[i] = distancesFrom(snapshot, side, next);
+            to[i] = undirected ? from[i] : distancesFrom(reversed, side, next);
+            int farthest = -1;
+            for (int vertex = 0; vertex < n; vertex++) {
+                nearest[vertex] = Math.min(nearest[vertex], Math.min(from[i][vertex], to[i][vertex]));
+                if (nearest[vertex] > 0 && (farthest < 0 || nearest[vertex] > nearest[farthest])) farthest = vertex;
+            }
+            if (farthest < 0) {
+                // every vertex is a landmark already
+                k = i + 1;
+                break;
+            }
+            next = farthest;
+        }
+        return new Landmarks<>(snapshot, Arrays.copyOf(chosen, k), Arrays.copyOf(from, k), Arrays.copyOf(to, k));
+    }
+
+    public int getVersion() {
+        return snapshot.getVersion();
+    }
+
+    public CsrSnapshot<T> getSnapshot() {
+        return snapshot;
+    }
+
+    public int count() {
+        return landmarks.length;
+    }
+
+    /**
+     * @return the bounds on <code>d(source, target)</code>, or <code>null</code> when either vertex is not in
+     * the snapshot
+     */
+    public DistanceBounds bounds(T source, T target) {
+        int sourceIndex = snapshot.indexOf(source);
+        int targetIndex = snapshot.indexOf(target);
+        if (sourceIndex < 0 || targetIndex < 0) return null;
+        return new DistanceBounds(lowerBound(sourceIndex, targetIndex), upperBound(sourceIndex, targetIndex),
+                snapshot.getVersion());
+    }
+
+    public double lowerBound(int source, int target) {
+        if (source == target) return 0.0;
+        double bound = 0.0;
+        for (int i = 0; i < landmarks.length; i++) {
+            double[] from = fromLandmark[i];
+            double[] to = toLandmark[i];
+            // an infinite subtrahend proves nothing; an infinite minuend with a finite subtrahend proves unreachability
+            if (from[source] != Double.POSITIVE_INFINITY) bound = Math.max(bound, from[target] - from[source]);
+            if (to[target] != Double.POSITIVE_INFINITY) bound = Math.max(bound, to[source] - to[target]);
+        }
+        return bound;
+    }
+
+    public double upperBound(int source, int target) {
+        if (source == target) return 0.0;
+        double bound = Double.POSITIVE_INFINITY;
+        for (int i = 0; i < landmarks.length; i++) {
+            bound = Math.min(bound, toLandmark[i][source] + fromLandmark[i][target]);
+        }
+        return bound;
+    }
+
+    /**
+     * The lower bound as an A* heuristic. It knows nothing about other snapshots and estimates 0 on them.
+     */
+    public Heuristic<T> heuristic() {
+        return (searched, vertex, target) -> searched == snapshot ? lowerBound(vertex, target) : 0.0;
+    }
+
+    private static int highestDegree(CsrSnapshot<?> snapshot) {
+        int[] offsets = snapshot.offsets();
+        int best = 0;
+        for (int vertex = 1; vertex < snapshot.vertexCount(); vertex++) {
+            if (offsets[vertex + 1] - offsets[vertex] > offsets[best + 1] - offsets[best]) best = vertex;
+        }
+        return best;
+    }
+
+    private static double[] distancesFrom(CsrSnapshot<?> snapshot, SearchSide side, int source) {
+        int n = snapshot.vertexCount();
+        int[] offsets = snapshot.offsets();
+        int[] targets = snapshot.targets();
+        double[] weights = snapshot.weights();
+        side.reset(n);
+        side.update(source, 0.0, -1, 0.0);
+        while (side.hasQueued()) {
+            int vertex = side.settleNext();
+            double reached = side.distance(vertex);
+            for (int edge = offsets[vertex]; edge < offsets[vertex + 1]; edge++) {
+                if (weights[edge] < 0) {
+                    throw new IllegalArgumentException("Landmarks need non-negative weights, edge " + snapshot.vertexAt(vertex)
+                            + " -> " + snapshot.vertexAt(targets[edge]) + " has " + weights[edge]);
+                }
+                double candidate = reached + weights[edge];
+                if (side.improves(targets[edge], candidate)) side.update(targets[edge], candidate, vertex, candidate);
+            }
+        }
+        double[] distance = new double[n];
+        for (int vertex = 0; vertex < n; vertex++) {
+            distance[vertex] = side.distance(vertex);
+        }
+        return distance;
+    }
+}
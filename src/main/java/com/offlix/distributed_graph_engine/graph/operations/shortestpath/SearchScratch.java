@@ -0,0 +1,33 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+/**
+ * Per-thread pair of {@link SearchSide}s, so repeated queries on a thread allocate no O(V) state. A search must
+ * not start another on the same thread, for example from inside a heuristic.
+ */
+public final class SearchScratch {
+    private static final ThreadLocal<SearchScratch> PER_THREAD = ThreadLocal.withInitial(SearchScratch::new);
+
+    private final SearchSide forward = new SearchSide();
+    private final SearchSide backward = new SearchSide();
+
+    private SearchScratch() {
+    }
+
+    /**
+     * The calling thread's scratch, reset for a snapshot of <code>vertexCount</code> vertices.
+     */
+    public static SearchScratch forThread(int vertexCount) {
+        SearchScratch scratch = PER_THREAD.get();
+        scratch.forward.reset(vertexCount);
+        scratch.backward.reset(vertexCount);
+        return scratch;
+    }
+
+    public SearchSide forward() {
+        return forward;
+    }
+
+    public SearchSide backward() {
+        return backward;
+    }
+}
@@ -0,0 +1,99 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import java.util.Arrays;
+
+/**
+ * <h3>State of one direction of a Dijkstra-family search, reused across queries</h3>
+ * <ul>
+ * <li>Tentative distance, parent and heap per vertex index, sized to the largest snapshot seen.</li>
+ * <li>Entries are valid only when their stamp equals the current one. Starting a query bumps the stamp, so
+ * nothing O(V) is cleared or allocated per query.</li>
+ * </ul>
+ */
+public final class SearchSide {
+    private final IndexedDaryHeap heap = new IndexedDaryHeap();
+    private double[] distance = new double[0];
+    private int[] parent = new int[0];
+    private int[] reachedAt = new int[0];
+    private int[] settledAt = new int[0];
+    private int stamp;
+    private int settledCount;
+
+    public void reset(int vertexCount) {
+        if (vertexCount > distance.length) {
+            distance = new double[vertexCount];
+            parent = new int[vertexCount];
+            reachedAt = new int[vertexCount];
+            settledAt = new int[vertexCount];
+            stamp = 0;
+        }
+        heap.ensureCapacity(vertexCount);
+        heap.clear();
+        settledCount = 0;
+        if (++stamp == 0) {
+            Arrays.fill(reachedAt, 0);
+            Arrays.fill(settledAt, 0);
+            stamp = 1;
+        }
+    }
+
+    public boolean isReached(int vertex) {
+        return reachedAt[vertex] == stamp;
+    }
+
+    public boolean isSettled(int vertex) {
+        return settledAt[vertex] == stamp;
+    }
+
+    /**
+     * @return the tentative distance, final once settled; infinite when not reached
+     */
+    public double distance(int vertex) {
+        return isReached(vertex) ? distance[vertex] : Double.POSITIVE_INFINITY;
+    }
+
+    /**
+     * @return the vertex the best known path arrives from, or -1 for the start and unreached vertices
+     */
+    public int parent(int vertex) {
+        return isReached(vertex) ? parent[vertex] : -1;
+    }
+
+    public int settledCount() {
+        return settledCount;
+    }
+
+    public boolean improves(int vertex, double candidate) {
+        return !isReached(vertex) || !isSettled(vertex) && candidate < distance[vertex];
+    }
+
+    /**
+     * Records a better path to <code>vertex</code> and queues it under <code>key</code>, which differs from the
+     * distance only for A*.
+     */
+    public void update(int vertex, double newDistance, int from, double key) {
+        reachedAt[vertex] = stamp;
+        distance[vertex] = newDistance;
+        parent[vertex] = from;
+        heap.insertOrDecrease(vertex, key);
+    }
+
+    public boolean hasQueued() {
+        return !heap.isEmpty();
+    }
+
+    public int queued() {
+        return heap.size();
+    }
+
+    public double lowestKey() {
+        return heap.peekKey();
+    }
+
+    public int settleNext() {
+        int vertex = heap.poll();
+        settledAt[vertex] = stamp;
+        settledCount++;
+        return vertex;
+    }
+}
@@ -0,0 +1,55 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Shortest distances and paths from one source to every vertex of a snapshot, indexed like the snapshot.
+ */
+public final class ShortestPathTree<T> {
+    private final CsrSnapshot<T> snapshot;
+    private final int source;
+    private final double[] distance;
+    private final int[] parent;
+
+    public ShortestPathTree(CsrSnapshot<T> snapshot, int source, double[] distance, int[] parent) {
+        this.snapshot = snapshot;
+        this.source = source;
+        this.distance = distance;
+        this.parent = parent;
+    }
+
+    public T getSource() {
+        return snapshot.vertexAt(source);
+    }
+
+    /**
+     * @return the shortest distance, infinite when the vertex is unreachable or not in the snapshot
+     */
+    public double distanceTo(T vertex) {
+        int index = snapshot.indexOf(vertex);
+        return index < 0 ? Double.POSITIVE_INFINITY : distance[index];
+    }
+
+    public Optional<WeightedPath<T>> pathTo(T vertex) {
+        int index = snapshot.indexOf(vertex);
+        if (index < 0 || distance[index] == Double.POSITIVE_INFINITY) return Optional.empty();
+        List<T> vertices = new ArrayList<>();
+        for (int current = index; current >= 0; current = parent[current]) {
+            vertices.add(snapshot.vertexAt(current));
+        }
+        Collections.reverse(vertices);
+        return Optional.of(new WeightedPath<>(vertices, distance[index]));
+    }
+
+    /**
+     * Raw distances by vertex index, for callers that stay on indexes. Not a copy.
+     */
+    public double[] distances() {
+        return distance;
+    }
+}
@@ -0,0 +1,13 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import java.util.List;
+
+/**
+ * A path as its vertices from source to destination, with the sum of its edge weights.
+ */
+public record WeightedPath<T>(List<T> vertices, double weight) {
+
+    public int edgeCount() {
+        return vertices.size() - 1;
+    }
+}
@@ -0,0 +1,119 @@
+package com.offlix.distributed_graph_engine.graph.redis;
+
+import java.util.*;
+
+/**
+ * Mutations waiting for the next flush, already coalesced to their net effect per vertex.
+ * <ul>
+ * <li>Adding and then removing an edge cancels out; writing it twice keeps the last weight.</li>
+ * <li>A removed vertex is <i>wiped</i>: the flush deletes its hashes and every edge Redis knows of that
+ * touches it, before it applies anything else. Pending changes that mention the vertex are dropped
+ * at removal, so only what happens after the removal survives.</li>
+ * </ul>
+ * Not thread-safe; {@link RedisGraphStore} guards it.
+ */
+final class PendingWrites<T> {
+    private final boolean directed;
+    final Set<T> wiped = new LinkedHashSet<>();
+    final Map<T, VertexChanges<T>> changes = new LinkedHashMap<>();
+    int mutations;
+    int version;
+
+    PendingWrites(boolean directed) {
+        this.directed = directed;
+    }
+
+    boolean isEmpty() {
+        return mutations == 0;
+    }
+
+    void vertexAdded(int version, T vertex) {
+        changesOf(vertex).present = true;
+        recorded(version);
+    }
+
+    void vertexRemoved(int version, T vertex) {
+        wiped.add(vertex);
+        changes.remove(vertex);
+        for (VertexChanges<T> other : changes.values()) {
+            other.forget(vertex);
+        }
+        recorded(version);
+    }
+
+    void edgeAdded(int version, T source, T destination, double weight) {
+        changesOf(source).put(destination, weight);
+        if (directed) {
+            changesOf(destination).predecessorAdded(source);
+        } else {
+            changesOf(destination).put(source, weight);
+        }
+        recorded(version);
+    }
+
+    /**
+     * The predecessor entry of a directed edge is already there, so only the row changes.
+     */
+    void edgeReweighted(int version, T source, T destination, double weight) {
+        changesOf(source).put(destination, weight);
+        if (!directed) changesOf(destination).put(source, weight);
+        recorded(version);
+    }
+
+    void edgeRemoved(int version, T source, T destination) {
+        changesOf(source).delete(destination);
+        if (directed) {
+            changesOf(destination).predecessorRemoved(source);
+        } else {
+            changesOf(destination).delete(source);
+        }
+        recorded(version);
+    }
+
+    private VertexChanges<T> changesOf(T vertex) {
+        return changes.computeIfAbsent(vertex, key -> new VertexChanges<>());
+    }
+
+    private void recorded(int version) {
+        mutations++;
+        this.version = Math.max(this.version, version);
+    }
+
+    static final class VertexChanges<T> {
+        boolean present;
+        final Map<T, Double> puts = new LinkedHashMap<>();
+        final Set<T> deletes = new LinkedHashSet<>();
+        final Set<T> predecessorsAdded = new LinkedHashSet<>();
+        final Set<T> predecessorsRemoved = new LinkedHashSet<>();
+
+        private void put(T neighbor, double weight) {
+            puts.put(neighbor, weight);
+            deletes.remove(neighbor);
+        }
+
+        private void delete(T neighbor) {
+            puts.remove(neighbor);
+            deletes.add(neighbor);
+        }
+
+        private void predecessorAdded(T predecessor) {
+            predecessorsAdded.add(predecessor);
+            predecessorsRemoved.remove(predecessor);
+        }
+
+        private void predecessorRemoved(T predecessor) {
+            predecessorsAdded.remove(predecessor);
+            predecessorsRemoved.add(predecessor);
+        }
+
+        /**
+         * The vertex was wiped; the flush deletes its edges from this row, so nothing pending needs to.
+         */
+        private void forget(T removed) {
+            puts.remove(removed);
+            deletes.remove(removed);
+            predecessorsAdded.remove(removed);
+            predecessorsRemoved.remove(removed);
+        }
+    }
+}
@@ -0,0 +1,440 @@
+package com.offlix.distributed_graph_engine.graph.redis;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.GraphMutationListener;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.ScanOptions;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * <h3>A heap graph whose adjacency is persisted to Redis, one hash per vertex</h3>
+ * <ul>
+ * <li><b>Layout:</b> under {@link RedisStoreOptions#getKeyPrefix()}, <code>:v</code> is the set of vertices,
+ * <code>:o:&lt;vertex&gt;</code> the vertex's out-edges as a hash of neighbor to 8-byte weight, and
+ * <code>:meta</code> the graph type and version. A directed graph also keeps <code>:i:&lt;vertex&gt;</code>, the set
+ * of predecessors, so a removed vertex can be cut out of the rows pointing at it. Undirected rows hold both
+ * directions. Vertices are encoded with the {@link VertexKeyCodec}.</li>
+ * <li><b>Writes:</b> as a {@link GraphMutationListener}, inside the graph lock, into a {@link PendingWrites} buffer
+ * that coalesces them per vertex. A background thread drains it every {@link RedisStoreOptions#getFlushInterval()}
+ * as one pipeline: one <code>HMSET</code> per changed row however many of its edges changed, so round trips
+ * stay at one per flush instead of one per edge. A vertex removal costs one extra pipelined read.</li>
+ * <li><b>Load:</b> an eager bulk preload. {@link #open} reads the whole graph before it returns: it pages through
+ * the vertex set with <code>SSCAN</code> and fetches each page's rows with pipelined <code>HGETALL</code>s. Paging
+ * bounds the size of each reply and the raw rows held at once, since a page's rows are dropped once added. It does
+ * not shorten the load, and no row is fetched later on demand.</li>
+ * </ul>
+ * Redis lags the graph by at most one flush. A failed flush loses its batch: the store stops and
+ * {@link #afterWrite()} reports the failure to every later writer.
+ */
+@Slf4j
+public class RedisGraphStore<T> implements GraphMutationListener<T>, AutoCloseable {
+    private static final byte[] TYPE_FIELD = bytes("type");
+    private static final byte[] VERSION_FIELD = bytes("version");
+
+    private final RedisConnectionFactory connections;
+    private final VertexKeyCodec<T> codec;
+    private final RedisStoreOptions options;
+    private final GraphManager<T> graph;
+    private final boolean directed;
+    private final byte[] verticesKey;
+    private final byte[] metaKey;
+    private final byte[] outPrefix;
+    private final byte[] inPrefix;
+
+    private final Object appendLock = new Object();
+    private PendingWrites<T> pending;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final ScheduledExecutorService flusher;
+    private volatile RuntimeException failure;
+    private volatile boolean closed;
+
+    private final AtomicLong mutations = new AtomicLong();
+    private final AtomicLong flushes = new AtomicLong();
+    private final AtomicLong roundTrips = new AtomicLong();
+    private final AtomicLong commands = new AtomicLong();
+
+    private RedisGraphStore(RedisConnectionFactory connections, GraphType type, VertexKeyCodec<T> codec, RedisStoreOptions options) {
+        this.connections = connections;
+        this.codec = codec;
+        this.options = options;
+        this.graph = new GraphManager<>(type);
+        this.directed = type == GraphType.DIRECTED;
+        this.verticesKey = bytes(options.getKeyPrefix() + ":v");
+        this.metaKey = bytes(options.getKeyPrefix() + ":meta");
+        this.outPrefix = bytes(options.getKeyPrefix() + ":o:");
+        this.inPrefix = bytes(options.getKeyPrefix() + ":i:");
+        this.pending = new PendingWrites<>(directed);
+        this.flusher = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "redis-graph-flusher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public static <T> RedisGraphStore<T> open(RedisConnectionFactory connections, GraphType type, VertexKeyCodec<T> codec) {
+        return open(connections, type, codec, RedisStoreOptions.defaults());
+    }
+
+    /**
+     * Loads the whole graph stored under the options' key prefix into memory, or starts an empty one, and
+     * persists every mutation from then on. Returns once every stored vertex and edge has been added.
+     * @throws IllegalStateException when the prefix holds a graph of another type
+     */
+    public static <T> RedisGraphStore<T> open(RedisConnectionFactory connections, GraphType type, VertexKeyCodec<T> codec,
+                                              RedisStoreOptions options) {
+        RedisGraphStore<T> store = new RedisGraphStore<>(connections, type, codec, options);
+        store.load(type);
+        store.graph.addMutationListener(store);
+        long interval = Math.max(1, options.getFlushInterval().toMillis());
+        store.flusher.scheduleWithFixedDelay(store::backgroundFlush, interval, interval, TimeUnit.MILLISECONDS);
+        return store;
+    }
+
+    public GraphManager<T> graph() {
+        return graph;
+    }
+
+    @Override
+    public void vertexAdded(int version, T vertex) {
+        synchronized (appendLock) {
+            pending.vertexAdded(version, vertex);
+        }
+    }
+
+    @Override
+    public void vertexRemoved(int version, T vertex) {
+        synchronized (appendLock) {
+            pending.vertexRemoved(version, vertex);
+        }
+    }
+
+    @Override
+    public void edgeAdded(int version, T source, T destination, double weight) {
+        synchronized (appendLock) {
+            pending.edgeAdded(version, source, destination, weight);
+        }
+    }
+
+    @Override
+    public void edgeReweighted(int version, T source, T destination, double weight) {
+        synchronized (appendLock) {
+            pending.edgeReweighted(version, source, destination, weight);
+        }
+    }
+
+    @Override
+    public void edgeRemoved(int version, T source, T destination) {
+        synchronized (appendLock) {
+            pending.edgeRemoved(version, source, destination);
+        }
+    }
+
+    /**
+     * Flushes on the writer's thread once the buffer is past {@link RedisStoreOptions#getMaxPendingMutations()}.
+     * @throws IllegalStateException once a flush has failed; Redis no longer follows the graph
+     */
+    @Override
+    public void afterWrite() {
+        checkHealthy();
+        boolean overflowing;
+        synchronized (appendLock) {
+            overflowing = pending.mutations >= options.getMaxPendingMutations();
+        }
+        if (overflowing) flush();
+    }
+
+    /**
+     * Pushes every mutation reported so far to Redis and waits for it to be acknowledged.
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+        checkHealthy();
+    }
+
+    public WriteMetrics metrics() {
+        return new WriteMetrics(mutations.get(), flushes.get(), roundTrips.get(), commands.get());
+    }
+
+    /**
+     * Stops persisting, after a final flush. The graph stays usable in memory.
+     */
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        graph.removeMutationListener(this);
+        flusher.shutdown();
+        flush();
+    }
+
+    private void backgroundFlush() {
+        if (failure != null || !flushLock.tryLock()) return;
+        try {
+            flushLocked();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private void flushLocked() {
+        if (failure != null) return;
+        PendingWrites<T> batch;
+        synchronized (appendLock) {
+            if (pending.isEmpty()) return;
+            batch = pending;
+            pending = new PendingWrites<>(directed);
+        }
+        try (RedisConnection connection = connections.getConnection()) {
+            List<Wipe> wipes = readWipes(connection, batch.wiped);
+            connection.openPipeline();
+            long sent = 0;
+            for (Wipe wipe : wipes) {
+                sent += writeWipe(connection, wipe);
+            }
+            for (Map.Entry<T, PendingWrites.VertexChanges<T>> entry : batch.changes.entrySet()) {
+                sent += writeChanges(connection, entry.getKey(), entry.getValue());
+            }
+            connection.hashCommands().hSet(metaKey, VERSION_FIELD, bytes(Integer.toString(batch.version)));
+            connection.closePipeline();
+            roundTrips.incrementAndGet();
+            commands.addAndGet(sent + 1);
+            mutations.addAndGet(batch.mutations);
+            flushes.incrementAndGet();
+        } catch (RuntimeException e) {
+            failure = e;
+            log.error("Redis flush of {} mutations failed; {} no longer persists the graph", batch.mutations, options.getKeyPrefix(), e);
+        }
+    }
+
+    /**
+     * What Redis holds around each removed vertex, read in one pipeline before anything is written.
+     */
+    private List<Wipe> readWipes(RedisConnection connection, Set<T> wiped) {
+        if (wiped.isEmpty()) return List.of();
+        List<byte[]> encoded = new ArrayList<>(wiped.size());
+        connection.openPipeline();
+        for (T vertex : wiped) {
+            byte[] key = encode(vertex);
+            encoded.add(key);
+            connection.hashCommands().hKeys(concat(outPrefix, key));
+            if (directed) connection.setCommands().sMembers(concat(inPrefix, key));
+        }
+        List<Object> replies = connection.closePipeline();
+        roundTrips.incrementAndGet();
+        commands.addAndGet(replies.size());
+
+        List<Wipe> wipes = new ArrayList<>(encoded.size());
+        int reply = 0;
+        for (byte[] key : encoded) {
+            Collection<byte[]> successors = members(replies.get(reply++));
+            Collection<byte[]> predecessors = directed ? members(replies.get(reply++)) : List.of();
+            wipes.add(new Wipe(key, successors, predecessors));
+        }
+        return wipes;
+    }
+
+    private long writeWipe(RedisConnection connection, Wipe wipe) {
+        long sent = 0;
+        for (byte[] successor : wipe.successors()) {
+            if (directed) {
+                connection.setCommands().sRem(concat(inPrefix, successor), wipe.key());
+            } else {
+                connection.hashCommands().hDel(concat(outPrefix, successor), wipe.key());
+            }
+            sent++;
+        }
+        for (byte[] predecessor : wipe.predecessors()) {
+            connection.hashCommands().hDel(concat(outPrefix, predecessor), wipe.key());
+            sent++;
+        }
+        connection.keyCommands().del(concat(outPrefix, wipe.key()), concat(inPrefix, wipe.key()));
+        connection.setCommands().sRem(verticesKey, wipe.key());
+        return sent + 2;
+    }
+
+    private long writeChanges(RedisConnection connection, T vertex, PendingWrites.VertexChanges<T> changes) {
+        byte[] key = encode(vertex);
+        long sent = 0;
+        if (changes.present) {
+            connection.setCommands().sAdd(verticesKey, key);
+            sent++;
+        }
+        if (!changes.puts.isEmpty()) {
+            Map<byte[], byte[]> row = new LinkedHashMap<>();
+            changes.puts.forEach((neighbor, weight) -> row.put(encode(neighbor), weight(weight)));
+            connection.hashCommands().hMSet(concat(outPrefix, key), row);
+            sent++;
+        }
+        if (!changes.deletes.isEmpty()) {
+            connection.hashCommands().hDel(concat(outPrefix, key), encodeAll(changes.deletes));
+            sent++;
+        }
+        if (!changes.predecessorsAdded.isEmpty()) {
+            connection.setCommands().sAdd(concat(inPrefix, key), encodeAll(changes.predecessorsAdded));
+            sent++;
+        }
+        if (!changes.predecessorsRemoved.isEmpty()) {
+            connection.setCommands().sRem(concat(inPrefix, key), encodeAll(changes.predecessorsRemoved));
+            sent++;
+        }
+        return sent;
+    }
+
+    private void load(GraphType type) {
+        long started = System.nanoTime();
+        int version;
+        long vertices = 0;
+        long edges = 0;
+        try (RedisConnection connection = connections.getConnection()) {
+            Map<byte[], byte[]> meta = connection.hashCommands().hGetAll(metaKey);
+            String storedType = field(meta, TYPE_FIELD);
+            if (storedType == null) {
+                connection.hashCommands().hSet(metaKey, TYPE_FIELD, bytes(type.name()));
+            } else if (!storedType.equals(type.name())) {
+                throw new IllegalStateException(options.getKeyPrefix() + " holds a " + storedType + " graph, not " + type);
+            }
+            String storedVersion = field(meta, VERSION_FIELD);
+            version = storedVersion == null ? 0 : Integer.parseInt(storedVersion);
+
+            ScanOptions scan = ScanOptions.scanOptions().count(options.getLoadPageSize()).build();
+            List<byte[]> page = new ArrayList<>(options.getLoadPageSize());
+            // closing a scan cursor closes the connection it runs on, so the last page is loaded inside
+            try (Cursor<byte[]> members = connection.setCommands().sScan(verticesKey, scan)) {
+                while (members.hasNext()) {
+                    page.add(members.next());
+                    if (page.size() == options.getLoadPageSize() || !members.hasNext()) {
+                        edges += loadPage(connection, page);
+                        vertices += page.size();
+                        page.clear();
+                    }
+                }
+            }
+        }
+        if (vertices > 0 || version > 0) graph.restoreVersion(version);
+        log.info("Loaded {} from Redis in {} ms: {} vertices, {} edges, version {}", options.getKeyPrefix(),
+                (System.nanoTime() - started) / 1_000_000, vertices, edges, version);
+    }
+
+    /**
+     * @return the number of edges added
+     */
+    private long loadPage(RedisConnection connection, List<byte[]> page) {
+        if (page.isEmpty()) return 0;
+        connection.openPipeline();
+        for (byte[] vertex : page) {
+            connection.hashCommands().hGetAll(concat(outPrefix, vertex));
+        }
+        List<Object> rows = connection.closePipeline();
+
+        List<T> vertices = new ArrayList<>(page.size());
+        List<EdgeSpec<T>> edges = new ArrayList<>();
+        for (int i = 0; i < page.size(); i++) {
+            byte[] source = page.get(i);
+            T vertex = decode(source);
+            vertices.add(vertex);
+            @SuppressWarnings("unchecked")
+            Map<byte[], byte[]> row = (Map<byte[], byte[]>) rows.get(i);
+            if (row == null) continue;
+            for (Map.Entry<byte[], byte[]> entry : row.entrySet()) {
+                // an undirected edge sits in both rows; take it from one side only
+                if (!directed && Arrays.compare(source, entry.getKey()) > 0) continue;
+                edges.add(new EdgeSpec<>(vertex, decode(entry.getKey()), ByteBuffer.wrap(entry.getValue()).getDouble()));
+            }
+        }
+        graph.addVertices(vertices);
+        return graph.addEdges(edges).addedEdges();
+    }
+
+    private void checkHealthy() {
+        RuntimeException failed = failure;
+        if (failed != null) {
+            throw new IllegalStateException("Redis persistence of " + options.getKeyPrefix() + " has failed", failed);
+        }
+    }
+
+    private byte[] encode(T vertex) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(16);
+        try {
+            codec.write(vertex, new DataOutputStream(bytes));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private byte[][] encodeAll(Collection<T> vertices) {
+        byte[][] encoded = new byte[vertices.size()][];
+        int i = 0;
+        for (T vertex : vertices) {
+            encoded[i++] = encode(vertex);
+        }
+        return encoded;
+    }
+
+    private T decode(byte[] vertex) {
+        try {
+            return codec.read(new DataInputStream(new ByteArrayInputStream(vertex)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Collection<byte[]> members(Object reply) {
+        return reply == null ? List.of() : (Collection<byte[]>) reply;
+    }
+
+    private static String field(Map<byte[], byte[]> hash, byte[] name) {
+        if (hash == null) return null;
+        for (Map.Entry<byte[], byte[]> entry : hash.entrySet()) {
+            if (Arrays.equals(entry.getKey(), name)) return new String(entry.getValue(), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+
+    private static byte[] weight(double weight) {
+        return ByteBuffer.allocate(Double.BYTES).putDouble(weight).array();
+    }
+
+    private static byte[] concat(byte[] prefix, byte[] vertex) {
+        byte[] key = Arrays.copyOf(prefix, prefix.length + vertex.length);
+        System.arraycopy(vertex, 0, key, prefix.length, vertex.length);
+        return key;
+    }
+
+    private static byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private record Wipe(byte[] key, Collection<byte[]> successors, Collection<byte[]> predecessors) {
+    }
+
+    /**
+     * @param mutations graph mutations persisted so far
+     * @param flushes batches written
+     * @param roundTrips pipelines sent, reads before vertex removals included
+     * @param commands Redis commands sent
+     */
+    public record WriteMetrics(long mutations, long flushes, long roundTrips, long commands) {
+    }
+}
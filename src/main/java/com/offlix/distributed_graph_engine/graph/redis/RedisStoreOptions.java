@@ -0,0 +1,40 @@
+package com.offlix.distributed_graph_engine.graph.redis;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+
+@Value
+@Builder(toBuilder = true)
+public class RedisStoreOptions {
+
+    /**
+     * Prefix of every key the graph owns, so several graphs can share one Redis database.
+     */
+    @Builder.Default
+    String keyPrefix = "graph";
+
+    /**
+     * How often the background thread pushes coalesced mutations to Redis.
+     */
+    @Builder.Default
+    Duration flushInterval = Duration.ofMillis(20);
+
+    /**
+     * Past this many buffered mutations, the writer that adds one more flushes the buffer itself once it has
+     * released the graph lock. Bounds memory and how far Redis can fall behind.
+     */
+    @Builder.Default
+    int maxPendingMutations = 65_536;
+
+    /**
+     * Vertices fetched per pipelined page while {@link RedisGraphStore#open} preloads the graph.
+     */
+    @Builder.Default
+    int loadPageSize = 1_024;
+
+    public static RedisStoreOptions defaults() {
+        return builder().build();
+    }
+}
@@ -1,13 +1,50 @@
 package com.offlix.distributed_graph_engine;
 
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.codec.GraphCodec;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 class DistributedGraphEngineApplicationTests {
 
+	@Autowired
+	GraphController controller;
+
+	@Autowired
+	GraphManager<String> graph;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void statsDescribeTheApplicationGraph() {
+		graph.addEdgeBetween("stats-a", "stats-b", 2.0);
+
+		assertEquals(graph.getVersion(), controller.stats().getBody().version());
+		assertTrue(controller.stats().getBody().vertexCount() >= 2);
+		assertTrue(controller.lockMetrics().getBody().writeAcquisitions() > 0);
+	}
+
+	@Test
+	void exportEncodesTheApplicationGraph() throws IOException {
+		graph.addEdgeBetween("export-a", "export-b", 4.5);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		controller.export().getBody().writeTo(out);
+
+		GraphManager<String> decoded = new GraphCodec<>(VertexKeyCodec.STRING).decode(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(adjacency(graph), adjacency(decoded));
+	}
+
 }
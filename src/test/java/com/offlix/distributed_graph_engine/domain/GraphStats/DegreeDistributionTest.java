@@ -0,0 +1,84 @@
+package com.offlix.distributed_graph_engine.domain.GraphStats;
+
+import com.offlix.distributed_graph_engine.domain.GraphStats.DegreeDistribution.DegreeBucket;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The power-of-two buckets, and a degree moving between the dense counters and the sparse map.
+ */
+class DegreeDistributionTest {
+
+    @Test
+    void bucketsByPowerOfTwo() {
+        DegreeDistribution degrees = new DegreeDistribution();
+        for (int degree : new int[]{0, 0, 1, 2, 3, 4, 7, 8, 15, 16, 63, 64, 127, 128, 1_000}) {
+            degrees.vertexAdded(degree);
+        }
+
+        assertEquals(List.of(
+                new DegreeBucket(0, 0, 2),
+                new DegreeBucket(1, 1, 1),
+                new DegreeBucket(2, 3, 2),
+                new DegreeBucket(4, 7, 2),
+                new DegreeBucket(8, 15, 2),
+                new DegreeBucket(16, 31, 1),
+                new DegreeBucket(32, 63, 1),
+                new DegreeBucket(64, 127, 2),
+                new DegreeBucket(128, 255, 1),
+                new DegreeBucket(512, 1023, 1)), degrees.buckets());
+        assertEquals(1_000, degrees.maxDegree());
+    }
+
+    @Test
+    void emptyAndTopBuckets() {
+        DegreeDistribution degrees = new DegreeDistribution();
+        assertEquals(List.of(), degrees.buckets());
+        assertEquals(0, degrees.maxDegree());
+
+        degrees.vertexAdded(Integer.MAX_VALUE);
+        assertEquals(List.of(new DegreeBucket(1 << 30, Integer.MAX_VALUE, 1)), degrees.buckets());
+        degrees.vertexRemoved(Integer.MAX_VALUE);
+        assertEquals(List.of(), degrees.buckets());
+        assertEquals(0, degrees.maxDegree());
+    }
+
+    @Test
+    void aHubCrossesTheDenseThresholdBothWays() {
+        int threshold = DegreeDistribution.DENSE_DEGREES;
+        DegreeDistribution degrees = new DegreeDistribution();
+        degrees.vertexAdded(0);
+        degrees.vertexAdded(5);
+        for (int degree = 0; degree < threshold + 10; degree++) {
+            degrees.degreeChanged(degree, degree + 1);
+            assertEquals(Math.max(5, degree + 1), degrees.maxDegree());
+        }
+        assertEquals(List.of(new DegreeBucket(4, 7, 1), new DegreeBucket(64, 127, 1)), degrees.buckets());
+
+        for (int degree = threshold + 10; degree > 0; degree--) {
+            degrees.degreeChanged(degree, degree - 1);
+            assertEquals(Math.max(5, degree - 1), degrees.maxDegree());
+        }
+        // nothing left in the sparse map, so the maximum falls back to the dense counters
+        assertEquals(5, degrees.maxDegree());
+        assertEquals(List.of(new DegreeBucket(0, 0, 1), new DegreeBucket(4, 7, 1)), degrees.buckets());
+    }
+
+    @Test
+    void aCopyDoesNotFollowLaterUpdates() {
+        DegreeDistribution degrees = new DegreeDistribution();
+        degrees.vertexAdded(3);
+        degrees.vertexAdded(100);
+        DegreeDistribution copy = degrees.copy();
+
+        degrees.degreeChanged(3, 4);
+        degrees.vertexRemoved(100);
+
+        assertEquals(List.of(new DegreeBucket(2, 3, 1), new DegreeBucket(64, 127, 1)), copy.buckets());
+        assertEquals(100, copy.maxDegree());
+        assertEquals(List.of(new DegreeBucket(4, 7, 1)), degrees.buckets());
+    }
+}
@@ -0,0 +1,129 @@
+package com.offlix.distributed_graph_engine.graph;
+
+import com.offlix.distributed_graph_engine.domain.GraphStats.DegreeDistribution.DegreeBucket;
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsReport;
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.exception.EdgeAlreadyExist;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The degree histogram and maximum degree kept by every edge and vertex write, against a recount of the adjacency.
+ */
+class DegreeHistogramTest {
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void followsAHubUpAndDownAcrossTheDenseThreshold(GraphType type) {
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        int triangleDegree = type == GraphType.UNDIRECTED ? 2 : 1;
+        graph.addEdgeBetween(1_000, 1_001);
+        graph.addEdgeBetween(1_001, 1_002);
+        graph.addEdgeBetween(1_002, 1_000);
+
+        for (int spoke = 0; spoke < 100; spoke++) {
+            graph.addEdgeBetween(0, spoke + 1);
+            assertEquals(Math.max(triangleDegree, spoke + 1), graph.stats().maxDegree());
+        }
+        assertHistogramMatchesAdjacency(graph);
+
+        for (int spoke = 99; spoke >= 0; spoke--) {
+            graph.removeEdgeBetween(0, spoke + 1);
+            assertHistogramMatchesAdjacency(graph);
+        }
+        // only the triangle is left with edges
+        assertEquals(triangleDegree, graph.stats().maxDegree());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void removingAVertexLowersItsNeighboursDegrees(GraphType type) {
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        for (int spoke = 1; spoke <= 80; spoke++) {
+            graph.addEdgeBetween(0, spoke);
+            // directed: the spokes point back, so the hub is in every spoke's out-row too
+            if (type == GraphType.DIRECTED) graph.addEdgeBetween(spoke, 0);
+        }
+        graph.addEdgeBetween(1, 2);
+        assertEquals(80, graph.stats().maxDegree());
+        assertHistogramMatchesAdjacency(graph);
+
+        graph.removeVertex(0);
+
+        assertEquals(1, graph.stats().maxDegree());
+        assertHistogramMatchesAdjacency(graph);
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void concurrentWritersLeaveTheHistogramOfTheFinalGraph(GraphType type) throws Exception {
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int seed = w;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 2_000; i++) {
+                        // vertex 0 is a hub every writer shares, so its degree keeps crossing the dense threshold
+                        int source = random.nextInt(4) == 0 ? 0 : random.nextInt(150);
+                        int destination = random.nextInt(150);
+                        if (source == destination) continue;
+                        switch (random.nextInt(20)) {
+                            case 0 -> graph.removeVertex(destination);
+                            case 1, 2, 3, 4, 5 -> graph.removeEdgeBetween(source, destination);
+                            default -> {
+                                try {
+                                    graph.addEdgeBetween(source, destination);
+                                } catch (EdgeAlreadyExist e) {
+                                    // another writer, or an earlier round, got there first
+                                }
+                            }
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertHistogramMatchesAdjacency(graph);
+    }
+
+    /**
+     * Buckets and the maximum recounted from the out-rows; an undirected edge counts in both of its rows.
+     */
+    private static void assertHistogramMatchesAdjacency(GraphManager<Integer> graph) {
+        Map<Integer, Map<Integer, Double>> adjacency = adjacency(graph);
+        TreeMap<Integer, Long> counts = new TreeMap<>();
+        int maxDegree = 0;
+        for (Map<Integer, Double> row : adjacency.values()) {
+            int degree = row.size();
+            counts.merge(Integer.highestOneBit(degree), 1L, Long::sum);
+            maxDegree = Math.max(maxDegree, degree);
+        }
+        List<DegreeBucket> expected = new ArrayList<>();
+        counts.forEach((min, vertices) -> expected.add(new DegreeBucket(min, Math.max(0, 2 * min - 1), vertices)));
+
+        GraphStatsReport stats = graph.stats();
+        assertEquals(expected, stats.degreeHistogram());
+        assertEquals(maxDegree, stats.maxDegree());
+        assertEquals(adjacency.size(), stats.vertexCount());
+    }
+}
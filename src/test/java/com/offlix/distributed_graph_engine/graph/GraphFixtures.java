@@ -0,0 +1,99 @@
+package com.offlix.distributed_graph_engine.graph;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.WeightedPath;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.DoubleSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Graphs and views of them shared by the tests.
+ */
+public final class GraphFixtures {
+
+    private GraphFixtures() {
+    }
+
+    /**
+     * Every vertex and its out-edges with their weights, read from one snapshot.
+     */
+    public static <T> Map<T, Map<T, Double>> adjacency(GraphManager<T> graph) {
+        try (GraphSnapshot<T> snapshot = graph.snapshot()) {
+            return adjacency(snapshot.csr());
+        }
+    }
+
+    public static <T> Map<T, Map<T, Double>> adjacency(CsrSnapshot<T> csr) {
+        Map<T, Map<T, Double>> adjacency = new HashMap<>();
+        for (int vertex = 0; vertex < csr.vertexCount(); vertex++) {
+            Map<T, Double> row = new HashMap<>();
+            for (int e = csr.offsets()[vertex]; e < csr.offsets()[vertex + 1]; e++) {
+                row.put(csr.vertexAt(csr.targets()[e]), csr.weights()[e]);
+            }
+            adjacency.put(csr.vertexAt(vertex), row);
+        }
+        return adjacency;
+    }
+
+    /**
+     * A graph on the vertices <code>0</code> to <code>n - 1</code>, directed or undirected by a coin flip, with a
+     * density drawn below <code>maxDensity</code> and each ordered pair joined with that probability. In an
+     * undirected graph a pair drawn both ways keeps its first weight.
+     */
+    public static GraphManager<Integer> randomGraph(Random random, int n, double maxDensity, DoubleSupplier weight) {
+        GraphType type = random.nextBoolean() ? GraphType.DIRECTED : GraphType.UNDIRECTED;
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        for (int vertex = 0; vertex < n; vertex++) {
+            graph.addVertex(vertex);
+        }
+        double density = random.nextDouble() * maxDensity;
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n; to++) {
+                if (from != to && random.nextDouble() < density && !graph.containsEdge(from, to)) {
+                    graph.addEdgeBetween(from, to, weight.getAsDouble());
+                }
+            }
+        }
+        return graph;
+    }
+
+    /**
+     * The weights of a graph on the vertices <code>0</code> to <code>n - 1</code> as a matrix, with
+     * <code>absent</code> wherever there is no edge.
+     */
+    public static double[][] weights(GraphManager<Integer> graph, int n, double absent) {
+        double[][] weights = new double[n][n];
+        for (double[] row : weights) {
+            Arrays.fill(row, absent);
+        }
+        adjacency(graph).forEach((from, row) -> row.forEach((to, weight) -> weights[from][to] = weight));
+        return weights;
+    }
+
+    /**
+     * Asserts that <code>path</code> runs from <code>source</code> to <code>destination</code> over edges of
+     * <code>graph</code>, and that its weight is both their sum and <code>expected</code>.
+     */
+    public static <T> void assertPath(GraphManager<T> graph, T source, T destination, double expected,
+                                      WeightedPath<T> path) {
+        assertEquals(expected, path.weight(), 1e-9);
+        List<T> vertices = path.vertices();
+        assertEquals(source, vertices.getFirst());
+        assertEquals(destination, vertices.getLast());
+        double weight = 0;
+        for (int i = 0; i + 1 < vertices.size(); i++) {
+            Double edge = graph.getNeighbors(vertices.get(i)).get(vertices.get(i + 1));
+            assertNotNull(edge, "no edge " + vertices.get(i) + " -> " + vertices.get(i + 1));
+            weight += edge;
+        }
+        assertEquals(path.weight(), weight, 1e-9);
+    }
+}
@@ -0,0 +1,132 @@
+package com.offlix.distributed_graph_engine.graph;
+
+import com.offlix.distributed_graph_engine.domain.GraphStats.GraphStatsReport;
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.exception.CycleNotAllowedException;
+import com.offlix.distributed_graph_engine.exception.EdgeAlreadyExist;
+import com.offlix.distributed_graph_engine.exception.SelfLoopExistException;
+import com.offlix.distributed_graph_engine.graph.operations.BatchResult;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Bulk inserts: rejections reported per edge without stopping the batch, one version per batch, and stats that
+ * agree with the adjacency afterwards.
+ */
+class GraphManagerBulkTest {
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void rejectsBadEdgesOneByOneAndAppliesTheRest(GraphType type) {
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        graph.addEdgeBetween(5, 6, 1.0);
+        int version = graph.getVersion();
+
+        BatchResult<Integer> result = graph.addEdges(List.of(
+                EdgeSpec.of(1, 2, 0.5),
+                EdgeSpec.of(2, 3, 1.5),
+                EdgeSpec.of(3, 3, 2.0),
+                EdgeSpec.of(5, 6, 9.0),
+                EdgeSpec.of(1, 2, 7.0),
+                EdgeSpec.of(3, 7, 2.5)));
+
+        assertEquals(6, result.submitted());
+        assertEquals(3, result.addedEdges());
+        assertEquals(4, result.addedVertices());
+        List<BatchResult.Rejection<Integer>> rejections = result.rejections();
+        assertEquals(List.of(2L, 3L, 4L), rejections.stream().map(BatchResult.Rejection::index).toList());
+        assertInstanceOf(SelfLoopExistException.class, rejections.get(0).error());
+        assertInstanceOf(EdgeAlreadyExist.class, rejections.get(1).error());
+        assertInstanceOf(EdgeAlreadyExist.class, rejections.get(2).error());
+        assertEquals(EdgeSpec.of(1, 2, 7.0), rejections.get(2).edge());
+
+        assertEquals(version + 1, graph.getVersion());
+        // the first of two copies of an edge wins, and an existing edge keeps its weight
+        assertEquals(0.5, graph.getNeighbors(1).get(2));
+        assertEquals(1.0, graph.getNeighbors(5).get(6));
+        assertEquals(2.5, graph.getNeighbors(3).get(7));
+        assertFalse(graph.containsEdge(3, 3));
+        assertStatsMatchAdjacency(graph, 6, 4);
+    }
+
+    @Test
+    void rejectsAnEdgeClosingACycleInAnAcyclicGraph() {
+        GraphManager<String> graph = GraphManager.acyclic();
+
+        BatchResult<String> result = graph.addEdges(List.of(
+                EdgeSpec.of("a", "b"), EdgeSpec.of("b", "c"), EdgeSpec.of("c", "a"), EdgeSpec.of("c", "d")));
+
+        assertEquals(3, result.addedEdges());
+        assertEquals(1, result.rejections().size());
+        assertEquals(2, result.rejections().getFirst().index());
+        assertInstanceOf(CycleNotAllowedException.class, result.rejections().getFirst().error());
+        assertTrue(graph.containsEdge("c", "d"));
+        assertFalse(graph.containsEdge("c", "a"));
+        assertTrue(graph.isAcyclic());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void bumpsTheVersionOncePerBatch(GraphType type) {
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        int version = graph.getVersion();
+
+        assertEquals(1_000, graph.addEdges(IntStream.range(0, 1_000).mapToObj(i -> EdgeSpec.of(i, i + 1_000, i))
+                .toList()).addedEdges());
+        assertEquals(version + 1, graph.getVersion());
+
+        assertEquals(3, graph.addVertices(List.of(-1, -2, -3, 0, 1)));
+        assertEquals(version + 2, graph.getVersion());
+
+        // nothing went in, so nothing changed
+        BatchResult<Integer> rejectedOnly = graph.addEdges(List.of(EdgeSpec.of(0, 1_000), EdgeSpec.of(4, 4)));
+        assertEquals(2, rejectedOnly.rejections().size());
+        assertEquals(0, graph.addVertices(List.of(-1, 0)));
+        assertEquals(BatchResult.empty(), graph.addEdges(List.of()));
+        assertEquals(version + 2, graph.getVersion());
+
+        assertStatsMatchAdjacency(graph, 2_003, 1_000);
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void streamsInBatchesNumberingRejectionsByStreamPosition(GraphType type) {
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        int edges = GraphManager.BULK_BATCH_SIZE * 2 + 100;
+        int version = graph.getVersion();
+
+        // every 10 000th edge is a self-loop
+        BatchResult<Integer> result = graph.addEdges(IntStream.range(0, edges)
+                .mapToObj(i -> i % 10_000 == 0 ? EdgeSpec.of(i, i) : EdgeSpec.of(i, i + edges)));
+
+        assertEquals(edges, result.submitted());
+        List<Long> rejected = result.rejections().stream().map(BatchResult.Rejection::index).toList();
+        assertEquals(LongStream.iterate(0, i -> i < edges, i -> i + 10_000).boxed().toList(), rejected);
+        assertEquals(edges - rejected.size(), result.addedEdges());
+        assertEquals(3, graph.getVersion() - version);
+        assertStatsMatchAdjacency(graph, result.addedVertices(), result.addedEdges());
+    }
+
+    /**
+     * The stats counters against a recount of the adjacency; an undirected edge is stored in both rows.
+     */
+    private static void assertStatsMatchAdjacency(GraphManager<Integer> graph, long vertices, long edges) {
+        Map<Integer, Map<Integer, Double>> adjacency = adjacency(graph);
+        long stored = adjacency.values().stream().mapToLong(Map::size).sum();
+        GraphStatsReport stats = graph.stats();
+        assertEquals(vertices, adjacency.size());
+        assertEquals(edges, graph.getType() == GraphType.UNDIRECTED ? stored / 2 : stored);
+        assertEquals(vertices, stats.vertexCount());
+        assertEquals(edges, stats.edgeCount());
+    }
+}
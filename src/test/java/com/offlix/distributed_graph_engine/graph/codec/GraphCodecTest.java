@@ -0,0 +1,153 @@
+package com.offlix.distributed_graph_engine.graph.codec;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadataImpl;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Encode/decode round trips over every key mode, weight mode and graph type.
+ */
+class GraphCodecTest {
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void roundTripsEveryKeyType(GraphType type) throws IOException {
+        assertRoundTrip(build(type, vertex -> "v" + vertex, vertex -> vertex % 7), VertexKeyCodec.STRING);
+        // sparse, negative and far-apart keys exercise the zigzag deltas
+        assertRoundTrip(build(type, vertex -> (vertex % 2 == 0 ? -1L : 1L) * vertex * 1_000_003L, vertex -> vertex % 7),
+                VertexKeyCodec.LONG);
+        assertRoundTrip(build(type, vertex -> Integer.MAX_VALUE - vertex * 17, vertex -> vertex % 7), VertexKeyCodec.INTEGER);
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void roundTripsEveryWeightMode(GraphType type) throws IOException {
+        IntToDoubleFunction unit = edge -> 1.0;
+        IntToDoubleFunction constant = edge -> 2.5;
+        IntToDoubleFunction table = edge -> edge % 5 * 0.75;
+        IntToDoubleFunction floats = edge -> edge / 4.0;
+        IntToDoubleFunction doubles = edge -> Math.PI * edge;
+
+        long[] sizes = new long[5];
+        int mode = 0;
+        for (IntToDoubleFunction weights : List.of(unit, constant, table, floats, doubles)) {
+            sizes[mode++] = assertRoundTrip(build(type, vertex -> (long) vertex, weights), VertexKeyCodec.LONG);
+        }
+        // each mode is narrower than the next one, so the encoder really picked a different one
+        for (int i = 1; i < sizes.length; i++) {
+            assertTrue(sizes[i - 1] < sizes[i], Arrays.toString(sizes));
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void roundTripsMetadata(GraphType type) throws IOException {
+        GraphManager<String> graph = build(type, vertex -> "v" + vertex, vertex -> 1.0);
+        graph.getMetadata().put("name", "routes");
+        graph.getMetadata().put("tags", List.of("air", "rail"));
+        VertexMetadataImpl touched = (VertexMetadataImpl) graph.getVertexMetadata("v3");
+        Instant accessed = Instant.parse("2024-05-01T10:15:30.123456789Z");
+        touched.setLastAccessed(accessed);
+        touched.setAccessCount(42);
+        touched.getProperties().put("city", "Pune");
+        touched.getProperties().put("hub", true);
+
+        GraphManager<String> decoded = decode(encode(graph, VertexKeyCodec.STRING), VertexKeyCodec.STRING);
+
+        assertEquals(Map.of("name", "routes", "tags", List.of("air", "rail")), decoded.getMetadata());
+        VertexMetadataImpl restored = (VertexMetadataImpl) decoded.getVertexMetadata("v3");
+        assertEquals(accessed, restored.getLastAccessed());
+        assertEquals(42, restored.getAccessCount());
+        assertEquals(Map.of("city", "Pune", "hub", true), restored.getProperties());
+        assertEquals(0, ((VertexMetadataImpl) decoded.getVertexMetadata("v4")).getAccessCount());
+        assertTrue(((VertexMetadataImpl) decoded.getVertexMetadata("v4")).getProperties().isEmpty());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void roundTripsAnEmptyGraph(GraphType type) throws IOException {
+        GraphManager<Long> graph = new GraphManager<>(type);
+
+        GraphManager<Long> decoded = decode(encode(graph, VertexKeyCodec.LONG), VertexKeyCodec.LONG);
+
+        assertEquals(type, decoded.getType());
+        assertEquals(0, decoded.stats().vertexCount());
+        assertEquals(graph.getVersion(), decoded.getVersion());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void refusesAStreamThatWasCutShort(GraphType type) throws IOException {
+        byte[] encoded = encode(build(type, vertex -> (long) vertex, edge -> edge / 4.0), VertexKeyCodec.LONG);
+        byte[] cut = Arrays.copyOf(encoded, encoded.length - 3);
+
+        assertThrows(IOException.class, () -> decode(cut, VertexKeyCodec.LONG));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void decodeIntoRefusesAGraphOfAnotherType(GraphType type) throws IOException {
+        byte[] encoded = encode(build(type, vertex -> (long) vertex, edge -> 1.0), VertexKeyCodec.LONG);
+        GraphType other = type == GraphType.DIRECTED ? GraphType.UNDIRECTED : GraphType.DIRECTED;
+
+        assertThrows(IllegalStateException.class,
+                () -> new GraphCodec<>(VertexKeyCodec.LONG).decodeInto(new ByteArrayInputStream(encoded), new GraphManager<>(other)));
+    }
+
+    /**
+     * 300 vertices, each with edges to the next few, and an isolated vertex at the end. Edges are numbered in
+     * the order they are added, for <code>weights</code>.
+     */
+    private static <T> GraphManager<T> build(GraphType type, IntFunction<T> key, IntToDoubleFunction weights) {
+        GraphManager<T> graph = new GraphManager<>(type);
+        int n = 300;
+        int edge = 0;
+        for (int vertex = 0; vertex < n; vertex++) {
+            for (int step = 1; step <= 1 + vertex % 4; step++) {
+                graph.addEdgeBetween(key.apply(vertex), key.apply((vertex + step * 7) % n), weights.applyAsDouble(edge++));
+            }
+        }
+        graph.addVertex(key.apply(n));
+        return graph;
+    }
+
+    /**
+     * @return the encoded size
+     */
+    private static <T> long assertRoundTrip(GraphManager<T> graph, VertexKeyCodec<T> codec) throws IOException {
+        byte[] encoded = encode(graph, codec);
+        GraphManager<T> decoded = decode(encoded, codec);
+        assertEquals(graph.getType(), decoded.getType());
+        assertEquals(graph.getVersion(), decoded.getVersion());
+        assertEquals(adjacency(graph), adjacency(decoded));
+        assertEquals(graph.stats().edgeCount(), decoded.stats().edgeCount());
+        return encoded.length;
+    }
+
+    private static <T> byte[] encode(GraphManager<T> graph, VertexKeyCodec<T> codec) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = new GraphCodec<>(codec).encode(graph, out);
+        assertEquals(out.size(), written);
+        return out.toByteArray();
+    }
+
+    private static <T> GraphManager<T> decode(byte[] encoded, VertexKeyCodec<T> codec) throws IOException {
+        return new GraphCodec<>(codec).decode(new ByteArrayInputStream(encoded));
+    }
+}
@@ -0,0 +1,158 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.storage.AdjacencyTable;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The union-find against components found by search, through inserts, removals and the rebuilds they force.
+ */
+class ConnectivityTest {
+
+    @Test
+    void allocatedButUnwrittenSlotsAreNotInVertexZerosComponent() {
+        Connectivity connectivity = new Connectivity();
+        connectivity.rebuild(new AdjacencyTable(), 0);
+        // allocates the first segment; ids 0 to 4 have slots but no vertex yet
+        connectivity.vertexAdded(5);
+        connectivity.vertexAdded(7);
+
+        assertFalse(connectivity.connected(0, 3));
+        assertFalse(connectivity.connected(3, 5));
+        assertTrue(connectivity.connected(3, 3));
+        assertEquals(3, connectivity.componentOf(3));
+        assertEquals(2, connectivity.componentCount());
+
+        connectivity.vertexAdded(0);
+        connectivity.edgeAdded(0, 5);
+        assertTrue(connectivity.connected(0, 5));
+        assertFalse(connectivity.connected(0, 3));
+        assertFalse(connectivity.connected(0, 7));
+        assertEquals(2, connectivity.componentCount());
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void unionsMatchTheComponentsASearchFinds(GraphType type) {
+        Random random = new Random(type.ordinal());
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        for (int i = 0; i < 600; i++) {
+            int source = random.nextInt(400);
+            int destination = random.nextInt(400);
+            if (source != destination && !graph.containsEdge(source, destination)) graph.addEdgeBetween(source, destination);
+            if (i % 50 == 0) graph.addVertex(1_000 + i);
+        }
+        assertMatchesSearch(graph);
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void rebuildsAfterRemovals(GraphType type) {
+        GraphManager<String> graph = new GraphManager<>(type);
+        graph.addEdgeBetween("a", "b");
+        graph.addEdgeBetween("b", "c");
+        graph.addEdgeBetween("c", "d");
+        graph.addVertex("lone");
+        assertTrue(graph.connected("a", "d"));
+        assertEquals(2, graph.componentCount());
+
+        graph.removeEdgeBetween("b", "c");
+        assertFalse(graph.connected("a", "d"));
+        assertTrue(graph.connected("c", "d"));
+        assertEquals(3, graph.componentCount());
+        assertEquals(graph.componentOf("a"), graph.componentOf("b"));
+        assertNotEquals(graph.componentOf("a"), graph.componentOf("d"));
+
+        graph.removeVertex("c");
+        assertEquals(3, graph.componentCount());
+        assertEquals("d", graph.componentOf("d"));
+        // an isolated vertex leaves without a rebuild
+        graph.removeVertex("lone");
+        assertEquals(2, graph.componentCount());
+
+        // unions resume on the rebuilt structure
+        graph.addEdgeBetween("d", "a");
+        assertTrue(graph.connected("b", "d"));
+        assertEquals(1, graph.componentCount());
+        assertNull(graph.componentOf("c"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void staysCorrectThroughRandomRemovalsAndInserts(GraphType type) {
+        Random random = new Random(17 + type.ordinal());
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        for (int round = 0; round < 40; round++) {
+            for (int i = 0; i < 50; i++) {
+                int source = random.nextInt(200);
+                int destination = random.nextInt(200);
+                if (source != destination && !graph.containsEdge(source, destination)) graph.addEdgeBetween(source, destination);
+            }
+            for (int i = 0; i < 10; i++) {
+                int vertex = random.nextInt(200);
+                if (random.nextBoolean()) {
+                    graph.removeEdgeBetween(vertex, random.nextInt(200));
+                } else if (graph.containsVertex(vertex)) {
+                    graph.removeVertex(vertex);
+                }
+            }
+            assertMatchesSearch(graph);
+        }
+    }
+
+    private static void assertMatchesSearch(GraphManager<Integer> graph) {
+        List<Set<Integer>> components = weakComponents(adjacency(graph));
+        assertEquals(components.size(), graph.componentCount());
+        for (Set<Integer> component : components) {
+            Integer representative = graph.componentOf(component.iterator().next());
+            assertTrue(component.contains(representative));
+            Integer first = component.iterator().next();
+            for (Integer vertex : component) {
+                assertEquals(representative, graph.componentOf(vertex));
+                assertTrue(graph.connected(first, vertex));
+            }
+        }
+        for (int i = 1; i < components.size(); i++) {
+            assertFalse(graph.connected(components.get(i - 1).iterator().next(), components.get(i).iterator().next()));
+        }
+    }
+
+    private static List<Set<Integer>> weakComponents(Map<Integer, Map<Integer, Double>> adjacency) {
+        Map<Integer, Set<Integer>> undirected = new HashMap<>();
+        adjacency.forEach((vertex, row) -> {
+            undirected.computeIfAbsent(vertex, key -> new HashSet<>()).addAll(row.keySet());
+            row.keySet().forEach(neighbor -> undirected.computeIfAbsent(neighbor, key -> new HashSet<>()).add(vertex));
+        });
+        List<Set<Integer>> components = new ArrayList<>();
+        Set<Integer> seen = new HashSet<>();
+        for (Integer start : undirected.keySet()) {
+            if (!seen.add(start)) continue;
+            Set<Integer> component = new HashSet<>();
+            ArrayDeque<Integer> queue = new ArrayDeque<>(List.of(start));
+            while (!queue.isEmpty()) {
+                Integer vertex = queue.poll();
+                component.add(vertex);
+                for (Integer neighbor : undirected.get(vertex)) {
+                    if (seen.add(neighbor)) queue.add(neighbor);
+                }
+            }
+            components.add(component);
+        }
+        return components;
+    }
+}
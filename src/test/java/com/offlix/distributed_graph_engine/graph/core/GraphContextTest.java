@@ -0,0 +1,46 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.domain.VertexMetadata.VertexMetadataImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The JSON form of a context names vertices by their keys, never by the ids they are interned to.
+ */
+class GraphContextTest {
+
+    @Test
+    void vertexMetadataIsKeyedByVertexInJson() throws Exception {
+        GraphContext<String> context = GraphContext.<String>builder().type(GraphType.DIRECTED).build();
+        for (String vertex : new String[]{"DEL", "BLR", "HYD"}) {
+            VertexMetadataImpl metadata = new VertexMetadataImpl();
+            metadata.getProperties().put("city", vertex.toLowerCase());
+            context.getVertexMetadata().put(context.getVertexIds().intern(vertex), metadata);
+        }
+        context.getVertexIds().release("HYD");
+
+        assertEquals(Set.of("DEL", "BLR"), context.getVertexMetadataByVertex().keySet());
+        assertThrows(UnsupportedOperationException.class, () -> context.getVertexMetadataByVertex().remove("DEL"));
+
+        JsonNode json = JsonMapper.builder().addModule(new JavaTimeModule()).build().valueToTree(context);
+        JsonNode vertexMetadata = json.get("vertexMetadata");
+        assertEquals(Set.of("DEL", "BLR"), Set.copyOf(fieldNames(vertexMetadata)));
+        assertEquals("blr", vertexMetadata.get("BLR").get("properties").get("city").asText());
+        assertFalse(json.has("vertexMetadataByVertex"));
+    }
+
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+}
@@ -0,0 +1,252 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Writers on separate stripes running side by side, and readers, optimistic or locked, that never see a write
+ * half done.
+ */
+class GraphLockTest {
+    private static final int ROWS = 64;
+
+    @Test
+    void writersOnDifferentStripesRunAtTheSameTime() throws Exception {
+        GraphLock lock = new GraphLock(16);
+        int first = 0;
+        int second = 1;
+        while (lock.stripeOf(second) == lock.stripeOf(first)) second++;
+        CountDownLatch bothInside = new CountDownLatch(2);
+        int other = second;
+
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            // each writer waits inside its lock for the other one to get into its own
+            Future<Boolean> a = pool.submit(() -> lock.writeLock(first, () -> meet(bothInside)));
+            Future<Boolean> b = pool.submit(() -> lock.writeLock(other, () -> meet(bothInside)));
+            assertTrue(a.get(10, TimeUnit.SECONDS));
+            assertTrue(b.get(10, TimeUnit.SECONDS));
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void optimisticReadersNeverSeeAHalfAppliedRow() throws Exception {
+        GraphLock lock = new GraphLock(8);
+        Row[] rows = new Row[ROWS];
+        for (int i = 0; i < ROWS; i++) rows[i] = new Row();
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong torn = new AtomicLong();
+        AtomicLong reads = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int seed = w;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 2_000; i++) {
+                        int row = random.nextInt(ROWS);
+                        lock.writeLock(row, () -> rows[row].rewrite(2 + random.nextInt(8)));
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 4; r++) {
+                int seed = 100 + r;
+                readers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    while (writing.get()) {
+                        int row = random.nextInt(ROWS);
+                        // throws on some torn states; the lock must retry those rather than pass the exception on
+                        if (!lock.optimisticRead(row, rows[row]::consistent)) torn.incrementAndGet();
+                        reads.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+            writing.set(false);
+            for (Future<?> reader : readers) reader.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, torn.get());
+        GraphLock.LockMetrics metrics = lock.metrics();
+        assertEquals(reads.get(), metrics.optimisticReads());
+        assertTrue(metrics.optimisticFallbacks() > 0, "no optimistic read was ever retried under the lock");
+    }
+
+    @Test
+    void graphReadersSeeEveryPairWriteWholeOrNotAtAll() throws Exception {
+        GraphLock lock = new GraphLock(8);
+        long[] balances = new long[ROWS];
+        long total = 1_000L * ROWS;
+        Arrays.fill(balances, 1_000);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong wrongTotals = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int seed = w;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(seed);
+                    for (int i = 0; i < 500; i++) {
+                        int from = random.nextInt(ROWS);
+                        int to = random.nextInt(ROWS);
+                        long amount = random.nextInt(50);
+                        // the two rows may share a stripe, and two writers may lock the same pair in opposite order
+                        lock.writeLock(from, to, () -> {
+                            balances[from] -= amount;
+                            Thread.yield();
+                            balances[to] += amount;
+                        });
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    while (writing.get()) {
+                        long sum = lock.readLock(() -> Arrays.stream(balances).sum());
+                        if (sum != total) wrongTotals.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+            writing.set(false);
+            for (Future<?> reader : readers) reader.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, wrongTotals.get());
+        assertEquals(total, Arrays.stream(balances).sum());
+    }
+
+    @Test
+    void snapshotsOfAnUndirectedGraphStaySymmetricUnderConcurrentWriters() throws Exception {
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.UNDIRECTED);
+        AtomicBoolean writing = new AtomicBoolean(true);
+        AtomicLong asymmetric = new AtomicLong();
+
+        ExecutorService pool = Executors.newFixedThreadPool(6);
+        try {
+            List<Future<?>> writers = new ArrayList<>();
+            for (int w = 0; w < 4; w++) {
+                int base = w * 1_000;
+                writers.add(pool.submit(() -> {
+                    Random random = new Random(base);
+                    for (int i = 0; i < 3_000; i++) {
+                        int source = base + random.nextInt(200);
+                        int destination = base + random.nextInt(200);
+                        if (source == destination) continue;
+                        if (!graph.containsEdge(source, destination)) {
+                            graph.addEdgeBetween(source, destination, i);
+                        } else if (random.nextBoolean()) {
+                            graph.removeEdgeBetween(source, destination);
+                        } else {
+                            graph.updateEdgeWeight(source, destination, -i);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            List<Future<?>> readers = new ArrayList<>();
+            for (int r = 0; r < 2; r++) {
+                readers.add(pool.submit(() -> {
+                    while (writing.get()) {
+                        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+                            if (!symmetric(snapshot.csr())) asymmetric.incrementAndGet();
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> writer : writers) writer.get(60, TimeUnit.SECONDS);
+            writing.set(false);
+            for (Future<?> reader : readers) reader.get(60, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertEquals(0, asymmetric.get());
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            assertTrue(symmetric(snapshot.csr()));
+        }
+    }
+
+    private static boolean meet(CountDownLatch latch) {
+        latch.countDown();
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static boolean symmetric(CsrSnapshot<Integer> csr) {
+        for (int vertex = 0; vertex < csr.vertexCount(); vertex++) {
+            for (int e = csr.offsets()[vertex]; e < csr.offsets()[vertex + 1]; e++) {
+                int target = csr.targets()[e];
+                boolean back = false;
+                for (int r = csr.offsets()[target]; r < csr.offsets()[target + 1]; r++) {
+                    if (csr.targets()[r] == vertex && csr.weights()[r] == csr.weights()[e]) back = true;
+                }
+                if (!back) return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A row whose writer goes through states a reader must not see: the length changes before the values do.
+     */
+    private static final class Row {
+        private int length = 2;
+        private int[] values = {2, 2};
+
+        int rewrite(int newLength) {
+            length = newLength;
+            Thread.yield();
+            int[] next = new int[newLength];
+            Arrays.fill(next, newLength);
+            values = next;
+            return newLength;
+        }
+
+        /**
+         * Throws when the values are shorter than the length it read first.
+         */
+        boolean consistent() {
+            int n = length;
+            int[] current = values;
+            int last = current[n - 1];
+            return current.length == n && last == n && current[0] == n;
+        }
+    }
+}
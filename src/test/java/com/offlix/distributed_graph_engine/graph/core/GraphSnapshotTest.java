@@ -0,0 +1,117 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A pinned snapshot keeps the version it was taken at, whether it is compacted before or after writers move on.
+ */
+class GraphSnapshotTest {
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void writesAfterPinningAreInvisibleToTheSnapshot(GraphType type) {
+        GraphManager<String> graph = new GraphManager<>(type);
+        graph.addEdgeBetween("a", "b", 1.0);
+        graph.addEdgeBetween("b", "c", 2.0);
+        graph.addEdgeBetween("c", "a", 3.0);
+        graph.addEdgeBetween("c", "d", 4.0);
+        graph.addVertex("e");
+
+        try (GraphSnapshot<String> lazy = graph.snapshot(); GraphSnapshot<String> compacted = graph.snapshot()) {
+            int version = graph.getVersion();
+            CsrSnapshot<String> before = compacted.csr();
+            int[] offsets = before.offsets().clone();
+            int[] targets = before.targets().clone();
+            double[] weights = before.weights().clone();
+            Map<String, Map<String, Double>> adjacency = adjacency(before);
+            Map<Integer, Set<String>> components = graph.sccComponents(before).toMap(before);
+
+            // rows the snapshot shares are rewritten, removed, and their ids handed to new vertices
+            graph.removeEdgeBetween("a", "b");
+            graph.updateEdgeWeight("b", "c", 20.0);
+            graph.addEdgeBetween("d", "a", 5.0);
+            graph.removeVertex("c");
+            graph.removeVertex("e");
+            graph.addEdgeBetween("f", "g", 6.0);
+            graph.addEdgeBetween("a", "f", 7.0);
+            assertTrue(graph.getVersion() > version);
+
+            // compacted only now, from the rows pinned before the writes
+            CsrSnapshot<String> pinned = lazy.csr();
+            assertEquals(version, lazy.getVersion());
+            assertEquals(5, pinned.vertexCount());
+            assertEquals(adjacency, adjacency(pinned));
+            assertEquals(components, graph.sccComponents(pinned).toMap(pinned));
+
+            assertEquals(5, before.vertexCount());
+            assertArrayEquals(offsets, before.offsets());
+            assertArrayEquals(targets, before.targets());
+            assertArrayEquals(weights, before.weights());
+            assertEquals(components, graph.sccComponents(before).toMap(before));
+
+            try (GraphSnapshot<String> after = graph.snapshot()) {
+                CsrSnapshot<String> current = after.csr();
+                assertTrue(after.getVersion() > version);
+                assertEquals(5, current.vertexCount());
+                assertEquals(adjacency(graph), adjacency(current));
+                assertEquals(-1, current.indexOf("c"));
+                assertEquals(7.0, adjacency(current).get("a").get("f"));
+                assertFalse(adjacency(current).get("b").containsKey("c"));
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void manyOpenSnapshotsEachKeepTheirVersion(GraphType type) {
+        Random random = new Random(5 + type.ordinal());
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        List<GraphSnapshot<Integer>> open = new ArrayList<>();
+        List<Map<Integer, Map<Integer, Double>>> expected = new ArrayList<>();
+        try {
+            for (int round = 0; round < 20; round++) {
+                GraphSnapshot<Integer> pinned = graph.snapshot();
+                open.add(pinned);
+                // a second pin of the same version, compacted right away, is the reference
+                try (GraphSnapshot<Integer> reference = graph.snapshot()) {
+                    expected.add(adjacency(reference.csr()));
+                }
+                for (int i = 0; i < 50; i++) {
+                    int source = random.nextInt(40);
+                    int destination = random.nextInt(40);
+                    if (source == destination) continue;
+                    switch (random.nextInt(8)) {
+                        case 0, 1 -> graph.removeEdgeBetween(source, destination);
+                        case 2 -> graph.updateEdgeWeight(source, destination, -i);
+                        case 3 -> {
+                            if (graph.containsVertex(source)) graph.removeVertex(source);
+                        }
+                        default -> {
+                            if (!graph.containsEdge(source, destination)) graph.addEdgeBetween(source, destination, i);
+                        }
+                    }
+                }
+            }
+            // compacted last, after every later round has written over the rows they pinned
+            for (int round = open.size() - 1; round >= 0; round--) {
+                CsrSnapshot<Integer> csr = open.get(round).csr();
+                assertEquals(expected.get(round), adjacency(csr), "snapshot of round " + round);
+                assertEquals(expected.get(round).size(), csr.vertexCount());
+            }
+        } finally {
+            open.forEach(GraphSnapshot::close);
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package com.offlix.distributed_graph_engine.graph.core;
+
+import com.offlix.distributed_graph_engine.exception.CycleNotAllowedException;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.operations.BatchResult;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Drives DAG-mode graphs with random inserts and removals, checking each refusal against brute-force
+ * reachability and the order against every edge after each step.
+ */
+class TopologicalOrderTest {
+
+    @Test
+    void refusesExactlyTheEdgesThatCloseACycle() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 2 + random.nextInt(20);
+            GraphManager<Integer> graph = GraphManager.acyclic();
+            boolean[][] edges = new boolean[n][n];
+            for (int step = 0; step < 150; step++) {
+                int source = random.nextInt(n);
+                int destination = random.nextInt(n);
+                if (random.nextInt(20) == 0) {
+                    graph.removeVertex(source);
+                    for (int other = 0; other < n; other++) edges[source][other] = edges[other][source] = false;
+                    continue;
+                }
+                if (source == destination || edges[source][destination]) continue;
+                boolean closesCycle = reaches(edges, destination, source);
+                if (closesCycle) {
+                    assertThrows(CycleNotAllowedException.class, () -> graph.addEdgeBetween(source, destination));
+                } else {
+                    graph.addEdgeBetween(source, destination);
+                    edges[source][destination] = true;
+                }
+                assertEdgesFollowTheOrder(graph, edges);
+            }
+            List<Integer> order = graph.topologicalOrder();
+            for (int from = 0; from < n; from++) {
+                for (int to = 0; to < n; to++) {
+                    if (edges[from][to]) assertTrue(order.indexOf(from) < order.indexOf(to));
+                }
+            }
+            assertFalse(graph.containCycle());
+        }
+    }
+
+    @Test
+    void reportsCyclesInABatchAsRejections() {
+        GraphManager<String> graph = GraphManager.acyclic();
+        BatchResult<String> result = graph.addEdges(List.of(
+                new EdgeSpec<>("fetch", "build", 1.0),
+                new EdgeSpec<>("build", "test", 1.0),
+                new EdgeSpec<>("test", "fetch", 1.0),
+                new EdgeSpec<>("test", "deploy", 1.0)));
+        assertEquals(3, result.addedEdges());
+        assertEquals(1, result.rejections().size());
+        assertEquals(2, result.rejections().get(0).index());
+        assertInstanceOf(CycleNotAllowedException.class, result.rejections().get(0).error());
+        assertEquals(List.of("fetch", "build", "test", "deploy"), graph.topologicalOrder());
+        assertEquals(-1, graph.topologicalPosition("missing"));
+    }
+
+    private static void assertEdgesFollowTheOrder(GraphManager<Integer> graph, boolean[][] edges) {
+        for (int from = 0; from < edges.length; from++) {
+            for (int to = 0; to < edges.length; to++) {
+                if (edges[from][to]) {
+                    assertTrue(graph.topologicalPosition(from) < graph.topologicalPosition(to), from + " -> " + to);
+                }
+            }
+        }
+    }
+
+    private static boolean reaches(boolean[][] edges, int from, int to) {
+        boolean[] seen = new boolean[edges.length];
+        Deque<Integer> pending = new ArrayDeque<>(List.of(from));
+        seen[from] = true;
+        while (!pending.isEmpty()) {
+            int current = pending.pop();
+            if (current == to) return true;
+            for (int next = 0; next < edges.length; next++) {
+                if (edges[current][next] && !seen[next]) {
+                    seen[next] = true;
+                    pending.push(next);
+                }
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,123 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The mapped store against a heap model, across growth past both mapped regions and a close and reopen.
+ */
+class MappedAdjacencyStoreTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void reopensWithTheAdjacencyItWasClosedWith() throws IOException {
+        Map<Integer, Map<Integer, Double>> expected = new HashMap<>();
+        long deadBytes;
+        try (MappedAdjacencyStore store = MappedAdjacencyStore.open(directory, GraphType.DIRECTED)) {
+            long indexBytes = Files.size(directory.resolve(MappedAdjacencyStore.INDEX_FILE));
+            long dataBytes = Files.size(directory.resolve(MappedAdjacencyStore.DATA_FILE));
+
+            mutateRandomly(store, expected, new Random(1), 5_000, 200_000);
+            assertMatches(expected, store);
+
+            // grown past the first mapping of both files, with the rows written before still readable
+            assertTrue(Files.size(directory.resolve(MappedAdjacencyStore.INDEX_FILE)) > indexBytes);
+            assertTrue(Files.size(directory.resolve(MappedAdjacencyStore.DATA_FILE)) > dataBytes);
+            deadBytes = store.deadBytes();
+            assertTrue(deadBytes > 0);
+        }
+
+        try (MappedAdjacencyStore reopened = MappedAdjacencyStore.open(directory, GraphType.DIRECTED)) {
+            assertMatches(expected, reopened);
+            assertEquals(deadBytes, reopened.deadBytes());
+
+            // appends go after the data that was already there
+            mutateRandomly(reopened, expected, new Random(2), 6_000, 50_000);
+            assertMatches(expected, reopened);
+        }
+
+        try (MappedAdjacencyStore reopened = MappedAdjacencyStore.open(directory, GraphType.DIRECTED)) {
+            assertMatches(expected, reopened);
+        }
+    }
+
+    @Test
+    void refusesToReopenAsAnotherGraphType() throws IOException {
+        try (MappedAdjacencyStore store = MappedAdjacencyStore.open(directory, GraphType.UNDIRECTED)) {
+            store.addVertex(0);
+        }
+        assertThrows(IllegalStateException.class, () -> MappedAdjacencyStore.open(directory, GraphType.DIRECTED));
+    }
+
+    @Test
+    void mappedGraphReopensWithItsVerticesAndEdges() throws IOException {
+        Map<String, Map<String, Double>> written;
+        try (GraphManager<String> graph = GraphManager.openMapped(directory, GraphType.UNDIRECTED, VertexKeyCodec.STRING)) {
+            Random random = new Random(3);
+            for (int i = 0; i < 20_000; i++) {
+                String source = "v" + random.nextInt(3_000);
+                String destination = "v" + random.nextInt(3_000);
+                if (source.equals(destination) || graph.containsEdge(source, destination)) continue;
+                graph.addEdgeBetween(source, destination, random.nextInt(100) / 4.0);
+            }
+            graph.removeVertex("v7");
+            graph.addVertex("isolated");
+            written = adjacency(graph);
+        }
+
+        try (GraphManager<String> reopened = GraphManager.openMapped(directory, GraphType.UNDIRECTED, VertexKeyCodec.STRING)) {
+            assertEquals(written, adjacency(reopened));
+            assertFalse(reopened.containsVertex("v7"));
+            assertTrue(reopened.containsVertex("isolated"));
+        }
+    }
+
+    /**
+     * Vertex ids up to <code>vertices</code>, well past the first index mapping, and enough edges to outgrow the
+     * first data mapping; some rows get large so their blocks move several times.
+     */
+    private static void mutateRandomly(MappedAdjacencyStore store, Map<Integer, Map<Integer, Double>> expected,
+                                       Random random, int vertices, int operations) {
+        for (int i = 0; i < operations; i++) {
+            int from = random.nextInt(10) == 0 ? random.nextInt(8) : random.nextInt(vertices);
+            int to = random.nextInt(vertices);
+            if (store.addVertex(from)) expected.put(from, new HashMap<>());
+            int action = random.nextInt(100);
+            if (action < 80) {
+                double weight = random.nextInt(1_000) / 8.0;
+                assertEquals(expected.get(from).put(to, weight) == null, store.putEdge(from, to, weight));
+            } else if (action < 98) {
+                assertEquals(expected.get(from).remove(to) != null, store.removeEdge(from, to));
+            } else {
+                assertTrue(store.removeVertex(from));
+                expected.remove(from);
+            }
+        }
+    }
+
+    private static void assertMatches(Map<Integer, Map<Integer, Double>> expected, AdjacencyView view) {
+        assertEquals(expected.size(), view.vertexCount());
+        Map<Integer, Map<Integer, Double>> actual = new HashMap<>();
+        view.forEachVertex(id -> {
+            Map<Integer, Double> row = new HashMap<>();
+            view.forEachNeighbor(id, row::put);
+            assertEquals(row.size(), view.degree(id));
+            actual.put(id, row);
+        });
+        assertEquals(expected, actual);
+    }
+}
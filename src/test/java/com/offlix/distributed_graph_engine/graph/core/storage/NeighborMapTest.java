@@ -0,0 +1,146 @@
+package com.offlix.distributed_graph_engine.graph.core.storage;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.IntSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The neighbor map against a <code>HashMap</code>, through the inline stage, table growth and backward-shift removal.
+ */
+class NeighborMapTest {
+
+    @Test
+    void matchesAHashMapUnderRandomOperations() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            // a small key range, so puts overwrite and removes hit present keys often
+            int keyRange = 4 + random.nextInt(200);
+            runAgainstHashMap(random, 20_000, () -> random.nextInt(keyRange));
+        }
+    }
+
+    @Test
+    void removalsInsideWrappedClustersKeepEveryKeyReachable() {
+        for (int seed = 0; seed < 20; seed++) {
+            Random random = new Random(seed);
+            // keys whose home slot is in the last eighth of a 64-slot table: their probe runs wrap past slot 0
+            int[] clustered = keysWithHomeSlots(64, 56, 64, 40);
+            runAgainstHashMap(random, 20_000, () -> clustered[random.nextInt(clustered.length)]);
+        }
+    }
+
+    @Test
+    void removesFromARunThatWrapsInEveryOrder() {
+        // the first table has 8 slots and holds up to 6 keys: four homed on the last slot fill 7, 0, 1 and 2,
+        // one homed on slot 0 lands on 3 and one homed on slot 1 on 4
+        int[] lastSlot = keysWithHomeSlots(8, 7, 8, 4);
+        int[] keys = {lastSlot[0], lastSlot[1], lastSlot[2], lastSlot[3],
+                keysWithHomeSlots(8, 0, 1, 1)[0], keysWithHomeSlots(8, 1, 2, 1)[0]};
+        for (List<Integer> order : permutations(keys.length)) {
+            NeighborMap map = new NeighborMap();
+            Map<Integer, Double> expected = new HashMap<>();
+            for (int key : keys) {
+                map.put(key, key * 0.5);
+                expected.put(key, key * 0.5);
+            }
+            for (int index : order) {
+                assertTrue(map.remove(keys[index]));
+                expected.remove(keys[index]);
+                assertSameContents(expected, map);
+            }
+        }
+    }
+
+    @Test
+    void refusesNegativeKeys() {
+        NeighborMap map = new NeighborMap();
+        assertThrows(IllegalArgumentException.class, () -> map.put(-1, 1.0));
+        assertFalse(map.containsKey(-1));
+        assertFalse(map.remove(-1));
+        assertEquals(7.0, map.get(-1, 7.0));
+    }
+
+    private static void runAgainstHashMap(Random random, int operations, IntSupplier keys) {
+        NeighborMap map = new NeighborMap();
+        Map<Integer, Double> expected = new HashMap<>();
+        for (int i = 0; i < operations; i++) {
+            int key = keys.getAsInt();
+            switch (random.nextInt(5)) {
+                case 0, 1 -> {
+                    double value = random.nextInt(1_000) / 8.0;
+                    assertEquals(!expected.containsKey(key), map.put(key, value), "put " + key);
+                    expected.put(key, value);
+                }
+                case 2, 3 -> assertEquals(expected.remove(key) != null, map.remove(key), "remove " + key);
+                default -> {
+                    assertEquals(expected.containsKey(key), map.containsKey(key), "containsKey " + key);
+                    assertEquals(expected.getOrDefault(key, Double.NaN), map.get(key, Double.NaN), "get " + key);
+                }
+            }
+            assertEquals(expected.size(), map.size());
+            if (i % 97 == 0) assertSameContents(expected, map);
+        }
+        assertSameContents(expected, map);
+    }
+
+    private static void assertSameContents(Map<Integer, Double> expected, NeighborMap map) {
+        assertEquals(expected.size(), map.size());
+        assertEquals(expected.isEmpty(), map.isEmpty());
+        for (Map.Entry<Integer, Double> entry : expected.entrySet()) {
+            assertTrue(map.containsKey(entry.getKey()), "lost " + entry.getKey());
+            assertEquals(entry.getValue(), map.get(entry.getKey(), Double.NaN));
+        }
+        Map<Integer, Double> iterated = new HashMap<>();
+        map.forEach((neighbor, weight) -> assertNull(iterated.put(neighbor, weight), "visited twice: " + neighbor));
+        assertEquals(expected, iterated);
+
+        int[] keys = new int[map.size() + 1];
+        double[] values = new double[map.size() + 1];
+        assertEquals(map.size(), map.copyTo(keys, values, 1));
+        Map<Integer, Double> copied = new HashMap<>();
+        for (int i = 1; i < keys.length; i++) {
+            copied.put(keys[i], values[i]);
+        }
+        assertEquals(expected, copied);
+    }
+
+    /**
+     * @return the first <code>count</code> keys whose home slot in a table of <code>capacity</code> slots is in
+     * <code>[from, to)</code>
+     */
+    private static int[] keysWithHomeSlots(int capacity, int from, int to, int count) {
+        int[] keys = new int[count];
+        int found = 0;
+        for (int key = 0; found < count; key++) {
+            int home = NeighborMap.mix(key) & (capacity - 1);
+            if (home >= from && home < to) keys[found++] = key;
+        }
+        return keys;
+    }
+
+    private static List<List<Integer>> permutations(int n) {
+        List<List<Integer>> result = new ArrayList<>();
+        permute(new ArrayList<>(), n, result);
+        return result;
+    }
+
+    private static void permute(List<Integer> prefix, int n, List<List<Integer>> result) {
+        if (prefix.size() == n) {
+            result.add(List.copyOf(prefix));
+            return;
+        }
+        for (int i = 0; i < n; i++) {
+            if (prefix.contains(i)) continue;
+            prefix.add(i);
+            permute(prefix, n, result);
+            prefix.removeLast();
+        }
+    }
+}
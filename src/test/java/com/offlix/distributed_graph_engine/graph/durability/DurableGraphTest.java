@@ -0,0 +1,146 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Recovery of a graph from its snapshot and log, after a crash and across checkpoints.
+ */
+class DurableGraphTest {
+    private static final DurabilityOptions LOG_ONLY = DurabilityOptions.builder()
+            .fsyncPolicy(FsyncPolicy.ALWAYS)
+            .checkpointOnClose(false)
+            .build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void recoversEveryAcknowledgedWriteAfterACrash() throws IOException {
+        DurableGraph<Long> crashed = DurableGraph.open(directory, GraphType.DIRECTED, VertexKeyCodec.LONG, LOG_ONLY);
+        try {
+            Map<Long, Map<Long, Double>> written = mutateRandomly(crashed.graph(), 3);
+            int version = crashed.graph().getVersion();
+
+            // the first instance is never closed, as after a crash
+            try (DurableGraph<Long> recovered = DurableGraph.open(directory, GraphType.DIRECTED, VertexKeyCodec.LONG, LOG_ONLY)) {
+                assertEquals(written, adjacency(recovered.graph()));
+                assertEquals(version, recovered.graph().getVersion());
+            }
+        } finally {
+            crashed.close();
+        }
+    }
+
+    @Test
+    void replaysRemovalsInOrderWithTheAdditionsAroundThem() throws IOException {
+        int version;
+        try (DurableGraph<String> durable = DurableGraph.open(directory, GraphType.UNDIRECTED, VertexKeyCodec.STRING, LOG_ONLY)) {
+            GraphManager<String> graph = durable.graph();
+            graph.addEdgeBetween("DEL", "BLR", 150.0);
+            graph.addEdgeBetween("BLR", "HYD", 60.0);
+            graph.removeVertex("DEL");
+            graph.addEdgeBetween("DEL", "HYD", 45.0);
+            graph.updateEdgeWeight("BLR", "HYD", 70.0);
+            graph.removeEdgeBetween("DEL", "HYD");
+            graph.addEdgeBetween("HYD", "MUM", 12.5);
+            version = graph.getVersion();
+        }
+
+        try (DurableGraph<String> reopened = DurableGraph.open(directory, GraphType.UNDIRECTED, VertexKeyCodec.STRING, LOG_ONLY)) {
+            GraphManager<String> graph = reopened.graph();
+            assertEquals(Map.of(), graph.getNeighbors("DEL"));
+            assertEquals(Map.of("BLR", 70.0, "MUM", 12.5), graph.getNeighbors("HYD"));
+            assertEquals(version, graph.getVersion());
+        }
+    }
+
+    @Test
+    void checkpointDropsTheLogItCoversAndRecoveryReplaysOnlyWhatCameAfter() throws IOException {
+        Map<Long, Map<Long, Double>> written;
+        int checkpointVersion;
+        int version;
+        try (DurableGraph<Long> durable = DurableGraph.open(directory, GraphType.DIRECTED, VertexKeyCodec.LONG, LOG_ONLY)) {
+            mutateRandomly(durable.graph(), 5);
+            List<WriteAheadLog.Segment> before = WriteAheadLog.segments(directory);
+
+            checkpointVersion = durable.checkpoint();
+
+            assertEquals(durable.graph().getVersion(), checkpointVersion);
+            List<WriteAheadLog.Segment> after = WriteAheadLog.segments(directory);
+            assertEquals(1, after.size());
+            assertTrue(after.getFirst().id() > before.getLast().id());
+            assertEquals(List.of(String.format("snapshot-%010d.bin", checkpointVersion)), snapshotFiles());
+
+            written = mutateRandomly(durable.graph(), 6);
+            version = durable.graph().getVersion();
+        }
+
+        // only the writes after the checkpoint are still in the log
+        WriteAheadLog.ReplayResult log = WriteAheadLog.replay(directory, VertexKeyCodec.LONG, checkpointVersion,
+                new LogReplayer<>(new GraphManager<>(GraphType.DIRECTED), 1));
+        assertEquals(0, log.skipped());
+        assertEquals(version - checkpointVersion, log.applied());
+
+        try (DurableGraph<Long> reopened = DurableGraph.open(directory, GraphType.DIRECTED, VertexKeyCodec.LONG, LOG_ONLY)) {
+            assertEquals(written, adjacency(reopened.graph()));
+            assertEquals(version, reopened.graph().getVersion());
+        }
+    }
+
+    @Test
+    void closeCheckpointsWhenConfiguredTo() throws IOException {
+        DurabilityOptions options = LOG_ONLY.toBuilder().checkpointOnClose(true).build();
+        Map<Long, Map<Long, Double>> written;
+        try (DurableGraph<Long> durable = DurableGraph.open(directory, GraphType.UNDIRECTED, VertexKeyCodec.LONG, options)) {
+            written = mutateRandomly(durable.graph(), 7);
+        }
+        assertEquals(1, snapshotFiles().size());
+        assertEquals(0, WriteAheadLog.replay(directory, VertexKeyCodec.LONG, 0,
+                new LogReplayer<>(new GraphManager<>(GraphType.UNDIRECTED), 1)).applied());
+
+        try (DurableGraph<Long> reopened = DurableGraph.open(directory, GraphType.UNDIRECTED, VertexKeyCodec.LONG, options)) {
+            assertEquals(written, adjacency(reopened.graph()));
+        }
+    }
+
+    private static Map<Long, Map<Long, Double>> mutateRandomly(GraphManager<Long> graph, long seed) {
+        Random random = new Random(seed);
+        for (int i = 0; i < 2_000; i++) {
+            long source = random.nextInt(200);
+            long destination = random.nextInt(200);
+            if (source == destination) continue;
+            switch (random.nextInt(10)) {
+                case 0 -> graph.removeEdgeBetween(source, destination);
+                case 1 -> graph.updateEdgeWeight(source, destination, random.nextInt(40) / 4.0);
+                case 2 -> {
+                    if (graph.containsVertex(source)) graph.removeVertex(source);
+                }
+                default -> {
+                    if (!graph.containsEdge(source, destination)) graph.addEdgeBetween(source, destination, random.nextInt(40) / 4.0);
+                }
+            }
+        }
+        return adjacency(graph);
+    }
+
+    private List<String> snapshotFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).filter(name -> name.startsWith("snapshot-")).toList();
+        }
+    }
+}
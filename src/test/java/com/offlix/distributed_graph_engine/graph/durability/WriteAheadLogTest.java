@@ -0,0 +1,236 @@
+package com.offlix.distributed_graph_engine.graph.durability;
+
+import com.offlix.distributed_graph_engine.graph.core.GraphMutationListener;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Appends, crash leftovers and recovery of the write-ahead log, without a graph in front of it.
+ */
+class WriteAheadLogTest {
+    private static final DurabilityOptions ALWAYS = DurabilityOptions.builder().fsyncPolicy(FsyncPolicy.ALWAYS).build();
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void replaysEveryKindOfRecordInOrder() throws IOException {
+        try (WriteAheadLog<String> log = WriteAheadLog.open(directory, VertexKeyCodec.STRING, ALWAYS)) {
+            log.vertexAdded(1, "a");
+            log.edgeAdded(2, "a", "b", 2.5);
+            log.edgeReweighted(3, "a", "b", 4.0);
+            log.edgeRemoved(4, "a", "b");
+            log.vertexRemoved(5, "b");
+            log.afterWrite();
+        }
+
+        Recorder recorder = new Recorder();
+        WriteAheadLog.ReplayResult result = WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, recorder);
+
+        assertEquals(List.of("1 +a", "2 +a->b 2.5", "3 ~a->b 4.0", "4 -a->b", "5 -b"), recorder.records);
+        assertEquals(new WriteAheadLog.ReplayResult(1, 5, 0, 5, 0), result);
+    }
+
+    @Test
+    void cutsATornTailOffTheLastSegmentOnly() throws IOException {
+        writeTwoSegments();
+        Path last = WriteAheadLog.segments(directory).getLast().path();
+        long intact = Files.size(last);
+        // a crash mid-append leaves less than a record header behind
+        Files.write(last, new byte[]{0, 0, 0, 42, 7}, StandardOpenOption.APPEND);
+
+        Recorder recorder = new Recorder();
+        WriteAheadLog.ReplayResult result = WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, recorder);
+
+        assertEquals(6, result.applied());
+        assertEquals(5, result.truncatedBytes());
+        assertEquals(intact, Files.size(last));
+        // the cut is made once; the next recovery finds a clean log
+        assertEquals(0, WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, new Recorder()).truncatedBytes());
+    }
+
+    @Test
+    void refusesATornRecordInAnEarlierSegment() throws IOException {
+        writeTwoSegments();
+        Path first = WriteAheadLog.segments(directory).getFirst().path();
+        Files.write(first, new byte[]{0, 0, 0, 42, 7}, StandardOpenOption.APPEND);
+        long size = Files.size(first);
+
+        IOException failure = assertThrows(IOException.class,
+                () -> WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, new Recorder()));
+        assertTrue(failure.getMessage().contains("not the last segment"), failure.getMessage());
+        assertEquals(size, Files.size(first));
+    }
+
+    @Test
+    void dropsTheLastRecordWhenItsChecksumDoesNotMatch() throws IOException {
+        writeTwoSegments();
+        Path last = WriteAheadLog.segments(directory).getLast().path();
+        flipLastByte(last);
+
+        Recorder recorder = new Recorder();
+        WriteAheadLog.ReplayResult result = WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, recorder);
+
+        assertEquals(5, result.applied());
+        assertEquals(5, result.lastVersion());
+        assertTrue(result.truncatedBytes() > 0);
+        assertEquals("5 +e->f 1.0", recorder.records.getLast());
+    }
+
+    @Test
+    void refusesAChecksumMismatchInAnEarlierSegment() throws IOException {
+        writeTwoSegments();
+        flipLastByte(WriteAheadLog.segments(directory).getFirst().path());
+
+        assertThrows(IOException.class, () -> WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, new Recorder()));
+    }
+
+    @Test
+    void skipsRecordsAtOrBelowTheCheckpointVersion() throws IOException {
+        writeTwoSegments();
+
+        Recorder recorder = new Recorder();
+        WriteAheadLog.ReplayResult result = WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 4, recorder);
+
+        assertEquals(4, result.skipped());
+        assertEquals(2, result.applied());
+        assertEquals(6, result.lastVersion());
+        assertEquals(List.of("5 +e->f 1.0", "6 +f->g 1.0"), recorder.records);
+    }
+
+    @Test
+    void deletesOnlySegmentsBeforeTheGivenOne() throws IOException {
+        try (WriteAheadLog<String> log = WriteAheadLog.open(directory, VertexKeyCodec.STRING, ALWAYS)) {
+            log.vertexAdded(1, "a");
+            log.rotate();
+            log.vertexAdded(2, "b");
+            long live = log.rotate();
+            log.vertexAdded(3, "c");
+            log.afterWrite();
+
+            log.deleteSegmentsBefore(live);
+
+            assertEquals(List.of(live), WriteAheadLog.segments(directory).stream().map(WriteAheadLog.Segment::id).toList());
+        }
+        Recorder recorder = new Recorder();
+        WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, recorder);
+        assertEquals(List.of("3 +c"), recorder.records);
+    }
+
+    @Test
+    void reopeningStartsANewSegmentAfterTheExistingOnes() throws IOException {
+        writeTwoSegments();
+        try (WriteAheadLog<String> log = WriteAheadLog.open(directory, VertexKeyCodec.STRING, ALWAYS)) {
+            log.vertexAdded(7, "h");
+            log.afterWrite();
+        }
+        assertEquals(List.of(1L, 2L, 3L), WriteAheadLog.segments(directory).stream().map(WriteAheadLog.Segment::id).toList());
+        assertEquals(7, WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, new Recorder()).applied());
+    }
+
+    @Test
+    void alwaysMakesEveryRecordDurableBeforeAfterWriteReturns() throws Exception {
+        int threads = 8;
+        int perThread = 200;
+        try (WriteAheadLog<String> log = WriteAheadLog.open(directory, VertexKeyCodec.STRING, ALWAYS)) {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> writers = new ArrayList<>();
+            Object versions = new Object();
+            int[] nextVersion = {0};
+            try {
+                for (int t = 0; t < threads; t++) {
+                    String vertex = "w" + t;
+                    writers.add(pool.submit(() -> {
+                        start.await();
+                        for (int i = 0; i < perThread; i++) {
+                            // the graph hands out versions under its write lock; this stands in for it
+                            synchronized (versions) {
+                                log.vertexAdded(++nextVersion[0], vertex + "-" + i);
+                            }
+                            log.afterWrite();
+                        }
+                        return null;
+                    }));
+                }
+                start.countDown();
+                for (Future<?> writer : writers) writer.get();
+            } finally {
+                pool.shutdownNow();
+            }
+
+            // still open: nothing but afterWrite has put these records in the file
+            Recorder recorder = new Recorder();
+            WriteAheadLog.ReplayResult result = WriteAheadLog.replay(directory, VertexKeyCodec.STRING, 0, recorder);
+            assertEquals(threads * perThread, result.applied());
+            assertEquals(threads * perThread, result.lastVersion());
+            assertEquals(0, result.truncatedBytes());
+        }
+    }
+
+    /**
+     * Versions 1-3 in the first segment, 4-6 in the second.
+     */
+    private void writeTwoSegments() throws IOException {
+        try (WriteAheadLog<String> log = WriteAheadLog.open(directory, VertexKeyCodec.STRING, ALWAYS)) {
+            log.edgeAdded(1, "a", "b", 1.0);
+            log.edgeAdded(2, "b", "c", 1.0);
+            log.edgeAdded(3, "c", "d", 1.0);
+            log.rotate();
+            log.edgeAdded(4, "d", "e", 1.0);
+            log.edgeAdded(5, "e", "f", 1.0);
+            log.edgeAdded(6, "f", "g", 1.0);
+            log.afterWrite();
+        }
+    }
+
+    private static void flipLastByte(Path file) throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 0x5A;
+        Files.write(file, bytes);
+    }
+
+    private static final class Recorder implements GraphMutationListener<String> {
+        final List<String> records = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public void vertexAdded(int version, String vertex) {
+            records.add(version + " +" + vertex);
+        }
+
+        @Override
+        public void vertexRemoved(int version, String vertex) {
+            records.add(version + " -" + vertex);
+        }
+
+        @Override
+        public void edgeAdded(int version, String source, String destination, double weight) {
+            records.add(version + " +" + source + "->" + destination + " " + weight);
+        }
+
+        @Override
+        public void edgeRemoved(int version, String source, String destination) {
+            records.add(version + " -" + source + "->" + destination);
+        }
+
+        @Override
+        public void edgeReweighted(int version, String source, String destination, double weight) {
+            records.add(version + " ~" + source + "->" + destination + " " + weight);
+        }
+    }
+}
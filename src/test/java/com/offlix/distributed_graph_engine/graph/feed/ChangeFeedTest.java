@@ -0,0 +1,240 @@
+package com.offlix.distributed_graph_engine.graph.feed;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.exception.ChangeFeedGapException;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Resuming, backpressure and the gap signal of the change feed, each subscriber on its own delivery thread.
+ */
+class ChangeFeedTest {
+
+    @Test
+    void resumesAfterAVersionWithEveryLaterChangeInOrder() throws InterruptedException {
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+        try (ChangeFeed<Long> feed = ChangeFeed.attach(graph)) {
+            Recorder everything = new Recorder(Long.MAX_VALUE);
+            feed.subscribe(everything);
+            int resumeAfter = 0;
+            for (long vertex = 0; vertex < 20; vertex++) {
+                // each edge brings a new endpoint, added first
+                graph.addEdgeBetween(vertex, vertex + 1, vertex);
+                if (vertex == 9) resumeAfter = graph.getVersion();
+            }
+            graph.removeEdgeBetween(3L, 4L);
+            graph.updateEdgeWeight(5L, 6L, 0.5);
+
+            Recorder resumed = new Recorder(Long.MAX_VALUE);
+            feed.subscribe(resumed, resumeAfter);
+            feed.close();
+
+            everything.awaitDone();
+            resumed.awaitDone();
+            assertNull(everything.error);
+            assertNull(resumed.error);
+            assertTrue(resumed.completed);
+            int after = resumeAfter;
+            assertEquals(everything.received.stream().filter(change -> change.version() > after).toList(), resumed.received);
+            GraphChange<Long> firstEdge = resumed.received.get(1);
+            assertEquals(new GraphChange.VertexAdded<>(after + 1, 11L), resumed.received.getFirst());
+            assertEquals(new GraphChange.EdgeAdded<>(firstEdge.version(), 10L, 11L, 10.0), firstEdge);
+            assertEquals(new GraphChange.EdgeReweighted<>(graph.getVersion(), 5L, 6L, 0.5), resumed.received.getLast());
+        }
+    }
+
+    @Test
+    void refusesToResumeFromBeforeTheFeedStarted() throws InterruptedException {
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween(1L, 2L);
+        try (ChangeFeed<Long> feed = ChangeFeed.attach(graph)) {
+            graph.addEdgeBetween(2L, 3L);
+
+            Recorder recorder = new Recorder(Long.MAX_VALUE);
+            feed.subscribe(recorder, 0);
+
+            recorder.awaitDone();
+            ChangeFeedGapException gap = assertInstanceOf(ChangeFeedGapException.class, recorder.error);
+            assertEquals(0, gap.getLastDeliveredVersion());
+            assertTrue(recorder.received.isEmpty());
+        }
+    }
+
+    @Test
+    void refusesToResumeFromAVersionTheRingHasOverwritten() throws InterruptedException {
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addVertices(LongStream.range(0, 40).boxed().toList());
+        try (ChangeFeed<Long> feed = ChangeFeed.attach(graph, ChangeFeedOptions.builder().capacity(8).build())) {
+            int start = feed.getStartVersion();
+            for (long vertex = 0; vertex < 20; vertex++) {
+                graph.addEdgeBetween(vertex, vertex + 1);
+            }
+
+            Recorder tooOld = new Recorder(Long.MAX_VALUE);
+            feed.subscribe(tooOld, start + 2);
+            Recorder recent = new Recorder(Long.MAX_VALUE);
+            feed.subscribe(recent, graph.getVersion() - 4);
+            feed.close();
+
+            tooOld.awaitDone();
+            recent.awaitDone();
+            assertInstanceOf(ChangeFeedGapException.class, tooOld.error);
+            assertNull(recent.error);
+            assertEquals(4, recent.received.size());
+        }
+    }
+
+    @Test
+    void signalsAGapOnceAWriteOutrunsASlowSubscriber() throws InterruptedException {
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addVertices(LongStream.range(0, 40).boxed().toList());
+        // a long stall budget: the writer must be let go as soon as the subscriber is cut off, not when it runs out
+        ChangeFeedOptions options = ChangeFeedOptions.builder().capacity(8).maxWriterStall(Duration.ofSeconds(30)).build();
+        try (ChangeFeed<Long> feed = ChangeFeed.attach(graph, options)) {
+            Recorder slow = new Recorder(1);
+            feed.subscribe(slow);
+            graph.addEdgeBetween(0L, 1L);
+            int delivered = graph.getVersion();
+            slow.awaitReceived(1);
+
+            // one write of more changes than the ring holds, so no throttle could have saved the subscriber
+            List<EdgeSpec<Long>> batch = new ArrayList<>();
+            for (long vertex = 1; vertex < 21; vertex++) {
+                batch.add(EdgeSpec.of(vertex, vertex + 1));
+            }
+            long started = System.nanoTime();
+            graph.addEdges(batch);
+            long stalled = System.nanoTime() - started;
+
+            slow.awaitDone();
+            ChangeFeedGapException gap = assertInstanceOf(ChangeFeedGapException.class, slow.error);
+            assertEquals(delivered, gap.getLastDeliveredVersion());
+            assertEquals(1, slow.received.size());
+            assertTrue(stalled < TimeUnit.SECONDS.toNanos(10), "writer stalled " + stalled / 1_000_000 + " ms");
+        }
+    }
+
+    @Test
+    void holdsWritersBackUntilASlowSubscriberCatchesUp() throws InterruptedException {
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addVertices(LongStream.range(0, 201).boxed().toList());
+        ChangeFeedOptions options = ChangeFeedOptions.builder()
+                .capacity(16)
+                .highWaterMark(0.5)
+                .maxWriterStall(Duration.ofSeconds(30))
+                .build();
+        try (ChangeFeed<Long> feed = ChangeFeed.attach(graph, options)) {
+            Recorder slow = new Recorder(1) {
+                @Override
+                public void onNext(GraphChange<Long> change) {
+                    super.onNext(change);
+                    try {
+                        Thread.sleep(1);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                    subscription.request(1);
+                }
+            };
+            feed.subscribe(slow);
+            // far more changes than the ring holds: without the throttle the subscriber would be lapped
+            for (long vertex = 0; vertex < 200; vertex++) {
+                graph.addEdgeBetween(vertex, vertex + 1);
+            }
+            feed.close();
+
+            slow.awaitDone();
+            assertNull(slow.error);
+            assertEquals(200, slow.received.size());
+            for (int i = 0; i < slow.received.size(); i++) {
+                assertEquals(new GraphChange.EdgeAdded<>(feed.getStartVersion() + i + 1, (long) i, i + 1L, 1.0), slow.received.get(i));
+            }
+        }
+    }
+
+    @Test
+    void cutsOffASubscriberThatStallsWritersTooLong() throws InterruptedException {
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addVertices(LongStream.range(0, 41).boxed().toList());
+        Duration stall = Duration.ofMillis(100);
+        ChangeFeedOptions options = ChangeFeedOptions.builder().capacity(16).highWaterMark(0.5).maxWriterStall(stall).build();
+        try (ChangeFeed<Long> feed = ChangeFeed.attach(graph, options)) {
+            Recorder stuck = new Recorder(0);
+            feed.subscribe(stuck);
+
+            long started = System.nanoTime();
+            for (long vertex = 0; vertex < 40; vertex++) {
+                graph.addEdgeBetween(vertex, vertex + 1);
+            }
+            long elapsed = System.nanoTime() - started;
+
+            stuck.awaitDone();
+            ChangeFeedGapException gap = assertInstanceOf(ChangeFeedGapException.class, stuck.error);
+            assertTrue(gap.getMessage().contains("stalled"), gap.getMessage());
+            assertEquals(feed.getStartVersion(), gap.getLastDeliveredVersion());
+            // waited out the budget once, and not again for every write after the cut-off
+            assertTrue(elapsed >= stall.toNanos(), "writers stalled only " + elapsed / 1_000_000 + " ms");
+            assertTrue(elapsed < stall.toNanos() * 10, "writers stalled " + elapsed / 1_000_000 + " ms");
+        }
+    }
+
+    private static class Recorder implements Flow.Subscriber<GraphChange<Long>> {
+        final List<GraphChange<Long>> received = Collections.synchronizedList(new ArrayList<>());
+        private final long initialRequest;
+        private final CountDownLatch done = new CountDownLatch(1);
+        volatile Flow.Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+
+        Recorder(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            if (initialRequest > 0) subscription.request(initialRequest);
+        }
+
+        @Override
+        public void onNext(GraphChange<Long> change) {
+            received.add(change);
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            this.error = error;
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+
+        void awaitDone() throws InterruptedException {
+            assertTrue(done.await(10, TimeUnit.SECONDS), "subscriber neither completed nor failed");
+        }
+
+        void awaitReceived(int count) throws InterruptedException {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (received.size() < count) {
+                assertTrue(System.nanoTime() < deadline, "received " + received.size() + " of " + count);
+                Thread.sleep(1);
+            }
+        }
+    }
+}
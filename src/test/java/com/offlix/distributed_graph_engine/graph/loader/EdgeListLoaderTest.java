@@ -0,0 +1,175 @@
+package com.offlix.distributed_graph_engine.graph.loader;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.lang.foreign.MemorySegment;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Line parsing, skipped and malformed lines, and chunks cut across a file too large for one chunk.
+ */
+class EdgeListLoaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void skipsBlankAndCommentLinesAndTrimsFields() throws IOException {
+        Path file = write("# exported edges\n"
+                + "\n"
+                + "   \t\n"
+                + "1,2,2.5\n"
+                + " 3 , 4 , 0.25 \r\n"
+                + "5,6\n"
+                + "7\t,8,-1.5,extra,columns\n"
+                + "  # indented comment\n"
+                + "14,15,1e3\n"
+                + "16,17");
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+
+        LoadReport report = loader(VertexKeyParser.LONG).defaultWeight(7.0).build().load(file, graph);
+
+        assertEquals(6, report.rows());
+        assertEquals(0, report.malformedLines());
+        assertEquals(6, report.addedEdges());
+        assertEquals(Map.of(2L, 2.5), graph.getNeighbors(1L));
+        assertEquals(Map.of(4L, 0.25), graph.getNeighbors(3L));
+        // no weight column: the default weight
+        assertEquals(Map.of(6L, 7.0), graph.getNeighbors(5L));
+        assertEquals(Map.of(8L, -1.5), graph.getNeighbors(7L));
+        assertEquals(Map.of(15L, 1000.0), graph.getNeighbors(14L));
+        // the last line has no line break
+        assertEquals(Map.of(17L, 7.0), graph.getNeighbors(16L));
+    }
+
+    @Test
+    void countsAndSkipsMalformedLines() throws IOException {
+        Path file = write("""
+                1,2,1
+                9,10,
+                11,x,1
+                12,13,abc
+                nodelimiter
+                ,20
+                21,
+                99999999999999999999,1
+                30,31,0.5
+                """);
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+
+        LoadReport report = loader(VertexKeyParser.LONG).build().load(file, graph);
+
+        assertEquals(2, report.rows());
+        assertEquals(7, report.malformedLines());
+        assertEquals(Map.of(1L, Map.of(2L, 1.0), 2L, Map.of(), 30L, Map.of(31L, 0.5), 31L, Map.of()), adjacency(graph));
+    }
+
+    @Test
+    void skipsTheHeaderOnlyWhenAskedTo() throws IOException {
+        Path file = write("""
+                source,destination,weight
+                1,2,3
+                """);
+
+        GraphManager<Long> withHeader = new GraphManager<>(GraphType.DIRECTED);
+        LoadReport skipped = loader(VertexKeyParser.LONG).header(true).build().load(file, withHeader);
+        assertEquals(1, skipped.rows());
+        assertEquals(0, skipped.malformedLines());
+
+        GraphManager<Long> withoutHeader = new GraphManager<>(GraphType.DIRECTED);
+        LoadReport parsed = loader(VertexKeyParser.LONG).build().load(file, withoutHeader);
+        assertEquals(1, parsed.rows());
+        assertEquals(1, parsed.malformedLines());
+        assertEquals(adjacency(withHeader), adjacency(withoutHeader));
+    }
+
+    @Test
+    void parsesStringKeysWithAnotherDelimiter() throws IOException {
+        Path file = write("DEL\tBLR\t150\nBLR\t\tHYD\t60.5\nHYD\tDEL\n");
+        GraphManager<String> graph = new GraphManager<>(GraphType.UNDIRECTED);
+
+        LoadReport report = loader(VertexKeyParser.STRING).delimiter((byte) '\t').build().load(file, graph);
+
+        assertEquals(3, report.rows());
+        assertEquals(0, report.malformedLines());
+        assertEquals(Map.of("BLR", 150.0, "HYD", 1.0), graph.getNeighbors("DEL"));
+        assertEquals(Map.of("DEL", 150.0, "HYD", 60.5), graph.getNeighbors("BLR"));
+    }
+
+    @Test
+    void cutsChunksOnlyAtLineBreaks() {
+        byte[] bytes = edgeList(new Random(3), 150_000, new HashMap<>()).getBytes(StandardCharsets.US_ASCII);
+        EdgeListLoader<Long> loader = loader(VertexKeyParser.LONG).parallelism(4).build();
+
+        long[] bounds = loader.chunkBounds(MemorySegment.ofArray(bytes), bytes.length);
+
+        assertTrue(bounds.length > 2, "one chunk only");
+        assertEquals(0, bounds[0]);
+        assertEquals(bytes.length, bounds[bounds.length - 1]);
+        boolean movedOffAMidLineCut = false;
+        long target = bytes.length / (bounds.length - 1);
+        for (int i = 1; i < bounds.length - 1; i++) {
+            assertTrue(bounds[i] > bounds[i - 1]);
+            assertEquals('\n', bytes[(int) bounds[i] - 1], "chunk " + i + " starts mid-line");
+            movedOffAMidLineCut |= bytes[(int) (i * target) - 1] != '\n';
+        }
+        assertTrue(movedOffAMidLineCut, "no cut fell inside a line");
+    }
+
+    @Test
+    void loadsAFileOfManyChunksLikeOneLineAtATime() throws IOException {
+        Map<Long, Map<Long, Double>> expected = new HashMap<>();
+        String text = "source,destination,weight\n" + edgeList(new Random(5), 150_000, expected);
+        Path file = write(text);
+        assertTrue(Files.size(file) > 3 << 20, "too small to be split: " + Files.size(file));
+        GraphManager<Long> graph = new GraphManager<>(GraphType.DIRECTED);
+
+        LoadReport report = loader(VertexKeyParser.LONG).header(true).parallelism(4).batchSize(1_000).build().load(file, graph);
+
+        long edges = expected.values().stream().mapToLong(Map::size).sum();
+        assertEquals(edges, report.rows());
+        assertEquals(edges, report.addedEdges());
+        assertEquals(0, report.malformedLines());
+        assertEquals(0, report.rejectedEdges());
+        assertEquals(expected, adjacency(graph));
+    }
+
+    /**
+     * Lines of uneven length, so chunk cuts land inside lines, with a comment now and then. Every edge
+     * is distinct; <code>expected</code> receives the adjacency they make.
+     */
+    private static String edgeList(Random random, int lines, Map<Long, Map<Long, Double>> expected) {
+        StringBuilder text = new StringBuilder();
+        for (int line = 0; line < lines; line++) {
+            if (line % 1_000 == 0) text.append("# block ").append(line / 1_000).append('\n');
+            long source = line * 1_000_003L + random.nextInt(1_000);
+            // never one of the sources, so there are no self-loops
+            long destination = random.nextInt(lines) * 1_000_003L + 1_000 + random.nextInt(1_000);
+            double weight = random.nextInt(100_000) / 64.0;
+            text.append(source).append(',').append(destination).append(',').append(weight).append('\n');
+            expected.computeIfAbsent(source, key -> new HashMap<>()).put(destination, weight);
+            expected.computeIfAbsent(destination, key -> new HashMap<>());
+        }
+        return text.toString();
+    }
+
+    private Path write(String text) throws IOException {
+        return Files.writeString(Files.createTempFile(directory, "edges", ".csv"), text);
+    }
+
+    private static <T> EdgeListLoader.EdgeListLoaderBuilder<T> loader(VertexKeyParser<T> keys) {
+        return EdgeListLoader.<T>builder().keyParser(keys);
+    }
+}
@@ -0,0 +1,113 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceBounds;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceCache;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.DistanceOracleOptions;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Random;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.randomGraph;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Landmark bounds must bracket the exact distance and oracle answers must equal Dijkstra's, with any number of
+ * landmarks and any cache size; the cache must count hits and drop everything on a version change, even one
+ * that leaves the cached distance as it was.
+ */
+class DistanceOracleTest {
+
+    @Test
+    void answersMatchDijkstra() {
+        Random random = new Random(3);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 1 + random.nextInt(25);
+            GraphManager<Integer> graph = randomGraph(random, n, 0.3, () -> random.nextInt(10));
+            double[][] expected = new double[n][n];
+            for (int source = 0; source < n; source++) {
+                for (int destination = 0; destination < n; destination++) {
+                    expected[source][destination] = graph.distance(source, destination);
+                }
+            }
+            DistanceOracle<Integer> oracle = graph.enableDistanceOracle(DistanceOracleOptions.builder()
+                    .landmarkCount(1 + random.nextInt(5))
+                    .cacheSize(random.nextInt(50))
+                    .rebuildInterval(Duration.ZERO)
+                    .build());
+            for (int round = 0; round < 2; round++) {
+                for (int source = 0; source < n; source++) {
+                    for (int destination = 0; destination < n; destination++) {
+                        double distance = expected[source][destination];
+                        DistanceBounds bounds = oracle.estimate(source, destination);
+                        assertTrue(bounds.lower() <= distance && distance <= bounds.upper(), bounds + " vs " + distance);
+                        assertEquals(distance, graph.distance(source, destination));
+                        double limit = random.nextInt(20);
+                        assertEquals(distance <= limit, graph.withinDistance(source, destination, limit));
+                    }
+                }
+            }
+            graph.close();
+        }
+    }
+
+    @Test
+    void cacheCountsHitsAndInvalidatesOnWrite() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("a", "b", 2.0);
+        graph.addEdgeBetween("b", "c", 3.0);
+        DistanceOracle<String> oracle = graph.enableDistanceOracle(DistanceOracleOptions.builder()
+                .cacheSize(1)
+                .rebuildInterval(Duration.ZERO)
+                .build());
+        assertEquals(5.0, graph.distance("a", "c"));
+        assertEquals(5.0, graph.distance("a", "c"));
+        assertEquals(Double.POSITIVE_INFINITY, graph.distance("c", "a"));
+        DistanceCache.CacheMetrics metrics = oracle.cacheMetrics();
+        assertEquals(1, metrics.hits());
+        assertEquals(2, metrics.misses());
+        assertEquals(1, metrics.evictions());
+        assertEquals(1.0 / 3, metrics.hitRate(), 1e-9);
+
+        graph.addEdgeBetween("a", "c", 1.0);
+        assertFalse(oracle.isCurrent());
+        assertEquals(1.0, graph.distance("a", "c"));
+        assertEquals(1, oracle.cacheMetrics().invalidated());
+        oracle.rebuild();
+        assertEquals(graph.getVersion(), oracle.landmarks().getVersion());
+        assertTrue(graph.withinDistance("a", "c", 1.0));
+        graph.close();
+    }
+
+    @Test
+    void cachedDistanceMissesOnceAMutationBumpsTheVersion() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("a", "b", 2.0);
+        graph.addEdgeBetween("b", "c", 3.0);
+        DistanceOracle<String> oracle = graph.enableDistanceOracle(DistanceOracleOptions.builder()
+                .cacheSize(10)
+                .rebuildInterval(Duration.ZERO)
+                .build());
+        assertEquals(5.0, graph.distance("a", "c"));
+        assertEquals(5.0, graph.distance("a", "c"));
+        assertEquals(1, oracle.cacheMetrics().hits());
+        assertEquals(1, oracle.cacheMetrics().misses());
+
+        // nowhere near the cached pair, but a new version all the same
+        int version = graph.getVersion();
+        graph.addEdgeBetween("x", "y", 1.0);
+        assertTrue(graph.getVersion() > version);
+        assertEquals(5.0, graph.distance("a", "c"));
+        DistanceCache.CacheMetrics metrics = oracle.cacheMetrics();
+        assertEquals(1, metrics.hits());
+        assertEquals(2, metrics.misses());
+        assertEquals(1, metrics.invalidated());
+
+        // stored again at the new version
+        assertEquals(5.0, graph.distance("a", "c"));
+        assertEquals(2, oracle.cacheMetrics().hits());
+        graph.close();
+    }
+}
@@ -0,0 +1,140 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.randomGraph;
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.weights;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the enumeration, sequential and parallel, against a brute-force search of small random graphs under
+ * random length and weight caps.
+ */
+class PathEnumerationsTest {
+
+    @Test
+    void findsEverySimplePathWithinTheCaps() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 2 + random.nextInt(8);
+            GraphManager<Integer> graph = randomGraph(random, n, 0.7, () -> 1 + random.nextInt(5));
+            // 0 marks a missing edge; every weight is at least 1
+            double[][] weights = weights(graph, n, 0);
+            int source = random.nextInt(n);
+            int destination = (source + 1 + random.nextInt(n - 1)) % n;
+            int maxLength = random.nextBoolean() ? Integer.MAX_VALUE : 1 + random.nextInt(4);
+            double maxWeight = random.nextBoolean() ? Double.POSITIVE_INFINITY : random.nextInt(12);
+            Set<List<Integer>> expected = new HashSet<>();
+            boolean[] onPath = new boolean[n];
+            onPath[source] = true;
+            extend(weights, destination, new ArrayList<>(List.of(source)), onPath, 0, maxLength, maxWeight, expected);
+
+            for (boolean parallel : new boolean[]{false, true}) {
+                PathOptions options = PathOptions.builder()
+                        .maxLength(maxLength).maxWeight(maxWeight).parallel(parallel).build();
+                List<List<Integer>> found = graph.paths(source, destination, options).toList();
+                assertEquals(expected, new HashSet<>(found));
+                assertEquals(expected.size(), found.size());
+                assertEquals(Math.min(3, expected.size()),
+                        graph.paths(source, destination, options.toBuilder().maxPaths(3).build()).count());
+            }
+        }
+    }
+
+    @Test
+    void handlesDegenerateEndpoints() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("a", "b");
+        List<String> trivial = graph.paths("a", "a", PathOptions.defaults()).findFirst().orElseThrow();
+        assertEquals(List.of("a"), trivial);
+        // the same mutable list type as every other path
+        trivial.add("b");
+        graph.paths("a", "b", PathOptions.defaults()).findFirst().orElseThrow().add("c");
+        assertEquals(0, graph.paths("b", "a", PathOptions.defaults()).count());
+        assertEquals(0, graph.paths("a", "missing", PathOptions.defaults()).count());
+    }
+
+    @Test
+    void aSplitAfterDescendingLeavesTheParentItsOwnBranches() {
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween(0, 1);
+        graph.addEdgeBetween(0, 6);
+        for (int middle = 2; middle <= 4; middle++) {
+            graph.addEdgeBetween(1, middle);
+            graph.addEdgeBetween(middle, 5);
+        }
+        graph.addEdgeBetween(6, 5);
+        List<List<Integer>> sequential = graph.paths(0, 5, PathOptions.defaults()).toList();
+        assertEquals(4, sequential.size());
+
+        Spliterator<List<Integer>> parent = graph.paths(0, 5, PathOptions.defaults()).spliterator();
+        List<List<Integer>> found = new ArrayList<>();
+        assertTrue(parent.tryAdvance(found::add));
+        // the parent is three levels down with one edge left at the source and two at vertex 1
+        Spliterator<List<Integer>> child = parent.trySplit();
+        assertNotNull(child);
+        child.forEachRemaining(found::add);
+        parent.forEachRemaining(found::add);
+
+        assertEquals(sequential.size(), found.size());
+        assertEquals(new HashSet<>(sequential), new HashSet<>(found));
+    }
+
+    @Test
+    void splitsAtAnyPointCoverEveryPathOnce() {
+        Random random = new Random(8);
+        // five layers of four, every vertex joined to every vertex of the next layer: 4^3 paths from 0 to 20
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+        for (int layer = 0; layer < 4; layer++) {
+            for (int from = 0; from < 4; from++) {
+                for (int to = 0; to < 4; to++) {
+                    int source = layer == 0 ? 0 : layer * 4 + from;
+                    int target = layer == 3 ? 20 : (layer + 1) * 4 + to;
+                    if (!graph.containsEdge(source, target)) graph.addEdgeBetween(source, target);
+                }
+            }
+        }
+        Set<List<Integer>> sequential = new HashSet<>(graph.paths(0, 20, PathOptions.defaults()).toList());
+        assertEquals(64, sequential.size());
+
+        for (int trial = 0; trial < 50; trial++) {
+            List<Spliterator<List<Integer>>> parts = new ArrayList<>(List.of(graph.paths(0, 20, PathOptions.defaults()).spliterator()));
+            List<List<Integer>> found = new ArrayList<>();
+            // advance a random part a random number of steps, then split it, until nothing splits any more
+            for (int step = 0; step < 40; step++) {
+                Spliterator<List<Integer>> part = parts.get(random.nextInt(parts.size()));
+                for (int advance = random.nextInt(4); advance > 0; advance--) part.tryAdvance(found::add);
+                Spliterator<List<Integer>> split = part.trySplit();
+                if (split != null) parts.add(split);
+            }
+            parts.forEach(part -> part.forEachRemaining(found::add));
+            assertEquals(sequential.size(), found.size(), "trial " + trial);
+            assertEquals(sequential, new HashSet<>(found));
+        }
+
+        List<List<Integer>> parallel = graph.paths(0, 20, PathOptions.builder().parallel(true).build()).toList();
+        assertEquals(sequential.size(), parallel.size());
+        assertEquals(sequential, new HashSet<>(parallel));
+    }
+
+    private static void extend(double[][] weights, int destination, List<Integer> path, boolean[] onPath, double weight,
+                               int maxLength, double maxWeight, Set<List<Integer>> found) {
+        int last = path.get(path.size() - 1);
+        if (last == destination) {
+            if (path.size() - 1 <= maxLength && weight <= maxWeight) found.add(List.copyOf(path));
+            return;
+        }
+        for (int next = 0; next < weights.length; next++) {
+            if (weights[last][next] == 0 || onPath[next]) continue;
+            onPath[next] = true;
+            path.add(next);
+            extend(weights, destination, path, onPath, weight + weights[last][next], maxLength, maxWeight, found);
+            path.remove(path.size() - 1);
+            onPath[next] = false;
+        }
+    }
+}
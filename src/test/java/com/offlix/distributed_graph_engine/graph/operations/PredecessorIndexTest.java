@@ -0,0 +1,109 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The in-edge index kept by every edge and vertex operation, against the reverse of the adjacency rebuilt from
+ * scratch.
+ */
+class PredecessorIndexTest {
+
+    @Test
+    void followsEdgeInsertsAndRemovals() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("a", "c", 1.0);
+        graph.addEdgeBetween("b", "c", 2.0);
+        graph.addEdgeBetween("c", "a", 3.0);
+        assertEquals(Map.of("a", 1.0, "b", 2.0), graph.getPredecessors("c"));
+        assertEquals(2, graph.inDegree("c"));
+        assertEquals(Map.of(), graph.getPredecessors("b"));
+
+        graph.updateEdgeWeight("b", "c", 5.0);
+        assertEquals(Map.of("a", 1.0, "b", 5.0), graph.getPredecessors("c"));
+
+        graph.removeEdgeBetween("a", "c");
+        assertEquals(Map.of("b", 5.0), graph.getPredecessors("c"));
+        assertEquals(1, graph.inDegree("c"));
+        assertEquals(Map.of("c", 3.0), graph.getPredecessors("a"));
+    }
+
+    @Test
+    void removingAVertexDropsItsInAndOutEdges() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("hub", "x", 1.0);
+        graph.addEdgeBetween("hub", "y", 1.0);
+        graph.addEdgeBetween("y", "x", 2.0);
+        graph.addEdgeBetween("x", "hub", 3.0);
+        graph.addEdgeBetween("z", "hub", 4.0);
+
+        graph.removeVertex("hub");
+
+        // gone from every successor's in-list
+        assertEquals(Map.of("y", 2.0), graph.getPredecessors("x"));
+        assertEquals(Map.of(), graph.getPredecessors("y"));
+        // and its own in-edges are gone from its predecessors' rows
+        assertEquals(Map.of(), graph.getNeighbors("x"));
+        assertEquals(Map.of(), graph.getNeighbors("z"));
+        assertEquals(Map.of(), graph.getPredecessors("hub"));
+        assertEquals(Map.of("x", Set.of("y")), graph.reverseGraph());
+
+        // a vertex reusing the id starts with an empty in-list
+        graph.addEdgeBetween("z", "new", 5.0);
+        assertEquals(Map.of("z", 5.0), graph.getPredecessors("new"));
+        assertEquals(Map.of("y", 2.0), graph.getPredecessors("x"));
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void matchesTheReversedAdjacencyAfterRandomMutations(GraphType type) {
+        Random random = new Random(10 + type.ordinal());
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        for (int round = 0; round < 30; round++) {
+            for (int i = 0; i < 100; i++) {
+                int source = random.nextInt(60);
+                int destination = random.nextInt(60);
+                if (source == destination) continue;
+                switch (random.nextInt(10)) {
+                    case 0, 1 -> graph.removeEdgeBetween(source, destination);
+                    case 2 -> graph.updateEdgeWeight(source, destination, random.nextInt(100) / 4.0);
+                    case 3 -> {
+                        if (graph.containsVertex(source)) graph.removeVertex(source);
+                    }
+                    default -> {
+                        if (!graph.containsEdge(source, destination)) graph.addEdgeBetween(source, destination, random.nextInt(100) / 4.0);
+                    }
+                }
+            }
+            assertMatchesReversedAdjacency(graph);
+        }
+    }
+
+    private static void assertMatchesReversedAdjacency(GraphManager<Integer> graph) {
+        Map<Integer, Map<Integer, Double>> adjacency = adjacency(graph);
+        Map<Integer, Map<Integer, Double>> reversed = new HashMap<>();
+        adjacency.forEach((from, row) -> row.forEach((to, weight) ->
+                reversed.computeIfAbsent(to, key -> new HashMap<>()).put(from, weight)));
+
+        for (Integer vertex : adjacency.keySet()) {
+            Map<Integer, Double> expected = reversed.getOrDefault(vertex, Map.of());
+            assertEquals(expected, graph.getPredecessors(vertex), "predecessors of " + vertex);
+            assertEquals(expected.size(), graph.inDegree(vertex));
+        }
+        assertEquals(reversed, graph.reverseGraphWithCost());
+        Map<Integer, Set<Integer>> sources = new HashMap<>();
+        reversed.forEach((to, row) -> sources.put(to, row.keySet()));
+        assertEquals(sources, graph.reverseGraph());
+    }
+}
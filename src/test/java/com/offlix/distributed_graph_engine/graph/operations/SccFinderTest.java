@@ -0,0 +1,52 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.scc.AfforestComponentsStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.DirectedSccFinderStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.ParallelSccFinderStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.SccFinderStrategy;
+import com.offlix.distributed_graph_engine.graph.operations.scc.SccOptions;
+import com.offlix.distributed_graph_engine.graph.operations.scc.UndirectedSccFinderStrategy;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The switch between the sequential and the parallel strategy at the configured vertex count.
+ */
+class SccFinderTest {
+    private static final int VERTICES = 100;
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void switchesToTheParallelStrategyAtTheThreshold(GraphType type) {
+        Class<?> sequential = type == GraphType.DIRECTED ? DirectedSccFinderStrategy.class : UndirectedSccFinderStrategy.class;
+        Class<?> parallel = type == GraphType.DIRECTED ? ParallelSccFinderStrategy.class : AfforestComponentsStrategy.class;
+        GraphManager<Integer> graph = new GraphManager<>(type);
+        for (int vertex = 0; vertex + 1 < VERTICES; vertex++) {
+            graph.addEdgeBetween(vertex, vertex + 1);
+        }
+        graph.addEdgeBetween(VERTICES - 1, 0);
+
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            CsrSnapshot<Integer> csr = snapshot.csr();
+            assertEquals(VERTICES, csr.vertexCount());
+            SccFinder<Integer> finder = new SccFinder<>(SccOptions.builder().parallelThreshold(VERTICES + 1).build());
+            assertInstanceOf(sequential, finder.getStrategy(csr));
+            Map<Integer, ?> below = finder.find(csr);
+
+            finder.setOptions(SccOptions.builder().parallelThreshold(VERTICES).build());
+            SccFinderStrategy<Integer> atThreshold = finder.getStrategy(csr);
+            assertInstanceOf(parallel, atThreshold);
+            // one cycle through every vertex, whichever strategy finds it
+            assertEquals(1, below.size());
+            assertEquals(below.values().iterator().next(), finder.find(csr).values().iterator().next());
+        }
+    }
+}
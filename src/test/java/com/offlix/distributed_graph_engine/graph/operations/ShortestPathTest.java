@@ -0,0 +1,90 @@
+package com.offlix.distributed_graph_engine.graph.operations;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.Heuristic;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.ShortestPathTree;
+import com.offlix.distributed_graph_engine.graph.operations.shortestpath.WeightedPath;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.assertPath;
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.randomGraph;
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.weights;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks every search against Floyd–Warshall on small random graphs, and A* against Dijkstra on a grid where
+ * the Manhattan distance is a consistent heuristic.
+ */
+class ShortestPathTest {
+
+    @Test
+    void everySearchFindsTheShortestDistance() {
+        Random random = new Random(9);
+        for (int trial = 0; trial < 100; trial++) {
+            int n = 2 + random.nextInt(10);
+            GraphManager<Integer> graph = randomGraph(random, n, 0.5, () -> random.nextInt(10));
+            double[][] distance = weights(graph, n, Double.POSITIVE_INFINITY);
+            for (int vertex = 0; vertex < n; vertex++) {
+                distance[vertex][vertex] = 0;
+            }
+            for (int via = 0; via < n; via++) {
+                for (int from = 0; from < n; from++) {
+                    for (int to = 0; to < n; to++) {
+                        distance[from][to] = Math.min(distance[from][to], distance[from][via] + distance[via][to]);
+                    }
+                }
+            }
+            for (int source = 0; source < n; source++) {
+                ShortestPathTree<Integer> tree = graph.shortestPathTree(source);
+                for (int destination = 0; destination < n; destination++) {
+                    double expected = distance[source][destination];
+                    assertEquals(expected, tree.distanceTo(destination));
+                    for (Optional<WeightedPath<Integer>> found : List.of(tree.pathTo(destination),
+                            graph.shortestPath(source, destination),
+                            graph.shortestPath(source, destination, Heuristic.none()))) {
+                        if (expected == Double.POSITIVE_INFINITY) {
+                            assertTrue(found.isEmpty());
+                        } else {
+                            assertPath(graph, source, destination, expected, found.orElseThrow());
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void aStarAgreesWithDijkstraOnAGrid() {
+        int side = 30;
+        Random random = new Random(4);
+        GraphManager<Integer> grid = new GraphManager<>(GraphType.UNDIRECTED);
+        for (int row = 0; row < side; row++) {
+            for (int column = 0; column < side; column++) {
+                int vertex = row * side + column;
+                if (row + 1 < side) grid.addEdgeBetween(vertex, vertex + side, 1 + random.nextDouble());
+                if (column + 1 < side) grid.addEdgeBetween(vertex, vertex + 1, 1 + random.nextDouble());
+            }
+        }
+        Heuristic<Integer> manhattan = Heuristic.of((vertex, target) ->
+                Math.abs(vertex / side - target / side) + Math.abs(vertex % side - target % side));
+        for (int query = 0; query < 50; query++) {
+            int source = random.nextInt(side * side);
+            int destination = random.nextInt(side * side);
+            double expected = grid.shortestPathTree(source).distanceTo(destination);
+            assertPath(grid, source, destination, expected, grid.shortestPath(source, destination, manhattan).orElseThrow());
+            assertPath(grid, source, destination, expected, grid.shortestPath(source, destination).orElseThrow());
+        }
+    }
+
+    @Test
+    void rejectsNegativeWeights() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("a", "b", 2.0);
+        graph.addEdgeBetween("b", "c", -1.0);
+        assertThrows(IllegalArgumentException.class, () -> graph.shortestPath("a", "c"));
+        assertTrue(graph.shortestPath("a", "missing").isEmpty());
+    }
+}
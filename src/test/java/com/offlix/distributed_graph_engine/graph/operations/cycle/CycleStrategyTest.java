@@ -0,0 +1,123 @@
+package com.offlix.distributed_graph_engine.graph.operations.cycle;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks Johnson's enumeration against a brute-force search of small random digraphs, and the undirected
+ * basis against its defining properties: E - V + C simple cycles over existing edges.
+ */
+class CycleStrategyTest {
+
+    @Test
+    void enumeratesEveryElementaryCircuitOnce() {
+        Random random = new Random(1);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 2 + random.nextInt(7);
+            boolean[][] edges = new boolean[n][n];
+            GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+            for (int vertex = 0; vertex < n; vertex++) graph.addVertex(vertex);
+            double density = random.nextDouble() * 0.6;
+            for (int from = 0; from < n; from++) {
+                for (int to = 0; to < n; to++) {
+                    if (from != to && random.nextDouble() < density) {
+                        edges[from][to] = true;
+                        graph.addEdgeBetween(from, to);
+                    }
+                }
+            }
+            Set<List<Integer>> expected = bruteForceCircuits(edges);
+            int maxLength = random.nextBoolean() ? Integer.MAX_VALUE : 2 + random.nextInt(3);
+            List<List<Integer>> found = graph.cycles(CycleOptions.builder().maxLength(maxLength).build()).toList();
+
+            assertEquals(expected.stream().filter(cycle -> cycle.size() <= maxLength).collect(Collectors.toSet()),
+                    found.stream().map(CycleStrategyTest::rotateToMinimum).collect(Collectors.toSet()));
+            assertEquals(found.size(), new HashSet<>(found).size());
+            assertEquals(!expected.isEmpty(), graph.containCycle());
+        }
+    }
+
+    @Test
+    void stopsAtTheCap() {
+        GraphManager<Integer> complete = new GraphManager<>(GraphType.DIRECTED);
+        for (int from = 0; from < 12; from++) {
+            for (int to = 0; to < 12; to++) {
+                if (from != to) complete.addEdgeBetween(from, to);
+            }
+        }
+        assertEquals(100, complete.cycles(CycleOptions.builder().maxCycles(100).build()).count());
+        assertTrue(complete.cycles(CycleOptions.builder().maxLength(3).build()).allMatch(cycle -> cycle.size() <= 3));
+    }
+
+    @Test
+    void listsAFundamentalCycleBasis() {
+        Random random = new Random(2);
+        for (int trial = 0; trial < 200; trial++) {
+            int n = 2 + random.nextInt(12);
+            boolean[][] edges = new boolean[n][n];
+            GraphManager<Integer> graph = new GraphManager<>(GraphType.UNDIRECTED);
+            for (int vertex = 0; vertex < n; vertex++) graph.addVertex(vertex);
+            double density = random.nextDouble() * 0.5;
+            int edgeCount = 0;
+            for (int from = 0; from < n; from++) {
+                for (int to = from + 1; to < n; to++) {
+                    if (random.nextDouble() < density) {
+                        edges[from][to] = edges[to][from] = true;
+                        graph.addEdgeBetween(from, to);
+                        edgeCount++;
+                    }
+                }
+            }
+            int rank = edgeCount - n + (int) graph.componentCount();
+            List<List<Integer>> basis = graph.cycles(CycleOptions.defaults()).toList();
+
+            assertEquals(rank, basis.size());
+            assertEquals(rank > 0, graph.containCycle());
+            for (List<Integer> cycle : basis) {
+                assertTrue(cycle.size() >= 3);
+                assertEquals(cycle.size(), new HashSet<>(cycle).size());
+                for (int i = 0; i < cycle.size(); i++) {
+                    assertTrue(edges[cycle.get(i)][cycle.get((i + 1) % cycle.size())]);
+                }
+            }
+        }
+    }
+
+    private static Set<List<Integer>> bruteForceCircuits(boolean[][] edges) {
+        Set<List<Integer>> circuits = new HashSet<>();
+        for (int start = 0; start < edges.length; start++) {
+            extend(edges, start, new ArrayList<>(List.of(start)), circuits);
+        }
+        return circuits;
+    }
+
+    // only paths through vertices above the start, so each circuit is found from its minimum
+    private static void extend(boolean[][] edges, int start, List<Integer> path, Set<List<Integer>> circuits) {
+        int last = path.get(path.size() - 1);
+        for (int next = 0; next < edges.length; next++) {
+            if (!edges[last][next]) continue;
+            if (next == start) {
+                circuits.add(List.copyOf(path));
+            } else if (next > start && !path.contains(next)) {
+                path.add(next);
+                extend(edges, start, path, circuits);
+                path.remove(path.size() - 1);
+            }
+        }
+    }
+
+    private static List<Integer> rotateToMinimum(List<Integer> cycle) {
+        int offset = cycle.indexOf(Collections.min(cycle));
+        List<Integer> rotated = new ArrayList<>(cycle.size());
+        for (int i = 0; i < cycle.size(); i++) {
+            rotated.add(cycle.get((offset + i) % cycle.size()));
+        }
+        return rotated;
+    }
+}
@@ -0,0 +1,64 @@
+package com.offlix.distributed_graph_engine.graph.operations.scc;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the Afforest strategy against {@link UndirectedSccFinderStrategy} on random graphs around the
+ * percolation threshold: one giant component next to many small ones, so both the sampled rounds and the
+ * skipped giant are exercised.
+ */
+class AfforestComponentsStrategyTest {
+
+    @Test
+    void labelsLikeTheSequentialPass() {
+        SccOptions options = SccOptions.builder().parallelism(4).build();
+        for (long seed = 0; seed < 5; seed++) {
+            GraphManager<Integer> graph = random(20_000, 1.2 + seed * 0.2, seed);
+            try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+                CsrSnapshot<Integer> csr = snapshot.csr();
+                Components sequential = new UndirectedSccFinderStrategy<Integer>().components(csr);
+                Components parallel = new AfforestComponentsStrategy<Integer>(options).components(csr);
+                assertTrue(sequential.count() > 1 && sequential.count() < csr.vertexCount());
+                // both number components by their first vertex, so the labels match exactly
+                assertArrayEquals(sequential.componentOf(), parallel.componentOf());
+                assertEquals(sequential.toMap(csr), parallel.toMap(csr));
+            }
+        }
+    }
+
+    @Test
+    void isPickedAboveTheThreshold() {
+        GraphManager<Integer> graph = random(5_000, 1.5, 11);
+        graph.setSccOptions(SccOptions.builder().parallelThreshold(1).build());
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            CsrSnapshot<Integer> csr = snapshot.csr();
+            Components parallel = graph.sccComponents(csr);
+            assertArrayEquals(new UndirectedSccFinderStrategy<Integer>().components(csr).componentOf(),
+                    parallel.componentOf());
+            assertEquals(parallel.count(), parallel.toMap(csr).size());
+        }
+    }
+
+    /**
+     * Undirected graph on <code>vertices</code> vertices with about <code>averageDegree * vertices / 2</code>
+     * uniformly random edges. Duplicates and self-loops are rejected by the batch insert.
+     */
+    private static GraphManager<Integer> random(int vertices, double averageDegree, long seed) {
+        Random random = new Random(seed);
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.UNDIRECTED);
+        graph.addVertices(Stream.iterate(0, i -> i < vertices, i -> i + 1).toList());
+        graph.addEdges(Stream.generate(() -> new EdgeSpec<>(random.nextInt(vertices), random.nextInt(vertices), 1.0))
+                .limit((long) (averageDegree * vertices / 2)));
+        return graph;
+    }
+}
@@ -0,0 +1,88 @@
+package com.offlix.distributed_graph_engine.graph.operations.scc;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The iterative Pearce pass on paths deep enough to overflow any recursive DFS, and against pairwise reachability
+ * on small random graphs.
+ */
+class DirectedSccFinderStrategyTest {
+    private static final int DEEP = 1_000_000;
+
+    @Test
+    void findsOneComponentInAMillionVertexCycle() {
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdges(IntStream.range(0, DEEP).mapToObj(i -> EdgeSpec.of(i, (i + 1) % DEEP)));
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            Components components = new DirectedSccFinderStrategy<Integer>().components(snapshot.csr());
+            assertEquals(1, components.count());
+            assertEquals(DEEP, components.size(0));
+        }
+    }
+
+    @Test
+    void findsAComponentPerVertexInAMillionVertexChain() {
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdges(IntStream.range(0, DEEP - 1).mapToObj(i -> EdgeSpec.of(i, i + 1)));
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            CsrSnapshot<Integer> csr = snapshot.csr();
+            Components components = new DirectedSccFinderStrategy<Integer>().components(csr);
+            assertEquals(DEEP, components.count());
+            // reverse topological order: the end of the chain is finished first
+            assertEquals(0, components.componentOf(csr.indexOf(DEEP - 1)));
+            assertEquals(DEEP - 1, components.componentOf(csr.indexOf(0)));
+        }
+    }
+
+    @Test
+    void partitionsLikePairwiseReachability() {
+        Random random = new Random(16);
+        for (int trial = 0; trial < 300; trial++) {
+            int n = 1 + random.nextInt(12);
+            GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+            for (int vertex = 0; vertex < n; vertex++) {
+                graph.addVertex(vertex);
+            }
+            double density = random.nextDouble() * 0.4;
+            boolean[][] reaches = new boolean[n][n];
+            for (int from = 0; from < n; from++) {
+                reaches[from][from] = true;
+                for (int to = 0; to < n; to++) {
+                    if (from != to && random.nextDouble() < density) {
+                        graph.addEdgeBetween(from, to);
+                        reaches[from][to] = true;
+                    }
+                }
+            }
+            for (int via = 0; via < n; via++) {
+                for (int from = 0; from < n; from++) {
+                    for (int to = 0; to < n; to++) {
+                        reaches[from][to] |= reaches[from][via] && reaches[via][to];
+                    }
+                }
+            }
+
+            try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+                CsrSnapshot<Integer> csr = snapshot.csr();
+                Components components = new DirectedSccFinderStrategy<Integer>().components(csr);
+                for (int first = 0; first < n; first++) {
+                    for (int second = 0; second < n; second++) {
+                        boolean together = components.componentOf(csr.indexOf(first)) == components.componentOf(csr.indexOf(second));
+                        assertEquals(reaches[first][second] && reaches[second][first], together,
+                                "trial " + trial + ": " + first + " and " + second);
+                    }
+                }
+            }
+        }
+    }
+}
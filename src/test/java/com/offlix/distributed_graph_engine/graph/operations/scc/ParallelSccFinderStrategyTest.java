@@ -0,0 +1,129 @@
+package com.offlix.distributed_graph_engine.graph.operations.scc;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.EdgeSpec;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestReporter;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks the parallel strategy against {@link DirectedSccFinderStrategy} on R-MAT graphs, whose skewed degrees
+ * and one giant component are what the parallel strategy is built for.
+ * <p>
+ * The speedup benchmark runs only on request, and publishes its timings to the test report:
+ * <code>mvn test -Dtest=ParallelSccFinderStrategyTest -Dscc.benchmark=true [-Dscc.benchmark.scale=21]
+ * [-Dscc.benchmark.minSpeedup=1.5]</code>
+ */
+class ParallelSccFinderStrategyTest {
+
+    @Test
+    void findsTheSamePartitionAsTheSequentialPass() {
+        GraphManager<Integer> graph = rmat(13, 6, 7);
+        // a low cutoff so forward-backward splits several times instead of handing off at once
+        SccOptions options = SccOptions.builder().parallelism(4).sequentialCutoff(64).build();
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            CsrSnapshot<Integer> csr = snapshot.csr();
+            Components sequential = new DirectedSccFinderStrategy<Integer>().components(csr);
+            Components parallel = new ParallelSccFinderStrategy<Integer>(options).components(csr);
+            assertTrue(sequential.count() > 1 && sequential.count() < csr.vertexCount());
+            assertSamePartition(sequential, parallel);
+        }
+    }
+
+    @Test
+    void isPickedAboveTheThreshold() {
+        GraphManager<Integer> graph = rmat(10, 4, 3);
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            CsrSnapshot<Integer> csr = snapshot.csr();
+            Components sequential = graph.sccComponents(csr);
+            graph.setSccOptions(SccOptions.builder().parallelThreshold(1).build());
+            Components parallel = graph.sccComponents(csr);
+            assertSamePartition(sequential, parallel);
+            assertEquals(sequential.toMap(csr).size(), graph.sccComponents(csr).toMap(csr).size());
+        }
+    }
+
+    @Test
+    @EnabledIfSystemProperty(named = "scc.benchmark", matches = "true")
+    void benchmarkAgainstSequential(TestReporter report) {
+        int scale = Integer.getInteger("scc.benchmark.scale", 20);
+        GraphManager<Integer> graph = rmat(scale, 16, 42);
+        try (GraphSnapshot<Integer> snapshot = graph.snapshot()) {
+            CsrSnapshot<Integer> csr = snapshot.csr();
+            SccFinderStrategy<Integer> sequential = new DirectedSccFinderStrategy<>();
+            SccFinderStrategy<Integer> parallel = new ParallelSccFinderStrategy<>(SccOptions.defaults());
+            assertSamePartition(sequential.components(csr), parallel.components(csr));
+
+            long sequentialNanos = fastestOf(5, () -> sequential.components(csr));
+            long parallelNanos = fastestOf(5, () -> parallel.components(csr));
+            double speedup = (double) sequentialNanos / parallelNanos;
+            report.publishEntry(Map.of(
+                    "graph", "R-MAT scale " + scale + ", " + csr.vertexCount() + " vertices, " + csr.adjacencyCount() + " edges",
+                    "cores", String.valueOf(Runtime.getRuntime().availableProcessors()),
+                    "sequentialMillis", String.format("%.1f", sequentialNanos / 1e6),
+                    "parallelMillis", String.format("%.1f", parallelNanos / 1e6),
+                    "speedup", String.format("%.2f", speedup)));
+            double minSpeedup = Double.parseDouble(System.getProperty("scc.benchmark.minSpeedup", "0"));
+            assertTrue(speedup >= minSpeedup, String.format("speedup %.2f below %.2f", speedup, minSpeedup));
+        }
+    }
+
+    /**
+     * The fastest of <code>runs</code> timed runs, so JIT warm-up and stray pauses drop out.
+     */
+    private static long fastestOf(int runs, Runnable run) {
+        long fastest = Long.MAX_VALUE;
+        for (int i = 0; i < runs; i++) {
+            long start = System.nanoTime();
+            run.run();
+            fastest = Math.min(fastest, System.nanoTime() - start);
+        }
+        return fastest;
+    }
+
+    private static void assertSamePartition(Components expected, Components actual) {
+        assertEquals(expected.count(), actual.count());
+        int[] mapped = new int[expected.count()];
+        Arrays.fill(mapped, -1);
+        for (int vertex = 0; vertex < expected.componentOf().length; vertex++) {
+            int component = expected.componentOf(vertex);
+            if (mapped[component] < 0) mapped[component] = actual.componentOf(vertex);
+            assertEquals(mapped[component], actual.componentOf(vertex), "vertex " + vertex);
+        }
+    }
+
+    /**
+     * Directed R-MAT graph (a=0.57, b=c=0.19) with <code>2^scale</code> vertices, deduplicated, without self-loops.
+     */
+    private static GraphManager<Integer> rmat(int scale, int edgeFactor, long seed) {
+        Random random = new Random(seed);
+        long[] packed = new long[(edgeFactor << scale)];
+        for (int i = 0; i < packed.length; i++) {
+            int source = 0;
+            int destination = 0;
+            for (int bit = 0; bit < scale; bit++) {
+                double p = random.nextDouble();
+                int down = p >= 0.57 + 0.19 ? 1 : 0;
+                int right = p >= 0.57 && p < 0.57 + 0.19 || p >= 0.57 + 0.19 + 0.19 ? 1 : 0;
+                source = source << 1 | down;
+                destination = destination << 1 | right;
+            }
+            packed[i] = (long) source << 32 | destination;
+        }
+        GraphManager<Integer> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdges(LongStream.of(packed).sorted().distinct()
+                .filter(edge -> (int) (edge >>> 32) != (int) edge)
+                .mapToObj(edge -> new EdgeSpec<>((int) (edge >>> 32), (int) edge, 1.0)));
+        return graph;
+    }
+}
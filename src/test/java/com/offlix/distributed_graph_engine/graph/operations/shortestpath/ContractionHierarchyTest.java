@@ -0,0 +1,77 @@
+package com.offlix.distributed_graph_engine.graph.operations.shortestpath;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.CsrSnapshot;
+import com.offlix.distributed_graph_engine.graph.core.GraphSnapshot;
+import com.offlix.distributed_graph_engine.graph.operations.RouteIndex;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.assertPath;
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.randomGraph;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compares hierarchy routes with bidirectional Dijkstra on random graphs, including tiny witness limits that
+ * force superfluous shortcuts, and checks that the route index never answers from a stale version.
+ */
+class ContractionHierarchyTest {
+
+    @Test
+    void routesMatchDijkstra() {
+        Random random = new Random(5);
+        for (int trial = 0; trial < 150; trial++) {
+            int n = 2 + random.nextInt(30);
+            GraphManager<Integer> graph = randomGraph(random, n, 0.3, () -> random.nextInt(10));
+            ContractionOptions options = ContractionOptions.builder().witnessSettleLimit(1 + random.nextInt(20)).build();
+            ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(csr(graph), options);
+            for (int source = 0; source < n; source++) {
+                for (int destination = 0; destination < n; destination++) {
+                    Optional<WeightedPath<Integer>> expected = graph.shortestPath(source, destination);
+                    Optional<WeightedPath<Integer>> routed = hierarchy.route(source, destination);
+                    assertEquals(expected.isPresent(), routed.isPresent());
+                    if (routed.isPresent()) {
+                        assertPath(graph, source, destination, expected.get().weight(), routed.get());
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    void routeIndexFallsBackUntilRebuilt() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.UNDIRECTED);
+        graph.addEdgeBetween("a", "b", 4.0);
+        graph.addEdgeBetween("b", "c", 4.0);
+        RouteIndex<String> index = graph.enableRouteIndex(ContractionOptions.builder().rebuildInterval(Duration.ZERO).build());
+        assertEquals(graph.getVersion(), index.hierarchy().getVersion());
+        assertEquals(8.0, graph.route("a", "c").orElseThrow().weight());
+
+        graph.addEdgeBetween("a", "c", 1.0);
+        assertFalse(index.isCurrent());
+        assertEquals(List.of("a", "c"), graph.route("a", "c").orElseThrow().vertices());
+
+        index.rebuild();
+        assertTrue(index.isCurrent());
+        assertEquals(List.of("c", "a"), graph.route("c", "a").orElseThrow().vertices());
+        graph.close();
+    }
+
+    @Test
+    void rejectsNegativeWeights() {
+        GraphManager<String> graph = new GraphManager<>(GraphType.DIRECTED);
+        graph.addEdgeBetween("a", "b", -1.0);
+        assertThrows(IllegalArgumentException.class, () -> ContractionHierarchy.build(csr(graph), ContractionOptions.defaults()));
+    }
+
+    private static <T> CsrSnapshot<T> csr(GraphManager<T> graph) {
+        try (GraphSnapshot<T> snapshot = graph.snapshot()) {
+            return snapshot.csr();
+        }
+    }
+}
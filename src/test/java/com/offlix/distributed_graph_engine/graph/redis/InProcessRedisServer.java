@@ -0,0 +1,250 @@
+package com.offlix.distributed_graph_engine.graph.redis;
+
+import java.io.*;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Just enough of Redis, speaking RESP2 on a loopback port, for {@link RedisGraphStore} to run against
+ * the real Lettuce client without a Redis installation: hashes, sets, <code>DEL</code>, <code>SSCAN</code>
+ * and the connection handshake. Commands run one at a time, like in Redis.
+ */
+final class InProcessRedisServer implements AutoCloseable {
+    private final ServerSocket server;
+    private final Map<ByteBuffer, Object> data = new HashMap<>();
+    private final Map<String, AtomicLong> calls = new ConcurrentHashMap<>();
+    private final List<Socket> clients = Collections.synchronizedList(new ArrayList<>());
+
+    InProcessRedisServer() throws IOException {
+        server = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+        Thread acceptor = new Thread(this::accept, "redis-stand-in");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    int port() {
+        return server.getLocalPort();
+    }
+
+    long calls(String command) {
+        AtomicLong count = calls.get(command);
+        return count == null ? 0 : count.get();
+    }
+
+    synchronized Set<String> keys() {
+        Set<String> keys = new TreeSet<>();
+        data.keySet().forEach(key -> keys.add(StandardCharsets.ISO_8859_1.decode(key.duplicate()).toString()));
+        return keys;
+    }
+
+    @Override
+    public void close() throws IOException {
+        server.close();
+        synchronized (clients) {
+            for (Socket client : clients) client.close();
+        }
+    }
+
+    private void accept() {
+        while (!server.isClosed()) {
+            try {
+                Socket client = server.accept();
+                clients.add(client);
+                Thread connection = new Thread(() -> serve(client), "redis-stand-in-client");
+                connection.setDaemon(true);
+                connection.start();
+            } catch (IOException closed) {
+                return;
+            }
+        }
+    }
+
+    private void serve(Socket client) {
+        try (client;
+             DataInputStream in = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+             OutputStream out = new BufferedOutputStream(client.getOutputStream())) {
+            while (true) {
+                List<byte[]> command = readCommand(in);
+                if (command == null) return;
+                execute(command, out);
+                if (in.available() == 0) out.flush();
+            }
+        } catch (IOException disconnected) {
+            // client went away
+        }
+    }
+
+    private static List<byte[]> readCommand(DataInputStream in) throws IOException {
+        String header = readLine(in);
+        if (header == null) return null;
+        if (header.charAt(0) != '*') throw new IOException("Expected an array, got " + header);
+        int count = Integer.parseInt(header.substring(1));
+        List<byte[]> arguments = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String length = readLine(in);
+            byte[] argument = new byte[Integer.parseInt(length.substring(1))];
+            in.readFully(argument);
+            in.readFully(new byte[2]);
+            arguments.add(argument);
+        }
+        return arguments;
+    }
+
+    private static String readLine(DataInputStream in) throws IOException {
+        StringBuilder line = new StringBuilder();
+        int b;
+        while ((b = in.read()) != '\r') {
+            if (b < 0) return null;
+            line.append((char) b);
+        }
+        in.read();
+        return line.toString();
+    }
+
+    private synchronized void execute(List<byte[]> command, OutputStream out) throws IOException {
+        String name = new String(command.get(0), StandardCharsets.US_ASCII).toUpperCase(Locale.ROOT);
+        calls.computeIfAbsent(name, key -> new AtomicLong()).incrementAndGet();
+        switch (name) {
+            case "PING" -> simple(out, "PONG");
+            case "CLIENT", "SELECT" -> simple(out, "OK");
+            case "HSET", "HMSET" -> {
+                Map<ByteBuffer, byte[]> hash = hash(command.get(1), true);
+                int added = 0;
+                for (int i = 2; i + 1 < command.size(); i += 2) {
+                    if (hash.put(ByteBuffer.wrap(command.get(i)), command.get(i + 1)) == null) added++;
+                }
+                if (name.equals("HMSET")) simple(out, "OK");
+                else integer(out, added);
+            }
+            case "HDEL" -> {
+                Map<ByteBuffer, byte[]> hash = hash(command.get(1), false);
+                int removed = 0;
+                for (int i = 2; hash != null && i < command.size(); i++) {
+                    if (hash.remove(ByteBuffer.wrap(command.get(i))) != null) removed++;
+                }
+                dropIfEmpty(command.get(1));
+                integer(out, removed);
+            }
+            case "HGETALL" -> {
+                Map<ByteBuffer, byte[]> hash = hash(command.get(1), false);
+                List<byte[]> reply = new ArrayList<>();
+                if (hash != null) hash.forEach((field, value) -> {
+                    reply.add(bytes(field));
+                    reply.add(value);
+                });
+                array(out, reply);
+            }
+            case "HKEYS" -> {
+                Map<ByteBuffer, byte[]> hash = hash(command.get(1), false);
+                array(out, hash == null ? List.of() : hash.keySet().stream().map(InProcessRedisServer::bytes).toList());
+            }
+            case "SADD" -> {
+                Set<ByteBuffer> set = set(command.get(1), true);
+                int added = 0;
+                for (int i = 2; i < command.size(); i++) {
+                    if (set.add(ByteBuffer.wrap(command.get(i)))) added++;
+                }
+                integer(out, added);
+            }
+            case "SREM" -> {
+                Set<ByteBuffer> set = set(command.get(1), false);
+                int removed = 0;
+                for (int i = 2; set != null && i < command.size(); i++) {
+                    if (set.remove(ByteBuffer.wrap(command.get(i)))) removed++;
+                }
+                dropIfEmpty(command.get(1));
+                integer(out, removed);
+            }
+            case "SMEMBERS" -> {
+                Set<ByteBuffer> set = set(command.get(1), false);
+                array(out, set == null ? List.of() : set.stream().map(InProcessRedisServer::bytes).toList());
+            }
+            case "SSCAN" -> sscan(command, out);
+            case "DEL" -> {
+                int removed = 0;
+                for (int i = 1; i < command.size(); i++) {
+                    if (data.remove(ByteBuffer.wrap(command.get(i))) != null) removed++;
+                }
+                integer(out, removed);
+            }
+            default -> error(out, "ERR unknown command '" + name + "'");
+        }
+    }
+
+    /**
+     * Honors <code>COUNT</code>, so a scan really takes several calls; the cursor is a position in insertion order.
+     */
+    private void sscan(List<byte[]> command, OutputStream out) throws IOException {
+        Set<ByteBuffer> set = set(command.get(1), false);
+        List<ByteBuffer> members = set == null ? List.of() : new ArrayList<>(set);
+        int cursor = Integer.parseInt(new String(command.get(2), StandardCharsets.US_ASCII));
+        int count = 10;
+        for (int i = 3; i + 1 < command.size(); i += 2) {
+            if (new String(command.get(i), StandardCharsets.US_ASCII).equalsIgnoreCase("COUNT")) {
+                count = Integer.parseInt(new String(command.get(i + 1), StandardCharsets.US_ASCII));
+            }
+        }
+        int end = Math.min(members.size(), cursor + count);
+        int next = end == members.size() ? 0 : end;
+        out.write(("*2\r\n").getBytes(StandardCharsets.US_ASCII));
+        bulk(out, Integer.toString(next).getBytes(StandardCharsets.US_ASCII));
+        array(out, members.subList(Math.min(cursor, end), end).stream().map(InProcessRedisServer::bytes).toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<ByteBuffer, byte[]> hash(byte[] key, boolean create) {
+        return (Map<ByteBuffer, byte[]>) (create
+                ? data.computeIfAbsent(ByteBuffer.wrap(key), k -> new LinkedHashMap<ByteBuffer, byte[]>())
+                : data.get(ByteBuffer.wrap(key)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<ByteBuffer> set(byte[] key, boolean create) {
+        return (Set<ByteBuffer>) (create
+                ? data.computeIfAbsent(ByteBuffer.wrap(key), k -> new LinkedHashSet<ByteBuffer>())
+                : data.get(ByteBuffer.wrap(key)));
+    }
+
+    private void dropIfEmpty(byte[] key) {
+        Object value = data.get(ByteBuffer.wrap(key));
+        if (value instanceof Collection<?> set && set.isEmpty() || value instanceof Map<?, ?> hash && hash.isEmpty()) {
+            data.remove(ByteBuffer.wrap(key));
+        }
+    }
+
+    private static byte[] bytes(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static void simple(OutputStream out, String text) throws IOException {
+        out.write(("+" + text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void error(OutputStream out, String text) throws IOException {
+        out.write(("-" + text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void integer(OutputStream out, long value) throws IOException {
+        out.write((":" + value + "\r\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static void bulk(OutputStream out, byte[] value) throws IOException {
+        out.write(("$" + value.length + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.write(value);
+        out.write('\r');
+        out.write('\n');
+    }
+
+    private static void array(OutputStream out, List<byte[]> values) throws IOException {
+        out.write(("*" + values.size() + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        for (byte[] value : values) bulk(out, value);
+    }
+}
@@ -0,0 +1,131 @@
+package com.offlix.distributed_graph_engine.graph.redis;
+
+import com.offlix.distributed_graph_engine.domain.GraphType;
+import com.offlix.distributed_graph_engine.graph.GraphManager;
+import com.offlix.distributed_graph_engine.graph.core.storage.VertexKeyCodec;
+import io.lettuce.core.ClientOptions;
+import io.lettuce.core.protocol.ProtocolVersion;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceClientConfiguration;
+import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Random;
+
+import static com.offlix.distributed_graph_engine.graph.GraphFixtures.adjacency;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedisGraphStoreTest {
+    private InProcessRedisServer redis;
+    private LettuceConnectionFactory connections;
+
+    @BeforeEach
+    void startRedis() throws Exception {
+        redis = new InProcessRedisServer();
+        LettuceClientConfiguration client = LettuceClientConfiguration.builder()
+                .clientOptions(ClientOptions.builder().protocolVersion(ProtocolVersion.RESP2).build())
+                .build();
+        connections = new LettuceConnectionFactory(new RedisStandaloneConfiguration("127.0.0.1", redis.port()), client);
+        connections.afterPropertiesSet();
+        connections.start();
+    }
+
+    @AfterEach
+    void stopRedis() throws Exception {
+        connections.destroy();
+        redis.close();
+    }
+
+    @Test
+    void coalescesWritesIntoFewRoundTripsAndReloadsTheSameGraph() {
+        // no timed flushes, so the round trips counted come from the pending-mutation bound alone
+        RedisStoreOptions options = RedisStoreOptions.builder().flushInterval(Duration.ofHours(1)).maxPendingMutations(1_024).build();
+        Map<Long, Map<Long, Double>> written;
+        int version;
+        try (RedisGraphStore<Long> store = RedisGraphStore.open(connections, GraphType.DIRECTED, VertexKeyCodec.LONG, options)) {
+            GraphManager<Long> graph = store.graph();
+            Random random = new Random(11);
+            for (int i = 0; i < 5_000; i++) {
+                long source = random.nextInt(300);
+                long destination = random.nextInt(300);
+                if (source == destination || graph.containsEdge(source, destination)) continue;
+                graph.addEdgeBetween(source, destination, random.nextInt(50) / 2.0);
+                if (i % 7 == 0) graph.removeEdgeBetween(source, destination);
+            }
+            store.flush();
+
+            RedisGraphStore.WriteMetrics metrics = store.metrics();
+            assertTrue(metrics.mutations() > 5_000);
+            assertTrue(metrics.roundTrips() * 100 < metrics.mutations(),
+                    metrics.roundTrips() + " round trips for " + metrics.mutations() + " mutations");
+            written = adjacency(graph);
+            version = graph.getVersion();
+        }
+
+        try (RedisGraphStore<Long> reopened = RedisGraphStore.open(connections, GraphType.DIRECTED, VertexKeyCodec.LONG)) {
+            assertEquals(written, adjacency(reopened.graph()));
+            assertEquals(version, reopened.graph().getVersion());
+        }
+    }
+
+    @ParameterizedTest
+    @EnumSource(GraphType.class)
+    void removedVertexIsCutOutOfEveryRow(GraphType type) {
+        Map<String, Map<String, Double>> written;
+        try (RedisGraphStore<String> store = RedisGraphStore.open(connections, type, VertexKeyCodec.STRING)) {
+            GraphManager<String> graph = store.graph();
+            graph.addEdgeBetween("DEL", "BLR", 150.0);
+            graph.addEdgeBetween("CCU", "DEL", 130.0);
+            graph.addEdgeBetween("BLR", "HYD", 60.0);
+            graph.addEdgeBetween("HYD", "DEL", 45.0);
+            store.flush();
+
+            graph.removeVertex("DEL");
+            graph.addEdgeBetween("MUM", "BLR", 20.0);
+            graph.addEdgeBetween("CCU", "DEL", 12.5);
+            store.flush();
+
+            graph.addEdgeBetween("GOA", "HYD", 5.0);
+            graph.removeVertex("GOA");
+            written = adjacency(graph);
+        }
+        assertFalse(written.containsKey("GOA"));
+
+        try (RedisGraphStore<String> reopened = RedisGraphStore.open(connections, type, VertexKeyCodec.STRING)) {
+            assertEquals(written, adjacency(reopened.graph()));
+        }
+    }
+
+    @Test
+    void loadsPageByPage() {
+        RedisStoreOptions options = RedisStoreOptions.builder().keyPrefix("paged").loadPageSize(16).build();
+        try (RedisGraphStore<Integer> store = RedisGraphStore.open(connections, GraphType.UNDIRECTED, VertexKeyCodec.INTEGER, options)) {
+            for (int vertex = 1; vertex < 100; vertex++) {
+                store.graph().addEdgeBetween(vertex, vertex / 2, vertex);
+            }
+        }
+        long scansBefore = redis.calls("SSCAN");
+
+        try (RedisGraphStore<Integer> reopened = RedisGraphStore.open(connections, GraphType.UNDIRECTED, VertexKeyCodec.INTEGER, options)) {
+            assertEquals(100, reopened.graph().stats().vertexCount());
+            assertEquals(99, reopened.graph().stats().edgeCount());
+            assertEquals(Map.of(1, 2.0, 4, 4.0, 5, 5.0), reopened.graph().getNeighbors(2));
+        }
+        assertTrue(redis.calls("SSCAN") - scansBefore >= 100 / 16);
+    }
+
+    @Test
+    void refusesAGraphOfAnotherType() {
+        try (RedisGraphStore<Long> store = RedisGraphStore.open(connections, GraphType.DIRECTED, VertexKeyCodec.LONG)) {
+            store.graph().addEdgeBetween(1L, 2L);
+        }
+        assertThrows(IllegalStateException.class,
+                () -> RedisGraphStore.open(connections, GraphType.UNDIRECTED, VertexKeyCodec.LONG));
+    }
+}